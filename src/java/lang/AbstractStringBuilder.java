@@ -737,6 +737,17 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
         return this;
     }
 
+    /**
+     * Appends the shortest decimal representation of {@code d}, see
+     * {@link Double#formatTo(double, char[], int)}, formatting straight
+     * into the value array.
+     */
+    AbstractStringBuilder appendShortest(double d) {
+        ensureCapacityInternal(count + DoubleToDecimal.MAX_CHARS);
+        count = DoubleToDecimal.putDecimal(d, value, count);
+        return this;
+    }
+
     /**
      * Removes the characters in a substring of this sequence.
      * The substring begins at the specified {@code start} and extends to
@@ -204,6 +204,86 @@ public final class Double extends Number implements Comparable<Double> {
         return FloatingDecimal.toJavaFormatString(d);
     }
 
+    /**
+     * Writes the shortest decimal representation of the argument into a
+     * character array, without creating a {@code String}.
+     *
+     * <p>The layout is that of {@link #toString(double)}, but the digits
+     * are those of the decimal with the fewest significant digits that
+     * rounds to {@code d}; when several qualify, the one closest to
+     * {@code d} is chosen, and among two equally close ones the one
+     * with an even last digit.  The result therefore always parses back
+     * to {@code d}, and may be shorter than {@code toString(d)}, for
+     * example {@code 1.0E23} rather than {@code 9.999999999999999E22}.
+     * At most 24 characters are written.
+     *
+     * @param   d       the {@code double} to be converted.
+     * @param   dst     the destination array.
+     * @param   offset  the index in {@code dst} of the first character.
+     * @return  the index in {@code dst} following the last character
+     *          written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative or
+     *          the representation does not fit in {@code dst}; nothing
+     *          is written in that case.
+     */
+    public static int formatTo(double d, char[] dst, int offset) {
+        return DoubleToDecimal.formatTo(d, dst, offset);
+    }
+
+    /**
+     * Writes the shortest decimal representation of the argument into a
+     * byte array as ASCII.  The characters are those written by
+     * {@link #formatTo(double, char[], int)}.
+     *
+     * @param   d       the {@code double} to be converted.
+     * @param   dst     the destination array.
+     * @param   offset  the index in {@code dst} of the first byte.
+     * @return  the index in {@code dst} following the last byte written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative or
+     *          the representation does not fit in {@code dst}; nothing
+     *          is written in that case.
+     */
+    public static int formatTo(double d, byte[] dst, int offset) {
+        return DoubleToDecimal.formatTo(d, dst, offset);
+    }
+
+    /**
+     * Writes the shortest decimal representation of the argument into a
+     * byte buffer as ASCII, starting at its current position, and
+     * advances the position past the bytes written.  The characters are
+     * those written by {@link #formatTo(double, char[], int)}.
+     *
+     * <p>If the buffer overflows, neither its position nor its content
+     * is changed.
+     *
+     * @param   d     the {@code double} to be converted.
+     * @param   dst   the destination buffer.
+     * @return  {@code dst}.
+     * @throws  java.nio.BufferOverflowException if fewer bytes than
+     *          required remain in {@code dst}.
+     * @throws  java.nio.ReadOnlyBufferException if {@code dst} is
+     *          read-only.
+     */
+    public static java.nio.ByteBuffer formatTo(double d, java.nio.ByteBuffer dst) {
+        DoubleToDecimal.formatTo(d, dst);
+        return dst;
+    }
+
+    /**
+     * Appends the shortest decimal representation of the argument, as
+     * written by {@link #formatTo(double, char[], int)}, to the given
+     * {@code Appendable}.  A {@link StringBuilder} or {@link
+     * StringBuffer} receives the characters directly in its internal
+     * array.
+     *
+     * @param   d     the {@code double} to be converted.
+     * @param   dst   the destination.
+     * @throws  java.io.IOException if {@code dst} throws one.
+     */
+    public static void formatTo(double d, Appendable dst) throws java.io.IOException {
+        DoubleToDecimal.formatTo(d, dst);
+    }
+
     /**
      * Returns a hexadecimal string representation of the
      * {@code double} argument. All characters mentioned below
@@ -538,6 +618,61 @@ public final class Double extends Number implements Comparable<Double> {
         return FloatingDecimal.parseDouble(s);
     }
 
+    /**
+     * Returns a new {@code double} initialized to the value represented
+     * by the subsequence of {@code s} from {@code beginIndex}, inclusive,
+     * to {@code endIndex}, exclusive.  The result is the same as that of
+     * {@code parseDouble(s.subSequence(beginIndex, endIndex).toString())},
+     * but plain decimal input is parsed in place without creating any
+     * object.
+     *
+     * @param  s            the character sequence to be parsed.
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the subsequence.
+     * @throws NullPointerException  if {@code s} is null
+     * @throws IndexOutOfBoundsException  if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code s.length()}.
+     * @throws NumberFormatException if the subsequence does not contain
+     *         a parsable {@code double}.
+     * @see    #parseDouble(String)
+     */
+    public static double parseDouble(CharSequence s, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return DecimalToDouble.parseDouble(s, beginIndex, endIndex);
+    }
+
+    /**
+     * Returns a new {@code double} initialized to the value represented
+     * by a range of ASCII bytes, as if the bytes were decoded to a
+     * {@code String} and passed to {@link #parseDouble(String)}.  Plain
+     * decimal input is parsed in place without creating any object.
+     *
+     * @param  bytes    the array containing the representation.
+     * @param  offset   the index of the first byte to parse.
+     * @param  length   the number of bytes to parse.
+     * @return the {@code double} value represented by the bytes.
+     * @throws NullPointerException  if {@code bytes} is null
+     * @throws IndexOutOfBoundsException  if {@code offset} or {@code
+     *         length} is negative, or if {@code offset + length} is
+     *         greater than {@code bytes.length}.
+     * @throws NumberFormatException if the bytes do not contain a
+     *         parsable {@code double}.
+     * @see    #parseDouble(String)
+     */
+    public static double parseDouble(byte[] bytes, int offset, int length)
+            throws NumberFormatException {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return DecimalToDouble.parseDouble(bytes, offset, length);
+    }
+
     /**
      * Returns {@code true} if the specified number is a
      * Not-a-Number (NaN) value, {@code false} otherwise.
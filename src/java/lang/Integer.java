@@ -474,6 +474,146 @@ public final class Integer extends Number implements Comparable<Integer> {
                 return i+1;
     }
 
+    /**
+     * Writes the signed decimal representation of the argument into a
+     * character array, without creating a {@code String}.  The
+     * characters written are exactly those of {@link #toString(int)}.
+     *
+     * @param   i       an integer to be converted.
+     * @param   dst     the destination array.
+     * @param   offset  the index in {@code dst} of the first character.
+     * @return  the index in {@code dst} following the last character
+     *          written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative or
+     *          the representation does not fit in {@code dst}; nothing
+     *          is written in that case.
+     */
+    public static int formatTo(int i, char[] dst, int offset) {
+        int end = offset + checkFormatRange(i, dst.length, offset);
+        if (i == Integer.MIN_VALUE) {
+            "-2147483648".getChars(0, end - offset, dst, offset);
+        } else {
+            getChars(i, end, dst);
+        }
+        return end;
+    }
+
+    /**
+     * Writes the signed decimal representation of the argument into a
+     * byte array as ASCII, without creating a {@code String}.  The bytes
+     * written are those of {@link #toString(int)} encoded in US-ASCII.
+     *
+     * @param   i       an integer to be converted.
+     * @param   dst     the destination array.
+     * @param   offset  the index in {@code dst} of the first byte.
+     * @return  the index in {@code dst} following the last byte written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative or
+     *          the representation does not fit in {@code dst}; nothing
+     *          is written in that case.
+     */
+    public static int formatTo(int i, byte[] dst, int offset) {
+        int end = offset + checkFormatRange(i, dst.length, offset);
+        getChars(i, end, dst);
+        return end;
+    }
+
+    /**
+     * Writes the signed decimal representation of the argument into a
+     * byte buffer as ASCII, starting at its current position, and
+     * advances the position past the bytes written.  Heap buffers are
+     * written through their backing array, direct buffers with absolute
+     * puts; in both cases no intermediate object is created.
+     *
+     * @param   i     an integer to be converted.
+     * @param   dst   the destination buffer.
+     * @return  {@code dst}.
+     * @throws  java.nio.BufferOverflowException if fewer bytes than
+     *          required remain in {@code dst}.
+     * @throws  java.nio.ReadOnlyBufferException if {@code dst} is
+     *          read-only.
+     */
+    public static java.nio.ByteBuffer formatTo(int i, java.nio.ByteBuffer dst) {
+        int size = formatSize(i);
+        if (dst.remaining() < size)
+            throw new java.nio.BufferOverflowException();
+        int pos = dst.position();
+        if (dst.hasArray()) {
+            getChars(i, dst.arrayOffset() + pos + size, dst.array());
+        } else {
+            // Work on the negated value so that MIN_VALUE needs no special case
+            int charPos = pos + size;
+            int v = (i < 0) ? i : -i;
+            do {
+                int q = v / 10;
+                dst.put(--charPos, (byte)('0' + (q * 10 - v)));
+                v = q;
+            } while (v != 0);
+            if (i < 0)
+                dst.put(--charPos, (byte)'-');
+        }
+        dst.position(pos + size);
+        return dst;
+    }
+
+    /**
+     * Returns the number of characters of the decimal representation of
+     * {@code i}, including the sign.
+     */
+    static int formatSize(int i) {
+        if (i == Integer.MIN_VALUE)
+            return 11;
+        return (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+    }
+
+    private static int checkFormatRange(int i, int length, int offset) {
+        int size = formatSize(i);
+        if (offset < 0 || offset > length - size)
+            throw new ArrayIndexOutOfBoundsException(offset < 0 ? offset : offset + size - 1);
+        return size;
+    }
+
+    /**
+     * Same as {@link #getChars(int, int, char[])} but produces ASCII
+     * bytes, and also handles {@code Integer.MIN_VALUE}.
+     */
+    static void getChars(int i, int index, byte[] buf) {
+        int q, r;
+        int charPos = index;
+        byte sign = 0;
+
+        if (i == Integer.MIN_VALUE) {
+            // -2147483648: emit the last digit, continue with -214748364
+            buf [--charPos] = '8';
+            i = -214748364;
+        }
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Generate two digits per iteration
+        while (i >= 65536) {
+            q = i / 100;
+        // really: r = i - (q * 100);
+            r = i - ((q << 6) + (q << 5) + (q << 2));
+            i = q;
+            buf [--charPos] = (byte) DigitOnes[r];
+            buf [--charPos] = (byte) DigitTens[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        for (;;) {
+            q = (i * 52429) >>> (16+3);
+            r = i - ((q << 3) + (q << 1));  // r = i-(q*10) ...
+            buf [--charPos] = (byte) digits [r];
+            i = q;
+            if (i == 0) break;
+        }
+        if (sign != 0) {
+            buf [--charPos] = sign;
+        }
+    }
+
     /**
      * Parses the string argument as a signed integer in the radix
      * specified by the second argument. The characters in the string
@@ -594,6 +734,178 @@ public final class Integer extends Number implements Comparable<Integer> {
         return negative ? result : -result;
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code int} in
+     * the specified {@code radix}, beginning at the specified {@code
+     * beginIndex} and extending to {@code endIndex - 1}.  The range is
+     * parsed in place, so callers need not extract a substring first.
+     *
+     * <p>The method does not take steps to guard against the {@code
+     * CharSequence} being mutated while parsing.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code int} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code int} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @see #parseInt(String, int)
+     */
+    public static int parseInt(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException
+    {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        boolean negative = false;
+        int i = beginIndex;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = s.charAt(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+            }
+            int result = 0;
+            if (radix == 10 && endIndex - i <= 9) {
+                // At most nine decimal digits cannot overflow
+                while (i < endIndex) {
+                    char ch = s.charAt(i);
+                    int digit = ch - '0';
+                    if (digit < 0 || digit > 9) {
+                        // Not an ASCII digit, but may be another Unicode digit
+                        digit = Character.digit(ch, 10);
+                        if (digit < 0) {
+                            throw NumberFormatException.forCharSequence(s, beginIndex,
+                                    endIndex, i);
+                        }
+                    }
+                    result = result * 10 - digit;
+                    i++;
+                }
+                return negative ? result : -result;
+            }
+            int multmin = limit / radix;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(s.charAt(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
+    /**
+     * Parses a range of ASCII bytes as a signed decimal {@code int}, as if
+     * the bytes were decoded to a {@code String} and passed to {@link
+     * #parseInt(String)}, but without creating the {@code String}.  This
+     * suits protocol parsers that hold their input in byte arrays.
+     *
+     * @param      bytes    the array containing the representation.
+     * @param      offset   the index of the first byte to parse.
+     * @param      length   the number of bytes to parse.
+     * @return     the signed {@code int} represented by the bytes.
+     * @throws     NullPointerException  if {@code bytes} is null.
+     * @throws     IndexOutOfBoundsException  if {@code offset} or {@code
+     *             length} is negative, or if {@code offset + length} is
+     *             greater than {@code bytes.length}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code int}.
+     */
+    public static int parseInt(byte[] bytes, int offset, int length)
+                throws NumberFormatException
+    {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        boolean negative = false;
+        int i = offset, end = offset + length;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < end) {
+            byte firstByte = bytes[i];
+            if (firstByte < '0') { // Possible leading "+" or "-"
+                if (firstByte == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstByte != '+')
+                    throw NumberFormatException.forAsciiBytes(bytes, offset, length);
+
+                if (++i == end) // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forAsciiBytes(bytes, offset, length);
+            }
+            int result = 0;
+            boolean fits = end - i <= 9; // no overflow check needed
+            int multmin = limit / 10;
+            while (i < end) {
+                int digit = bytes[i++] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw NumberFormatException.forAsciiBytes(bytes, offset, length);
+                }
+                if (fits) {
+                    result = result * 10 - digit;
+                    continue;
+                }
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                if (result < multmin) {
+                    throw NumberFormatException.forAsciiBytes(bytes, offset, length);
+                }
+                result *= 10;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forAsciiBytes(bytes, offset, length);
+                }
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
     /**
      * Parses the string argument as a signed decimal integer. The
      * characters in the string must all be decimal digits, except
@@ -64,4 +64,33 @@ class NumberFormatException extends IllegalArgumentException {
     static NumberFormatException forInputString(String s) {
         return new NumberFormatException("For input string: \"" + s + "\"");
     }
+
+    /**
+     * Factory method for making a <code>NumberFormatException</code>
+     * given the specified input range which caused the error.
+     *
+     * @param   s           the input causing the error
+     * @param   beginIndex  the beginning index, inclusive
+     * @param   endIndex    the ending index, exclusive
+     * @param   errorIndex  the index of the first offending character
+     */
+    static NumberFormatException forCharSequence(CharSequence s,
+            int beginIndex, int endIndex, int errorIndex) {
+        return new NumberFormatException("Error at index "
+                + (errorIndex - beginIndex) + " in: \""
+                + s.subSequence(beginIndex, endIndex) + "\"");
+    }
+
+    /**
+     * Factory method for making a <code>NumberFormatException</code>
+     * given the specified range of ASCII bytes which caused the error.
+     *
+     * @param   bytes   the input causing the error
+     * @param   offset  the index of the first byte
+     * @param   length  the number of bytes
+     */
+    @SuppressWarnings("deprecation")
+    static NumberFormatException forAsciiBytes(byte[] bytes, int offset, int length) {
+        return forInputString(new String(bytes, 0, offset, length));
+    }
 }
@@ -420,6 +420,13 @@ import java.util.Arrays;
         return this;
     }
 
+    @Override
+    synchronized StringBuffer appendShortest(double d) {
+        toStringCache = null;
+        super.appendShortest(d);
+        return this;
+    }
+
     /**
      * @throws StringIndexOutOfBoundsException {@inheritDoc}
      * @since      1.2
@@ -25,6 +25,7 @@
 
 package java.lang.management;
 
+import java.nio.DirectBufferPool;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +33,7 @@ import java.util.HashSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.StreamSupport;
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
 
@@ -212,7 +214,24 @@ enum PlatformComponent {
         false, // zero or more instances
         new MXBeanFetcher<BufferPoolMXBean>() {
             public List<BufferPoolMXBean> getMXBeans() {
-                return ManagementFactoryHelper.getBufferPoolMXBeans();
+                List<BufferPoolMXBean> pools =
+                    new ArrayList<>(ManagementFactoryHelper.getBufferPoolMXBeans());
+                pools.add(DirectBufferPool.getBufferPoolMXBean());
+                return pools;
+            }
+        }),
+
+
+    /**
+     * Stream pipeline profiling.
+     */
+    STREAM_PROFILING(
+        "java.lang.management.StreamProfilingMXBean",
+        "java.util.stream", "StreamProfiling", defaultKeyProperties(),
+        true, // singleton
+        new MXBeanFetcher<StreamProfilingMXBean>() {
+            public List<StreamProfilingMXBean> getMXBeans() {
+                return Collections.singletonList(StreamSupport.getProfilingMXBean());
             }
         }),
 
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.List;
+
+/**
+ * The management interface for the profiling of
+ * {@link java.util.stream stream} pipelines.
+ *
+ * <p> A stream pipeline is profiled if profiling was requested for it
+ * with {@link java.util.stream.BaseStream#profile BaseStream.profile}, or
+ * if profiling is {@link #isProfilingEnabled enabled} for all pipelines
+ * when its terminal operation starts.  Profiling of all pipelines is
+ * initially enabled if the system property
+ * {@code java.util.stream.profile} is {@code true}.  This interface
+ * reports the most recent {@link java.util.stream.StreamProfile profiles}
+ * of profiled pipelines.
+ *
+ * <p> A class implementing this interface is an
+ * {@link javax.management.MXBean}.  There is a single global instance of
+ * the {@code StreamProfilingMXBean}.  The {@link
+ * java.lang.management.ManagementFactory#getPlatformMXBean(Class)
+ * getPlatformMXBean} method can be used to obtain it as follows:
+ * <pre>
+ *     StreamProfilingMXBean profiling = ManagementFactory.getPlatformMXBean(StreamProfilingMXBean.class);
+ * </pre>
+ *
+ * <p> The management interface is also registered with the platform {@link
+ * javax.management.MBeanServer MBeanServer}.  The {@link
+ * javax.management.ObjectName ObjectName} that uniquely identifies the
+ * management interface within the {@code MBeanServer} is:
+ * <pre>
+ *     java.util.stream:type=StreamProfiling
+ * </pre>
+ *
+ * @since   1.8
+ */
+public interface StreamProfilingMXBean extends PlatformManagedObject {
+
+    /**
+     * Tests if all stream pipelines are profiled.
+     *
+     * @return  {@code true} if all stream pipelines are profiled
+     */
+    boolean isProfilingEnabled();
+
+    /**
+     * Enables or disables the profiling of all stream pipelines.  Pipelines
+     * whose terminal operation has already started are not affected.
+     *
+     * @param enable {@code true} to profile all stream pipelines;
+     *               {@code false} to profile only those requesting it
+     *
+     * @throws java.lang.SecurityException if a security manager
+     *         exists and the caller does not have
+     *         ManagementPermission("control").
+     */
+    void setProfilingEnabled(boolean enable);
+
+    /**
+     * Returns the number of stream pipelines profiled since the Java
+     * virtual machine started.
+     *
+     * @return  The number of profiled pipelines
+     */
+    long getProfiledPipelineCount();
+
+    /**
+     * Returns the most recent profiles, each as returned by
+     * {@link java.util.stream.StreamProfile#toString StreamProfile.toString},
+     * most recent last.
+     *
+     * @return  A list of the most recent profiles
+     */
+    List<String> getRecentProfiles();
+}
@@ -1277,6 +1277,131 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
         return new BigDecimal(Double.toString(val));
     }
 
+    /**
+     * Translates the subsequence of {@code s} from {@code beginIndex},
+     * inclusive, to {@code endIndex}, exclusive, into a {@code
+     * BigDecimal}, accepting the same sequence of characters as the
+     * {@link #BigDecimal(String)} constructor.
+     *
+     * <p>Values with at most 18 digits are parsed in place, so that no
+     * object other than the result is created; this avoids extracting
+     * a substring for every field when decoding delimited text.
+     *
+     * @param  s the character sequence to be parsed.
+     * @param  beginIndex the beginning index, inclusive.
+     * @param  endIndex the ending index, exclusive.
+     * @return the {@code BigDecimal} represented by the subsequence.
+     * @throws NullPointerException if {@code s} is null.
+     * @throws IndexOutOfBoundsException if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code s.length()}.
+     * @throws NumberFormatException if the subsequence is not a valid
+     *         representation of a {@code BigDecimal}.
+     */
+    public static BigDecimal parse(CharSequence s, int beginIndex, int endIndex) {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length())
+            throw new IndexOutOfBoundsException();
+        BigDecimal result = parseCompact(s, null, beginIndex, endIndex);
+        if (result != null)
+            return result;
+        int len = endIndex - beginIndex;
+        char[] in = new char[len];
+        for (int i = 0; i < len; i++)
+            in[i] = s.charAt(beginIndex + i);
+        return new BigDecimal(in, 0, len);
+    }
+
+    /**
+     * Translates a range of ASCII bytes into a {@code BigDecimal},
+     * accepting the same sequence of characters as the {@link
+     * #BigDecimal(String)} constructor.  Values with at most 18 digits
+     * are parsed in place, so that no object other than the result is
+     * created.
+     *
+     * @param  bytes the array containing the representation.
+     * @param  offset the index of the first byte to parse.
+     * @param  length the number of bytes to parse.
+     * @return the {@code BigDecimal} represented by the bytes.
+     * @throws NullPointerException if {@code bytes} is null.
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code
+     *         length} is negative, or if {@code offset + length} is
+     *         greater than {@code bytes.length}.
+     * @throws NumberFormatException if the bytes are not a valid
+     *         representation of a {@code BigDecimal}.
+     */
+    public static BigDecimal parse(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new IndexOutOfBoundsException();
+        BigDecimal result = parseCompact(null, bytes, offset, offset + length);
+        if (result != null)
+            return result;
+        char[] in = new char[length];
+        for (int i = 0; i < length; i++)
+            in[i] = (char) (bytes[offset + i] & 0xff);
+        return new BigDecimal(in, 0, length);
+    }
+
+    /**
+     * Parses {@code [+-]digits[.digits][(e|E)[+-]digits]} with at most
+     * {@code MAX_COMPACT_DIGITS} digits in the significand straight into
+     * a compact value, reading from {@code cs} if it is not null and
+     * from {@code bytes} otherwise.  Returns null for any other input,
+     * including invalid input, which the caller then hands to the
+     * general char[] constructor for the usual exception.
+     */
+    private static BigDecimal parseCompact(CharSequence cs, byte[] bytes,
+                                           int i, int end) {
+        if (i == end)
+            return null;
+        int c = (cs != null) ? cs.charAt(i) : bytes[i] & 0xff;
+        boolean isneg = (c == '-');
+        if (isneg || c == '+')
+            i++;
+        long rs = 0;
+        int digits = 0;
+        int scl = 0;
+        boolean dot = false;
+        for (; i < end; i++) {
+            c = (cs != null) ? cs.charAt(i) : bytes[i] & 0xff;
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_COMPACT_DIGITS)
+                    return null;
+                rs = rs * 10 + (c - '0');
+                if (dot)
+                    ++scl;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0)
+            return null;
+        if (i < end) {
+            if ((c != 'e' && c != 'E') || ++i == end)
+                return null;
+            c = (cs != null) ? cs.charAt(i) : bytes[i] & 0xff;
+            boolean negexp = (c == '-');
+            if ((negexp || c == '+') && ++i == end)
+                return null;
+            if (end - i > 9)  // leave possible scale overflow to the slow path
+                return null;
+            long exp = 0;
+            for (; i < end; i++) {
+                c = (cs != null) ? cs.charAt(i) : bytes[i] & 0xff;
+                if (c < '0' || c > '9')
+                    return null;
+                exp = exp * 10 + (c - '0');
+            }
+            long adjusted = (long) scl - (negexp ? -exp : exp);
+            if ((int) adjusted != adjusted)
+                return null;
+            scl = (int) adjusted;
+        }
+        return valueOf(isneg ? -rs : rs, scl);
+    }
+
     // Arithmetic Operations
     /**
      * Returns a {@code BigDecimal} whose value is {@code (this +
@@ -2630,6 +2755,22 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
             long ys = val.intCompact;
             if (xs != INFLATED && ys != INFLATED)
                 return xs != ys ? ((xs > ys) ? 1 : -1) : 0;
+        } else if (intCompact != INFLATED && val.intCompact != INFLATED) {
+            // Quick path for differing scales: rescale the operand with
+            // the smaller scale when that fits in a long, which avoids
+            // computing both precisions in compareMagnitude.
+            long xs = intCompact;
+            long ys = val.intCompact;
+            long sdiff = (long)scale - val.scale;
+            if (sdiff > 0 && sdiff < LONG_TEN_POWERS_TABLE.length) {
+                ys = longMultiplyPowerTen(ys, (int)sdiff);
+            } else if (sdiff < 0 && -sdiff < LONG_TEN_POWERS_TABLE.length) {
+                xs = longMultiplyPowerTen(xs, (int)-sdiff);
+            } else {
+                xs = ys = INFLATED;
+            }
+            if (xs != INFLATED && ys != INFLATED)
+                return xs != ys ? ((xs > ys) ? 1 : -1) : 0;
         }
         int xsign = this.signum();
         int ysign = val.signum();
@@ -2975,15 +3116,41 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
                 buf.append('0');
             return buf.toString();
         }
-        String str ;
         if(intCompact!=INFLATED) {
-            str = Long.toString(Math.abs(intCompact));
-        } else {
-            str = intVal.abs().toString();
+            return compactPlainString(intCompact, scale);
         }
+        String str = intVal.abs().toString();
         return getValueString(signum(), str, scale);
     }
 
+    /**
+     * Lays out a compact value with a positive scale in plain notation,
+     * writing the digits straight into an exactly sized array rather
+     * than building and then editing an intermediate string.
+     */
+    private static String compactPlainString(long intCompact, int scale) {
+        boolean negative = intCompact < 0;
+        long abs = negative ? -intCompact : intCompact;
+        int digits = longDigitLength(abs);
+        int intDigits = Math.max(digits - scale, 1);
+        int len = (negative ? 1 : 0) + intDigits + 1 + scale;
+        char[] buf = new char[len];
+        int pos = 0;
+        if (negative)
+            buf[pos++] = '-';
+        int dot = pos + intDigits;
+        buf[dot] = '.';
+        for (int i = len - 1; i > dot; i--) {
+            buf[i] = (char)('0' + (int)(abs % 10));
+            abs /= 10;
+        }
+        for (int i = dot - 1; i >= pos; i--) {
+            buf[i] = (char)('0' + (int)(abs % 10));
+            abs /= 10;
+        }
+        return new String(buf);
+    }
+
     /* Returns a digit.digit string */
     private String getValueString(int signum, String intString, int scale) {
         /* Insert decimal point */
@@ -3680,7 +3847,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
      * Compute val * 10 ^ n; return this product if it is
      * representable as a long, INFLATED otherwise.
      */
-    private static long longMultiplyPowerTen(long val, int n) {
+    static long longMultiplyPowerTen(long val, int n) {
         if (val == 0 || n <= 0)
             return val;
         long[] tab = LONG_TEN_POWERS_TABLE;
@@ -3800,6 +3967,15 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
        s.defaultWriteObject();
    }
 
+    /**
+     * Returns the compact unscaled value of this {@code BigDecimal}, or
+     * {@code INFLATED} if it is held only in {@code intVal}.  Used by
+     * {@link DecimalAccumulator} to stay on the {@code long} path.
+     */
+    long compactValue() {
+        return intCompact;
+    }
+
     /**
      * Returns the length of the absolute value of a {@code long}, in decimal
      * digits.
@@ -35,6 +35,9 @@ import java.io.ObjectOutputStream;
 import java.io.ObjectStreamField;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.ThreadLocalRandom;
 import sun.misc.DoubleConsts;
 import sun.misc.FloatConsts;
@@ -242,6 +245,30 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      */
     private static final int TOOM_COOK_SQUARE_THRESHOLD = 216;
 
+    /**
+     * The threshold value for using FFT multiplication.  If the number of
+     * ints in both mag arrays are greater than this number, then the
+     * number-theoretic transform in {@link #multiplyFFT} will be used.
+     * This value is found experimentally to work well.
+     */
+    private static final int FFT_THRESHOLD = 30000;
+
+    /**
+     * The threshold value for using FFT squaring.  If the number of ints
+     * in the number are larger than this value, FFT squaring will be
+     * used.  This value is found experimentally to work well.
+     */
+    private static final int FFT_SQUARE_THRESHOLD = 24000;
+
+    /**
+     * The maximum combined number of ints in both mag arrays for FFT
+     * multiplication.  The transform length, two 16-bit pieces per int,
+     * may not exceed 2^23, the largest power of two dividing
+     * {@code FFT_PRIME_1 - 1}.  Larger products use Toom-Cook, whose
+     * sub-products fall below this limit again.
+     */
+    private static final int FFT_MAX_INTS = 1 << 22;
+
     /**
      * The threshold value for using Burnikel-Ziegler division.  If the number
      * of ints in the divisor are larger than this value, Burnikel-Ziegler
@@ -268,6 +295,17 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      */
     private static final int SCHOENHAGE_BASE_CONVERSION_THRESHOLD = 20;
 
+    /**
+     * The threshold value for parsing strings recursively.  If the
+     * number of ints in the magnitude of a parsed value is larger than
+     * this value, the {@link #BigInteger(String, int)} constructor splits
+     * the digits in two halves, parses each, and combines them with one
+     * multiplication by a cached power of the radix.  This value is found
+     * experimentally to work well; below it splitting gains nothing over
+     * the digit-group loop.
+     */
+    private static final int SCHOENHAGE_BASE_PARSE_THRESHOLD = 240;
+
     /**
      * The threshold value for using squaring code to perform multiplication
      * of a {@code BigInteger} instance by itself.  If the number of ints in
@@ -460,6 +498,16 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
             reportOverflow();
         }
         int numWords = (int) (numBits + 31) >>> 5;
+
+        // Long inputs are split recursively instead of accumulated one
+        // digit group at a time, which is quadratic in the length
+        if (numWords > SCHOENHAGE_BASE_PARSE_THRESHOLD) {
+            mag = parseRecursive(val, cursor, len, radix).mag;
+            if (mag.length >= MAX_MAG_LENGTH) {
+                checkRange();
+            }
+            return;
+        }
         int[] magnitude = new int[numWords];
 
         // Process first (potentially short) digit group
@@ -488,6 +536,28 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         }
     }
 
+    /**
+     * Parses the digits {@code val[from, to)}, which hold no sign, as a
+     * nonnegative value.  The digits are split so that the low part has
+     * a power of two number of digits, and the parts are combined as
+     * {@code high * radix^(2^k) + low} using the cache shared with
+     * {@link #toString(int)}.  With subquadratic multiplication this
+     * makes parsing subquadratic as well.
+     */
+    private static BigInteger parseRecursive(String val, int from, int to, int radix) {
+        int numDigits = to - from;
+        long numBits = ((numDigits * bitsPerDigit[radix]) >>> 10) + 1;
+        if (((numBits + 31) >>> 5) <= SCHOENHAGE_BASE_PARSE_THRESHOLD) {
+            return new BigInteger(val.substring(from, to), radix);
+        }
+        // 2^k < numDigits, so that both halves are nonempty
+        int k = 31 - Integer.numberOfLeadingZeros(numDigits - 1);
+        int split = to - (1 << k);
+        BigInteger high = parseRecursive(val, from, split, radix);
+        BigInteger low = parseRecursive(val, split, to, radix);
+        return high.multiply(getRadixConversionCache(radix, k)).add(low);
+    }
+
     /*
      * Constructs a new BigInteger using a char array with radix=10.
      * Sign is precalculated outside and not allowed in the val.
@@ -1502,13 +1572,51 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @return {@code this * val}
      */
     private BigInteger multiply(BigInteger val, boolean isRecursion) {
+        return multiply(val, isRecursion, false, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}.
+     * When both {@code this} and {@code val} are large, typically
+     * in the hundreds of thousands of bits, the sub-products are
+     * computed in parallel in the {@link ForkJoinPool#commonPool()
+     * common pool}, or in the current pool when called from a
+     * fork/join task.  This method returns the exact same mathematical
+     * result as {@link #multiply}.
+     *
+     * @implNote This implementation may offer better algorithmic
+     * performance when {@code val == this}.  Compared to {@link
+     * #multiply}, it uses more CPU resources to compute the result
+     * faster, and may do so with a slight increase in memory
+     * consumption.
+     *
+     * @param  val value to be multiplied by this BigInteger.
+     * @return {@code this * val}
+     * @see #multiply
+     */
+    public BigInteger parallelMultiply(BigInteger val) {
+        return multiply(val, false, true, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}.  If
+     * the invocation is recursive certain overflow checks are skipped.
+     *
+     * @param  val value to be multiplied by this BigInteger.
+     * @param  isRecursion whether this is a recursive invocation
+     * @param  parallel whether sub-products may be computed in parallel
+     * @param  depth the recursion depth, which limits forking
+     * @return {@code this * val}
+     */
+    private BigInteger multiply(BigInteger val, boolean isRecursion,
+                                boolean parallel, int depth) {
         if (val.signum == 0 || signum == 0)
             return ZERO;
 
         int xlen = mag.length;
 
         if (val == this && xlen > MULTIPLY_SQUARE_THRESHOLD) {
-            return square();
+            return square(false, parallel, depth);
         }
 
         int ylen = val.mag.length;
@@ -1586,7 +1694,13 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
                     }
                 }
 
-                return multiplyToomCook3(this, val);
+                if (xlen >= FFT_THRESHOLD && ylen >= FFT_THRESHOLD &&
+                    xlen + ylen <= FFT_MAX_INTS) {
+                    int[] result = multiplyFFT(mag, val.mag, parallel);
+                    return new BigInteger(trustedStripLeadingZeroInts(result),
+                                          signum == val.signum ? 1 : -1);
+                }
+                return multiplyToomCook3(this, val, parallel, depth);
             }
         }
     }
@@ -1762,7 +1876,8 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * LNCS #4547. Springer, Madrid, Spain, June 21-22, 2007.
      *
      */
-    private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b) {
+    private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b,
+                                                boolean parallel, int depth) {
         int alen = a.mag.length;
         int blen = b.mag.length;
 
@@ -1786,16 +1901,23 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
 
         BigInteger v0, v1, v2, vm1, vinf, t1, t2, tm1, da1, db1;
 
-        v0 = a0.multiply(b0, true);
+        // The first three products may be forked, the last two are
+        // computed by this thread meanwhile
+        depth++;
+        RecursiveTask<BigInteger> v0Task = RecursiveOp.multiply(a0, b0, parallel, depth);
         da1 = a2.add(a0);
         db1 = b2.add(b0);
-        vm1 = da1.subtract(a1).multiply(db1.subtract(b1), true);
+        RecursiveTask<BigInteger> vm1Task =
+            RecursiveOp.multiply(da1.subtract(a1), db1.subtract(b1), parallel, depth);
         da1 = da1.add(a1);
         db1 = db1.add(b1);
-        v1 = da1.multiply(db1, true);
+        RecursiveTask<BigInteger> v1Task = RecursiveOp.multiply(da1, db1, parallel, depth);
         v2 = da1.add(a2).shiftLeft(1).subtract(a0).multiply(
-             db1.add(b2).shiftLeft(1).subtract(b0), true);
-        vinf = a2.multiply(b2, true);
+             db1.add(b2).shiftLeft(1).subtract(b0), true, parallel, depth);
+        vinf = a2.multiply(b2, true, parallel, depth);
+        v0 = v0Task.join();
+        vm1 = vm1Task.join();
+        v1 = v1Task.join();
 
         // The algorithm requires two divisions by 2 and one by 3.
         // All divisions are known to be exact, that is, they do not produce
@@ -1824,6 +1946,281 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
     }
 
 
+    /**
+     * Multiplies two magnitudes with a number-theoretic transform, an FFT
+     * over the integers modulo a prime, which takes O(n log n) steps
+     * instead of the O(n^1.465) of Toom-Cook.  Both magnitudes are split
+     * into 16-bit pieces, whose cyclic convolution is computed modulo the
+     * primes {@code FFT_PRIME_1} and {@code FFT_PRIME_2} and recombined
+     * with the Chinese remainder theorem.  Every coefficient of the
+     * convolution is below 2^22 * 2^32, less than the product of the two
+     * primes, so the recombination is exact.
+     *
+     * <p>For squaring pass the same array twice, which saves one forward
+     * transform per prime.  With {@code parallel} set the two primes are
+     * handled concurrently.
+     *
+     * @return the product magnitude, with {@code x.length + y.length}
+     *         ints, possibly with a leading zero int
+     */
+    private static int[] multiplyFFT(int[] x, int[] y, boolean parallel) {
+        int rlen = x.length + y.length;
+        // smallest power of two holding all 2 * rlen pieces
+        int n = Integer.highestOneBit(2 * rlen - 1) << 1;
+
+        int[] c1, c2;
+        if (parallel) {
+            FFTConvolution task = new FFTConvolution(x, y, n, FFT_PRIME_2);
+            task.fork();
+            c1 = convolveFFT(x, y, n, FFT_PRIME_1);
+            c2 = task.join();
+        } else {
+            c1 = convolveFFT(x, y, n, FFT_PRIME_1);
+            c2 = convolveFFT(x, y, n, FFT_PRIME_2);
+        }
+
+        // Garner: c = c1 + p1 * ((c2 - c1) / p1 mod p2), then carry
+        int[] result = new int[rlen];
+        long carry = 0;
+        for (int i = 0, j = rlen - 1; j >= 0; i += 2, j--) {
+            long t = (c2[i] - c1[i]) % FFT_PRIME_2;
+            if (t < 0)
+                t += FFT_PRIME_2;
+            long lo = c1[i] + FFT_PRIME_1 * (t * FFT_INV_PRIME_1 % FFT_PRIME_2) + carry;
+            t = (c2[i + 1] - c1[i + 1]) % FFT_PRIME_2;
+            if (t < 0)
+                t += FFT_PRIME_2;
+            long hi = c1[i + 1] + FFT_PRIME_1 * (t * FFT_INV_PRIME_1 % FFT_PRIME_2)
+                      + (lo >>> 16);
+            result[j] = (int) (hi << 16) | ((int) lo & 0xffff);
+            carry = hi >>> 16;
+        }
+        return result;
+    }
+
+    /**
+     * The primes for FFT multiplication, both of the form c * 2^k + 1
+     * with primitive root 3, and the inverse of the first modulo the
+     * second.
+     */
+    private static final int FFT_PRIME_1 = 998244353;  // 119 * 2^23 + 1
+    private static final int FFT_PRIME_2 = 469762049;  //   7 * 2^26 + 1
+    private static final long FFT_INV_PRIME_1 = 208783132;
+
+    /**
+     * Returns the cyclic convolution, modulo {@code p}, of the 16-bit
+     * pieces of {@code x} and {@code y}, in {@code n} coefficients from
+     * the least significant up.
+     */
+    private static int[] convolveFFT(int[] x, int[] y, int n, int p) {
+        int negInv = montgomeryNegInverse(p);
+        int[] a = toFFTPieces(x, n);
+        transformFFT(a, p, negInv, false);
+        int[] b = a;
+        if (y != x) {
+            b = toFFTPieces(y, n);
+            transformFFT(b, p, negInv, false);
+        }
+        for (int i = 0; i < n; i++)
+            a[i] = montgomeryReduce((long) a[i] * b[i], p, negInv);
+        transformFFT(a, p, negInv, true);
+        return a;
+    }
+
+    /** Splits a magnitude into n 16-bit pieces, least significant first. */
+    private static int[] toFFTPieces(int[] mag, int n) {
+        int[] a = new int[n];
+        for (int i = 0, j = mag.length - 1; j >= 0; i += 2, j--) {
+            a[i] = mag[j] & 0xffff;
+            a[i + 1] = mag[j] >>> 16;
+        }
+        return a;
+    }
+
+    /**
+     * In-place iterative radix-2 number-theoretic transform modulo
+     * {@code p} of the power of two length array {@code a}.  Twiddle
+     * factors are kept in Montgomery form (times 2^32 mod p), so each
+     * butterfly needs a Montgomery reduction instead of a division.
+     * The inverse transform also undoes the factor 2^-32 left by the
+     * pointwise products and the factor n of the round trip.
+     */
+    private static void transformFFT(int[] a, int p, int negInv, boolean inverse) {
+        int n = a.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1)
+                j ^= bit;
+            j ^= bit;
+            if (i < j) {
+                int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        long r = (1L << 32) % p;  // Montgomery form of 1
+        int[] w = new int[n >> 1];
+        for (int len = 2; len <= n; len <<= 1) {
+            long root = powMod(3, (p - 1) / len, p);
+            if (inverse)
+                root = powMod(root, p - 2, p);
+            int half = len >> 1;
+            w[0] = (int) r;
+            for (int j = 1; j < half; j++)
+                w[j] = (int) (w[j - 1] * root % p);
+            for (int i = 0; i < n; i += len) {
+                for (int j = 0; j < half; j++) {
+                    int u = a[i + j];
+                    int v = montgomeryReduce((long) a[i + j + half] * w[j], p, negInv);
+                    int sum = u + v;
+                    a[i + j] = sum >= p ? sum - p : sum;
+                    int diff = u - v;
+                    a[i + j + half] = diff < 0 ? diff + p : diff;
+                }
+            }
+        }
+        if (inverse) {
+            long scale = powMod(n, p - 2, p) * r % p * r % p;
+            for (int i = 0; i < n; i++)
+                a[i] = montgomeryReduce(a[i] * scale, p, negInv);
+        }
+    }
+
+    /** Returns t * 2^-32 mod p, for 0 <= t < p * 2^32. */
+    private static int montgomeryReduce(long t, int p, int negInv) {
+        long m = ((int) t * negInv) & LONG_MASK;
+        long u = (t + m * p) >>> 32;
+        return (int) (u >= p ? u - p : u);
+    }
+
+    /** Returns -p^-1 mod 2^32, for odd p, by Newton iteration. */
+    private static int montgomeryNegInverse(int p) {
+        int inv = p;  // correct to 3 bits
+        for (int i = 0; i < 4; i++)
+            inv *= 2 - p * inv;
+        return -inv;
+    }
+
+    /** Returns base^e mod m, for m < 2^31. */
+    private static long powMod(long base, long e, long m) {
+        long result = 1;
+        base %= m;
+        while (e > 0) {
+            if ((e & 1) != 0)
+                result = result * base % m;
+            base = base * base % m;
+            e >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the convolution modulo one prime for a parallel FFT
+     * multiplication.
+     */
+    @SuppressWarnings("serial")
+    private static final class FFTConvolution extends RecursiveTask<int[]> {
+        private final int[] x, y;
+        private final int n, p;
+
+        FFTConvolution(int[] x, int[] y, int n, int p) {
+            this.x = x;
+            this.y = y;
+            this.n = n;
+            this.p = p;
+        }
+
+        @Override
+        protected int[] compute() {
+            return convolveFFT(x, y, n, p);
+        }
+    }
+
+    /**
+     * A sub-product of a Toom-Cook multiplication or squaring, which is
+     * forked when the enclosing operation is parallel and the recursion
+     * is not yet deep enough to keep all workers of the pool busy, and
+     * computed right away otherwise.
+     */
+    @SuppressWarnings("serial")
+    private abstract static class RecursiveOp extends RecursiveTask<BigInteger> {
+        /**
+         * The fork depth for the common pool: each level multiplies the
+         * number of tasks by three, so log2 of the parallelism is ample.
+         */
+        private static final int PARALLEL_FORK_DEPTH_THRESHOLD =
+            calculateMaximumDepth(ForkJoinPool.getCommonPoolParallelism());
+
+        private static int calculateMaximumDepth(int parallelism) {
+            return 32 - Integer.numberOfLeadingZeros(parallelism);
+        }
+
+        final boolean parallel;
+        final int depth;
+
+        RecursiveOp(boolean parallel, int depth) {
+            this.parallel = parallel;
+            this.depth = depth;
+        }
+
+        private static int getParallelForkDepthThreshold() {
+            Thread t = Thread.currentThread();
+            if (t instanceof ForkJoinWorkerThread) {
+                return calculateMaximumDepth(
+                    ((ForkJoinWorkerThread) t).getPool().getParallelism());
+            }
+            return PARALLEL_FORK_DEPTH_THRESHOLD;
+        }
+
+        RecursiveTask<BigInteger> forkOrInvoke() {
+            if (parallel && depth <= getParallelForkDepthThreshold()) {
+                fork();
+            } else {
+                invoke();
+            }
+            return this;
+        }
+
+        static RecursiveTask<BigInteger> multiply(BigInteger a, BigInteger b,
+                                                  boolean parallel, int depth) {
+            return new RecursiveMultiply(a, b, parallel, depth).forkOrInvoke();
+        }
+
+        static RecursiveTask<BigInteger> square(BigInteger a,
+                                                boolean parallel, int depth) {
+            return new RecursiveSquare(a, parallel, depth).forkOrInvoke();
+        }
+
+        private static final class RecursiveMultiply extends RecursiveOp {
+            private final BigInteger a, b;
+
+            RecursiveMultiply(BigInteger a, BigInteger b, boolean parallel, int depth) {
+                super(parallel, depth);
+                this.a = a;
+                this.b = b;
+            }
+
+            @Override
+            protected BigInteger compute() {
+                return a.multiply(b, true, parallel, depth);
+            }
+        }
+
+        private static final class RecursiveSquare extends RecursiveOp {
+            private final BigInteger a;
+
+            RecursiveSquare(BigInteger a, boolean parallel, int depth) {
+                super(parallel, depth);
+                this.a = a;
+            }
+
+            @Override
+            protected BigInteger compute() {
+                return a.square(true, parallel, depth);
+            }
+        }
+    }
+
     /**
      * Returns a slice of a BigInteger for use in Toom-Cook multiplication.
      *
@@ -1972,6 +2369,19 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @return {@code this<sup>2</sup>}
      */
     private BigInteger square(boolean isRecursion) {
+        return square(isRecursion, false, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this<sup>2</sup>)}. If
+     * the invocation is recursive certain overflow checks are skipped.
+     *
+     * @param isRecursion whether this is a recursive invocation
+     * @param parallel whether sub-products may be computed in parallel
+     * @param depth the recursion depth, which limits forking
+     * @return {@code this<sup>2</sup>}
+     */
+    private BigInteger square(boolean isRecursion, boolean parallel, int depth) {
         if (signum == 0) {
             return ZERO;
         }
@@ -1993,7 +2403,11 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
                     }
                 }
 
-                return squareToomCook3();
+                if (len >= FFT_SQUARE_THRESHOLD && 2 * len <= FFT_MAX_INTS) {
+                    int[] result = multiplyFFT(mag, mag, parallel);
+                    return new BigInteger(trustedStripLeadingZeroInts(result), 1);
+                }
+                return squareToomCook3(parallel, depth);
             }
         }
     }
@@ -2126,7 +2540,7 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * that has better asymptotic performance than the algorithm used in
      * squareToLen or squareKaratsuba.
      */
-    private BigInteger squareToomCook3() {
+    private BigInteger squareToomCook3(boolean parallel, int depth) {
         int len = mag.length;
 
         // k is the size (in ints) of the lower-order slices.
@@ -2143,13 +2557,17 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         a0 = getToomSlice(k, r, 2, len);
         BigInteger v0, v1, v2, vm1, vinf, t1, t2, tm1, da1;
 
-        v0 = a0.square(true);
+        depth++;
+        RecursiveTask<BigInteger> v0Task = RecursiveOp.square(a0, parallel, depth);
         da1 = a2.add(a0);
-        vm1 = da1.subtract(a1).square(true);
+        RecursiveTask<BigInteger> vm1Task = RecursiveOp.square(da1.subtract(a1), parallel, depth);
         da1 = da1.add(a1);
-        v1 = da1.square(true);
-        vinf = a2.square(true);
-        v2 = da1.add(a2).shiftLeft(1).subtract(a0).square(true);
+        RecursiveTask<BigInteger> v1Task = RecursiveOp.square(da1, parallel, depth);
+        vinf = a2.square(true, parallel, depth);
+        v2 = da1.add(a2).shiftLeft(1).subtract(a0).square(true, parallel, depth);
+        v0 = v0Task.join();
+        vm1 = vm1Task.join();
+        v1 = v1Task.join();
 
         // The algorithm requires two divisions by 2 and one by 3.
         // All divisions are known to be exact, that is, they do not produce
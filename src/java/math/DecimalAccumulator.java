@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.math;
+
+import static java.math.BigDecimal.INFLATED;
+
+/**
+ * A mutable sum of {@code BigDecimal} values.  While the running total
+ * fits in a {@code long} unscaled value the accumulator adds in place
+ * without creating intermediate {@code BigDecimal} or
+ * {@code BigInteger} objects; once it no longer fits, the total is
+ * carried as a {@code BigDecimal} and subsequent additions use
+ * {@link BigDecimal#add(BigDecimal)}.
+ *
+ * <p>The result of {@link #toBigDecimal()} is numerically equal to, and
+ * has the same scale as, the value obtained by folding the same
+ * operands with {@link BigDecimal#add(BigDecimal)} and
+ * {@link BigDecimal#subtract(BigDecimal)} starting from
+ * {@link BigDecimal#ZERO}: the scale of the total is the largest scale
+ * of any operand seen so far, and never less than zero.
+ *
+ * <p>Instances are not safe for use by multiple concurrent threads.
+ *
+ * @see     BigDecimal
+ * @since   1.8
+ */
+public final class DecimalAccumulator {
+    /**
+     * The unscaled value of the total, valid while {@code overflow}
+     * is {@code null}.
+     */
+    private long compact;
+
+    /**
+     * The scale of the total, valid while {@code overflow} is
+     * {@code null}.
+     */
+    private int scale;
+
+    /**
+     * The total, once it can no longer be represented by
+     * {@code compact} and {@code scale}.
+     */
+    private BigDecimal overflow;
+
+    /**
+     * Creates an accumulator whose total is zero with a scale of zero.
+     */
+    public DecimalAccumulator() {
+    }
+
+    /**
+     * Adds {@code val} to the total.
+     *
+     * @param  val value to be added.
+     * @return this accumulator.
+     * @throws NullPointerException if {@code val} is {@code null}.
+     */
+    public DecimalAccumulator add(BigDecimal val) {
+        long unscaled = val.compactValue();
+        if (overflow == null && unscaled != INFLATED &&
+            addCompact(unscaled, val.scale()))
+            return this;
+        return addSlow(val);
+    }
+
+    /**
+     * Adds <tt>(unscaled &times; 10<sup>-scale</sup>)</tt> to the total.  This is
+     * equivalent to {@code add(BigDecimal.valueOf(unscaled, scale))} but
+     * does not create the operand.
+     *
+     * @param  unscaled unscaled value of the operand.
+     * @param  scale scale of the operand.
+     * @return this accumulator.
+     */
+    public DecimalAccumulator add(long unscaled, int scale) {
+        if (overflow == null && unscaled != INFLATED &&
+            addCompact(unscaled, scale))
+            return this;
+        return addSlow(BigDecimal.valueOf(unscaled, scale));
+    }
+
+    /**
+     * Subtracts {@code val} from the total.
+     *
+     * @param  val value to be subtracted.
+     * @return this accumulator.
+     * @throws NullPointerException if {@code val} is {@code null}.
+     */
+    public DecimalAccumulator subtract(BigDecimal val) {
+        long unscaled = val.compactValue();
+        if (overflow == null && unscaled != INFLATED &&
+            addCompact(-unscaled, val.scale()))
+            return this;
+        return addSlow(val.negate());
+    }
+
+    /**
+     * Subtracts <tt>(unscaled &times; 10<sup>-scale</sup>)</tt> from the total.
+     *
+     * @param  unscaled unscaled value of the operand.
+     * @param  scale scale of the operand.
+     * @return this accumulator.
+     */
+    public DecimalAccumulator subtract(long unscaled, int scale) {
+        if (overflow == null && unscaled != INFLATED &&
+            addCompact(-unscaled, scale))
+            return this;
+        return addSlow(BigDecimal.valueOf(unscaled, scale).negate());
+    }
+
+    /**
+     * Returns the current total as a {@code BigDecimal}.  The accumulator
+     * is not modified.
+     *
+     * @return the current total.
+     */
+    public BigDecimal toBigDecimal() {
+        return (overflow != null) ? overflow : BigDecimal.valueOf(compact, scale);
+    }
+
+    /**
+     * Returns the scale of the current total.
+     *
+     * @return the scale of the current total.
+     */
+    public int scale() {
+        return (overflow != null) ? overflow.scale() : scale;
+    }
+
+    /**
+     * Resets the total to zero with a scale of zero.
+     */
+    public void reset() {
+        compact = 0;
+        scale = 0;
+        overflow = null;
+    }
+
+    /**
+     * Returns the string representation of the current total, as
+     * given by {@link BigDecimal#toString()}.
+     *
+     * @return the string representation of the current total.
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+
+    /**
+     * Adds a compact operand to the compact total.  Returns
+     * {@code false}, leaving the total unchanged, if either the rescaled
+     * operands or their sum do not fit in a {@code long}.
+     */
+    private boolean addCompact(long ys, int yscale) {
+        long xs = compact;
+        int xscale = scale;
+        if (xscale != yscale) {
+            long sdiff = (long)xscale - yscale;
+            if (sdiff < 0) {
+                if (-sdiff > Integer.MAX_VALUE ||
+                    (xs = BigDecimal.longMultiplyPowerTen(xs, (int)-sdiff)) == INFLATED)
+                    return false;
+                xscale = yscale;
+            } else {
+                if (sdiff > Integer.MAX_VALUE ||
+                    (ys = BigDecimal.longMultiplyPowerTen(ys, (int)sdiff)) == INFLATED)
+                    return false;
+            }
+        }
+        long sum = xs + ys;
+        // See "Hacker's Delight" section 2-12 for explanation of
+        // the overflow test.
+        if (((sum ^ xs) & (sum ^ ys)) < 0 || sum == INFLATED)
+            return false;
+        compact = sum;
+        scale = xscale;
+        return true;
+    }
+
+    private DecimalAccumulator addSlow(BigDecimal val) {
+        BigDecimal total = (overflow != null) ? overflow
+                                              : BigDecimal.valueOf(compact, scale);
+        total = total.add(val);
+        long unscaled = total.compactValue();
+        if (unscaled != INFLATED) {
+            compact = unscaled;
+            scale = total.scale();
+            overflow = null;
+        } else {
+            overflow = total;
+        }
+        return this;
+    }
+}
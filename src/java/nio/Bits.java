@@ -702,6 +702,17 @@ class Bits {                            // package-private
         }
     }
 
+    // Reserves memory if it is available at once, without waiting for the
+    // Cleaners of unreachable buffers to free memory, for allocators that
+    // reclaim their memory themselves.
+    static boolean tryReserveMemoryNoWait(long size, int cap) {
+        if (!memoryLimitSet && VM.isBooted()) {
+            maxMemory = VM.maxDirectMemory();
+            memoryLimitSet = true;
+        }
+        return tryReserveMemory(size, cap);
+    }
+
     private static boolean tryReserveMemory(long size, int cap) {
 
         // -XX:MaxDirectMemorySize limits the total capacity rather than the
@@ -836,6 +847,44 @@ class Bits {                            // package-private
         }
     }
 
+    /**
+     * Copy between heap arrays and off-heap memory, byte swapping elements
+     * if required.
+     *
+     * @param   srcBase
+     *          source array, or null for an off-heap source
+     * @param   srcOffset
+     *          offset of the first byte to read in the source array, or
+     *          source address
+     * @param   dstBase
+     *          destination array, or null for an off-heap destination
+     * @param   dstOffset
+     *          offset of the first byte to write in the destination array, or
+     *          destination address
+     * @param   length
+     *          number of bytes to copy
+     * @param   elemSize
+     *          size of the elements to swap, 2, 4 or 8
+     * @param   swap
+     *          whether to swap the bytes of each element
+     */
+    static void copyMemory(Object srcBase, long srcOffset,
+                           Object dstBase, long dstOffset,
+                           long length, int elemSize, boolean swap)
+    {
+        if (swap) {
+            copySwapMemory(srcBase, srcOffset, dstBase, dstOffset, length, elemSize);
+            return;
+        }
+        while (length > 0) {
+            long size = (length > UNSAFE_COPY_THRESHOLD) ? UNSAFE_COPY_THRESHOLD : length;
+            unsafe.copyMemory(srcBase, srcOffset, dstBase, dstOffset, size);
+            length -= size;
+            srcOffset += size;
+            dstOffset += size;
+        }
+    }
+
     /**
      * Copy and unconditionally byte swap 16 bit elements from a heap array to off-heap memory
      *
@@ -715,6 +715,90 @@ public abstract class ByteBuffer
         return get(dst, 0, dst.length);
     }
 
+    /**
+     * Absolute bulk <i>get</i> method.
+     *
+     * <p> This method transfers <tt>length</tt> bytes from this buffer into
+     * the given array, starting at the given index in this buffer and at the
+     * given offset in the array.  The position of this buffer is unchanged.
+     *
+     * <p> An invocation of this method of the form
+     * <tt>src.get(index,&nbsp;dst,&nbsp;off,&nbsp;len)</tt> has exactly the
+     * same effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off, j = index; i < off + len; i++, j++)
+     *         dst[i] = src.get(j);
+     * }</pre>
+     *
+     * except that it first checks the consistency of the supplied parameters
+     * and it is potentially much more efficient.
+     *
+     * @param  index
+     *         The index in this buffer from which the first byte will be
+     *         read; must be non-negative and less than <tt>limit()</tt>
+     *
+     * @param  dst
+     *         The destination array
+     *
+     * @param  offset
+     *         The offset within the array of the first byte to be
+     *         written; must be non-negative and less than
+     *         <tt>dst.length</tt>
+     *
+     * @param  length
+     *         The number of bytes to be written to the given array;
+     *         must be non-negative and no larger than the smaller of
+     *         <tt>limit()&nbsp;-&nbsp;index</tt> and
+     *         <tt>dst.length&nbsp;-&nbsp;offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>index</tt>, <tt>offset</tt>,
+     *          and <tt>length</tt> parameters do not hold
+     *
+     * @since 1.8
+     */
+    public ByteBuffer get(int index, byte[] dst, int offset, int length) {
+        checkBounds(index, length, limit());
+        checkBounds(offset, length, dst.length);
+        for (int i = 0; i < length; i++)
+            dst[offset + i] = get(index + i);
+        return this;
+    }
+
+    /**
+     * Absolute bulk <i>get</i> method.
+     *
+     * <p> This method transfers bytes from this buffer into the given
+     * destination array.  The position of this buffer is unchanged.  An
+     * invocation of this method of the form <tt>src.get(index,&nbsp;dst)</tt>
+     * behaves in exactly the same way as the invocation
+     *
+     * <pre>
+     *     src.get(index, dst, 0, dst.length) </pre>
+     *
+     * @param  index
+     *         The index in this buffer from which the first byte will be
+     *         read; must be non-negative and less than <tt>limit()</tt>
+     *
+     * @param  dst
+     *         The destination array
+     *
+     * @return  This buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>index</tt> is negative, not smaller than
+     *          <tt>limit()</tt>, or <tt>limit()&nbsp;-&nbsp;index&nbsp;&lt;
+     *          &nbsp;dst.length</tt>
+     *
+     * @since 1.8
+     */
+    public ByteBuffer get(int index, byte[] dst) {
+        return get(index, dst, 0, dst.length);
+    }
+
 
     // -- Bulk put operations --
 
@@ -859,6 +943,97 @@ public abstract class ByteBuffer
         return put(src, 0, src.length);
     }
 
+    /**
+     * Absolute bulk <i>put</i> method&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method transfers <tt>length</tt> bytes from the given array,
+     * starting at the given offset in the array and at the given index in
+     * this buffer.  The position of this buffer is unchanged.
+     *
+     * <p> An invocation of this method of the form
+     * <tt>dst.put(index,&nbsp;src,&nbsp;off,&nbsp;len)</tt> has exactly the
+     * same effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off, j = index; i < off + len; i++, j++)
+     *         dst.put(j, src[i]);
+     * }</pre>
+     *
+     * except that it first checks the consistency of the supplied parameters
+     * and it is potentially much more efficient.
+     *
+     * @param  index
+     *         The index in this buffer at which the first byte will be
+     *         written; must be non-negative and less than <tt>limit()</tt>
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @param  offset
+     *         The offset within the array of the first byte to be read;
+     *         must be non-negative and less than <tt>src.length</tt>
+     *
+     * @param  length
+     *         The number of bytes to be read from the given array;
+     *         must be non-negative and no larger than the smaller of
+     *         <tt>limit()&nbsp;-&nbsp;index</tt> and
+     *         <tt>src.length&nbsp;-&nbsp;offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>index</tt>, <tt>offset</tt>,
+     *          and <tt>length</tt> parameters do not hold
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this buffer is read-only
+     *
+     * @since 1.8
+     */
+    public ByteBuffer put(int index, byte[] src, int offset, int length) {
+        if (isReadOnly())
+            throw new ReadOnlyBufferException();
+        checkBounds(index, length, limit());
+        checkBounds(offset, length, src.length);
+        for (int i = 0; i < length; i++)
+            put(index + i, src[offset + i]);
+        return this;
+    }
+
+    /**
+     * Absolute bulk <i>put</i> method&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method copies bytes into this buffer from the given source
+     * array.  The position of this buffer is unchanged.  An invocation of
+     * this method of the form <tt>dst.put(index,&nbsp;src)</tt> behaves in
+     * exactly the same way as the invocation:
+     *
+     * <pre>
+     *     dst.put(index, src, 0, src.length); </pre>
+     *
+     * @param  index
+     *         The index in this buffer at which the first byte will be
+     *         written; must be non-negative and less than <tt>limit()</tt>
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @return  This buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>index</tt> is negative, not smaller than
+     *          <tt>limit()</tt>, or <tt>limit()&nbsp;-&nbsp;index&nbsp;&lt;
+     *          &nbsp;src.length</tt>
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this buffer is read-only
+     *
+     * @since 1.8
+     */
+    public ByteBuffer put(int index, byte[] src) {
+        return put(index, src, 0, src.length);
+    }
+
 
 
 
@@ -1788,6 +1963,129 @@ public abstract class ByteBuffer
      */
     public abstract IntBuffer asIntBuffer();
 
+    /**
+     * Relative bulk <i>get</i> method for reading int values.
+     *
+     * <p> This method reads <tt>length</tt> int values, of four bytes each,
+     * starting at this buffer's current position, composing each according
+     * to the current byte order, and stores them into the given array,
+     * starting at the given offset.  The position of this buffer is then
+     * incremented by <tt>length</tt>&nbsp;*&nbsp;4.  If there are fewer
+     * than <tt>length</tt>&nbsp;*&nbsp;4 bytes remaining in this buffer
+     * then no values are transferred and a {@link BufferUnderflowException}
+     * is thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>src.getInts(dst,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst[i] = src.getInt();
+     * }</pre>
+     *
+     * except that it first checks that there are sufficient bytes in
+     * this buffer and it is potentially much more efficient.
+     *
+     * @param  dst
+     *         The array into which int values are to be written
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be
+     *         written; must be non-negative and no larger than
+     *         <tt>dst.length</tt>
+     *
+     * @param  length
+     *         The number of values to be written to the given array;
+     *         must be non-negative and no larger than
+     *         <tt>dst.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferUnderflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;4 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @since 1.8
+     */
+    public ByteBuffer getInts(int[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if ((long)length << 2 > remaining())
+            throw new BufferUnderflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            dst[i] = getInt();
+        return this;
+    }
+
+    /**
+     * Relative bulk <i>put</i> method for writing int
+     * values&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method writes <tt>length</tt> int values from the given array,
+     * starting at the given offset, into this buffer at its current
+     * position, each as four bytes in the current byte order.  The position
+     * of this buffer is then incremented by
+     * <tt>length</tt>&nbsp;*&nbsp;4.  If there are fewer than
+     * <tt>length</tt>&nbsp;*&nbsp;4 bytes remaining in this buffer then no
+     * values are transferred and a {@link BufferOverflowException} is
+     * thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>dst.putInts(src,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst.putInt(src[i]);
+     * }</pre>
+     *
+     * except that it first checks that there is sufficient space in this
+     * buffer and it is potentially much more efficient.
+     *
+     * @param  src
+     *         The array from which int values are to be read
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be read;
+     *         must be non-negative and no larger than <tt>src.length</tt>
+     *
+     * @param  length
+     *         The number of values to be read from the given array;
+     *         must be non-negative and no larger than
+     *         <tt>src.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferOverflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;4 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this buffer is read-only
+     *
+     * @since 1.8
+     */
+    public ByteBuffer putInts(int[] src, int offset, int length) {
+        if (isReadOnly())
+            throw new ReadOnlyBufferException();
+        checkBounds(offset, length, src.length);
+        if ((long)length << 2 > remaining())
+            throw new BufferOverflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            putInt(src[i]);
+        return this;
+    }
+
 
     /**
      * Relative <i>get</i> method for reading a long value.
@@ -1887,6 +2185,129 @@ public abstract class ByteBuffer
      */
     public abstract LongBuffer asLongBuffer();
 
+    /**
+     * Relative bulk <i>get</i> method for reading long values.
+     *
+     * <p> This method reads <tt>length</tt> long values, of eight bytes each,
+     * starting at this buffer's current position, composing each according
+     * to the current byte order, and stores them into the given array,
+     * starting at the given offset.  The position of this buffer is then
+     * incremented by <tt>length</tt>&nbsp;*&nbsp;8.  If there are fewer
+     * than <tt>length</tt>&nbsp;*&nbsp;8 bytes remaining in this buffer
+     * then no values are transferred and a {@link BufferUnderflowException}
+     * is thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>src.getLongs(dst,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst[i] = src.getLong();
+     * }</pre>
+     *
+     * except that it first checks that there are sufficient bytes in
+     * this buffer and it is potentially much more efficient.
+     *
+     * @param  dst
+     *         The array into which long values are to be written
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be
+     *         written; must be non-negative and no larger than
+     *         <tt>dst.length</tt>
+     *
+     * @param  length
+     *         The number of values to be written to the given array;
+     *         must be non-negative and no larger than
+     *         <tt>dst.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferUnderflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;8 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @since 1.8
+     */
+    public ByteBuffer getLongs(long[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if ((long)length << 3 > remaining())
+            throw new BufferUnderflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            dst[i] = getLong();
+        return this;
+    }
+
+    /**
+     * Relative bulk <i>put</i> method for writing long
+     * values&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method writes <tt>length</tt> long values from the given array,
+     * starting at the given offset, into this buffer at its current
+     * position, each as eight bytes in the current byte order.  The position
+     * of this buffer is then incremented by
+     * <tt>length</tt>&nbsp;*&nbsp;8.  If there are fewer than
+     * <tt>length</tt>&nbsp;*&nbsp;8 bytes remaining in this buffer then no
+     * values are transferred and a {@link BufferOverflowException} is
+     * thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>dst.putLongs(src,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst.putLong(src[i]);
+     * }</pre>
+     *
+     * except that it first checks that there is sufficient space in this
+     * buffer and it is potentially much more efficient.
+     *
+     * @param  src
+     *         The array from which long values are to be read
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be read;
+     *         must be non-negative and no larger than <tt>src.length</tt>
+     *
+     * @param  length
+     *         The number of values to be read from the given array;
+     *         must be non-negative and no larger than
+     *         <tt>src.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferOverflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;8 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this buffer is read-only
+     *
+     * @since 1.8
+     */
+    public ByteBuffer putLongs(long[] src, int offset, int length) {
+        if (isReadOnly())
+            throw new ReadOnlyBufferException();
+        checkBounds(offset, length, src.length);
+        if ((long)length << 3 > remaining())
+            throw new BufferOverflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            putLong(src[i]);
+        return this;
+    }
+
 
     /**
      * Relative <i>get</i> method for reading a float value.
@@ -2085,4 +2506,127 @@ public abstract class ByteBuffer
      */
     public abstract DoubleBuffer asDoubleBuffer();
 
+    /**
+     * Relative bulk <i>get</i> method for reading double values.
+     *
+     * <p> This method reads <tt>length</tt> double values, of eight bytes each,
+     * starting at this buffer's current position, composing each according
+     * to the current byte order, and stores them into the given array,
+     * starting at the given offset.  The position of this buffer is then
+     * incremented by <tt>length</tt>&nbsp;*&nbsp;8.  If there are fewer
+     * than <tt>length</tt>&nbsp;*&nbsp;8 bytes remaining in this buffer
+     * then no values are transferred and a {@link BufferUnderflowException}
+     * is thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>src.getDoubles(dst,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst[i] = src.getDouble();
+     * }</pre>
+     *
+     * except that it first checks that there are sufficient bytes in
+     * this buffer and it is potentially much more efficient.
+     *
+     * @param  dst
+     *         The array into which double values are to be written
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be
+     *         written; must be non-negative and no larger than
+     *         <tt>dst.length</tt>
+     *
+     * @param  length
+     *         The number of values to be written to the given array;
+     *         must be non-negative and no larger than
+     *         <tt>dst.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferUnderflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;8 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @since 1.8
+     */
+    public ByteBuffer getDoubles(double[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if ((long)length << 3 > remaining())
+            throw new BufferUnderflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            dst[i] = getDouble();
+        return this;
+    }
+
+    /**
+     * Relative bulk <i>put</i> method for writing double
+     * values&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method writes <tt>length</tt> double values from the given array,
+     * starting at the given offset, into this buffer at its current
+     * position, each as eight bytes in the current byte order.  The position
+     * of this buffer is then incremented by
+     * <tt>length</tt>&nbsp;*&nbsp;8.  If there are fewer than
+     * <tt>length</tt>&nbsp;*&nbsp;8 bytes remaining in this buffer then no
+     * values are transferred and a {@link BufferOverflowException} is
+     * thrown.
+     *
+     * <p> In other words, an invocation of this method of the form
+     * <tt>dst.putDoubles(src,&nbsp;off,&nbsp;len)</tt> has exactly the same
+     * effect as the loop
+     *
+     * <pre>{@code
+     *     for (int i = off; i < off + len; i++)
+     *         dst.putDouble(src[i]);
+     * }</pre>
+     *
+     * except that it first checks that there is sufficient space in this
+     * buffer and it is potentially much more efficient.
+     *
+     * @param  src
+     *         The array from which double values are to be read
+     *
+     * @param  offset
+     *         The offset within the array of the first value to be read;
+     *         must be non-negative and no larger than <tt>src.length</tt>
+     *
+     * @param  length
+     *         The number of values to be read from the given array;
+     *         must be non-negative and no larger than
+     *         <tt>src.length - offset</tt>
+     *
+     * @return  This buffer
+     *
+     * @throws  BufferOverflowException
+     *          If there are fewer than <tt>length</tt>&nbsp;*&nbsp;8 bytes
+     *          remaining in this buffer
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this buffer is read-only
+     *
+     * @since 1.8
+     */
+    public ByteBuffer putDoubles(double[] src, int offset, int length) {
+        if (isReadOnly())
+            throw new ReadOnlyBufferException();
+        checkBounds(offset, length, src.length);
+        if ((long)length << 3 > remaining())
+            throw new BufferOverflowException();
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+            putDouble(src[i]);
+        return this;
+    }
+
 }
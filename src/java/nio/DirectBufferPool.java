@@ -0,0 +1,704 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import sun.misc.Cleaner;
+import sun.misc.JavaLangRefAccess;
+import sun.misc.SharedSecrets;
+import sun.misc.Unsafe;
+
+
+/**
+ * A pool of direct byte buffers that are released explicitly.
+ *
+ * <p> A buffer {@link #allocate allocated} from a pool is a direct byte
+ * buffer whose memory is a block of a larger slab of native memory owned by
+ * the pool.  Blocks are grouped in size classes, the powers of two from 64
+ * bytes to the {@link #maxPooledCapacity() maximum pooled capacity} of the
+ * pool, and each slab is divided into blocks of a single class.  When the
+ * buffer is {@link #release released} its block is returned to the pool, to
+ * be reused by a later allocation of the same class, without the calls to
+ * {@link System#gc} and the delays by which {@link
+ * ByteBuffer#allocateDirect allocateDirect} waits for the memory of
+ * unreachable buffers to be freed when the limit on direct memory is
+ * reached.  Released blocks are first kept in a cache of the releasing
+ * thread, so that most allocations and releases do not contend with other
+ * threads.  A buffer larger than the maximum pooled capacity has a block of
+ * its own, which is freed once the buffer is released and it, and all its
+ * views, are unreachable.
+ *
+ * <p> A buffer that becomes unreachable without having been released has
+ * <i>leaked</i>: its block is reclaimed by the pool, during a later
+ * allocation, after the garbage collector has found the buffer to be
+ * unreachable, and is counted by {@link #getLeakCount}.  The memory of the
+ * slabs is freed when the pool, and all the buffers allocated from it, are
+ * unreachable.
+ *
+ * <p> The slabs count against the limit on the total capacity of direct
+ * buffers.  If that limit would be exceeded by a new slab the allocation
+ * throws an {@link OutOfMemoryError} at once, after reclaiming the blocks of
+ * leaked buffers and of the caches of terminated threads, unless some
+ * released buffers larger than the maximum pooled capacity are not yet
+ * freed; the allocation then invokes the garbage collector, and waits for
+ * those buffers to be found unreachable, as {@code allocateDirect} does.
+ *
+ * <p> The buffers allocated from all pools are monitored by the {@link
+ * #getBufferPoolMXBean pooled} {@link BufferPoolMXBean}.
+ *
+ * <p> A pool is safe for use by multiple concurrent threads.  A buffer must
+ * not be accessed once it is released, nor may any of its views, such as
+ * its {@link ByteBuffer#duplicate duplicates}, {@link ByteBuffer#slice
+ * slices} or {@link ByteBuffer#asLongBuffer long buffer views}: as the
+ * released block of a pooled buffer may be given to a buffer allocated
+ * later, a view of the released buffer then shares its content with the new
+ * buffer, and reads and writes the data of another owner.  The memory of a
+ * view is never freed while the view is reachable.
+ *
+ * @since 1.8
+ */
+
+public final class DirectBufferPool {
+
+    // The smallest size class, and the size of the slabs of each class, as
+    // the base 2 logarithm of the size.  A slab has at least 64 blocks, of
+    // at least 64 kilobytes in total, within the limit of 4 megabytes.
+    private static final int MIN_SHIFT = 6;
+    private static final int MIN_SLAB_SHIFT = 16;
+    private static final int MAX_SLAB_SHIFT = 22;
+    private static final int SLAB_BLOCKS_SHIFT = 6;
+
+    // The bytes of each class that a thread may cache, in up to
+    // MAX_CACHED blocks; the classes larger than this are not cached
+    private static final int CACHE_SHIFT = 18;
+    private static final int MAX_CACHED = 64;
+
+    // A block is identified by the index of its slab and its index within
+    // the slab, which has at most 2^16 blocks
+    private static final int INDEX_BITS = 16;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int MAX_SLABS = 1 << (32 - INDEX_BITS);
+
+    // The number of times an allocation waits, with exponential back-off,
+    // for released buffers to be found unreachable
+    private static final int MAX_SLEEPS = 9;
+
+    private static final Unsafe unsafe = Bits.unsafe();
+    private static final long TBASE = unsafe.arrayBaseOffset(Tracker[].class);
+    private static final int TSHIFT
+        = 31 - Integer.numberOfLeadingZeros(unsafe.arrayIndexScale(Tracker[].class));
+
+    // The memory of the pools that are reachable, or whose memory is not yet
+    // freed, for the counters of the pooled buffers
+    private static final Set<Memory> memories
+        = Collections.newSetFromMap(new ConcurrentHashMap<Memory,Boolean>());
+
+    private final int maxShift;
+    private final FreeList[] freeLists;
+    private final Memory memory = new Memory();
+    private final ReferenceQueue<ByteBuffer> leaked = new ReferenceQueue<>();
+    private final AtomicLong leaks = new AtomicLong();
+    // The number of released buffers larger than the maximum pooled
+    // capacity whose blocks are not yet freed
+    private final AtomicLong pendingFrees = new AtomicLong();
+    private final Object slabLock = new Object();
+    private volatile Slab[] slabs = new Slab[8];
+    private int slabCount;                  // guarded by slabLock
+    // The blocks of the buffers larger than the maximum pooled capacity,
+    // which are kept reachable so that their trackers are enqueued
+    private final Set<Slab> unpooled
+        = Collections.newSetFromMap(new ConcurrentHashMap<Slab,Boolean>());
+    private final List<Cache> caches = new ArrayList<>();
+    private final ThreadLocal<Cache> cache = new ThreadLocal<Cache>() {
+        @Override
+        protected Cache initialValue() {
+            Cache c = new Cache(freeLists.length);
+            synchronized (caches) {
+                caches.add(c);
+            }
+            return c;
+        }
+    };
+
+    /**
+     * Creates a pool with a maximum pooled capacity of one megabyte.
+     */
+    public DirectBufferPool() {
+        this(1 << 20);
+    }
+
+    /**
+     * Creates a pool with the given maximum pooled capacity, rounded up to a
+     * power of two of at least 64.
+     *
+     * @param  maxPooledCapacity
+     *         The largest capacity of a buffer whose memory is pooled
+     *
+     * @throws IllegalArgumentException
+     *         If {@code maxPooledCapacity} is not positive, or is greater
+     *         than 2<sup>30</sup>
+     */
+    public DirectBufferPool(int maxPooledCapacity) {
+        if (maxPooledCapacity <= 0 || maxPooledCapacity > (1 << 30))
+            throw new IllegalArgumentException(Integer.toString(maxPooledCapacity));
+        maxShift = Math.max(shift(maxPooledCapacity), MIN_SHIFT);
+        freeLists = new FreeList[maxShift - MIN_SHIFT + 1];
+        for (int i = 0; i < freeLists.length; i++)
+            freeLists[i] = new FreeList();
+        memories.add(memory);
+        Cleaner.create(this, memory);
+    }
+
+    /**
+     * Returns the largest capacity of a buffer whose memory is pooled.
+     *
+     * @return  The maximum pooled capacity of this pool
+     */
+    public int maxPooledCapacity() {
+        return 1 << maxShift;
+    }
+
+    /**
+     * Allocates a direct byte buffer from this pool.
+     *
+     * <p> The new buffer's position will be zero, its limit will be its
+     * capacity, its mark will be undefined, and its byte order will be
+     * {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  Unlike the buffers of
+     * {@link ByteBuffer#allocateDirect allocateDirect}, the content of the
+     * new buffer is unspecified: it may be that of a buffer released to this
+     * pool.
+     *
+     * @param  capacity
+     *         The new buffer's capacity, in bytes
+     *
+     * @return  The new byte buffer
+     *
+     * @throws IllegalArgumentException
+     *         If {@code capacity} is negative
+     *
+     * @throws OutOfMemoryError
+     *         If the memory of the buffer cannot be allocated
+     */
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException(Integer.toString(capacity));
+        reclaimLeaked();
+        Slab slab;
+        int index;
+        if (capacity > (1 << maxShift)) {
+            slab = new Slab(this, -1, allocateMemory(capacity), 1, 0);
+            unpooled.add(slab);
+            index = 0;
+        } else {
+            int handle = take(Math.max(shift(Math.max(capacity, 1)), MIN_SHIFT) - MIN_SHIFT);
+            slab = slabs[handle >>> INDEX_BITS];
+            index = handle & INDEX_MASK;
+        }
+        ByteBuffer bb = new DirectByteBuffer(slab.address(index), capacity, slab);
+        slab.trackers[index] = new Tracker(bb, leaked, slab, index);
+        memory.count.increment();
+        memory.totalCapacity.add(capacity);
+        return bb;
+    }
+
+    /**
+     * Releases a buffer allocated from this pool, whose memory becomes
+     * available to later allocations or, if its capacity is greater than the
+     * maximum pooled capacity, is freed once the buffer and its views are
+     * unreachable.  The buffer's position, limit and capacity are set to
+     * zero.
+     *
+     * @param  buffer
+     *         The buffer to release
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer was not allocated from this pool, for example if
+     *         it is a view of a buffer allocated from this pool
+     *
+     * @throws IllegalStateException
+     *         If the buffer was already released
+     */
+    public void release(ByteBuffer buffer) {
+        Object att = (buffer instanceof DirectByteBuffer)
+            ? ((DirectByteBuffer)buffer).attachment() : null;
+        if (!(att instanceof Slab) || ((Slab)att).pool != this)
+            throw new IllegalArgumentException("Buffer was not allocated from this pool");
+        Slab slab = (Slab)att;
+        int index = (slab.sizeClass < 0) ? 0
+            : (int)((((DirectByteBuffer)buffer).address() - slab.base) >>> slab.shift);
+        Tracker t = slab.trackers[index];
+        if (t == null || t.get() != buffer)
+            throw new IllegalStateException("Buffer already released");
+        if (slab.sizeClass < 0) {
+            // views of the buffer may still access the block, which is
+            // freed once its tracker is enqueued
+            if (!t.release())
+                throw new IllegalStateException("Buffer already released");
+            buffer.truncate();
+            memory.count.decrement();
+            memory.totalCapacity.add(-t.capacity);
+            pendingFrees.incrementAndGet();
+            return;
+        }
+        if (!slab.clear(index, t))
+            throw new IllegalStateException("Buffer already released");
+        t.clear();
+        buffer.truncate();
+        free(slab, index, t.capacity);
+    }
+
+    /**
+     * Returns the number of buffers allocated from this pool that became
+     * unreachable without having been released, and whose memory was
+     * reclaimed by the pool.
+     *
+     * @return  The number of leaked buffers of this pool
+     */
+    public long getLeakCount() {
+        return leaks.get();
+    }
+
+    /**
+     * Returns the management interface of the buffers allocated from all
+     * pools.  The {@link BufferPoolMXBean#getName name} of this buffer pool
+     * is {@code "pooled"}; its count and total capacity are those of the
+     * buffers allocated and not yet released, and its memory used is that of
+     * the slabs of the pools, and of the buffers larger than their maximum
+     * pooled capacity.  It is also registered in the platform {@link
+     * javax.management.MBeanServer MBeanServer}, and is one of the buffer
+     * pools returned by {@link
+     * java.lang.management.ManagementFactory#getPlatformMXBeans(Class)
+     * ManagementFactory.getPlatformMXBeans}.
+     *
+     * @return  The {@code BufferPoolMXBean} of pooled buffers
+     */
+    public static BufferPoolMXBean getBufferPoolMXBean() {
+        return PoolMXBean.INSTANCE;
+    }
+
+    // -- Blocks --
+
+    private static int shift(int capacity) {
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    // Returns the number of blocks of the class that a thread may cache
+    private static int cacheSize(int sizeClass) {
+        return Math.min(MAX_CACHED, (1 << CACHE_SHIFT) >>> (sizeClass + MIN_SHIFT));
+    }
+
+    private int take(int sizeClass) {
+        Cache c = cache.get();
+        int n = c.counts[sizeClass];
+        if (n > 0) {
+            c.counts[sizeClass] = --n;
+            return c.handles[sizeClass][n];
+        }
+        return refill(c, sizeClass);
+    }
+
+    // Takes a block from the free list of the class, and moves up to half
+    // the cache size of its other blocks to the cache of the current thread
+    private int refill(Cache c, int sizeClass) {
+        FreeList list = freeLists[sizeClass];
+        int size = cacheSize(sizeClass);
+        int batch = Math.max(size >>> 1, 1);
+        int[] handles = c.handles(sizeClass, size);
+        for (int attempt = 0; ; attempt++) {
+            // reclaiming blocks may have put some in the cache
+            int n = c.counts[sizeClass];
+            if (n > 0) {
+                c.counts[sizeClass] = --n;
+                return handles[n];
+            }
+            synchronized (list) {
+                n = list.take(handles, batch);
+            }
+            if (n > 0) {
+                c.counts[sizeClass] = n - 1;
+                return handles[n - 1];
+            }
+            if (attempt == 0) {
+                reclaimDeadCaches();
+            } else {
+                int[] carved = carve(sizeClass);
+                synchronized (list) {
+                    list.put(carved, 1, carved.length - 1);
+                }
+                return carved[0];
+            }
+        }
+    }
+
+    private void free(Slab slab, int index, int capacity) {
+        memory.count.decrement();
+        memory.totalCapacity.add(-capacity);
+        int sizeClass = slab.sizeClass;
+        if (sizeClass < 0) {
+            unpooled.remove(slab);
+            memory.free(slab.base);
+            return;
+        }
+        int handle = (slab.id << INDEX_BITS) | index;
+        int size = cacheSize(sizeClass);
+        if (size == 0) {
+            FreeList list = freeLists[sizeClass];
+            synchronized (list) {
+                list.put(handle);
+            }
+            return;
+        }
+        Cache c = cache.get();
+        int[] handles = c.handles(sizeClass, size);
+        int n = c.counts[sizeClass];
+        if (n == size) {
+            // move the older half of the cache to the free list
+            int half = (size + 1) >>> 1;
+            FreeList list = freeLists[sizeClass];
+            synchronized (list) {
+                list.put(handles, 0, half);
+            }
+            n -= half;
+            System.arraycopy(handles, half, handles, 0, n);
+        }
+        handles[n] = handle;
+        c.counts[sizeClass] = n + 1;
+    }
+
+    // Allocates a new slab of the class, and returns the handles of its blocks
+    private int[] carve(int sizeClass) {
+        int shift = sizeClass + MIN_SHIFT;
+        int slabShift = Math.max(shift, Math.min(MAX_SLAB_SHIFT,
+            Math.max(MIN_SLAB_SHIFT, shift + SLAB_BLOCKS_SHIFT)));
+        int blocks = 1 << (slabShift - shift);
+        long base = allocateMemory(1 << slabShift);
+        synchronized (slabLock) {
+            int id = slabCount;
+            if (id == MAX_SLABS) {
+                memory.free(base);
+                throw new OutOfMemoryError("Direct buffer pool slabs");
+            }
+            Slab slab = new Slab(this, id, base, blocks, shift);
+            Slab[] a = slabs;
+            if (id == a.length)
+                a = Arrays.copyOf(a, id << 1);
+            a[id] = slab;
+            slabs = a;
+            slabCount = id + 1;
+            int[] handles = new int[blocks];
+            for (int i = 0; i < blocks; i++)
+                handles[i] = (id << INDEX_BITS) | i;
+            return handles;
+        }
+    }
+
+    // Returns the blocks of the buffers found unreachable by the garbage
+    // collector to the pool, and frees those of the released buffers larger
+    // than the maximum pooled capacity
+    private void reclaimLeaked() {
+        Tracker t;
+        while ((t = (Tracker)leaked.poll()) != null) {
+            Slab slab = t.slab;
+            if (slab.clear(t.index, t)) {
+                if (t.isReleased()) {
+                    unpooled.remove(slab);
+                    memory.free(slab.base);
+                    pendingFrees.decrementAndGet();
+                } else {
+                    leaks.incrementAndGet();
+                    free(slab, t.index, t.capacity);
+                }
+            }
+        }
+    }
+
+    // Allocates a block of native memory.  The block of a released buffer
+    // larger than the maximum pooled capacity is freed only once the buffer
+    // is found unreachable, so while there are such blocks the garbage
+    // collector is invoked, and their trackers waited for, before giving up.
+    // Other threads may release buffers meanwhile, so each retry collects.
+    private long allocateMemory(int size) {
+        long address = memory.allocate(size);
+        if (address != 0)
+            return address;
+        reclaimLeaked();
+        if ((address = memory.allocate(size)) != 0)
+            return address;
+        if (pendingFrees.get() == 0)
+            throw new OutOfMemoryError("Direct buffer memory");
+
+        JavaLangRefAccess jlra = SharedSecrets.getJavaLangRefAccess();
+        boolean interrupted = false;
+        try {
+            long sleepTime = 1;
+            int sleeps = 0;
+            while (true) {
+                reclaimLeaked();
+                if ((address = memory.allocate(size)) != 0)
+                    return address;
+                if (sleeps >= MAX_SLEEPS || pendingFrees.get() == 0)
+                    throw new OutOfMemoryError("Direct buffer memory");
+                if (!jlra.tryHandlePendingReference()) {
+                    System.gc();
+                    try {
+                        Thread.sleep(sleepTime);
+                        sleepTime <<= 1;
+                        sleeps++;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns the blocks cached by terminated threads to the free lists
+    private void reclaimDeadCaches() {
+        reclaimLeaked();
+        synchronized (caches) {
+            for (Iterator<Cache> it = caches.iterator(); it.hasNext(); ) {
+                Cache c = it.next();
+                Thread owner = c.owner.get();
+                if (owner != null && owner.isAlive())
+                    continue;
+                it.remove();
+                for (int i = 0; i < freeLists.length; i++) {
+                    int n = c.counts[i];
+                    if (n > 0) {
+                        synchronized (freeLists[i]) {
+                            freeLists[i].put(c.handles[i], 0, n);
+                        }
+                        c.counts[i] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    // A slab of blocks of one size class, or the block of a buffer larger
+    // than the maximum pooled capacity, whose size class is then -1.  It is
+    // the attachment of the buffers of its blocks.
+    private static final class Slab {
+        final DirectBufferPool pool;
+        final int id;
+        final long base;
+        final int shift;
+        final int sizeClass;
+        // The tracker of the buffer of each allocated block
+        final Tracker[] trackers;
+
+        Slab(DirectBufferPool pool, int id, long base, int blocks, int shift) {
+            this.pool = pool;
+            this.id = id;
+            this.base = base;
+            this.shift = shift;
+            this.sizeClass = (id < 0) ? -1 : shift - MIN_SHIFT;
+            this.trackers = new Tracker[blocks];
+        }
+
+        long address(int index) {
+            return base + ((long)index << shift);
+        }
+
+        // Frees the block if its buffer is still tracked by t
+        boolean clear(int index, Tracker t) {
+            return unsafe.compareAndSwapObject(trackers,
+                TBASE + ((long)index << TSHIFT), t, null);
+        }
+    }
+
+    // Detects that the buffer of a block becomes unreachable while the block
+    // is allocated, or, for a buffer larger than the maximum pooled capacity,
+    // before its block is freed.  Views of a buffer refer to it, so they are
+    // unreachable too.
+    private static final class Tracker extends WeakReference<ByteBuffer> {
+        final Slab slab;
+        final int index;
+        final int capacity;
+        private boolean released;           // guarded by this
+
+        Tracker(ByteBuffer bb, ReferenceQueue<ByteBuffer> q, Slab slab, int index) {
+            super(bb, q);
+            this.slab = slab;
+            this.index = index;
+            this.capacity = bb.capacity();
+        }
+
+        synchronized boolean release() {
+            if (released)
+                return false;
+            released = true;
+            return true;
+        }
+
+        synchronized boolean isReleased() {
+            return released;
+        }
+    }
+
+    // The handles of the free blocks of a size class, guarded by its lock
+    private static final class FreeList {
+        private int[] handles = new int[MAX_CACHED];
+        private int size;
+
+        int take(int[] dst, int max) {
+            int n = Math.min(size, max);
+            size -= n;
+            System.arraycopy(handles, size, dst, 0, n);
+            return n;
+        }
+
+        void put(int[] src, int off, int len) {
+            if (size + len > handles.length)
+                handles = Arrays.copyOf(handles,
+                    Math.max(handles.length << 1, size + len));
+            System.arraycopy(src, off, handles, size, len);
+            size += len;
+        }
+
+        void put(int handle) {
+            if (size == handles.length)
+                handles = Arrays.copyOf(handles, size << 1);
+            handles[size++] = handle;
+        }
+    }
+
+    // The handles of the free blocks cached by a thread
+    private static final class Cache {
+        final WeakReference<Thread> owner
+            = new WeakReference<>(Thread.currentThread());
+        final int[][] handles;
+        final int[] counts;
+
+        Cache(int classes) {
+            handles = new int[classes][];
+            counts = new int[classes];
+        }
+
+        int[] handles(int sizeClass, int size) {
+            int[] a = handles[sizeClass];
+            if (a == null)
+                handles[sizeClass] = a = new int[Math.max(size, 1)];
+            return a;
+        }
+    }
+
+    // The native memory of a pool, which is freed by its cleaner, and the
+    // counters of its buffers
+    private static final class Memory implements Runnable {
+        private final Map<Long,Integer> blocks = new HashMap<>();
+        final LongAdder count = new LongAdder();
+        final LongAdder totalCapacity = new LongAdder();
+        volatile long used;
+
+        // Returns the address of a new block, or zero if the limit on direct
+        // memory would be exceeded
+        synchronized long allocate(int size) {
+            // a pool reclaims its own memory, so the Cleaners of unreachable
+            // buffers are not waited for
+            if (!Bits.tryReserveMemoryNoWait(size, size))
+                return 0;
+            long address;
+            try {
+                address = unsafe.allocateMemory(Math.max(1, size));
+            } catch (OutOfMemoryError x) {
+                Bits.unreserveMemory(size, size);
+                throw x;
+            }
+            blocks.put(address, size);
+            used += size;
+            return address;
+        }
+
+        synchronized void free(long address) {
+            int size = blocks.remove(address);
+            unsafe.freeMemory(address);
+            Bits.unreserveMemory(size, size);
+            used -= size;
+        }
+
+        public synchronized void run() {
+            for (Long address : new ArrayList<>(blocks.keySet()))
+                free(address);
+            memories.remove(this);
+        }
+    }
+
+    private static final class PoolMXBean implements BufferPoolMXBean {
+        static final PoolMXBean INSTANCE = new PoolMXBean();
+
+        @Override
+        public ObjectName getObjectName() {
+            return sun.management.Util.newObjectName("java.nio:type=BufferPool,name=pooled");
+        }
+
+        @Override
+        public String getName() {
+            return "pooled";
+        }
+
+        @Override
+        public long getCount() {
+            long n = 0;
+            for (Memory m : memories)
+                n += m.count.sum();
+            return n;
+        }
+
+        @Override
+        public long getTotalCapacity() {
+            long n = 0;
+            for (Memory m : memories)
+                n += m.totalCapacity.sum();
+            return n;
+        }
+
+        @Override
+        public long getMemoryUsed() {
+            long n = 0;
+            for (Memory m : memories)
+                n += m.used;
+            return n;
+        }
+    }
+}
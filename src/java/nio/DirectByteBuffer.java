@@ -51,6 +51,11 @@ class DirectByteBuffer
     // Cached array base offset
     private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(byte[].class);
 
+    // Cached array base offsets for bulk transfers of other primitive types
+    private static final long intArrayBaseOffset = (long)unsafe.arrayBaseOffset(int[].class);
+    private static final long longArrayBaseOffset = (long)unsafe.arrayBaseOffset(long[].class);
+    private static final long doubleArrayBaseOffset = (long)unsafe.arrayBaseOffset(double[].class);
+
     // Cached unaligned-access capability
     protected static final boolean unaligned = Bits.unaligned();
 
@@ -291,6 +296,21 @@ class DirectByteBuffer
 
 
 
+    public ByteBuffer get(int index, byte[] dst, int offset, int length) {
+        if ((long)length > Bits.JNI_COPY_TO_ARRAY_THRESHOLD) {
+            checkBounds(index, length, limit());
+            checkBounds(offset, length, dst.length);
+            Bits.copyToArray(ix(index), dst, arrayBaseOffset,
+                             (long)offset,
+                             (long)length);
+        } else {
+            super.get(index, dst, offset, length);
+        }
+        return this;
+    }
+
+
+
     public ByteBuffer put(byte x) {
 
         unsafe.putByte(ix(nextPutIndex()), ((x)));
@@ -381,6 +401,59 @@ class DirectByteBuffer
 
     }
 
+    public ByteBuffer put(int index, byte[] src, int offset, int length) {
+
+        if ((long)length > Bits.JNI_COPY_FROM_ARRAY_THRESHOLD) {
+            checkBounds(index, length, limit());
+            checkBounds(offset, length, src.length);
+            Bits.copyFromArray(src, arrayBaseOffset,
+                               (long)offset,
+                               ix(index),
+                               (long)length);
+        } else {
+            super.put(index, src, offset, length);
+        }
+        return this;
+
+
+
+    }
+
+    // Copies length elements of (1 << shift) bytes at the position of this
+    // buffer into an array at once, swapping their bytes unless the order of
+    // this buffer is the native order.  Returns false, so that the elements
+    // are copied one by one, if there are too few for a copy at once to be
+    // faster, or fewer remaining bytes in this buffer, or if they are not
+    // aligned as required by this platform to be swapped.
+    private boolean getArray(Object dst, long dstOffset, int length, int shift) {
+        int pos = position();
+        int lim = limit();
+        long n = (long)length << shift;
+        if (length <= Bits.JNI_COPY_TO_ARRAY_THRESHOLD || pos > lim || n > lim - pos)
+            return false;
+        long a = ix(pos);
+        if (!nativeByteOrder && !unaligned && (a & ((1 << shift) - 1)) != 0)
+            return false;
+        Bits.copyMemory(null, a, dst, dstOffset, n, 1 << shift, !nativeByteOrder);
+        position(pos + (int)n);
+        return true;
+    }
+
+    // The inverse of getArray
+    private boolean putArray(Object src, long srcOffset, int length, int shift) {
+        int pos = position();
+        int lim = limit();
+        long n = (long)length << shift;
+        if (length <= Bits.JNI_COPY_FROM_ARRAY_THRESHOLD || pos > lim || n > lim - pos)
+            return false;
+        long a = ix(pos);
+        if (!nativeByteOrder && !unaligned && (a & ((1 << shift) - 1)) != 0)
+            return false;
+        Bits.copyMemory(src, srcOffset, null, a, n, 1 << shift, !nativeByteOrder);
+        position(pos + (int)n);
+        return true;
+    }
+
     public ByteBuffer compact() {
 
         int pos = position();
@@ -485,7 +558,7 @@ class DirectByteBuffer
 
 
     private char getChar(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 1) == 0) {
             char x = unsafe.getChar(a);
             return (nativeByteOrder ? x : Bits.swap(x));
         }
@@ -504,7 +577,7 @@ class DirectByteBuffer
 
     private ByteBuffer putChar(long a, char x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 1) == 0) {
             char y = (x);
             unsafe.putChar(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -576,7 +649,7 @@ class DirectByteBuffer
 
 
     private short getShort(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 1) == 0) {
             short x = unsafe.getShort(a);
             return (nativeByteOrder ? x : Bits.swap(x));
         }
@@ -595,7 +668,7 @@ class DirectByteBuffer
 
     private ByteBuffer putShort(long a, short x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 1) == 0) {
             short y = (x);
             unsafe.putShort(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -667,7 +740,7 @@ class DirectByteBuffer
 
 
     private int getInt(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 3) == 0) {
             int x = unsafe.getInt(a);
             return (nativeByteOrder ? x : Bits.swap(x));
         }
@@ -686,7 +759,7 @@ class DirectByteBuffer
 
     private ByteBuffer putInt(long a, int x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 3) == 0) {
             int y = (x);
             unsafe.putInt(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -754,11 +827,29 @@ class DirectByteBuffer
         }
     }
 
+    public ByteBuffer getInts(int[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, intArrayBaseOffset + ((long)offset << 2), length, 2))
+            super.getInts(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putInts(int[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, intArrayBaseOffset + ((long)offset << 2), length, 2))
+            super.putInts(src, offset, length);
+        return this;
+
+
+
+    }
+
 
 
 
     private long getLong(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 7) == 0) {
             long x = unsafe.getLong(a);
             return (nativeByteOrder ? x : Bits.swap(x));
         }
@@ -777,7 +868,7 @@ class DirectByteBuffer
 
     private ByteBuffer putLong(long a, long x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 7) == 0) {
             long y = (x);
             unsafe.putLong(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -845,11 +936,29 @@ class DirectByteBuffer
         }
     }
 
+    public ByteBuffer getLongs(long[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, longArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.getLongs(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putLongs(long[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, longArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.putLongs(src, offset, length);
+        return this;
+
+
+
+    }
+
 
 
 
     private float getFloat(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 3) == 0) {
             int x = unsafe.getInt(a);
             return Float.intBitsToFloat(nativeByteOrder ? x : Bits.swap(x));
         }
@@ -868,7 +977,7 @@ class DirectByteBuffer
 
     private ByteBuffer putFloat(long a, float x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 3) == 0) {
             int y = Float.floatToRawIntBits(x);
             unsafe.putInt(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -940,7 +1049,7 @@ class DirectByteBuffer
 
 
     private double getDouble(long a) {
-        if (unaligned) {
+        if (unaligned || (a & 7) == 0) {
             long x = unsafe.getLong(a);
             return Double.longBitsToDouble(nativeByteOrder ? x : Bits.swap(x));
         }
@@ -959,7 +1068,7 @@ class DirectByteBuffer
 
     private ByteBuffer putDouble(long a, double x) {
 
-        if (unaligned) {
+        if (unaligned || (a & 7) == 0) {
             long y = Double.doubleToRawLongBits(x);
             unsafe.putLong(a, (nativeByteOrder ? y : Bits.swap(y)));
         } else {
@@ -1027,4 +1136,22 @@ class DirectByteBuffer
         }
     }
 
+    public ByteBuffer getDoubles(double[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, doubleArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.getDoubles(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putDoubles(double[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, doubleArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.putDoubles(src, offset, length);
+        return this;
+
+
+
+    }
+
 }
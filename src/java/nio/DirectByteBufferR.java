@@ -369,6 +369,19 @@ class DirectByteBufferR
 
 
 
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
+    public ByteBuffer put(int index, byte[] src, int offset, int length) {
 
 
 
@@ -754,6 +767,19 @@ class DirectByteBufferR
         }
     }
 
+    public ByteBuffer putInts(int[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 
 
 
@@ -845,6 +871,19 @@ class DirectByteBufferR
         }
     }
 
+    public ByteBuffer putLongs(long[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 
 
 
@@ -1027,4 +1066,17 @@ class DirectByteBufferR
         }
     }
 
+    public ByteBuffer putDoubles(double[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 }
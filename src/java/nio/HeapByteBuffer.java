@@ -27,6 +27,8 @@
 
 package java.nio;
 
+import sun.misc.Unsafe;
+
 
 /**
 
@@ -43,6 +45,20 @@ class HeapByteBuffer
     extends ByteBuffer
 {
 
+    // Cached unsafe-access object
+    private static final Unsafe unsafe = Bits.unsafe();
+
+    // Cached array base offset
+    private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(byte[].class);
+
+    // Cached array base offsets for bulk transfers of other primitive types
+    private static final long intArrayBaseOffset = (long)unsafe.arrayBaseOffset(int[].class);
+    private static final long longArrayBaseOffset = (long)unsafe.arrayBaseOffset(long[].class);
+    private static final long doubleArrayBaseOffset = (long)unsafe.arrayBaseOffset(double[].class);
+
+    // Cached unaligned-access capability
+    private static final boolean unaligned = Bits.unaligned();
+
     // For speed these fields are actually declared in X-Buffer;
     // these declarations are here as documentation
     /*
@@ -157,6 +173,13 @@ class HeapByteBuffer
         return this;
     }
 
+    public ByteBuffer get(int index, byte[] dst, int offset, int length) {
+        checkBounds(index, length, limit());
+        checkBounds(offset, length, dst.length);
+        System.arraycopy(hb, ix(index), dst, offset, length);
+        return this;
+    }
+
     public boolean isDirect() {
         return false;
     }
@@ -196,6 +219,17 @@ class HeapByteBuffer
 
 
 
+    }
+
+    public ByteBuffer put(int index, byte[] src, int offset, int length) {
+
+        checkBounds(index, length, limit());
+        checkBounds(offset, length, src.length);
+        System.arraycopy(src, offset, hb, ix(index), length);
+        return this;
+
+
+
     }
 
     public ByteBuffer put(ByteBuffer src) {
@@ -256,23 +290,86 @@ class HeapByteBuffer
 
     }
 
+    // Returns the offset in the array of the byte at the given index of this
+    // buffer, for Unsafe accesses; as arrays are aligned to at least eight
+    // bytes, it is aligned as the address of the byte
+    private long byteOffset(int i) {
+        return arrayBaseOffset + ix(i);
+    }
+
+    // The index in the array of the byte at the given offset
+    private static int arrayIndex(long a) {
+        return (int)(a - arrayBaseOffset);
+    }
+
+    // Copies length elements of (1 << shift) bytes at the position of this
+    // buffer into an array at once, swapping their bytes unless the order of
+    // this buffer is the native order.  Returns false, so that the elements
+    // are copied one by one, if there are too few for a copy at once to be
+    // faster, or fewer remaining bytes in this buffer, or if they are not
+    // aligned as required by this platform to be swapped.
+    private boolean getArray(Object dst, long dstOffset, int length, int shift) {
+        int pos = position();
+        int lim = limit();
+        long n = (long)length << shift;
+        if (length <= Bits.JNI_COPY_TO_ARRAY_THRESHOLD || pos > lim || n > lim - pos)
+            return false;
+        long a = byteOffset(pos);
+        if (!nativeByteOrder && !unaligned && (a & ((1 << shift) - 1)) != 0)
+            return false;
+        Bits.copyMemory(hb, a, dst, dstOffset, n, 1 << shift, !nativeByteOrder);
+        position(pos + (int)n);
+        return true;
+    }
+
+    // The inverse of getArray
+    private boolean putArray(Object src, long srcOffset, int length, int shift) {
+        int pos = position();
+        int lim = limit();
+        long n = (long)length << shift;
+        if (length <= Bits.JNI_COPY_FROM_ARRAY_THRESHOLD || pos > lim || n > lim - pos)
+            return false;
+        long a = byteOffset(pos);
+        if (!nativeByteOrder && !unaligned && (a & ((1 << shift) - 1)) != 0)
+            return false;
+        Bits.copyMemory(src, srcOffset, hb, a, n, 1 << shift, !nativeByteOrder);
+        position(pos + (int)n);
+        return true;
+    }
+
     // char
 
 
 
+    private char getChar(long a) {
+        if (unaligned || (a & 1) == 0) {
+            char x = unsafe.getChar(hb, a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getChar(this, arrayIndex(a), bigEndian);
+    }
+
     public char getChar() {
-        return Bits.getChar(this, ix(nextGetIndex(2)), bigEndian);
+        return getChar(byteOffset(nextGetIndex(2)));
     }
 
     public char getChar(int i) {
-        return Bits.getChar(this, ix(checkIndex(i, 2)), bigEndian);
+        return getChar(byteOffset(checkIndex(i, 2)));
     }
 
 
 
+    private void putChar(long a, char x) {
+        if (unaligned || (a & 1) == 0) {
+            unsafe.putChar(hb, a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putChar(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putChar(char x) {
 
-        Bits.putChar(this, ix(nextPutIndex(2)), x, bigEndian);
+        putChar(byteOffset(nextPutIndex(2)), x);
         return this;
 
 
@@ -281,7 +378,7 @@ class HeapByteBuffer
 
     public ByteBuffer putChar(int i, char x) {
 
-        Bits.putChar(this, ix(checkIndex(i, 2)), x, bigEndian);
+        putChar(byteOffset(checkIndex(i, 2)), x);
         return this;
 
 
@@ -311,19 +408,35 @@ class HeapByteBuffer
 
 
 
+    private short getShort(long a) {
+        if (unaligned || (a & 1) == 0) {
+            short x = unsafe.getShort(hb, a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getShort(this, arrayIndex(a), bigEndian);
+    }
+
     public short getShort() {
-        return Bits.getShort(this, ix(nextGetIndex(2)), bigEndian);
+        return getShort(byteOffset(nextGetIndex(2)));
     }
 
     public short getShort(int i) {
-        return Bits.getShort(this, ix(checkIndex(i, 2)), bigEndian);
+        return getShort(byteOffset(checkIndex(i, 2)));
     }
 
 
 
+    private void putShort(long a, short x) {
+        if (unaligned || (a & 1) == 0) {
+            unsafe.putShort(hb, a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putShort(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putShort(short x) {
 
-        Bits.putShort(this, ix(nextPutIndex(2)), x, bigEndian);
+        putShort(byteOffset(nextPutIndex(2)), x);
         return this;
 
 
@@ -332,7 +445,7 @@ class HeapByteBuffer
 
     public ByteBuffer putShort(int i, short x) {
 
-        Bits.putShort(this, ix(checkIndex(i, 2)), x, bigEndian);
+        putShort(byteOffset(checkIndex(i, 2)), x);
         return this;
 
 
@@ -362,19 +475,35 @@ class HeapByteBuffer
 
 
 
+    private int getInt(long a) {
+        if (unaligned || (a & 3) == 0) {
+            int x = unsafe.getInt(hb, a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getInt(this, arrayIndex(a), bigEndian);
+    }
+
     public int getInt() {
-        return Bits.getInt(this, ix(nextGetIndex(4)), bigEndian);
+        return getInt(byteOffset(nextGetIndex(4)));
     }
 
     public int getInt(int i) {
-        return Bits.getInt(this, ix(checkIndex(i, 4)), bigEndian);
+        return getInt(byteOffset(checkIndex(i, 4)));
     }
 
 
 
+    private void putInt(long a, int x) {
+        if (unaligned || (a & 3) == 0) {
+            unsafe.putInt(hb, a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putInt(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putInt(int x) {
 
-        Bits.putInt(this, ix(nextPutIndex(4)), x, bigEndian);
+        putInt(byteOffset(nextPutIndex(4)), x);
         return this;
 
 
@@ -383,7 +512,7 @@ class HeapByteBuffer
 
     public ByteBuffer putInt(int i, int x) {
 
-        Bits.putInt(this, ix(checkIndex(i, 4)), x, bigEndian);
+        putInt(byteOffset(checkIndex(i, 4)), x);
         return this;
 
 
@@ -408,24 +537,58 @@ class HeapByteBuffer
                                                              off)));
     }
 
+    public ByteBuffer getInts(int[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, intArrayBaseOffset + ((long)offset << 2), length, 2))
+            super.getInts(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putInts(int[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, intArrayBaseOffset + ((long)offset << 2), length, 2))
+            super.putInts(src, offset, length);
+        return this;
+
+
+
+    }
+
 
     // long
 
 
 
+    private long getLong(long a) {
+        if (unaligned || (a & 7) == 0) {
+            long x = unsafe.getLong(hb, a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getLong(this, arrayIndex(a), bigEndian);
+    }
+
     public long getLong() {
-        return Bits.getLong(this, ix(nextGetIndex(8)), bigEndian);
+        return getLong(byteOffset(nextGetIndex(8)));
     }
 
     public long getLong(int i) {
-        return Bits.getLong(this, ix(checkIndex(i, 8)), bigEndian);
+        return getLong(byteOffset(checkIndex(i, 8)));
     }
 
 
 
+    private void putLong(long a, long x) {
+        if (unaligned || (a & 7) == 0) {
+            unsafe.putLong(hb, a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putLong(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putLong(long x) {
 
-        Bits.putLong(this, ix(nextPutIndex(8)), x, bigEndian);
+        putLong(byteOffset(nextPutIndex(8)), x);
         return this;
 
 
@@ -434,7 +597,7 @@ class HeapByteBuffer
 
     public ByteBuffer putLong(int i, long x) {
 
-        Bits.putLong(this, ix(checkIndex(i, 8)), x, bigEndian);
+        putLong(byteOffset(checkIndex(i, 8)), x);
         return this;
 
 
@@ -459,24 +622,59 @@ class HeapByteBuffer
                                                                off)));
     }
 
+    public ByteBuffer getLongs(long[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, longArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.getLongs(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putLongs(long[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, longArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.putLongs(src, offset, length);
+        return this;
+
+
+
+    }
+
 
     // float
 
 
 
+    private float getFloat(long a) {
+        if (unaligned || (a & 3) == 0) {
+            int x = unsafe.getInt(hb, a);
+            return Float.intBitsToFloat(nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getFloat(this, arrayIndex(a), bigEndian);
+    }
+
     public float getFloat() {
-        return Bits.getFloat(this, ix(nextGetIndex(4)), bigEndian);
+        return getFloat(byteOffset(nextGetIndex(4)));
     }
 
     public float getFloat(int i) {
-        return Bits.getFloat(this, ix(checkIndex(i, 4)), bigEndian);
+        return getFloat(byteOffset(checkIndex(i, 4)));
     }
 
 
 
+    private void putFloat(long a, float x) {
+        if (unaligned || (a & 3) == 0) {
+            int y = Float.floatToRawIntBits(x);
+            unsafe.putInt(hb, a, (nativeByteOrder ? y : Bits.swap(y)));
+        } else {
+            Bits.putFloat(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putFloat(float x) {
 
-        Bits.putFloat(this, ix(nextPutIndex(4)), x, bigEndian);
+        putFloat(byteOffset(nextPutIndex(4)), x);
         return this;
 
 
@@ -485,7 +683,7 @@ class HeapByteBuffer
 
     public ByteBuffer putFloat(int i, float x) {
 
-        Bits.putFloat(this, ix(checkIndex(i, 4)), x, bigEndian);
+        putFloat(byteOffset(checkIndex(i, 4)), x);
         return this;
 
 
@@ -515,19 +713,36 @@ class HeapByteBuffer
 
 
 
+    private double getDouble(long a) {
+        if (unaligned || (a & 7) == 0) {
+            long x = unsafe.getLong(hb, a);
+            return Double.longBitsToDouble(nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getDouble(this, arrayIndex(a), bigEndian);
+    }
+
     public double getDouble() {
-        return Bits.getDouble(this, ix(nextGetIndex(8)), bigEndian);
+        return getDouble(byteOffset(nextGetIndex(8)));
     }
 
     public double getDouble(int i) {
-        return Bits.getDouble(this, ix(checkIndex(i, 8)), bigEndian);
+        return getDouble(byteOffset(checkIndex(i, 8)));
     }
 
 
 
+    private void putDouble(long a, double x) {
+        if (unaligned || (a & 7) == 0) {
+            long y = Double.doubleToRawLongBits(x);
+            unsafe.putLong(hb, a, (nativeByteOrder ? y : Bits.swap(y)));
+        } else {
+            Bits.putDouble(this, arrayIndex(a), x, bigEndian);
+        }
+    }
+
     public ByteBuffer putDouble(double x) {
 
-        Bits.putDouble(this, ix(nextPutIndex(8)), x, bigEndian);
+        putDouble(byteOffset(nextPutIndex(8)), x);
         return this;
 
 
@@ -536,7 +751,7 @@ class HeapByteBuffer
 
     public ByteBuffer putDouble(int i, double x) {
 
-        Bits.putDouble(this, ix(checkIndex(i, 8)), x, bigEndian);
+        putDouble(byteOffset(checkIndex(i, 8)), x);
         return this;
 
 
@@ -561,6 +776,24 @@ class HeapByteBuffer
                                                                    off)));
     }
 
+    public ByteBuffer getDoubles(double[] dst, int offset, int length) {
+        checkBounds(offset, length, dst.length);
+        if (!getArray(dst, doubleArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.getDoubles(dst, offset, length);
+        return this;
+    }
+
+    public ByteBuffer putDoubles(double[] src, int offset, int length) {
+
+        checkBounds(offset, length, src.length);
+        if (!putArray(src, doubleArrayBaseOffset + ((long)offset << 3), length, 3))
+            super.putDoubles(src, offset, length);
+        return this;
+
+
+
+    }
+
 
 
 
@@ -194,6 +194,19 @@ class HeapByteBufferR
 
 
 
+        throw new ReadOnlyBufferException();
+
+    }
+
+    public ByteBuffer put(int index, byte[] src, int offset, int length) {
+
+
+
+
+
+
+
+
         throw new ReadOnlyBufferException();
 
     }
@@ -408,6 +421,19 @@ class HeapByteBufferR
                                                              off)));
     }
 
+    public ByteBuffer putInts(int[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 
     // long
 
@@ -459,6 +485,19 @@ class HeapByteBufferR
                                                                off)));
     }
 
+    public ByteBuffer putLongs(long[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 
     // float
 
@@ -561,6 +600,19 @@ class HeapByteBufferR
                                                                    off)));
     }
 
+    public ByteBuffer putDoubles(double[] src, int offset, int length) {
+
+
+
+
+
+
+
+
+        throw new ReadOnlyBufferException();
+
+    }
+
 
 
 
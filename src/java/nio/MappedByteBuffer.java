@@ -205,6 +205,68 @@ public abstract class MappedByteBuffer
         return this;
     }
 
+    // -- Ranges of the content, for MappedSegment --
+
+    // Returns the page aligned address at or below the address of the given
+    // index of this buffer
+    private long pageAddress(long index) {
+        int ps = Bits.pageSize();
+        long a = address + index;
+        long offset = a % ps;
+        return a - ((offset >= 0) ? offset : (ps + offset));
+    }
+
+    /**
+     * Tells whether or not the given range of this buffer's content is
+     * likely to be resident in physical memory.
+     */
+    final boolean isLoaded(long index, long length) {
+        checkMapped();
+        if ((address == 0) || (length == 0))
+            return true;
+        long a = pageAddress(index);
+        long len = address + index + length - a;
+        return isLoaded0(a, len, Bits.pageCount(len));
+    }
+
+    /**
+     * Advises that the given range of this buffer's content will be needed
+     * soon, and if {@code touch} is true, reads a byte from each of its pages
+     * to bring it into physical memory, as {@link #load()} does.
+     */
+    final void load(long index, long length, boolean touch) {
+        checkMapped();
+        if ((address == 0) || (length == 0))
+            return;
+        long a = pageAddress(index);
+        long len = address + index + length - a;
+        load0(a, len);
+        if (touch) {
+            Unsafe unsafe = Unsafe.getUnsafe();
+            int ps = Bits.pageSize();
+            int count = Bits.pageCount(len);
+            byte x = 0;
+            for (int i=0; i<count; i++) {
+                x ^= unsafe.getByte(a);
+                a += ps;
+            }
+            if (unused != 0)
+                unused = x;
+        }
+    }
+
+    /**
+     * Forces any changes made to the given range of this buffer's content to
+     * be written to the storage device containing the mapped file.
+     */
+    final void force(long index, long length) {
+        checkMapped();
+        if ((address == 0) || (length == 0))
+            return;
+        long a = pageAddress(index);
+        force0(fd, a, address + index + length - a);
+    }
+
     private native boolean isLoaded0(long address, long length, int pageCount);
     private native void load0(long address, long length);
     private native void force0(FileDescriptor fd, long address, long length);
@@ -0,0 +1,1188 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import sun.misc.Cleaner;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+
+/**
+ * A region of a file mapped into memory, of any size, whose content is
+ * accessed at {@code long} offsets, and which may be closed explicitly.
+ *
+ * <p> A mapped segment is created by the {@link #map map} method, which maps
+ * the file as consecutive {@link MappedByteBuffer}s of up to 2<sup>30</sup>
+ * bytes each.  They are unmapped when the segment is closed or, if it is
+ * never closed, when it and its slices become unreachable, as for a mapped
+ * byte buffer.
+ *
+ * <p> A segment has absolute get and put methods for bytes and each of the
+ * other primitive types, at offsets from the start of the segment, using the
+ * segment's {@link #order() byte order}; bulk get and put methods for byte
+ * arrays and byte buffers; a method to copy bytes between segments; and a
+ * method to create a slice sharing the mapping.  Unlike a buffer, a segment
+ * has no position, limit or mark.
+ *
+ * <p> A segment is confined to the thread that mapped it, its <i>owner</i>.
+ * Only the owner may access the content of the segment and of the slices
+ * sharing its mapping, or close them; an attempt by any other thread throws
+ * an {@link IllegalStateException}.  Once a segment, or any slice sharing
+ * its mapping, is {@link #close closed}, any further attempt to access the
+ * content of any of them throws an {@code IllegalStateException}.  Since no
+ * other thread can be accessing the content, closing a segment unmaps it at
+ * once.
+ *
+ * <p> The {@link #load load}, {@link #prefetch prefetch} and {@link
+ * #isLoaded isLoaded} methods advise the operating system about the access
+ * to ranges of the segment, as {@link MappedByteBuffer#load()} does for a
+ * whole buffer.
+ *
+ * @since 1.8
+ */
+
+public final class MappedSegment implements AutoCloseable {
+
+    // The size of the mappings of a segment is a power of two so that an
+    // offset is split into the index of the mapping and the offset within it
+    // by a shift and a mask
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+    private static final long REGION_MASK = REGION_SIZE - 1;
+
+    private static final Unsafe unsafe = Bits.unsafe();
+
+    private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(byte[].class);
+
+    // Cached unaligned-access capability
+    private static final boolean unaligned = Bits.unaligned();
+
+    /**
+     * The mapping shared by a segment and its slices: the buffers mapping
+     * consecutive regions of the file, their addresses, and the thread that
+     * owns them.
+     */
+    private static final class Mapping {
+        private final MappedByteBuffer[] buffers;
+        private final Thread owner;
+
+        // The addresses of the buffers, or null once the mapping is closed.
+        // Only the owner reads them to access the buffers, so closing, also
+        // by the owner, unmaps the buffers at once.
+        private volatile long[] addresses;
+
+        Mapping(MappedByteBuffer[] buffers) {
+            this.buffers = buffers;
+            this.owner = Thread.currentThread();
+            long[] addresses = new long[buffers.length];
+            for (int i = 0; i < buffers.length; i++)
+                addresses[i] = buffers[i].address;
+            this.addresses = addresses;
+        }
+
+        private void checkOwner() {
+            if (Thread.currentThread() != owner)
+                throw new IllegalStateException("Segment is owned by another thread");
+        }
+
+        long[] addresses() {
+            checkOwner();
+            long[] addresses = this.addresses;
+            if (addresses == null)
+                throw new IllegalStateException("Segment is closed");
+            return addresses;
+        }
+
+        MappedByteBuffer buffer(int i) {
+            addresses();
+            return buffers[i];
+        }
+
+        boolean isClosed() {
+            return addresses == null;
+        }
+
+        void close() {
+            checkOwner();
+            if (addresses != null) {
+                addresses = null;
+                unmap(buffers);
+            }
+        }
+
+        // Unmaps buffers that are not, or no longer, accessible through a
+        // mapping
+        static void unmap(MappedByteBuffer[] buffers) {
+            for (int i = 0; i < buffers.length; i++) {
+                if (buffers[i] != null) {
+                    Cleaner cl = ((DirectBuffer)buffers[i]).cleaner();
+                    if (cl != null)
+                        cl.clean();
+                    buffers[i] = null;
+                }
+            }
+        }
+    }
+
+    private final Mapping mapping;
+
+    // The offset of this segment in the mapping, and its size
+    private final long base;
+    private final long size;
+
+    private final boolean readOnly;
+
+    private boolean bigEndian = true;
+    private boolean nativeByteOrder = (Bits.byteOrder() == ByteOrder.BIG_ENDIAN);
+
+    private MappedSegment(Mapping mapping, long base, long size,
+                          boolean readOnly, ByteOrder order) {
+        this.mapping = mapping;
+        this.base = base;
+        this.size = size;
+        this.readOnly = readOnly;
+        order(order);
+    }
+
+    /**
+     * Maps a region of a file into memory as a segment.
+     *
+     * <p> The mode and the effect of the mapping on the file, such as
+     * extending it if the region ends past its end in the read/write mode,
+     * are as specified by {@link FileChannel#map FileChannel.map}.  The new
+     * segment's byte order is {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.
+     *
+     * @param  channel
+     *         The channel of the file
+     *
+     * @param  mode
+     *         One of the constants {@link FileChannel.MapMode#READ_ONLY
+     *         READ_ONLY}, {@link FileChannel.MapMode#READ_WRITE READ_WRITE},
+     *         or {@link FileChannel.MapMode#PRIVATE PRIVATE}
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped segment
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     *
+     * @throws java.nio.channels.NonReadableChannelException
+     *         If the channel was not opened for reading
+     *
+     * @throws java.nio.channels.NonWritableChannelException
+     *         If the mode is {@code READ_WRITE} or {@code PRIVATE} and the
+     *         channel was not opened for both reading and writing
+     *
+     * @throws IOException
+     *         If some other I/O error occurs
+     *
+     * @see FileChannel#map
+     */
+    public static MappedSegment map(FileChannel channel, FileChannel.MapMode mode,
+                                    long position, long size)
+        throws IOException
+    {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(mode);
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size < 0L)
+            throw new IllegalArgumentException("Negative size");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+        long count = (size + REGION_MASK) >>> REGION_SHIFT;
+        if (count > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Size exceeds "
+                                               + ((long)Integer.MAX_VALUE << REGION_SHIFT));
+        MappedByteBuffer[] buffers = new MappedByteBuffer[(int)count];
+        try {
+            for (int i = 0; i < buffers.length; i++) {
+                long p = (long)i << REGION_SHIFT;
+                buffers[i] = channel.map(mode, position + p, Math.min(REGION_SIZE, size - p));
+            }
+        } catch (IOException | RuntimeException | Error x) {
+            Mapping.unmap(buffers);
+            throw x;
+        }
+        return new MappedSegment(new Mapping(buffers), 0L, size,
+                                 mode == FileChannel.MapMode.READ_ONLY,
+                                 ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Returns this segment's size.
+     *
+     * @return  The number of bytes in this segment
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Tells whether or not this segment is read-only.
+     *
+     * @return  <tt>true</tt> if, and only if, this segment is read-only
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Tells whether or not this segment is open, that is, whether neither
+     * it nor any segment sharing its mapping has been closed.
+     *
+     * @return  <tt>true</tt> if, and only if, this segment is open
+     */
+    public boolean isOpen() {
+        return !mapping.isClosed();
+    }
+
+    /**
+     * Retrieves this segment's byte order.
+     *
+     * @return  This segment's byte order
+     */
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Modifies this segment's byte order.
+     *
+     * @param  bo
+     *         The new byte order,
+     *         either {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}
+     *         or {@link ByteOrder#LITTLE_ENDIAN LITTLE_ENDIAN}
+     *
+     * @return  This segment
+     */
+    public MappedSegment order(ByteOrder bo) {
+        bigEndian = (bo == ByteOrder.BIG_ENDIAN);
+        nativeByteOrder =
+            (bigEndian == (Bits.byteOrder() == ByteOrder.BIG_ENDIAN));
+        return this;
+    }
+
+    /**
+     * Creates a new segment whose content is a range of this segment's
+     * content, sharing its mapping.  The new segment is read-only if this
+     * segment is, and has this segment's byte order.
+     *
+     * @param  offset
+     *         The offset of the range in this segment
+     *
+     * @param  length
+     *         The number of bytes in the range
+     *
+     * @return  The new segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this segment
+     */
+    public MappedSegment slice(long offset, long length) {
+        checkRange(offset, length);
+        return new MappedSegment(mapping, base + offset, length, readOnly, order());
+    }
+
+    /**
+     * Creates a new, read-only segment sharing this segment's content and
+     * mapping, with this segment's byte order.
+     *
+     * @return  The new, read-only segment
+     */
+    public MappedSegment asReadOnlySegment() {
+        return new MappedSegment(mapping, base, size, true, order());
+    }
+
+    /**
+     * Closes this segment, and all segments sharing its mapping.  Their
+     * content is no longer accessible, and is unmapped.  If they are already
+     * closed then invoking this method has no effect.
+     *
+     * @throws  IllegalStateException
+     *          If the current thread is not the owner of this segment
+     */
+    @Override
+    public void close() {
+        mapping.close();
+    }
+
+    // -- Checks and addresses --
+
+    private void checkRange(long offset, long length) {
+        if ((offset | length | (size - length - offset)) < 0)
+            throw new IndexOutOfBoundsException("offset " + offset + ", length "
+                                                + length + ", size " + size);
+    }
+
+    private void checkWritable() {
+        if (readOnly)
+            throw new ReadOnlyBufferException();
+    }
+
+    // Returns the address of the byte at the given offset in the mapping,
+    // which must be mapped
+    private long byteAddress(long[] addresses, long o) {
+        return addresses[(int)(o >>> REGION_SHIFT)] + (o & REGION_MASK);
+    }
+
+    // Returns the address of the n bytes at the given offset in this
+    // segment, having checked that they are within it and that it is mapped,
+    // or 0 if they span two mappings
+    private long address(long offset, int n) {
+        if ((offset | (size - n - offset)) < 0)
+            throw new IndexOutOfBoundsException("offset " + offset + ", size " + size);
+        long[] addresses = mapping.addresses();
+        long o = base + offset;
+        long r = o & REGION_MASK;
+        return (r <= REGION_SIZE - n) ? addresses[(int)(o >>> REGION_SHIFT)] + r : 0L;
+    }
+
+    // Gets the n bytes at the given offset, which span two mappings, as the
+    // low-order bytes of a long, in this segment's byte order
+    private long getSpanning(long offset, int n) {
+        long[] addresses = mapping.addresses();
+        long x = 0;
+        for (int i = 0; i < n; i++) {
+            long b = unsafe.getByte(byteAddress(addresses, base + offset + i)) & 0xffL;
+            x |= b << ((bigEndian ? n - 1 - i : i) << 3);
+        }
+        return x;
+    }
+
+    private void putSpanning(long offset, int n, long x) {
+        long[] addresses = mapping.addresses();
+        for (int i = 0; i < n; i++) {
+            byte b = (byte)(x >> ((bigEndian ? n - 1 - i : i) << 3));
+            unsafe.putByte(byteAddress(addresses, base + offset + i), b);
+        }
+    }
+
+    // -- Primitive accessors --
+
+    /**
+     * Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset from which the byte will be read
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public byte get(long offset) {
+        return unsafe.getByte(address(offset, 1));
+    }
+
+    /**
+     * Writes the given byte at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the byte will be written
+     *
+     * @param  b
+     *         The byte value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment put(long offset, byte b) {
+        checkWritable();
+        unsafe.putByte(address(offset, 1), b);
+        return this;
+    }
+
+    /**
+     * Reads the two bytes at the given offset, composing them into a char
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The char value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public char getChar(long offset) {
+        long a = address(offset, 2);
+        if (a == 0)
+            return (char)getSpanning(offset, 2);
+        if (unaligned) {
+            char x = unsafe.getChar(a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getChar(a, bigEndian);
+    }
+
+    /**
+     * Writes two bytes containing the given char value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The char value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putChar(long offset, char value) {
+        checkWritable();
+        long a = address(offset, 2);
+        if (a == 0)
+            putSpanning(offset, 2, value);
+        else if (unaligned)
+            unsafe.putChar(a, (nativeByteOrder ? value : Bits.swap(value)));
+        else
+            Bits.putChar(a, value, bigEndian);
+        return this;
+    }
+
+    /**
+     * Reads the two bytes at the given offset, composing them into a short
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public short getShort(long offset) {
+        long a = address(offset, 2);
+        if (a == 0)
+            return (short)getSpanning(offset, 2);
+        if (unaligned) {
+            short x = unsafe.getShort(a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getShort(a, bigEndian);
+    }
+
+    /**
+     * Writes two bytes containing the given short value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The short value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putShort(long offset, short value) {
+        checkWritable();
+        long a = address(offset, 2);
+        if (a == 0)
+            putSpanning(offset, 2, value);
+        else if (unaligned)
+            unsafe.putShort(a, (nativeByteOrder ? value : Bits.swap(value)));
+        else
+            Bits.putShort(a, value, bigEndian);
+        return this;
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into an int
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public int getInt(long offset) {
+        long a = address(offset, 4);
+        if (a == 0)
+            return (int)getSpanning(offset, 4);
+        if (unaligned) {
+            int x = unsafe.getInt(a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getInt(a, bigEndian);
+    }
+
+    /**
+     * Writes four bytes containing the given int value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The int value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putInt(long offset, int value) {
+        checkWritable();
+        long a = address(offset, 4);
+        if (a == 0)
+            putSpanning(offset, 4, value);
+        else if (unaligned)
+            unsafe.putInt(a, (nativeByteOrder ? value : Bits.swap(value)));
+        else
+            Bits.putInt(a, value, bigEndian);
+        return this;
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a long
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public long getLong(long offset) {
+        long a = address(offset, 8);
+        if (a == 0)
+            return getSpanning(offset, 8);
+        if (unaligned) {
+            long x = unsafe.getLong(a);
+            return (nativeByteOrder ? x : Bits.swap(x));
+        }
+        return Bits.getLong(a, bigEndian);
+    }
+
+    /**
+     * Writes eight bytes containing the given long value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The long value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putLong(long offset, long value) {
+        checkWritable();
+        long a = address(offset, 8);
+        if (a == 0)
+            putSpanning(offset, 8, value);
+        else if (unaligned)
+            unsafe.putLong(a, (nativeByteOrder ? value : Bits.swap(value)));
+        else
+            Bits.putLong(a, value, bigEndian);
+        return this;
+    }
+
+    /**
+     * Reads the four bytes at the given offset, composing them into a float
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public float getFloat(long offset) {
+        return Float.intBitsToFloat(getInt(offset));
+    }
+
+    /**
+     * Writes four bytes containing the given float value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The float value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putFloat(long offset, float value) {
+        return putInt(offset, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Reads the eight bytes at the given offset, composing them into a
+     * double value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public double getDouble(long offset) {
+        return Double.longBitsToDouble(getLong(offset));
+    }
+
+    /**
+     * Writes eight bytes containing the given double value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The double value to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} is negative or not smaller than the
+     *          segment's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment putDouble(long offset, double value) {
+        return putLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+    // -- Bulk operations --
+
+    /**
+     * Copies bytes from this segment, starting at the given offset, into the
+     * given range of the given array.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be read
+     *
+     * @param  dst
+     *         The array into which bytes are to be written
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be written
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If either range is not within the segment or array
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment get(long offset, byte[] dst, int off, int length) {
+        Buffer.checkBounds(off, length, dst.length);
+        checkRange(offset, length);
+        long[] addresses = mapping.addresses();
+        while (length > 0) {
+            long o = base + offset;
+            int n = (int)Math.min(length, REGION_SIZE - (o & REGION_MASK));
+            Bits.copyToArray(byteAddress(addresses, o), dst, arrayBaseOffset, off, n);
+            offset += n;
+            off += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Copies bytes from the given range of the given array into this
+     * segment, starting at the given offset.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be written
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be read
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If either range is not within the segment or array
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment put(long offset, byte[] src, int off, int length) {
+        checkWritable();
+        Buffer.checkBounds(off, length, src.length);
+        checkRange(offset, length);
+        long[] addresses = mapping.addresses();
+        while (length > 0) {
+            long o = base + offset;
+            int n = (int)Math.min(length, REGION_SIZE - (o & REGION_MASK));
+            Bits.copyFromArray(src, arrayBaseOffset, off, byteAddress(addresses, o), n);
+            offset += n;
+            off += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Copies bytes from this segment, starting at the given offset, into the
+     * given buffer, filling it from its position to its limit.  The
+     * buffer's position is then advanced to its limit.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be read
+     *
+     * @param  dst
+     *         The buffer into which bytes are to be written
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there are fewer than {@code dst.remaining()} bytes in this
+     *          segment after the given offset
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the buffer is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment get(long offset, ByteBuffer dst) {
+        if (dst.isReadOnly())
+            throw new ReadOnlyBufferException();
+        int pos = dst.position();
+        int length = dst.limit() - pos;
+        if (dst.hasArray()) {
+            get(offset, dst.array(), dst.arrayOffset() + pos, length);
+        } else {
+            checkRange(offset, length);
+            long[] addresses = mapping.addresses();
+            long d = ((DirectBuffer)dst).address() + pos;
+            for (long o = base + offset, end = o + length; o < end; ) {
+                long n = Math.min(end - o, Math.min(REGION_SIZE - (o & REGION_MASK),
+                                                    Bits.UNSAFE_COPY_THRESHOLD));
+                unsafe.copyMemory(byteAddress(addresses, o), d, n);
+                o += n;
+                d += n;
+            }
+        }
+        dst.position(pos + length);
+        return this;
+    }
+
+    /**
+     * Copies the bytes remaining in the given buffer into this segment,
+     * starting at the given offset.  The buffer's position is then advanced
+     * to its limit.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be written
+     *
+     * @param  src
+     *         The buffer from which bytes are to be read
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there are fewer than {@code src.remaining()} bytes in this
+     *          segment after the given offset
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment put(long offset, ByteBuffer src) {
+        checkWritable();
+        int pos = src.position();
+        int length = src.limit() - pos;
+        if (src.hasArray()) {
+            put(offset, src.array(), src.arrayOffset() + pos, length);
+        } else if (src.isDirect()) {
+            checkRange(offset, length);
+            long[] addresses = mapping.addresses();
+            long s = ((DirectBuffer)src).address() + pos;
+            for (long o = base + offset, end = o + length; o < end; ) {
+                long n = Math.min(end - o, Math.min(REGION_SIZE - (o & REGION_MASK),
+                                                    Bits.UNSAFE_COPY_THRESHOLD));
+                unsafe.copyMemory(s, byteAddress(addresses, o), n);
+                o += n;
+                s += n;
+            }
+        } else {
+            // A read-only heap buffer, whose array is not accessible
+            byte[] a = new byte[length];
+            src.duplicate().get(a);
+            put(offset, a, 0, length);
+        }
+        src.position(pos + length);
+        return this;
+    }
+
+    /**
+     * Copies bytes from this segment into the given segment.  The ranges
+     * may overlap, if the segments share a mapping; the bytes are copied as
+     * if through a temporary array.
+     *
+     * @param  offset
+     *         The offset in this segment of the first byte to be read
+     *
+     * @param  dst
+     *         The segment into which bytes are to be written
+     *
+     * @param  dstOffset
+     *         The offset in the given segment of the first byte to be
+     *         written
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If either range is not within its segment
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the given segment is read-only
+     *
+     * @throws  IllegalStateException
+     *          If either segment is closed, or the current thread is not
+     *          its owner
+     */
+    public MappedSegment copyTo(long offset, MappedSegment dst, long dstOffset, long length) {
+        dst.checkWritable();
+        checkRange(offset, length);
+        dst.checkRange(dstOffset, length);
+        long[] src = mapping.addresses();
+        long[] dsts = dst.mapping.addresses();
+        long s = base + offset;
+        long d = dst.base + dstOffset;
+        if (dst.mapping == mapping && d > s) {
+            // Copy backwards from the ends, in case the ranges overlap
+            for (s += length, d += length; length > 0; ) {
+                long n = Math.min(length, Math.min(Math.min(((s - 1) & REGION_MASK) + 1,
+                                                            ((d - 1) & REGION_MASK) + 1),
+                                                   Bits.UNSAFE_COPY_THRESHOLD));
+                s -= n;
+                d -= n;
+                unsafe.copyMemory(byteAddress(src, s), byteAddress(dsts, d), n);
+                length -= n;
+            }
+        } else {
+            while (length > 0) {
+                long n = Math.min(length, Math.min(Math.min(REGION_SIZE - (s & REGION_MASK),
+                                                            REGION_SIZE - (d & REGION_MASK)),
+                                                   Bits.UNSAFE_COPY_THRESHOLD));
+                unsafe.copyMemory(byteAddress(src, s), byteAddress(dsts, d), n);
+                s += n;
+                d += n;
+                length -= n;
+            }
+        }
+        return this;
+    }
+
+    // -- Mapping operations --
+
+    // Applies an operation to the part of each buffer of the mapping in the
+    // given range of this segment, while it returns true
+    private interface RangeOperation {
+        boolean apply(MappedByteBuffer buffer, long index, long length);
+    }
+
+    private boolean forEachBuffer(long offset, long length, RangeOperation op) {
+        checkRange(offset, length);
+        for (long o = base + offset, end = o + length; o < end; ) {
+            long r = o & REGION_MASK;
+            long n = Math.min(end - o, REGION_SIZE - r);
+            if (!op.apply(mapping.buffer((int)(o >>> REGION_SHIFT)), r, n))
+                return false;
+            o += n;
+        }
+        return true;
+    }
+
+    /**
+     * Forces any changes made to this segment's content to be written to
+     * the storage device containing the mapped file, as {@link
+     * MappedByteBuffer#force()} does for a buffer.
+     *
+     * @return  This segment
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment force() {
+        return force(0L, size);
+    }
+
+    /**
+     * Forces any changes made to the given range of this segment's content
+     * to be written to the storage device containing the mapped file, as
+     * {@link MappedByteBuffer#force()} does for a buffer.  Only the pages
+     * containing the range are written.
+     *
+     * @param  offset
+     *         The offset of the range in this segment
+     *
+     * @param  length
+     *         The number of bytes in the range
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this segment
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment force(long offset, long length) {
+        forEachBuffer(offset, length, (b, i, n) -> { b.force(i, n); return true; });
+        return this;
+    }
+
+    /**
+     * Loads the given range of this segment's content into physical memory,
+     * as {@link MappedByteBuffer#load()} does for a buffer: the operating
+     * system is advised that the pages containing the range will be needed,
+     * and a byte is read from each of them.
+     *
+     * @param  offset
+     *         The offset of the range in this segment
+     *
+     * @param  length
+     *         The number of bytes in the range
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this segment
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment load(long offset, long length) {
+        forEachBuffer(offset, length, (b, i, n) -> { b.load(i, n, true); return true; });
+        return this;
+    }
+
+    /**
+     * Advises the operating system that the given range of this segment's
+     * content will be needed soon, so that it may start reading the pages
+     * containing it into physical memory.  Unlike {@link #load load}, this
+     * method does not wait for them to be read.
+     *
+     * @param  offset
+     *         The offset of the range in this segment
+     *
+     * @param  length
+     *         The number of bytes in the range
+     *
+     * @return  This segment
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this segment
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public MappedSegment prefetch(long offset, long length) {
+        forEachBuffer(offset, length, (b, i, n) -> { b.load(i, n, false); return true; });
+        return this;
+    }
+
+    /**
+     * Tells whether or not the given range of this segment's content is
+     * resident in physical memory, as {@link MappedByteBuffer#isLoaded()}
+     * does for a buffer.  The returned value is a hint, rather than a
+     * guarantee.
+     *
+     * @param  offset
+     *         The offset of the range in this segment
+     *
+     * @param  length
+     *         The number of bytes in the range
+     *
+     * @return  <tt>true</tt> if it is likely that the range is resident in
+     *          physical memory
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is not within this segment
+     *
+     * @throws  IllegalStateException
+     *          If the segment is closed, or the current thread is not its
+     *          owner
+     */
+    public boolean isLoaded(long offset, long length) {
+        return forEachBuffer(offset, length, (b, i, n) -> b.isLoaded(i, n));
+    }
+
+    /**
+     * Returns a string summarizing the state of this segment.
+     *
+     * @return  A summary string
+     */
+    public String toString() {
+        return getClass().getName()
+            + "[size=" + size
+            + (isOpen() ? "" : " closed")
+            + "]";
+    }
+}
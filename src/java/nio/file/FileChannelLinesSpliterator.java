@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A file-based lines spliterator, covering the lines of a range of bytes of
+ * a file, for character encodings in which the line terminators can be
+ * identified from the encoded bytes alone.
+ *
+ * <p>The spliterator splits in two halves of bytes.  To find where, it maps
+ * a small window of the file at the middle of its range, and scans forward
+ * to the byte following the next line terminator; the cost of a split is
+ * thus independent of the size of the range.  Each range is decoded
+ * independently, by a {@code BufferedReader} reading from the file channel
+ * at positions within the range, so the lines are those
+ * {@link BufferedReader#readLine()} returns.  A spliterator can only be
+ * split before traversal has started.
+ *
+ * <p>The range of the spliterator that covers the whole file is fixed by
+ * the size of the file when the spliterator is created.
+ *
+ * @since 1.8
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    /** The number of bytes mapped at a time to find where to split */
+    private static final int SCAN_WINDOW = 1 << 16;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;
+    private final long fence;
+
+    /**
+     * The mean number of bytes in a line, sampled when splitting, or 0 if
+     * not yet known.
+     */
+    private double bytesPerLine;
+
+    // Non-null when traversing
+    private BufferedReader reader;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs, long index, long fence) {
+        this(fc, cs, index, fence, 0);
+    }
+
+    private FileChannelLinesSpliterator(FileChannel fc, Charset cs,
+                                        long index, long fence, double bytesPerLine) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+        this.bytesPerLine = bytesPerLine;
+    }
+
+    /**
+     * Returns true if the lines of a file in the given charset can be split
+     * by this spliterator: the encoded bytes of the line terminators {@code
+     * '\n'} and {@code '\r'} are never part of the encoding of another
+     * character.  That holds for UTF-8, and for single-byte charsets that
+     * map those bytes to those characters.
+     */
+    static boolean isSupported(Charset cs) {
+        if (cs == StandardCharsets.UTF_8 || cs == StandardCharsets.ISO_8859_1
+            || cs == StandardCharsets.US_ASCII)
+            return true;
+        if (!cs.canEncode() || cs.newEncoder().maxBytesPerChar() != 1.0f
+            || cs.newDecoder().maxCharsPerByte() != 1.0f)
+            return false;
+        try {
+            return cs.newDecoder()
+                     .decode(ByteBuffer.wrap(new byte[] { '\n', '\r' }))
+                     .toString().equals("\n\r");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = readLine();
+        if (line != null) {
+            action.accept(line);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        String line;
+        while ((line = readLine()) != null) {
+            action.accept(line);
+        }
+    }
+
+    private BufferedReader getBufferedReader() {
+        /**
+         * A readable byte channel that reads bytes from an underlying
+         * file channel over a specified range.
+         */
+        ReadableByteChannel rrbc = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                long bytesToRead = fence - index;
+                if (bytesToRead == 0)
+                    return -1;
+
+                int bytesRead;
+                if (bytesToRead < dst.remaining()) {
+                    // The number of bytes to read is less than remaining
+                    // bytes in the buffer
+                    // Snapshot the limit, reduce it, read, then reset
+                    int oldLimit = dst.limit();
+                    dst.limit((int) (dst.position() + bytesToRead));
+                    bytesRead = fc.read(dst, index);
+                    dst.limit(oldLimit);
+                } else {
+                    bytesRead = fc.read(dst, index);
+                }
+                if (bytesRead == -1) {
+                    index = fence;
+                    return bytesRead;
+                }
+
+                index += bytesRead;
+                return bytesRead;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return fc.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                fc.close();
+            }
+        };
+        return new BufferedReader(Channels.newReader(rrbc, cs.newDecoder(), -1));
+    }
+
+    private String readLine() {
+        if (reader == null) {
+            reader = getBufferedReader();
+        }
+
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        // Cannot split after partial traversal
+        if (reader != null)
+            return null;
+
+        long lo = index, hi = fence, c;
+        try {
+            c = lineStart((lo + hi) >>> 1, hi);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (c >= hi)
+            return null;
+        // The prefix covers the lines before the middle line terminator
+        return new FileChannelLinesSpliterator(fc, cs, lo, index = c, bytesPerLine);
+    }
+
+    /**
+     * Returns the position following the first line terminator at or after
+     * the given position and before the given fence, or the fence if there
+     * is none.  The windows mapped to find it are also used to sample the
+     * mean number of bytes in a line.
+     */
+    private long lineStart(long pos, long hi) throws IOException {
+        while (pos < hi) {
+            int len = (int) Math.min(hi - pos, SCAN_WINDOW);
+            MappedByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            try {
+                for (int i = 0; i < len; i++) {
+                    byte c = b.get(i);
+                    if (c == '\n') {
+                        sample(b, i + 1, len);
+                        return pos + i + 1;
+                    }
+                    if (c == '\r') {
+                        // Do not split a "\r\n" terminator
+                        long next = pos + i + 1;
+                        if (next < hi && nextByte(b, i + 1, next) == '\n')
+                            next++;
+                        sample(b, (int) (next - pos), len);
+                        return next;
+                    }
+                }
+            } finally {
+                unmap(b);
+            }
+            pos += len;
+        }
+        return hi;
+    }
+
+    private byte nextByte(MappedByteBuffer b, int i, long position) throws IOException {
+        if (i < b.limit())
+            return b.get(i);
+        ByteBuffer one = ByteBuffer.allocate(1);
+        return (fc.read(one, position) == 1) ? one.get(0) : 0;
+    }
+
+    /**
+     * Samples the mean number of bytes in a line from the line terminators
+     * in a range of a mapped window.
+     */
+    private void sample(MappedByteBuffer b, int from, int to) {
+        int lines = 0;
+        for (int i = from; i < to; i++) {
+            byte c = b.get(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == to || b.get(i + 1) != '\n')))
+                lines++;
+        }
+        if (lines > 0)
+            bytesPerLine = (double) (to - from) / lines;
+    }
+
+    private static void unmap(MappedByteBuffer b) {
+        sun.misc.Cleaner cl = ((sun.nio.ch.DirectBuffer) b).cleaner();
+        if (cl != null)
+            cl.clean();
+    }
+
+    /**
+     * Returns an estimate of the number of lines remaining: the number of
+     * bytes remaining divided by the mean number of bytes in a line, if
+     * that has been sampled, or else the number of bytes remaining.
+     */
+    @Override
+    public long estimateSize() {
+        long bytes = fence - index;
+        return (bytesPerLine > 1.0) ? (long) Math.ceil(bytes / bytesPerLine) : bytes;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
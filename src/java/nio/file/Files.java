@@ -3720,6 +3720,19 @@ public final class Files {
      * {@link Stream#close close} method is invoked after the stream operations
      * are completed.
      *
+     * @implNote
+     * This implementation supports good parallel stream performance for
+     * files of the default file system in UTF-8, and in single-byte charsets
+     * such as US-ASCII and ISO-8859-1.  In these charsets the encoded bytes
+     * of a line feed ({@code '\n'}) or a carriage return ({@code '\r'}) can
+     * be identified among those of the other characters when accessing the
+     * bytes of the file at random, so the stream source's spliterator splits
+     * the file at the line terminator nearest the middle of its range of
+     * bytes, and decodes each range independently.  The lines are those of
+     * the bytes of the file when it is opened, even if it grows afterwards.
+     * For other charsets, or other files, the stream source's spliterator
+     * has poor splitting properties, similar to that of a spliterator
+     * associated with an iterator.
      *
      * @param   path
      *          the path to the file
@@ -3741,7 +3754,50 @@ public final class Files {
      * @since   1.8
      */
     public static Stream<String> lines(Path path, Charset cs) throws IOException {
-        BufferedReader br = Files.newBufferedReader(path, cs);
+        // Use the spliterator splitting at line terminators by byte ranges if
+        // the path is associated with the default file system, and the
+        // charset is one in which line terminators can be found in the bytes
+        if (path.getFileSystem() == FileSystems.getDefault() &&
+            FileChannelLinesSpliterator.isSupported(cs)) {
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+
+            Stream<String> lines = createFileChannelLinesStream(fc, cs);
+            if (lines != null) {
+                return lines;
+            }
+            fc.close();
+        }
+
+        return createBufferedReaderLinesStream(Files.newBufferedReader(path, cs));
+    }
+
+    private static Stream<String> createFileChannelLinesStream(FileChannel fc, Charset cs) throws IOException {
+        try {
+            // Obtaining the size from the FileChannel is much faster
+            // than obtaining using path.toFile().length()
+            long length = fc.size();
+            // FileChannel.size() may return zero for a file that is not a
+            // regular file, whose bytes cannot be mapped, so disallow it
+            if (length > 0) {
+                Spliterator<String> s = new FileChannelLinesSpliterator(fc, cs, 0, length);
+                return StreamSupport.stream(s, false)
+                        .onClose(asUncheckedRunnable(fc));
+            }
+        } catch (Error|RuntimeException|IOException e) {
+            try {
+                fc.close();
+            } catch (IOException ex) {
+                try {
+                    e.addSuppressed(ex);
+                } catch (Throwable ignore) {
+                }
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    private static Stream<String> createBufferedReaderLinesStream(BufferedReader br) {
         try {
             return br.lines().onClose(asUncheckedRunnable(br));
         } catch (Error|RuntimeException e) {
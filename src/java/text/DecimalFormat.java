@@ -972,6 +972,27 @@ public class DecimalFormat extends NumberFormat {
 
         boolean fastPathWasOn = isFastPath;
 
+        isFastPath = fastPathConditionsMet();
+
+        resetFastPathData(fastPathWasOn);
+        fastPathCheckNeeded = false;
+
+        /*
+         * Returns true after successfully checking the fast path condition and
+         * setting the fast path data. The return value is used by the
+         * fastFormat() method to decide whether to call the resetFastPathData
+         * method to reinitialize fast path data or is it already initialized
+         * in this method.
+         */
+        return true;
+    }
+
+    /**
+     * Returns true if the current settings of this format meet the
+     * fast-path conditions listed for checkAndSetFastPathStatus.
+     */
+    boolean fastPathConditionsMet() {
+        boolean fastPath;
         if ((roundingMode == RoundingMode.HALF_EVEN) &&
             (isGroupingUsed()) &&
             (groupingSize == 3) &&
@@ -981,34 +1002,23 @@ public class DecimalFormat extends NumberFormat {
 
             // The fast-path algorithm is semi-hardcoded against
             //  minimumIntegerDigits and maximumIntegerDigits.
-            isFastPath = ((minimumIntegerDigits == 1) &&
-                          (maximumIntegerDigits >= 10));
+            fastPath = ((minimumIntegerDigits == 1) &&
+                        (maximumIntegerDigits >= 10));
 
             // The fast-path algorithm is hardcoded against
             //  minimumFractionDigits and maximumFractionDigits.
-            if (isFastPath) {
+            if (fastPath) {
                 if (isCurrencyFormat) {
                     if ((minimumFractionDigits != 2) ||
                         (maximumFractionDigits != 2))
-                        isFastPath = false;
+                        fastPath = false;
                 } else if ((minimumFractionDigits != 0) ||
                            (maximumFractionDigits != 3))
-                    isFastPath = false;
+                    fastPath = false;
             }
         } else
-            isFastPath = false;
-
-        resetFastPathData(fastPathWasOn);
-        fastPathCheckNeeded = false;
-
-        /*
-         * Returns true after successfully checking the fast path condition and
-         * setting the fast path data. The return value is used by the
-         * fastFormat() method to decide whether to call the resetFastPathData
-         * method to reinitialize fast path data or is it already initialized
-         * in this method.
-         */
-        return true;
+            fastPath = false;
+        return fastPath;
     }
 
     private void resetFastPathData(boolean fastPathWasOn) {
@@ -2701,6 +2711,25 @@ public class DecimalFormat extends NumberFormat {
         parseBigDecimal = newValue;
     }
 
+    /**
+     * Returns true if the pattern of this format uses exponential notation.
+     * Used by {@link DecimalFormatter} when compiling a format.
+     */
+    boolean usesExponentialNotation() {
+        return useExponentialNotation;
+    }
+
+    /**
+     * Returns the decimal separator used when formatting, which is the
+     * monetary decimal separator for currency patterns.  Used by
+     * {@link DecimalFormatter} when compiling a format.
+     */
+    char getFormatDecimalSeparator() {
+        return isCurrencyFormat ?
+            symbols.getMonetaryDecimalSeparator() :
+            symbols.getDecimalSeparator();
+    }
+
     /**
      * Standard override; no change in semantics.
      */
@@ -0,0 +1,626 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Objects;
+import sun.misc.FloatingDecimal;
+
+/**
+ * An immutable, thread-safe formatter for decimal numbers, compiled once
+ * from a {@link DecimalFormat} pattern.
+ *
+ * <p>A <code>DecimalFormatter</code> produces the same text as a
+ * <code>DecimalFormat</code> configured with the same pattern, symbols and
+ * settings, but it holds no mutable state: a single instance may be shared
+ * freely between threads, and the <code>format</code> and
+ * <code>formatTo</code> methods write the result directly without a
+ * per-call <code>DigitList</code> or <code>StringBuffer</code>.
+ * Instances obtained from {@link #ofPattern(String, Locale)} are cached
+ * per pattern and locale, so that the pattern and the locale's
+ * <code>DecimalFormatSymbols</code> are resolved only once.
+ *
+ * <blockquote><pre>
+ * DecimalFormatter price = DecimalFormatter.ofPattern("#,##0.00", Locale.US);
+ * StringBuilder sb = new StringBuilder();
+ * price.formatTo(1234.5, sb);   // "1,234.50"
+ * </pre></blockquote>
+ *
+ * <p>Patterns using exponential notation, and the rare <code>long</code>
+ * values whose product with the multiplier does not fit in a
+ * <code>long</code>, are formatted by a private copy of the underlying
+ * <code>DecimalFormat</code>.  Parsing, field positions and the formatting
+ * of <code>BigDecimal</code> and <code>BigInteger</code> values are
+ * available from the <code>DecimalFormat</code> returned by
+ * {@link #toFormat()}.
+ *
+ * @see          DecimalFormat
+ * @since        1.8
+ */
+public final class DecimalFormatter {
+
+    /**
+     * Cache to hold compiled formatters per pattern and locale.
+     */
+    private static final FormatterCache<CacheKey, DecimalFormatter> cachedFormatters
+        = new FormatterCache<>(256);
+
+    /**
+     * The format this formatter was compiled from.  It is never modified
+     * or used for formatting directly; callers needing a
+     * <code>DecimalFormat</code> get a clone.
+     */
+    private final DecimalFormat prototype;
+
+    /**
+     * A copy of the prototype, made on first use, that formats what is not
+     * compiled while holding its lock.  Threads racing to make it may each
+     * use their own copy.
+     */
+    private volatile DecimalFormat fallback;
+
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final int multiplier;
+    private final int groupingSize;        // 0 if grouping is not used
+    private final boolean decimalSeparatorAlwaysShown;
+    private final boolean useExponentialNotation;
+    private final int maximumIntegerDigits;
+    private final int minimumIntegerDigits;
+    private final int maximumFractionDigits;
+    private final int minimumFractionDigits;
+    private final RoundingMode roundingMode;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final String infinity;
+    private final String nan;
+
+    /**
+     * True if DecimalFormat formats doubles in the int range through its
+     * fast path, which rounds from the exact binary value.
+     */
+    private final boolean fastPathRounding;
+
+    private DecimalFormatter(DecimalFormat format) {
+        prototype = format;
+        positivePrefix = format.getPositivePrefix();
+        positiveSuffix = format.getPositiveSuffix();
+        negativePrefix = format.getNegativePrefix();
+        negativeSuffix = format.getNegativeSuffix();
+        multiplier = format.getMultiplier();
+        groupingSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+        decimalSeparatorAlwaysShown = format.isDecimalSeparatorAlwaysShown();
+        useExponentialNotation = format.usesExponentialNotation();
+        // The limits that DecimalFormat applies to long and double values.
+        maximumIntegerDigits = Math.min(format.getMaximumIntegerDigits(),
+                                        DecimalFormat.DOUBLE_INTEGER_DIGITS);
+        minimumIntegerDigits = Math.min(format.getMinimumIntegerDigits(),
+                                        DecimalFormat.DOUBLE_INTEGER_DIGITS);
+        maximumFractionDigits = Math.min(format.getMaximumFractionDigits(),
+                                         DecimalFormat.DOUBLE_FRACTION_DIGITS);
+        minimumFractionDigits = Math.min(format.getMinimumFractionDigits(),
+                                         DecimalFormat.DOUBLE_FRACTION_DIGITS);
+        roundingMode = format.getRoundingMode();
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        zeroDigit = symbols.getZeroDigit();
+        groupingSeparator = symbols.getGroupingSeparator();
+        decimalSeparator = format.getFormatDecimalSeparator();
+        infinity = symbols.getInfinity();
+        nan = symbols.getNaN();
+        fastPathRounding = format.fastPathConditionsMet();
+    }
+
+    /**
+     * Returns a formatter for the given pattern and the symbols of the
+     * default {@link java.util.Locale.Category#FORMAT FORMAT} locale.
+     *
+     * @param pattern a <code>DecimalFormat</code> pattern
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if <code>pattern</code> is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     * @see DecimalFormat
+     */
+    public static DecimalFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Returns a formatter for the given pattern and the symbols of the
+     * given locale.  Formatters are cached, so repeated calls with the
+     * same pattern and locale normally return the same instance.
+     *
+     * @param pattern a <code>DecimalFormat</code> pattern
+     * @param locale the locale whose symbols should be used
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if <code>pattern</code> or
+     *            <code>locale</code> is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     * @see DecimalFormat
+     */
+    public static DecimalFormatter ofPattern(String pattern, Locale locale) {
+        CacheKey key = new CacheKey(Objects.requireNonNull(pattern),
+                                    Objects.requireNonNull(locale));
+        DecimalFormatter formatter = cachedFormatters.get(key);
+        if (formatter == null) {
+            formatter = cachedFormatters.putIfAbsent(key, new DecimalFormatter(
+                new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale))));
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns a formatter that formats like the given
+     * <code>DecimalFormat</code> in its current state.  Later changes to
+     * <code>format</code> do not affect the returned formatter.
+     *
+     * @param format the format to compile
+     * @return a formatter equivalent to <code>format</code>, not null
+     * @exception NullPointerException if <code>format</code> is null
+     */
+    public static DecimalFormatter of(DecimalFormat format) {
+        return new DecimalFormatter((DecimalFormat) format.clone());
+    }
+
+    /**
+     * Formats a <code>long</code> value.
+     *
+     * @param number the value to format
+     * @return the formatted string
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public String format(long number) {
+        StringBuilder sb = new StringBuilder(24);
+        formatTo(number, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats a <code>double</code> value.
+     *
+     * @param number the value to format
+     * @return the formatted string
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     */
+    public String format(double number) {
+        StringBuilder sb = new StringBuilder(24);
+        formatTo(number, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats a <code>long</code> value to an <code>Appendable</code>.
+     *
+     * @param number the value to format
+     * @param appendable the appendable to format to, not null
+     * @exception UncheckedIOException if an I/O error occurs while
+     *            appending
+     * @exception NullPointerException if <code>appendable</code> is null
+     */
+    public void formatTo(long number, Appendable appendable) {
+        Objects.requireNonNull(appendable, "appendable");
+        try {
+            boolean isNegative = (number < 0);
+            if (isNegative) {
+                number = -number;
+            }
+            // Long.MIN_VALUE, and products that overflow, are formatted as
+            // BigInteger by DecimalFormat.
+            if (useExponentialNotation ||
+                (number < 0 && multiplier != 0) ||
+                (multiplier != 1 && multiplier != 0 &&
+                 number > Math.abs(Long.MAX_VALUE / multiplier))) {
+                appendable.append(formatByCopy(isNegative ? -number : number));
+                return;
+            }
+            number *= multiplier;
+            if (number == 0) {
+                isNegative = false;
+            } else if (multiplier < 0) {
+                number = -number;
+                isNegative = !isNegative;
+            }
+            int exponent = 0;
+            while (number != 0 && number % 10 == 0) {
+                number /= 10;
+                exponent++;
+            }
+            subformat(appendable, isNegative, true, number, exponent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Formats a <code>double</code> value to an <code>Appendable</code>.
+     *
+     * @param number the value to format
+     * @param appendable the appendable to format to, not null
+     * @exception ArithmeticException if rounding is needed with rounding
+     *            mode being set to RoundingMode.UNNECESSARY
+     * @exception UncheckedIOException if an I/O error occurs while
+     *            appending
+     * @exception NullPointerException if <code>appendable</code> is null
+     */
+    public void formatTo(double number, Appendable appendable) {
+        Objects.requireNonNull(appendable, "appendable");
+        try {
+            if (Double.isNaN(number) ||
+                (Double.isInfinite(number) && multiplier == 0)) {
+                appendable.append(nan);
+                return;
+            }
+            if (useExponentialNotation) {
+                appendable.append(formatByCopy(number));
+                return;
+            }
+
+            // See DecimalFormat.format(double, StringBuffer, FieldDelegate)
+            // for the treatment of -0.0.
+            boolean isNegative = ((number < 0.0) || (number == 0.0 && 1/number < 0.0)) ^ (multiplier < 0);
+            if (multiplier != 1) {
+                number *= multiplier;
+            }
+            if (Double.isInfinite(number)) {
+                appendable.append(isNegative ? negativePrefix : positivePrefix);
+                appendable.append(infinity);
+                appendable.append(isNegative ? negativeSuffix : positiveSuffix);
+                return;
+            }
+            if (isNegative) {
+                number = -number;
+            }
+            if (number == 0.0) {
+                subformat(appendable, isNegative, false, 0, 0);
+                return;
+            }
+
+            FloatingDecimal.BinaryToASCIIConverter fdConverter =
+                FloatingDecimal.getBinaryToASCIIConverter(number);
+            char[] digits = new char[MAX_DOUBLE_DIGITS];
+            int count = fdConverter.getDigits(digits);
+            int decimalAt = fdConverter.getDecimalExponent();
+            long significand = 0;
+            for (int i = 0; i < count; i++) {
+                significand = significand * 10 + (digits[i] - '0');
+            }
+            while (significand % 10 == 0) {
+                significand /= 10;
+                count--;
+            }
+            int exponent = decimalAt - count;
+
+            // Round to maximumFractionDigits, following DigitList.set(boolean,
+            // double, int, boolean) for the fixed-point case.
+            int maximumDigits = maximumFractionDigits + decimalAt;
+            if (maximumDigits < 0) {
+                // The number underflows to zero, e.g. 0.0009 with "#.##".
+                significand = 0;
+                exponent = 0;
+            } else if (maximumDigits < count) {
+                if (maximumDigits == 0 && count == 1 &&
+                    (decimalAt < -2 || decimalAt > 7) &&
+                    !(fastPathRounding && number <= Integer.MAX_VALUE)) {
+                    // DigitList takes its digits from the "d.0Ennn" form of
+                    // toJavaFormatString and decides this case before it
+                    // trims the trailing zero, so it sees two digits.
+                    significand *= 10;
+                    count++;
+                    exponent--;
+                }
+                int drop = count - maximumDigits;
+                long kept = significand / LONG_TEN_POWERS[drop];
+                long dropped = significand % LONG_TEN_POWERS[drop];
+                if (shouldRoundUp(isNegative, kept, dropped, drop, maximumDigits,
+                                  fdConverter.digitsRoundedUp(),
+                                  fdConverter.decimalDigitsExact())) {
+                    kept++;
+                }
+                significand = kept;
+                exponent += drop;
+                while (significand != 0 && significand % 10 == 0) {
+                    significand /= 10;
+                    exponent++;
+                }
+            }
+            subformat(appendable, isNegative, false, significand, exponent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses text from the beginning of the given string to produce a
+     * number, as {@link DecimalFormat#parse(String, ParsePosition)} does.
+     *
+     * @param source a <code>String</code> whose beginning should be parsed
+     * @return a <code>Number</code> parsed from the string
+     * @exception ParseException if the beginning of the specified string
+     *            cannot be parsed
+     * @exception NullPointerException if <code>source</code> is null
+     */
+    public Number parse(String source) throws ParseException {
+        return toFormat().parse(source);
+    }
+
+    /**
+     * Returns a new <code>DecimalFormat</code> equivalent to this
+     * formatter.  The returned format may be modified freely.
+     *
+     * @return a new <code>DecimalFormat</code>, not null
+     */
+    public DecimalFormat toFormat() {
+        return (DecimalFormat) prototype.clone();
+    }
+
+    private DecimalFormat fallback() {
+        DecimalFormat format = fallback;
+        if (format == null) {
+            fallback = format = toFormat();
+        }
+        return format;
+    }
+
+    private String formatByCopy(long number) {
+        DecimalFormat format = fallback();
+        synchronized (format) {
+            return format.format(number);
+        }
+    }
+
+    private String formatByCopy(double number) {
+        DecimalFormat format = fallback();
+        synchronized (format) {
+            return format.format(number);
+        }
+    }
+
+    /**
+     * Returns the non-localized pattern of this formatter.
+     *
+     * @return the pattern, not null
+     * @see DecimalFormat#toPattern()
+     */
+    public String toPattern() {
+        return prototype.toPattern();
+    }
+
+    /**
+     * Returns a description of this formatter, which is its pattern.
+     *
+     * @return the pattern of this formatter
+     */
+    @Override
+    public String toString() {
+        return toPattern();
+    }
+
+    /**
+     * Writes the value <code>significand &times; 10<sup>exponent</sup></code>,
+     * which must be non-negative and have no trailing zeros in its
+     * significand, in the same way as
+     * <code>DecimalFormat.subformat</code> does for fixed-point patterns.
+     */
+    private void subformat(Appendable out, boolean isNegative, boolean isInteger,
+                           long significand, int exponent) throws IOException {
+        // Number of digits before the decimal point, as in DigitList.decimalAt.
+        int decimalAt = (significand == 0) ? 0 : digitLength(significand) + exponent;
+
+        out.append(isNegative ? negativePrefix : positivePrefix);
+
+        // Output the integer portion, keeping only the least significant
+        // maximumIntegerDigits digits.
+        int count = minimumIntegerDigits;
+        if (decimalAt > count) {
+            count = decimalAt;
+        }
+        if (count > maximumIntegerDigits) {
+            count = maximumIntegerDigits;
+        }
+        for (int i = count - 1; i >= 0; --i) {
+            out.append((char)(zeroDigit + digitAt(significand, exponent, i)));
+            if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+                out.append(groupingSeparator);
+            }
+        }
+
+        // Significant fraction digits remain only if the least significant
+        // non-zero digit lies to the right of the decimal point.
+        boolean fractionPresent = (minimumFractionDigits > 0) ||
+            (!isInteger && significand != 0 && exponent < 0);
+
+        // Print a zero rather than no digits at all.
+        if (!fractionPresent && count == 0) {
+            out.append(zeroDigit);
+        }
+
+        if (decimalSeparatorAlwaysShown || fractionPresent) {
+            out.append(decimalSeparator);
+        }
+
+        for (int i = 0; i < maximumFractionDigits; ++i) {
+            if (i >= minimumFractionDigits &&
+                (isInteger || significand == 0 || exponent > -1-i)) {
+                break;
+            }
+            out.append((char)(zeroDigit + digitAt(significand, exponent, -1-i)));
+        }
+
+        out.append(isNegative ? negativeSuffix : positiveSuffix);
+    }
+
+    /**
+     * Returns true if <code>kept</code>, the leading
+     * <code>maximumDigits</code> digits of a significand, should be
+     * incremented when the following <code>drop</code> digits, whose value
+     * is <code>dropped</code>, are removed.  This is
+     * <code>DigitList.shouldRoundUp</code> for a significand held in a
+     * <code>long</code>; see there for how the state of the binary to
+     * decimal conversion affects the tie cases.
+     */
+    private boolean shouldRoundUp(boolean isNegative, long kept, long dropped,
+                                  int drop, int maximumDigits,
+                                  boolean alreadyRounded,
+                                  boolean valueExactAsDecimal) {
+        long half = LONG_TEN_POWERS[drop - 1];
+        int firstDropped = (int)(dropped / half);
+        boolean moreDropped = (dropped % half) != 0;
+        switch (roundingMode) {
+        case UP:
+            return dropped != 0;
+        case DOWN:
+            return false;
+        case CEILING:
+            return dropped != 0 && !isNegative;
+        case FLOOR:
+            return dropped != 0 && isNegative;
+        case HALF_UP:
+        case HALF_DOWN:
+            if (firstDropped > 5) {
+                return true;
+            } else if (firstDropped == 5) {
+                if (drop > 1) {
+                    return true;
+                } else if (valueExactAsDecimal) {
+                    return roundingMode == RoundingMode.HALF_UP;
+                } else {
+                    return !alreadyRounded;
+                }
+            }
+            return false;
+        case HALF_EVEN:
+            if (firstDropped > 5) {
+                return true;
+            } else if (firstDropped == 5) {
+                if (drop == 1) {
+                    if (alreadyRounded) {
+                        return false;
+                    }
+                    if (!valueExactAsDecimal) {
+                        return true;
+                    }
+                    return maximumDigits > 0 && (kept & 1) != 0;
+                }
+                return moreDropped;
+            }
+            return false;
+        case UNNECESSARY:
+            if (dropped != 0) {
+                throw new ArithmeticException(
+                    "Rounding needed with the rounding mode being set to RoundingMode.UNNECESSARY");
+            }
+            return false;
+        default:
+            assert false;
+            return false;
+        }
+    }
+
+    /**
+     * Returns the decimal digit in the 10<sup>place</sup> position of
+     * <code>significand &times; 10<sup>exponent</sup></code>.
+     */
+    private static int digitAt(long significand, int exponent, int place) {
+        int index = place - exponent;
+        if (index < 0 || index >= LONG_TEN_POWERS.length) {
+            return 0;
+        }
+        return (int)((significand / LONG_TEN_POWERS[index]) % 10);
+    }
+
+    /**
+     * Returns the number of decimal digits in a positive <code>long</code>.
+     */
+    private static int digitLength(long x) {
+        int n = 1;
+        while (n < LONG_TEN_POWERS.length && x >= LONG_TEN_POWERS[n]) {
+            n++;
+        }
+        return n;
+    }
+
+    // The most digits FloatingDecimal produces for a double.
+    private static final int MAX_DOUBLE_DIGITS = 20;
+
+    private static final long[] LONG_TEN_POWERS = {
+        1L,
+        10L,
+        100L,
+        1000L,
+        10000L,
+        100000L,
+        1000000L,
+        10000000L,
+        100000000L,
+        1000000000L,
+        10000000000L,
+        100000000000L,
+        1000000000000L,
+        10000000000000L,
+        100000000000000L,
+        1000000000000000L,
+        10000000000000000L,
+        100000000000000000L,
+        1000000000000000000L
+    };
+
+    /**
+     * Key of the formatter cache.
+     */
+    private static final class CacheKey {
+        private final String pattern;
+        private final Locale locale;
+
+        CacheKey(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return pattern.equals(other.pattern) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() * 31 + locale.hashCode();
+        }
+    }
+}
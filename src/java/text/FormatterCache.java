@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of the compiled formatters returned by the <code>ofPattern</code>
+ * methods of formatters such as {@link SimpleDateFormatter}.  Formatters are
+ * held through soft references, entries whose formatter has been collected
+ * are removed, and the number of entries is bounded, so that callers passing
+ * many distinct patterns or time zones do not grow the cache without limit.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the formatters
+ */
+final class FormatterCache<K, V> {
+
+    private final ConcurrentMap<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+    private final int maxSize;
+
+    FormatterCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the formatter cached for the key, or null if there is none.
+     */
+    V get(K key) {
+        Entry<K, V> entry = map.get(key);
+        return (entry == null) ? null : entry.get();
+    }
+
+    /**
+     * Caches a formatter for the key unless another one is already cached,
+     * and returns the cached formatter.  When the cache is full an arbitrary
+     * entry is evicted first.
+     */
+    V putIfAbsent(K key, V value) {
+        expungeStaleEntries();
+        if (map.size() >= maxSize) {
+            Iterator<K> it = map.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        Entry<K, V> entry = new Entry<>(key, value, queue);
+        for (;;) {
+            Entry<K, V> x = map.putIfAbsent(key, entry);
+            if (x == null) {
+                return value;
+            }
+            V y = x.get();
+            if (y != null) {
+                return y;
+            }
+            if (map.replace(key, x, entry)) {
+                return value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeStaleEntries() {
+        Entry<K, V> entry;
+        while ((entry = (Entry<K, V>) queue.poll()) != null) {
+            map.remove(entry.key, entry);
+        }
+    }
+
+    private static final class Entry<K, V> extends SoftReference<V> {
+        final K key;
+
+        Entry(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
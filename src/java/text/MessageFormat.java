@@ -327,8 +327,10 @@ import java.util.Locale;
  * Message formats are not synchronized.
  * It is recommended to create separate format instances for each thread.
  * If multiple threads access a format concurrently, it must be synchronized
- * externally.
+ * externally.  {@link MessageFormatter} is an immutable, thread-safe
+ * alternative for formatting with a fixed pattern.
  *
+ * @see          MessageFormatter
  * @see          java.util.Locale
  * @see          Format
  * @see          NumberFormat
@@ -1120,6 +1122,44 @@ public class MessageFormat extends Format {
         return pattern.hashCode(); // enough for reasonable distribution
     }
 
+    /**
+     * Returns the pattern with the format elements taken out, for
+     * {@link MessageFormatter}.
+     */
+    String getLiteralPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the number of format elements in the pattern.
+     */
+    int getElementCount() {
+        return maxOffset + 1;
+    }
+
+    /**
+     * Returns the position in the literal pattern at which the result of
+     * the format element with the given index is inserted.
+     */
+    int getElementOffset(int formatElementIndex) {
+        return offsets[formatElementIndex];
+    }
+
+    /**
+     * Returns the argument number of the format element with the given index.
+     */
+    int getElementArgumentNumber(int formatElementIndex) {
+        return argumentNumbers[formatElementIndex];
+    }
+
+    /**
+     * Returns the subformat of the format element with the given index, or
+     * null if it has none.  The returned format must not be modified.
+     */
+    Format getElementFormat(int formatElementIndex) {
+        return formats[formatElementIndex];
+    }
+
 
     /**
      * Defines constants that are used as attribute keys in the
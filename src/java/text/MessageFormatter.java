@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable, thread-safe formatter for messages, compiled once from a
+ * {@link MessageFormat} pattern.
+ *
+ * <p>A <code>MessageFormatter</code> produces the same text as a
+ * <code>MessageFormat</code> with the same pattern and locale, but it may
+ * be shared freely between threads and formats into a
+ * <code>StringBuilder</code> or other <code>Appendable</code> without a
+ * <code>StringBuffer</code>, <code>FieldPosition</code> or new subformats
+ * on each call.  Number and date subformats are compiled to a
+ * {@link DecimalFormatter} or {@link SimpleDateFormatter}, the choices of
+ * a <code>ChoiceFormat</code> are resolved when the formatter is created,
+ * including any nested message patterns, and the default number and date
+ * formats for arguments without a subformat are created only once, or for
+ * dates, once per default time zone.
+ * Instances obtained from the <code>ofPattern</code> methods are cached
+ * per pattern, locale and default time zone.
+ *
+ * <blockquote><pre>
+ * MessageFormatter greeting = MessageFormatter.ofPattern(
+ *     "Hello {0}, you have {1,number,integer} new messages", Locale.ROOT);
+ * String s = greeting.format("Ann", 3);
+ * </pre></blockquote>
+ *
+ * <p>Like <code>MessageFormat</code>, a formatter formats dates with a
+ * date or time subformat in the default time zone at the time it was
+ * created, and dates for elements without a subformat in the default time
+ * zone at the time they are formatted.  Arguments of a type that
+ * is not compiled, such as a <code>BigDecimal</code>, and subformats of
+ * other classes, are formatted by a private copy of the subformat while
+ * holding its lock.  Parsing is done by a copy of the underlying
+ * <code>MessageFormat</code>.
+ *
+ * @see          MessageFormat
+ * @since        1.8
+ */
+public final class MessageFormatter {
+
+    /**
+     * Cache to hold compiled formatters per pattern, locale and time zone.
+     */
+    private static final FormatterCache<CacheKey, MessageFormatter> cachedFormatters
+        = new FormatterCache<>(256);
+
+    // Kinds of element.
+    private static final int KIND_DEFAULT = 0;  // no subformat
+    private static final int KIND_NUMBER  = 1;  // DecimalFormat
+    private static final int KIND_DATE    = 2;  // SimpleDateFormat
+    private static final int KIND_CHOICE  = 3;  // ChoiceFormat
+    private static final int KIND_OTHER   = 4;  // any other Format
+
+    /**
+     * The format from which this formatter was compiled; never modified
+     * and never exposed.
+     */
+    private final MessageFormat prototype;
+
+    /**
+     * The literal text before each element, and after the last.
+     */
+    private final String[] literals;
+
+    /**
+     * The elements, in the order they occur in the pattern.
+     */
+    private final Element[] elements;
+
+    /**
+     * The formats for numbers and dates given as arguments to elements
+     * without a subformat.  Null if there are no such elements.
+     */
+    private final Element defaultNumber;
+    private volatile DefaultDate defaultDate;
+
+    /**
+     * Creates a formatter from a private copy of a format.
+     */
+    private MessageFormatter(MessageFormat format) {
+        prototype = format;
+        String pattern = format.getLiteralPattern();
+        int count = format.getElementCount();
+        literals = new String[count + 1];
+        elements = new Element[count];
+        int lastOffset = 0;
+        boolean hasDefault = false;
+        for (int i = 0; i < count; i++) {
+            Format subformat = format.getElementFormat(i);
+            int offset = format.getElementOffset(i);
+            literals[i] = pattern.substring(lastOffset, offset);
+            lastOffset = offset;
+            elements[i] = new Element(format.getElementArgumentNumber(i), subformat, format.getLocale());
+            hasDefault |= (subformat == null);
+        }
+        literals[count] = pattern.substring(lastOffset);
+        if (hasDefault) {
+            Locale locale = format.getLocale();
+            defaultNumber = new Element(-1, NumberFormat.getInstance(locale), locale);
+            defaultDate = new DefaultDate(TimeZone.getDefault(), locale);
+        } else {
+            defaultNumber = null;
+        }
+    }
+
+    /**
+     * Returns the element that formats dates given as arguments to elements
+     * without a subformat.  MessageFormat creates its format on each call,
+     * so it is recreated if the default time zone has changed.
+     */
+    private Element defaultDate() {
+        TimeZone zone = TimeZone.getDefault();
+        DefaultDate d = defaultDate;
+        if (!d.zone.equals(zone)) {
+            defaultDate = d = new DefaultDate(zone, getLocale());
+        }
+        return d.element;
+    }
+
+    /**
+     * Returns a formatter for the given pattern, using the default
+     * {@link java.util.Locale.Category#FORMAT FORMAT} locale.
+     *
+     * @param pattern a <code>MessageFormat</code> pattern
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if <code>pattern</code> is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static MessageFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Returns a formatter for the given pattern and locale.
+     * Formatters are cached, so repeated calls with the same arguments and
+     * the same default time zone normally return the same instance.
+     *
+     * @param pattern a <code>MessageFormat</code> pattern
+     * @param locale the locale for number and date subformats
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if any argument is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static MessageFormatter ofPattern(String pattern, Locale locale) {
+        CacheKey key = new CacheKey(Objects.requireNonNull(pattern),
+                                    Objects.requireNonNull(locale),
+                                    TimeZone.getDefault());
+        MessageFormatter formatter = cachedFormatters.get(key);
+        if (formatter == null) {
+            formatter = cachedFormatters.putIfAbsent(key,
+                new MessageFormatter(new MessageFormat(pattern, locale)));
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns a formatter that formats like the given
+     * <code>MessageFormat</code> in its current state.  Later changes to
+     * <code>format</code> or its subformats do not affect the returned
+     * formatter.
+     *
+     * @param format the format to compile
+     * @return a formatter equivalent to <code>format</code>, not null
+     * @exception NullPointerException if <code>format</code> is null
+     */
+    public static MessageFormatter of(MessageFormat format) {
+        return new MessageFormatter((MessageFormat) format.clone());
+    }
+
+    /**
+     * Formats an array of objects, as
+     * {@link MessageFormat#format(Object) MessageFormat.format} does.
+     *
+     * @param arguments the objects to format
+     * @return the formatted string
+     * @exception IllegalArgumentException if an argument is not of the
+     *            type expected by the format element(s) that use it
+     */
+    public String format(Object... arguments) {
+        StringBuilder sb = new StringBuilder(64);
+        formatTo(arguments, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats an array of objects to an <code>Appendable</code>.
+     *
+     * @param arguments the objects to format
+     * @param appendable the appendable to format to, not null
+     * @exception IllegalArgumentException if an argument is not of the
+     *            type expected by the format element(s) that use it
+     * @exception UncheckedIOException if an I/O error occurs while
+     *            appending
+     * @exception NullPointerException if <code>appendable</code> is null
+     */
+    public void formatTo(Object[] arguments, Appendable appendable) {
+        Objects.requireNonNull(appendable, "appendable");
+        try {
+            for (int i = 0; i < elements.length; i++) {
+                appendable.append(literals[i]);
+                elements[i].formatTo(this, arguments, appendable);
+            }
+            appendable.append(literals[elements.length]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses text from the beginning of the given string to produce an
+     * object array.
+     *
+     * @param source a <code>String</code> whose beginning should be parsed
+     * @return an <code>Object</code> array parsed from the string
+     * @exception ParseException if the beginning of the specified string
+     *            cannot be parsed
+     * @exception NullPointerException if <code>source</code> is null
+     * @see MessageFormat#parse(String)
+     */
+    public Object[] parse(String source) throws ParseException {
+        return toFormat().parse(source);
+    }
+
+    /**
+     * Returns a new <code>MessageFormat</code> equivalent to this
+     * formatter.  The returned format may be modified freely.
+     *
+     * @return a new <code>MessageFormat</code>, not null
+     */
+    public MessageFormat toFormat() {
+        return (MessageFormat) prototype.clone();
+    }
+
+    /**
+     * Returns the locale of this formatter.
+     *
+     * @return the locale, not null
+     */
+    public Locale getLocale() {
+        return prototype.getLocale();
+    }
+
+    /**
+     * Returns the pattern of this formatter.
+     *
+     * @return the pattern, not null
+     * @see MessageFormat#toPattern()
+     */
+    public String toPattern() {
+        return prototype.toPattern();
+    }
+
+    /**
+     * Returns a description of this formatter, which is its pattern.
+     *
+     * @return the pattern of this formatter
+     */
+    @Override
+    public String toString() {
+        return toPattern();
+    }
+
+    /**
+     * A format element, compiled from its subformat.
+     */
+    private static final class Element {
+        private final int argumentNumber;
+        private final int kind;
+        // The subformat, formatted while holding its lock when not compiled.
+        private final Format format;
+        private final DecimalFormatter number;
+        private final SimpleDateFormatter date;
+        // The limits and choices of a ChoiceFormat, and the compiled
+        // message patterns of the choices that contain them.
+        private final double[] limits;
+        private final String[] choices;
+        private final MessageFormatter[] nested;
+
+        Element(int argumentNumber, Format format, Locale locale) {
+            this.argumentNumber = argumentNumber;
+            this.format = format;
+            DecimalFormatter number = null;
+            SimpleDateFormatter date = null;
+            double[] limits = null;
+            String[] choices = null;
+            MessageFormatter[] nested = null;
+            if (format == null) {
+                kind = KIND_DEFAULT;
+            } else if (format.getClass() == DecimalFormat.class) {
+                kind = KIND_NUMBER;
+                number = DecimalFormatter.of((DecimalFormat) format);
+            } else if (format.getClass() == SimpleDateFormat.class) {
+                kind = KIND_DATE;
+                date = SimpleDateFormatter.of((SimpleDateFormat) format);
+            } else if (format instanceof ChoiceFormat) {
+                kind = KIND_CHOICE;
+                ChoiceFormat choice = (ChoiceFormat) format;
+                limits = choice.getLimits();
+                Object[] formats = choice.getFormats();
+                choices = new String[formats.length];
+                nested = new MessageFormatter[formats.length];
+                for (int i = 0; i < formats.length; i++) {
+                    choices[i] = (String) formats[i];
+                    if (choices[i].indexOf('{') >= 0) {
+                        try {
+                            nested[i] = new MessageFormatter(new MessageFormat(choices[i], locale));
+                        } catch (IllegalArgumentException e) {
+                            // MessageFormat reports this only if the choice is made
+                        }
+                    }
+                }
+            } else {
+                kind = KIND_OTHER;
+            }
+            this.number = number;
+            this.date = date;
+            this.limits = limits;
+            this.choices = choices;
+            this.nested = nested;
+        }
+
+        /**
+         * Formats the argument of this element, as MessageFormat.subformat does.
+         */
+        void formatTo(MessageFormatter owner, Object[] arguments, Appendable appendable)
+                throws IOException {
+            if (arguments == null || argumentNumber >= arguments.length) {
+                appendable.append('{').append(Integer.toString(argumentNumber)).append('}');
+                return;
+            }
+            Object obj = arguments[argumentNumber];
+            if (obj == null) {
+                appendable.append("null");
+                return;
+            }
+            switch (kind) {
+            case KIND_DEFAULT:
+                if (obj instanceof Number) {
+                    owner.defaultNumber.formatValue(obj, appendable);
+                } else if (obj instanceof Date) {
+                    owner.defaultDate().formatValue(obj, appendable);
+                } else if (obj instanceof String) {
+                    appendable.append((String) obj);
+                } else {
+                    String arg = obj.toString();
+                    appendable.append(arg == null ? "null" : arg);
+                }
+                break;
+            case KIND_CHOICE:
+                if (!(obj instanceof Number)) {
+                    throw new IllegalArgumentException("Cannot format given Object as a Number");
+                }
+                int i = choose(((Number) obj).doubleValue());
+                if (nested[i] != null) {
+                    nested[i].formatTo(arguments, appendable);
+                } else if (choices[i].indexOf('{') >= 0) {
+                    // invalid nested pattern, so fail as MessageFormat does
+                    appendable.append(new MessageFormat(choices[i], owner.getLocale()).format(arguments));
+                } else {
+                    appendable.append(choices[i]);
+                }
+                break;
+            default:
+                formatValue(obj, appendable);
+                break;
+            }
+        }
+
+        /**
+         * Formats a value with the subformat of this element.
+         */
+        void formatValue(Object obj, Appendable appendable) throws IOException {
+            if (number != null) {
+                // as DecimalFormat.format(Object, StringBuffer, FieldPosition)
+                if (obj instanceof Long || obj instanceof Integer ||
+                        obj instanceof Short || obj instanceof Byte ||
+                        obj instanceof AtomicInteger || obj instanceof AtomicLong) {
+                    number.formatTo(((Number) obj).longValue(), appendable);
+                    return;
+                } else if (obj instanceof Number && !(obj instanceof BigDecimal) &&
+                        !(obj instanceof BigInteger)) {
+                    number.formatTo(((Number) obj).doubleValue(), appendable);
+                    return;
+                }
+            } else if (date != null) {
+                // as DateFormat.format(Object, StringBuffer, FieldPosition)
+                if (obj instanceof Date) {
+                    date.formatTo(((Date) obj).getTime(), appendable);
+                    return;
+                } else if (obj instanceof Number) {
+                    date.formatTo(((Number) obj).longValue(), appendable);
+                    return;
+                }
+            }
+            String arg;
+            synchronized (format) {
+                arg = format.format(obj);
+            }
+            appendable.append(arg);
+        }
+
+        /**
+         * Selects a choice, as ChoiceFormat.format(double, StringBuffer, FieldPosition).
+         */
+        private int choose(double number) {
+            int i;
+            for (i = 0; i < limits.length; ++i) {
+                if (!(number >= limits[i])) {
+                    // same as number < limits, except catches NaN
+                    break;
+                }
+            }
+            --i;
+            if (i < 0) i = 0;
+            return i;
+        }
+    }
+
+    /**
+     * The default date format of a formatter, for the time zone it was
+     * created in.
+     */
+    private static final class DefaultDate {
+        final TimeZone zone;
+        final Element element;
+
+        DefaultDate(TimeZone zone, Locale locale) {
+            DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT,
+                                                               DateFormat.SHORT, locale);
+            format.setTimeZone(zone);
+            this.zone = zone;
+            this.element = new Element(-1, format, locale);
+        }
+    }
+
+    /**
+     * Key of the formatter cache.
+     */
+    private static final class CacheKey {
+        private final String pattern;
+        private final Locale locale;
+        private final TimeZone zone;
+
+        CacheKey(String pattern, Locale locale, TimeZone zone) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return pattern.equals(other.pattern) && locale.equals(other.locale)
+                && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + locale.hashCode()) * 31 + zone.hashCode();
+        }
+    }
+}
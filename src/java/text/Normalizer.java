@@ -37,6 +37,8 @@
 
 package java.text;
 
+import java.io.IOException;
+import java.io.Reader;
 import sun.text.normalizer.NormalizerBase;
 import sun.text.normalizer.NormalizerImpl;
 
@@ -157,7 +159,78 @@ public final class Normalizer {
      * is null.
      */
     public static String normalize(CharSequence src, Form form) {
-        return NormalizerBase.normalize(src.toString(), form);
+        int length = src.length();
+        int stable = quickCheckPrefix(src, form);
+        if (stable == length) {
+            return src.toString();
+        }
+        // the last stable character may compose with those that follow
+        int start = Math.max(stable - 1, 0);
+        String normalized = NormalizerBase.normalize(src.subSequence(start, length).toString(), form);
+        if (start == 0) {
+            return normalized;
+        }
+        return new StringBuilder(start + normalized.length())
+                   .append(src, 0, start).append(normalized).toString();
+    }
+
+    /**
+     * Normalize a sequence of char values, appending the result to an
+     * <code>Appendable</code>.
+     * The sequence will be normalized according to the specified normalization
+     * form.
+     * <p>
+     * The sequence is normalized in pieces that end at characters which never
+     * interact with the characters before them, so the result is the same as
+     * appending the result of {@link #normalize(CharSequence, Form)}, but
+     * without creating the whole normalized text as a single String.
+     *
+     * @param src        The sequence of char values to normalize.
+     * @param form       The normalization form; one of
+     *                   {@link java.text.Normalizer.Form#NFC},
+     *                   {@link java.text.Normalizer.Form#NFD},
+     *                   {@link java.text.Normalizer.Form#NFKC},
+     *                   {@link java.text.Normalizer.Form#NFKD}
+     * @param dest       The <code>Appendable</code> to append the normalized
+     *                   char values to.
+     * @throws IOException If an I/O error occurs appending to <code>dest</code>.
+     * @throws NullPointerException If <code>src</code>, <code>form</code> or
+     * <code>dest</code> is null.
+     */
+    public static void normalize(CharSequence src, Form form, Appendable dest) throws IOException {
+        if (form == null || dest == null) {
+            throw new NullPointerException();
+        }
+        normalize(src, 0, src.length(), form, dest, true);
+    }
+
+    /**
+     * Returns a <code>Reader</code> that normalizes the char values read
+     * from another <code>Reader</code>.
+     * The char values will be normalized according to the specified
+     * normalization form.
+     * <p>
+     * The text is read and normalized in pieces, each ending at a character
+     * which never interacts with the characters before it, so the char values
+     * read are the same as those of normalizing the whole text at once.
+     * Closing the returned reader closes <code>in</code>.
+     *
+     * @param in         The <code>Reader</code> to read the char values to
+     *                   normalize from.
+     * @param form       The normalization form; one of
+     *                   {@link java.text.Normalizer.Form#NFC},
+     *                   {@link java.text.Normalizer.Form#NFD},
+     *                   {@link java.text.Normalizer.Form#NFKC},
+     *                   {@link java.text.Normalizer.Form#NFKD}
+     * @return A <code>Reader</code> of the normalized char values.
+     * @throws NullPointerException If <code>in</code> or <code>form</code>
+     * is null.
+     */
+    public static Reader normalizingReader(Reader in, Form form) {
+        if (in == null || form == null) {
+            throw new NullPointerException();
+        }
+        return new NormalizingReader(in, form);
     }
 
     /**
@@ -174,6 +247,248 @@ public final class Normalizer {
      * is null.
      */
     public static boolean isNormalized(CharSequence src, Form form) {
-        return NormalizerBase.isNormalized(src.toString(), form);
+        int length = src.length();
+        int stable = quickCheckPrefix(src, form);
+        if (stable == length) {
+            return true;
+        }
+        // the last stable character may compose with those that follow
+        int start = Math.max(stable - 1, 0);
+        return NormalizerBase.isNormalized(src.subSequence(start, length).toString(), form);
+    }
+
+    // The target number of chars normalized at once when working in pieces
+    private static final int PIECE_SIZE = 1024;
+
+    // Lazily built bit tables, indexed by form, of the chars that are boundaries
+    private static final long[][] boundaryTables = new long[Form.values().length][];
+
+    /**
+     * Returns the length of the prefix of a sequence made of chars that pass
+     * the quick check. These are chars that are unchanged by the form and never
+     * interact with the chars either side of them, except that one may compose
+     * with the chars after it in NFC and NFKC.
+     * The chars are checked by range, without consulting the normalization data.
+     */
+    private static int quickCheckPrefix(CharSequence src, Form form) {
+        int length = src.length();
+        int latinLimit = latinLimit(form);
+        boolean composed = isComposed(form);
+        int i = 0;
+        while (i < length && isQuickCheckStable(src.charAt(i), latinLimit, composed)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the first char that, in the Latin blocks, may fail the quick check.
+     */
+    private static int latinLimit(Form form) {
+        switch (form) {
+            case NFC:
+                return 0x300;     // Combining Diacritical Marks
+            case NFD:
+                return 0xC0;      // LATIN CAPITAL LETTER A WITH GRAVE
+            default:
+                return 0x80;      // compatibility decompositions start in Latin-1
+        }
+    }
+
+    private static boolean isComposed(Form form) {
+        return form == Form.NFC || form == Form.NFKC;
+    }
+
+    private static boolean isQuickCheckStable(char c, int latinLimit, boolean composed) {
+        return c < latinLimit
+            || (c >= 0x4E00 && c <= 0x9FFF)              // CJK Unified Ideographs
+            || (composed && ((c >= 0xAC00 && c <= 0xD7A3)    // Hangul Syllables
+                          || (c >= 0x3041 && c <= 0x3096)    // Hiragana
+                          || (c >= 0x30A1 && c <= 0x30FA))); // Katakana
+    }
+
+    /**
+     * Returns whether a char is a normalization boundary, where the text may
+     * be split and each part normalized separately.
+     * A boundary char is unchanged by the form, has a combining class of zero
+     * and never composes with the char before it, although in NFC and NFKC it
+     * may compose with the chars after it.
+     */
+    private static boolean isBoundary(char c, int latinLimit, boolean composed, long[] table) {
+        return isQuickCheckStable(c, latinLimit, composed) || (table[c >>> 6] & (1L << c)) != 0;
+    }
+
+    private static synchronized long[] getBoundaryTable(Form form) {
+        long[] table = boundaryTables[form.ordinal()];
+        if (table == null) {
+            table = new long[(Character.MAX_VALUE + 1) >>> 6];
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                if (Character.isSurrogate((char) c)) {
+                    continue;
+                }
+                switch (Character.getType(c)) {
+                    case Character.UNASSIGNED:
+                    case Character.NON_SPACING_MARK:
+                    case Character.COMBINING_SPACING_MARK:
+                    case Character.ENCLOSING_MARK:
+                        // may have a non-zero combining class or compose with the char before
+                        continue;
+                }
+                if ((c >= 0x1160 && c <= 0x11FF) || (c >= 0xD7B0 && c <= 0xD7FF)) {
+                    // Hangul medial vowel and final consonant jamo compose with the char before
+                    continue;
+                }
+                if (NormalizerBase.isNormalized(String.valueOf((char) c), form)) {
+                    table[c >>> 6] |= 1L << c;
+                }
+            }
+            boundaryTables[form.ordinal()] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Normalizes part of a sequence in pieces, appending the result.
+     * <p>
+     * Unless the end of the input has been reached, the chars after the last
+     * boundary, together with the last char if all of them pass the quick
+     * check, are not normalized, as they may interact with the input to come.
+     *
+     * @return the index of the first char that was not normalized
+     */
+    private static int normalize(CharSequence src, int start, int end, Form form,
+                                 Appendable dest, boolean endOfInput) throws IOException {
+        long[] table = null;
+        int latinLimit = latinLimit(form);
+        boolean composed = isComposed(form);
+        int pos = start;
+        while (pos < end) {
+            // copy the chars that pass the quick check, except the last, which
+            // may compose with the chars that follow
+            int stable = pos;
+            while (stable < end && isQuickCheckStable(src.charAt(stable), latinLimit, composed)) {
+                stable++;
+            }
+            if (stable == end && endOfInput) {
+                dest.append(src, pos, end);
+                return end;
+            }
+            int pieceStart = (stable > pos ? stable - 1 : pos);
+            dest.append(src, pos, pieceStart);
+            pos = pieceStart;
+            if (stable == end) {
+                return pos;
+            }
+            // find the boundary that ends the piece
+            if (table == null) {
+                table = getBoundaryTable(form);
+            }
+            int pieceEnd = -1;
+            int lastBoundary = -1;
+            for (int i = stable + 1; i < end; i++) {
+                char c = src.charAt(i);
+                if (isBoundary(c, latinLimit, composed, table)) {
+                    if (isQuickCheckStable(c, latinLimit, composed) || i - pieceStart >= PIECE_SIZE) {
+                        pieceEnd = i;
+                        break;
+                    }
+                    lastBoundary = i;
+                }
+            }
+            if (pieceEnd < 0) {
+                if (endOfInput) {
+                    pieceEnd = end;
+                } else if (lastBoundary >= 0) {
+                    pieceEnd = lastBoundary;
+                } else {
+                    return pos;
+                }
+            }
+            dest.append(NormalizerBase.normalize(src.subSequence(pieceStart, pieceEnd).toString(), form));
+            pos = pieceEnd;
+        }
+        return pos;
+    }
+
+    /**
+     * A reader that normalizes the text read from another reader, in pieces.
+     */
+    private static final class NormalizingReader extends Reader {
+        private final Reader in;
+        private final Form form;
+        private final char[] buffer = new char[PIECE_SIZE * 4];
+        // the input that has been read but not normalized
+        private final StringBuilder input = new StringBuilder();
+        // the normalized text, and the position of the next char to return
+        private final StringBuilder output = new StringBuilder();
+        private int outputPos;
+        private boolean endOfInput;
+        private boolean closed;
+
+        NormalizingReader(Reader in, Form form) {
+            super(in);
+            this.in = in;
+            this.form = form;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            synchronized (lock) {
+                if (closed) {
+                    throw new IOException("Stream closed");
+                }
+                if ((off < 0) || (off > cbuf.length) || (len < 0) ||
+                    ((off + len) > cbuf.length) || ((off + len) < 0)) {
+                    throw new IndexOutOfBoundsException();
+                } else if (len == 0) {
+                    return 0;
+                }
+                while (outputPos == output.length()) {
+                    if (endOfInput && input.length() == 0) {
+                        return -1;
+                    }
+                    fill();
+                }
+                int n = Math.min(len, output.length() - outputPos);
+                output.getChars(outputPos, outputPos + n, cbuf, off);
+                outputPos += n;
+                return n;
+            }
+        }
+
+        private void fill() throws IOException {
+            output.setLength(0);
+            outputPos = 0;
+            if (!endOfInput) {
+                int n = in.read(buffer, 0, buffer.length);
+                if (n < 0) {
+                    endOfInput = true;
+                } else {
+                    input.append(buffer, 0, n);
+                }
+            }
+            int done = normalize(input, 0, input.length(), form, output, endOfInput);
+            input.delete(0, done);
+        }
+
+        @Override
+        public boolean ready() throws IOException {
+            synchronized (lock) {
+                if (closed) {
+                    throw new IOException("Stream closed");
+                }
+                return outputPos < output.length();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (!closed) {
+                    closed = true;
+                    in.close();
+                }
+            }
+        }
     }
 }
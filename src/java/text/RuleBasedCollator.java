@@ -39,8 +39,14 @@
 package java.text;
 
 import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Vector;
 import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * The <code>RuleBasedCollator</code> class is a concrete subclass of
@@ -307,6 +313,7 @@ public class RuleBasedCollator extends Collator{
         setStrength(that.getStrength());
         setDecomposition(that.getDecomposition());
         tables = that.tables;
+        keyCacheSize = that.keyCacheSize;
     }
 
     /**
@@ -569,6 +576,211 @@ public class RuleBasedCollator extends Collator{
      * It can be overriden in a subclass.
      */
     public synchronized CollationKey getCollationKey(String source)
+    {
+        if (source == null)
+            return null;
+
+        if (keyCacheSize > 0) {
+            if (keyCache == null || keyCacheStrength != getStrength() ||
+                    keyCacheDecomposition != getDecomposition()) {
+                // the settings affect the keys, so start again when they change
+                keyCache = new KeyCache(keyCacheSize);
+                keyCacheStrength = getStrength();
+                keyCacheDecomposition = getDecomposition();
+            }
+            CollationKey key = keyCache.get(source);
+            if (key == null) {
+                key = new RuleBasedCollationKey(source, getKeyString(source));
+                keyCache.put(source, key);
+            }
+            return key;
+        }
+        return new RuleBasedCollationKey(source, getKeyString(source));
+    }
+
+    /**
+     * Returns the collation key of the string as a compact array of bytes.
+     * <p>
+     * Comparing the sort keys of two strings with {@link #compareSortKeys}
+     * gives the same result as comparing their collation keys, as returned by
+     * {@link #getCollationKey}. The sort key holds the same information as
+     * {@link CollationKey#toByteArray}, but encodes the small secondary and
+     * tertiary orders in a single byte rather than two, and does not retain
+     * the source string, making it cheaper to create and hold when sorting
+     * large numbers of strings.
+     * <p>
+     * Sort keys are only comparable with keys created by a collator with the
+     * same rules, strength and decomposition mode.
+     *
+     * @param source the string to create the sort key for
+     * @return the sort key, not null
+     * @exception NullPointerException if <code>source</code> is null.
+     */
+    public synchronized byte[] getSortKey(String source) {
+        if (source == null) {
+            throw new NullPointerException();
+        }
+        return toSortKey(getKeyString(source));
+    }
+
+    /**
+     * Compares two sort keys, as returned by {@link #getSortKey}, as unsigned bytes.
+     *
+     * @param key1 the first sort key
+     * @param key2 the second sort key
+     * @return {@link Collator#LESS}, {@link Collator#EQUAL} or {@link Collator#GREATER}
+     * as the first key is less than, equal to or greater than the second
+     * @exception NullPointerException if either key is null.
+     */
+    public static int compareSortKeys(byte[] key1, byte[] key2) {
+        int len = Math.min(key1.length, key2.length);
+        for (int i = 0; i < len; i++) {
+            int b1 = key1[i] & 0xff;
+            int b2 = key2[i] & 0xff;
+            if (b1 != b2) {
+                return (b1 < b2) ? Collator.LESS : Collator.GREATER;
+            }
+        }
+        if (key1.length != key2.length) {
+            return (key1.length < key2.length) ? Collator.LESS : Collator.GREATER;
+        }
+        return Collator.EQUAL;
+    }
+
+    /**
+     * Sets the maximum number of collation keys to cache.
+     * <p>
+     * When the size is positive, {@link #getCollationKey} retains the most
+     * recently used keys, and returns the same key when asked again for a
+     * string that it has cached. This helps where the same strings are
+     * collated repeatedly, such as the values of a column with few
+     * distinct values. Changing the strength or decomposition mode
+     * discards the cached keys. The cache is disabled by default.
+     *
+     * @param maxSize the maximum number of keys to cache, zero to disable the cache
+     * @exception IllegalArgumentException if <code>maxSize</code> is negative.
+     */
+    public synchronized void setCollationKeyCacheSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Negative cache size: " + maxSize);
+        }
+        keyCacheSize = maxSize;
+        keyCache = null;
+    }
+
+    /**
+     * Gets the maximum number of collation keys to cache.
+     *
+     * @return the maximum number of keys to cache, zero if the cache is disabled
+     * @see #setCollationKeyCacheSize
+     */
+    public synchronized int getCollationKeyCacheSize() {
+        return keyCacheSize;
+    }
+
+    /**
+     * Sorts an array of strings according to this collator, in parallel.
+     * <p>
+     * The strings are ordered by their collation keys, as returned by
+     * {@link #getCollationKey}, and strings with equal keys keep their
+     * relative order.  Unlike sorting with {@code Arrays.sort(strings, this)},
+     * a key is created only once for each string, rather than walking the
+     * collation elements of both strings on every comparison.  The keys are
+     * created in parallel using a copy of this collator for each task, so the
+     * collator is not locked while sorting.
+     *
+     * @param strings the strings to sort
+     * @exception NullPointerException if <code>strings</code> or any of its elements is null.
+     */
+    public void parallelSort(String[] strings) {
+        final int length = strings.length;
+        if (length < 2) {
+            if (length == 1 && strings[0] == null) {
+                throw new NullPointerException();
+            }
+            return;
+        }
+        final SortEntry[] entries = new SortEntry[length];
+        if (getClass() == RuleBasedCollator.class) {
+            final int tasks = Math.min((length + MIN_KEYS_PER_TASK - 1) / MIN_KEYS_PER_TASK,
+                                       ForkJoinPool.getCommonPoolParallelism() * 4);
+            IntStream.range(0, tasks).parallel().forEach(task -> {
+                RuleBasedCollator collator = (RuleBasedCollator) clone();
+                int from = (int) ((long) length * task / tasks);
+                int to = (int) ((long) length * (task + 1) / tasks);
+                for (int i = from; i < to; i++) {
+                    entries[i] = new SortEntry(strings[i], collator.getSortKey(strings[i]));
+                }
+            });
+        } else {
+            // a subclass may override getCollationKey, so use the keys it creates
+            for (int i = 0; i < length; i++) {
+                if (strings[i] == null) {
+                    throw new NullPointerException();
+                }
+                entries[i] = new SortEntry(strings[i], getCollationKey(strings[i]).toByteArray());
+            }
+        }
+        Arrays.parallelSort(entries, SortEntry.ORDER);
+        for (int i = 0; i < length; i++) {
+            strings[i] = entries[i].string;
+        }
+    }
+
+    /**
+     * A string being sorted and its key.
+     */
+    private static final class SortEntry {
+        static final Comparator<SortEntry> ORDER = (e1, e2) -> compareSortKeys(e1.key, e2.key);
+
+        final String string;
+        final byte[] key;
+
+        SortEntry(String string, byte[] key) {
+            this.string = string;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Encodes the characters of a collation key as a sort key.
+     * <p>
+     * Each character is encoded separately using an order-preserving prefix code,
+     * in which the first byte determines the length, so that comparing the bytes
+     * gives the same result as comparing the characters.  The values of most
+     * secondary and tertiary orders, and of the separators, fit in one byte.
+     */
+    private static byte[] toSortKey(String key) {
+        int length = key.length();
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            size += (c < SORTKEY_TWO_BYTES) ? 1 : (c < SORTKEY_THREE_BYTES) ? 2 : 3;
+        }
+        byte[] bytes = new byte[size];
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < SORTKEY_TWO_BYTES) {
+                bytes[pos++] = (byte) c;
+            } else if (c < SORTKEY_THREE_BYTES) {
+                int v = c - SORTKEY_TWO_BYTES;
+                bytes[pos++] = (byte) (SORTKEY_TWO_BYTES + (v >>> 8));
+                bytes[pos++] = (byte) v;
+            } else {
+                bytes[pos++] = (byte) 0xff;
+                bytes[pos++] = (byte) (c >>> 8);
+                bytes[pos++] = (byte) c;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Transforms the string into the characters of its collation key.
+     * The caller must hold the lock on this collator.
+     */
+    private String getKeyString(String source)
     {
         //
         // The basic algorithm here is to find all of the collation elements for each
@@ -600,9 +812,6 @@ public class RuleBasedCollator extends Collator{
         //
         // Collation Key:      1125<null>1000<null>1010
         //
-        if (source == null)
-            return null;
-
         if (primResult == null) {
             primResult = new StringBuffer();
             secResult = new StringBuffer();
@@ -694,7 +903,7 @@ public class RuleBasedCollator extends Collator{
                 primResult.append(source);
             }
         }
-        return new RuleBasedCollationKey(source, primResult.toString());
+        return primResult.toString();
     }
 
     /**
@@ -712,6 +921,7 @@ public class RuleBasedCollator extends Collator{
             result.primResult = null;
             result.secResult = null;
             result.terResult = null;
+            result.keyCache = null;
             result.sourceCursor = null;
             result.targetCursor = null;
             return result;
@@ -757,6 +967,15 @@ public class RuleBasedCollator extends Collator{
 
     private final static int COLLATIONKEYOFFSET = 1;
 
+    // The first key characters encoded in two and three bytes in a sort key.
+    // Values from SORTKEY_TWO_BYTES use the leading bytes up to 0xfe, then 0xff
+    // introduces the full value.
+    private final static int SORTKEY_TWO_BYTES = 0xf0;
+    private final static int SORTKEY_THREE_BYTES = SORTKEY_TWO_BYTES + (0xff - SORTKEY_TWO_BYTES) * 256;
+
+    // The minimum number of strings for each task creating keys in parallelSort
+    private final static int MIN_KEYS_PER_TASK = 1024;
+
     private RBCollationTables tables = null;
 
     // Internal objects that are cached across calls so that they don't have to
@@ -766,4 +985,27 @@ public class RuleBasedCollator extends Collator{
     private StringBuffer terResult = null;
     private CollationElementIterator sourceCursor = null;
     private CollationElementIterator targetCursor = null;
+
+    // The most recently used collation keys, and the settings they were created with
+    private int keyCacheSize = 0;
+    private KeyCache keyCache = null;
+    private int keyCacheStrength;
+    private int keyCacheDecomposition;
+
+    // A cache of collation keys in access order that holds at most maxSize keys
+    private static final class KeyCache extends LinkedHashMap<String, CollationKey> {
+        private static final long serialVersionUID = -2793615204181962341L;
+
+        private final int maxSize;
+
+        KeyCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CollationKey> eldest) {
+            return size() > maxSize;
+        }
+    }
 }
@@ -2189,10 +2189,33 @@ public class SimpleDateFormat extends DateFormat {
      * Returns true if the DateFormatSymbols has been set explicitly or locale
      * is null.
      */
-    private boolean useDateFormatSymbols() {
+    boolean useDateFormatSymbols() {
         return useDateFormatSymbols || locale == null;
     }
 
+    /**
+     * Returns the compiled pattern of this format, for
+     * {@link SimpleDateFormatter}.  The returned array must not be modified.
+     */
+    char[] getCompiledPattern() {
+        return compiledPattern;
+    }
+
+    /**
+     * Returns true if a lone 'M' field is formatted in standalone form.
+     */
+    boolean isForceStandaloneForm() {
+        return forceStandaloneForm;
+    }
+
+    /**
+     * Returns the locale this format was created with, which may be null
+     * for formats deserialized from an older release.
+     */
+    Locale getFormatLocale() {
+        return locale;
+    }
+
     /**
      * Translates a pattern, mapping each character in the from string to the
      * corresponding character in the to string.
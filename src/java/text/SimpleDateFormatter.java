@@ -0,0 +1,776 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.text;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import static java.text.DateFormatSymbols.*;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+import sun.util.calendar.ZoneInfo;
+
+/**
+ * An immutable, thread-safe formatter for dates, compiled once from a
+ * {@link SimpleDateFormat} pattern.
+ *
+ * <p>A <code>SimpleDateFormatter</code> produces the same text as a
+ * <code>SimpleDateFormat</code> with the same pattern, locale and time
+ * zone, but it holds no <code>Calendar</code> or other mutable state: a
+ * single instance may be shared freely between threads.  The pattern, the
+ * locale's symbols and the display names it needs are resolved when the
+ * formatter is created, and the calendar fields of each date are computed
+ * arithmetically.  Instances obtained from the <code>ofPattern</code>
+ * methods are cached per pattern, locale and time zone, in a cache of
+ * bounded size.
+ *
+ * <blockquote><pre>
+ * SimpleDateFormatter stamp = SimpleDateFormatter.ofPattern(
+ *     "yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.ROOT, TimeZone.getTimeZone("UTC"));
+ * String s = stamp.format(System.currentTimeMillis());
+ * </pre></blockquote>
+ *
+ * <p>Dates before 1583, patterns containing the week fields 'Y', 'w' or
+ * 'W', formats whose calendar is not the default
+ * <code>GregorianCalendar</code> (for example the Thai Buddhist calendar),
+ * and formats whose date format symbols carry explicitly set zone strings
+ * are formatted by a private copy of the underlying
+ * <code>SimpleDateFormat</code>.  Parsing is done the same way.
+ *
+ * @see          SimpleDateFormat
+ * @since        1.8
+ */
+public final class SimpleDateFormatter {
+
+    /**
+     * Cache to hold compiled formatters per pattern, locale and time zone.
+     */
+    private static final FormatterCache<CacheKey, SimpleDateFormatter> cachedFormatters
+        = new FormatterCache<>(256);
+
+    /**
+     * The earliest time that is formatted without a Calendar:
+     * 1583-01-02T00:00:00Z, which is in the Gregorian calendar in every
+     * time zone.
+     */
+    private static final long MIN_COMPILED_MILLIS = -12212467200000L;
+
+    /**
+     * The default Gregorian cutover of GregorianCalendar:
+     * 1582-10-15T00:00:00Z.
+     */
+    private static final long DEFAULT_GREGORIAN_CUTOVER = -12219292800000L;
+
+    private static final int MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    // Days before the first of each month (1-based) in a common year.
+    private static final int[] DAYS_BEFORE_MONTH = {
+        0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334
+    };
+
+    /**
+     * The format this formatter was compiled from.  It is never modified
+     * or used for formatting directly; callers needing a
+     * <code>SimpleDateFormat</code> get a clone.
+     */
+    private final SimpleDateFormat prototype;
+
+    /**
+     * A copy of the prototype, made on first use, that formats what is not
+     * compiled while holding its lock.  Threads racing to make it may each
+     * use their own copy.
+     */
+    private volatile SimpleDateFormat fallback;
+
+    private final TimeZone zone;
+
+    /**
+     * The fields of the pattern.  fieldTags[i] is a pattern character
+     * index, or -1 for the literal text in literals[i].  names[i] holds the
+     * text for each value of a text field, or null for a numeric field.
+     * Null if this formatter always uses a copy of the prototype.
+     */
+    private final int[] fieldTags;
+    private final int[] fieldCounts;
+    private final String[] literals;
+    private final String[][] names;
+
+    private final char zeroDigit;
+    private final boolean needsDaylight;
+
+    /**
+     * Zone names for the 'z' field, indexed by (daylight ? 2 : 0) +
+     * (count &lt; 4 ? 0 : 1).
+     */
+    private final String[] zoneNames;
+
+    private SimpleDateFormatter(SimpleDateFormat format) {
+        prototype = format;
+        zone = (TimeZone) format.getTimeZone().clone();
+
+        Calendar calendar = (Calendar) format.calendar.clone();
+        NumberFormat numberFormat = format.numberFormat;
+        DateFormatSymbols symbols = format.getDateFormatSymbols();
+        boolean compilable = calendar.getClass() == GregorianCalendar.class
+            && ((GregorianCalendar) calendar).getGregorianChange().getTime()
+               == DEFAULT_GREGORIAN_CUTOVER
+            && isPlainIntegerFormat(numberFormat);
+
+        char[] compiledPattern = format.getCompiledPattern();
+        int n = 0;
+        for (int i = 0; i < compiledPattern.length; n++) {
+            int count = compiledPattern[i++] & 0xff;
+            int tag = compiledPattern[i - 1] >>> 8;
+            if (count == 255) {
+                count = compiledPattern[i++] << 16;
+                count |= compiledPattern[i++];
+            }
+            if (tag == TAG_QUOTE_CHARS) {
+                i += count;
+            }
+        }
+        int[] tags = new int[n];
+        int[] counts = new int[n];
+        String[] texts = new String[n];
+        String[][] tables = new String[n][];
+        boolean daylight = false;
+        String[] zoneTexts = null;
+
+        Locale locale = format.getFormatLocale();
+        boolean useDateFormatSymbols = format.useDateFormatSymbols();
+        n = 0;
+        for (int i = 0; compilable && i < compiledPattern.length; ) {
+            int tag = compiledPattern[i] >>> 8;
+            int count = compiledPattern[i++] & 0xff;
+            if (count == 255) {
+                count = compiledPattern[i++] << 16;
+                count |= compiledPattern[i++];
+            }
+
+            switch (tag) {
+            case TAG_QUOTE_ASCII_CHAR:
+                tags[n] = -1;
+                texts[n++] = String.valueOf((char)count);
+                continue;
+
+            case TAG_QUOTE_CHARS:
+                tags[n] = -1;
+                texts[n++] = new String(compiledPattern, i, count);
+                i += count;
+                continue;
+
+            case PATTERN_WEEK_YEAR:
+            case PATTERN_WEEK_OF_YEAR:
+            case PATTERN_WEEK_OF_MONTH:
+                compilable = false;
+                continue;
+
+            case PATTERN_ZONE_NAME:
+                if (symbols.locale == null || symbols.isZoneStringsSet) {
+                    compilable = false;
+                    continue;
+                }
+                if (zoneTexts == null) {
+                    zoneTexts = new String[4];
+                    for (int j = 0; j < 4; j++) {
+                        zoneTexts[j] = zone.getDisplayName(j >= 2,
+                            (j & 1) == 0 ? TimeZone.SHORT : TimeZone.LONG,
+                            symbols.locale);
+                    }
+                }
+                daylight = true;
+                break;
+
+            default:
+                tables[n] = textTable(tag, count, calendar, symbols, locale,
+                                      useDateFormatSymbols,
+                                      format.isForceStandaloneForm());
+                break;
+            }
+            tags[n] = tag;
+            counts[n++] = count;
+        }
+
+        if (compilable) {
+            fieldTags = tags;
+            fieldCounts = counts;
+            literals = texts;
+            names = tables;
+            zeroDigit = ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit();
+            needsDaylight = daylight;
+            zoneNames = zoneTexts;
+        } else {
+            fieldTags = null;
+            fieldCounts = null;
+            literals = null;
+            names = null;
+            zeroDigit = '0';
+            needsDaylight = false;
+            zoneNames = null;
+        }
+    }
+
+    /**
+     * Returns true if numberFormat formats non-negative int values as
+     * plain, ungrouped digits, as the default number format of
+     * <code>SimpleDateFormat</code> does.
+     */
+    private static boolean isPlainIntegerFormat(NumberFormat numberFormat) {
+        if (!(numberFormat instanceof DecimalFormat)) {
+            return false;
+        }
+        DecimalFormat df = (DecimalFormat) numberFormat;
+        return df.getPositivePrefix().isEmpty() && df.getPositiveSuffix().isEmpty()
+            && df.getMultiplier() == 1 && !df.isGroupingUsed()
+            && df.getMinimumFractionDigits() == 0
+            && !df.isDecimalSeparatorAlwaysShown()
+            && !df.usesExponentialNotation();
+    }
+
+    /**
+     * Returns the text SimpleDateFormat.subFormat produces for each value
+     * of the given field, or null if the field is always numeric.  A null
+     * element means that value is formatted as a number, except for 'E'
+     * and 'a' which then produce no text.
+     */
+    private static String[] textTable(int tag, int count, Calendar calendar,
+                                      DateFormatSymbols symbols, Locale locale,
+                                      boolean useDateFormatSymbols,
+                                      boolean forceStandaloneForm) {
+        int style = (count >= 4) ? Calendar.LONG : Calendar.SHORT;
+        switch (tag) {
+        case PATTERN_ERA: {
+            String[] table = new String[2];
+            for (int v = 0; v < table.length; v++) {
+                String current = null;
+                if (useDateFormatSymbols) {
+                    if (v < symbols.eras.length) {
+                        current = symbols.eras[v];
+                    }
+                } else {
+                    current = displayName(calendar, Calendar.ERA, v, style, locale);
+                }
+                table[v] = (current == null) ? "" : current;
+            }
+            return table;
+        }
+
+        case PATTERN_MONTH: {
+            if (count < 3) {
+                return null;
+            }
+            String[] table = new String[12];
+            for (int v = 0; v < table.length; v++) {
+                if (useDateFormatSymbols) {
+                    table[v] = (count >= 4) ? symbols.months[v] : symbols.shortMonths[v];
+                } else {
+                    String current = null;
+                    if (forceStandaloneForm) {
+                        current = displayName(calendar, Calendar.MONTH, v,
+                                              style | 0x8000, locale);
+                    }
+                    if (current == null) {
+                        current = displayName(calendar, Calendar.MONTH, v, style, locale);
+                    }
+                    table[v] = current;
+                }
+            }
+            return table;
+        }
+
+        case PATTERN_MONTH_STANDALONE: {
+            if (count < 3) {
+                return null;
+            }
+            String[] table = new String[12];
+            for (int v = 0; v < table.length; v++) {
+                if (locale == null) {
+                    table[v] = (count >= 4) ? symbols.months[v] : symbols.shortMonths[v];
+                } else {
+                    table[v] = displayName(calendar, Calendar.MONTH, v,
+                                           style | 0x8000, locale);
+                }
+            }
+            return table;
+        }
+
+        case PATTERN_DAY_OF_WEEK: {
+            String[] table = new String[8];
+            for (int v = Calendar.SUNDAY; v <= Calendar.SATURDAY; v++) {
+                if (useDateFormatSymbols) {
+                    table[v] = (count >= 4) ? symbols.weekdays[v] : symbols.shortWeekdays[v];
+                } else {
+                    table[v] = displayName(calendar, Calendar.DAY_OF_WEEK, v, style, locale);
+                }
+            }
+            return table;
+        }
+
+        case PATTERN_AM_PM: {
+            String[] table = new String[2];
+            for (int v = 0; v < table.length; v++) {
+                if (useDateFormatSymbols) {
+                    table[v] = symbols.ampms[v];
+                } else {
+                    table[v] = displayName(calendar, Calendar.AM_PM, v, style, locale);
+                }
+            }
+            return table;
+        }
+
+        default:
+            return null;
+        }
+    }
+
+    private static String displayName(Calendar calendar, int field, int value,
+                                      int style, Locale locale) {
+        calendar.set(field, value);
+        return calendar.getDisplayName(field, style, locale);
+    }
+
+    /**
+     * Returns a formatter for the given pattern, using the default
+     * {@link java.util.Locale.Category#FORMAT FORMAT} locale and the
+     * default time zone.
+     *
+     * @param pattern a <code>SimpleDateFormat</code> pattern
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if <code>pattern</code> is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static SimpleDateFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, Locale.getDefault(Locale.Category.FORMAT),
+                         TimeZone.getDefault());
+    }
+
+    /**
+     * Returns a formatter for the given pattern and locale, using the
+     * default time zone.
+     *
+     * @param pattern a <code>SimpleDateFormat</code> pattern
+     * @param locale the locale whose date format symbols should be used
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if <code>pattern</code> or
+     *            <code>locale</code> is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static SimpleDateFormatter ofPattern(String pattern, Locale locale) {
+        return ofPattern(pattern, locale, TimeZone.getDefault());
+    }
+
+    /**
+     * Returns a formatter for the given pattern, locale and time zone.
+     * Formatters are cached, so repeated calls with the same arguments
+     * normally return the same instance.
+     *
+     * @param pattern a <code>SimpleDateFormat</code> pattern
+     * @param locale the locale whose date format symbols should be used
+     * @param zone the time zone in which dates are formatted
+     * @return a formatter for the pattern, not null
+     * @exception NullPointerException if any argument is null
+     * @exception IllegalArgumentException if the given pattern is invalid
+     */
+    public static SimpleDateFormatter ofPattern(String pattern, Locale locale,
+                                                TimeZone zone) {
+        CacheKey key = new CacheKey(Objects.requireNonNull(pattern),
+                                    Objects.requireNonNull(locale),
+                                    Objects.requireNonNull(zone));
+        SimpleDateFormatter formatter = cachedFormatters.get(key);
+        if (formatter == null) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+            format.setTimeZone((TimeZone) zone.clone());
+            formatter = new SimpleDateFormatter(format);
+            // Key the cache on the formatter's private copy of the zone.
+            key = new CacheKey(pattern, locale, formatter.zone);
+            formatter = cachedFormatters.putIfAbsent(key, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns a formatter that formats like the given
+     * <code>SimpleDateFormat</code> in its current state, including its
+     * time zone.  Later changes to <code>format</code> do not affect the
+     * returned formatter.
+     *
+     * @param format the format to compile
+     * @return a formatter equivalent to <code>format</code>, not null
+     * @exception NullPointerException if <code>format</code> is null
+     */
+    public static SimpleDateFormatter of(SimpleDateFormat format) {
+        return new SimpleDateFormatter((SimpleDateFormat) format.clone());
+    }
+
+    /**
+     * Returns a copy of this formatter that formats in the given time
+     * zone.
+     *
+     * @param zone the time zone in which dates are formatted
+     * @return a formatter with the given time zone, not null
+     * @exception NullPointerException if <code>zone</code> is null
+     */
+    public SimpleDateFormatter withTimeZone(TimeZone zone) {
+        SimpleDateFormat format = toFormat();
+        format.setTimeZone((TimeZone) zone.clone());
+        return new SimpleDateFormatter(format);
+    }
+
+    /**
+     * Returns the time zone in which this formatter formats dates.
+     *
+     * @return a copy of the time zone of this formatter, not null
+     */
+    public TimeZone getTimeZone() {
+        return (TimeZone) zone.clone();
+    }
+
+    /**
+     * Formats a <code>Date</code>.
+     *
+     * @param date the date to format
+     * @return the formatted string
+     * @exception NullPointerException if <code>date</code> is null
+     */
+    public String format(Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Formats an instant given as milliseconds from the epoch of
+     * 1970-01-01T00:00:00Z.
+     *
+     * @param epochMilli the instant to format
+     * @return the formatted string
+     */
+    public String format(long epochMilli) {
+        StringBuilder sb = new StringBuilder(32);
+        formatTo(epochMilli, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats an instant given as milliseconds from the epoch of
+     * 1970-01-01T00:00:00Z to an <code>Appendable</code>.
+     *
+     * @param epochMilli the instant to format
+     * @param appendable the appendable to format to, not null
+     * @exception UncheckedIOException if an I/O error occurs while
+     *            appending
+     * @exception NullPointerException if <code>appendable</code> is null
+     */
+    public void formatTo(long epochMilli, Appendable appendable) {
+        Objects.requireNonNull(appendable, "appendable");
+        try {
+            if (fieldTags == null || epochMilli < MIN_COMPILED_MILLIS) {
+                appendable.append(formatByCopy(epochMilli));
+                return;
+            }
+
+            int zoneOffset;
+            int dstOffset = 0;
+            if (needsDaylight) {
+                int[] offsets = new int[2];
+                if (zone instanceof ZoneInfo) {
+                    zoneOffset = ((ZoneInfo) zone).getOffsets(epochMilli, offsets);
+                } else {
+                    zoneOffset = zone.getOffset(epochMilli);
+                    offsets[1] = zoneOffset - zone.getRawOffset();
+                }
+                dstOffset = offsets[1];
+            } else {
+                zoneOffset = zone.getOffset(epochMilli);
+            }
+
+            long localMillis = epochMilli + zoneOffset;
+            long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+            int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+
+            // Convert the epoch day to year, month and day of month; see
+            // java.time.LocalDate.ofEpochDay.
+            long zeroDay = epochDay + 719468;   // days from 0000-03-01
+            long era = Math.floorDiv(zeroDay, 146097);
+            int dayOfEra = (int) (zeroDay - era * 146097);
+            int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+                             - dayOfEra / 146096) / 365;
+            int marchDayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4
+                                             - yearOfEra / 100);
+            int marchMonth = (5 * marchDayOfYear + 2) / 153;
+            int dayOfMonth = marchDayOfYear - (153 * marchMonth + 2) / 5 + 1;
+            int month = (marchMonth < 10) ? marchMonth + 3 : marchMonth - 9;
+            int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            int dayOfYear = DAYS_BEFORE_MONTH[month] + dayOfMonth
+                            + ((leap && month > 2) ? 1 : 0);
+            int dayOfWeek = (int) Math.floorMod(epochDay + 4, 7) + Calendar.SUNDAY;
+            int hourOfDay = millisOfDay / (60 * 60 * 1000);
+
+            for (int i = 0; i < fieldTags.length; i++) {
+                int tag = fieldTags[i];
+                int count = fieldCounts[i];
+                String[] table = names[i];
+                int value;
+                switch (tag) {
+                case -1:
+                    appendable.append(literals[i]);
+                    continue;
+
+                case PATTERN_ERA:
+                    appendable.append(table[GregorianCalendar.AD]);
+                    continue;
+
+                case PATTERN_YEAR:
+                    if (count != 2) {
+                        appendNumber(appendable, year, count, Integer.MAX_VALUE);
+                    } else {
+                        appendNumber(appendable, year, 2, 2);
+                    }
+                    continue;
+
+                case PATTERN_MONTH:
+                case PATTERN_MONTH_STANDALONE:
+                    if (table != null && table[month - 1] != null) {
+                        appendable.append(table[month - 1]);
+                    } else {
+                        appendNumber(appendable, month, count, Integer.MAX_VALUE);
+                    }
+                    continue;
+
+                case PATTERN_DAY_OF_WEEK:
+                    if (table[dayOfWeek] != null) {
+                        appendable.append(table[dayOfWeek]);
+                    }
+                    continue;
+
+                case PATTERN_AM_PM:
+                    if (table[hourOfDay / 12] != null) {
+                        appendable.append(table[hourOfDay / 12]);
+                    }
+                    continue;
+
+                case PATTERN_ZONE_NAME:
+                    appendable.append(zoneNames[(dstOffset != 0 ? 2 : 0) + (count < 4 ? 0 : 1)]);
+                    continue;
+
+                case PATTERN_ZONE_VALUE:
+                    appendZoneValue(appendable, zoneOffset / 60000);
+                    continue;
+
+                case PATTERN_ISO_ZONE:
+                    appendIsoZone(appendable, zoneOffset, count);
+                    continue;
+
+                case PATTERN_DAY_OF_MONTH:         value = dayOfMonth; break;
+                case PATTERN_HOUR_OF_DAY1:         value = (hourOfDay == 0) ? 24 : hourOfDay; break;
+                case PATTERN_HOUR_OF_DAY0:         value = hourOfDay; break;
+                case PATTERN_MINUTE:               value = millisOfDay / (60 * 1000) % 60; break;
+                case PATTERN_SECOND:               value = millisOfDay / 1000 % 60; break;
+                case PATTERN_MILLISECOND:          value = millisOfDay % 1000; break;
+                case PATTERN_DAY_OF_YEAR:          value = dayOfYear; break;
+                case PATTERN_DAY_OF_WEEK_IN_MONTH: value = (dayOfMonth - 1) / 7 + 1; break;
+                case PATTERN_HOUR1:                value = (hourOfDay % 12 == 0) ? 12 : hourOfDay % 12; break;
+                case PATTERN_HOUR0:                value = hourOfDay % 12; break;
+                case PATTERN_ISO_DAY_OF_WEEK:      value = CalendarBuilder.toISODayOfWeek(dayOfWeek); break;
+                default:
+                    throw new AssertionError("Unexpected pattern field " + tag);
+                }
+                appendNumber(appendable, value, count, Integer.MAX_VALUE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a non-negative value as SimpleDateFormat.zeroPaddingNumber
+     * does: the least significant maxDigits digits, padded with zeros to
+     * minDigits.
+     */
+    private void appendNumber(Appendable out, int value, int minDigits, int maxDigits)
+        throws IOException {
+        if (maxDigits == 2) {
+            value %= 100;
+        }
+        // The limit DecimalFormat applies to the integer digits of a long.
+        minDigits = Math.min(minDigits, DecimalFormat.DOUBLE_INTEGER_DIGITS);
+        int length = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            length++;
+        }
+        for (int i = length; i < minDigits; i++) {
+            out.append(zeroDigit);
+        }
+        int divisor = 1;
+        for (int i = 1; i < length; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char)(zeroDigit + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Appends an offset in minutes in the "-/+hhmm" form of the 'Z' field.
+     */
+    private static void appendZoneValue(Appendable out, int offsetMinutes)
+        throws IOException {
+        out.append(offsetMinutes >= 0 ? '+' : '-');
+        int num = Math.abs((offsetMinutes / 60) * 100 + (offsetMinutes % 60));
+        appendTwoDigits(out, num / 100);
+        appendTwoDigits(out, num % 100);
+    }
+
+    /**
+     * Appends an offset in milliseconds in the ISO 8601 form of the 'X'
+     * field.
+     */
+    private static void appendIsoZone(Appendable out, int offsetMillis, int count)
+        throws IOException {
+        if (offsetMillis == 0) {
+            out.append('Z');
+            return;
+        }
+        int value = offsetMillis / 60000;
+        if (value >= 0) {
+            out.append('+');
+        } else {
+            out.append('-');
+            value = -value;
+        }
+        appendTwoDigits(out, value / 60);
+        if (count == 1) {
+            return;
+        }
+        if (count == 3) {
+            out.append(':');
+        }
+        appendTwoDigits(out, value % 60);
+    }
+
+    private static void appendTwoDigits(Appendable out, int value) throws IOException {
+        if (value >= 100) {
+            out.append(Integer.toString(value));
+            return;
+        }
+        out.append((char)('0' + value / 10));
+        out.append((char)('0' + value % 10));
+    }
+
+    /**
+     * Parses text from the beginning of the given string to produce a date,
+     * as {@link DateFormat#parse(String)} does with a copy of the
+     * underlying <code>SimpleDateFormat</code>.
+     *
+     * @param source a <code>String</code> whose beginning should be parsed
+     * @return a <code>Date</code> parsed from the string
+     * @exception ParseException if the beginning of the specified string
+     *            cannot be parsed
+     * @exception NullPointerException if <code>source</code> is null
+     */
+    public Date parse(String source) throws ParseException {
+        return toFormat().parse(source);
+    }
+
+    /**
+     * Returns a new <code>SimpleDateFormat</code> equivalent to this
+     * formatter.  The returned format may be modified freely.
+     *
+     * @return a new <code>SimpleDateFormat</code>, not null
+     */
+    public SimpleDateFormat toFormat() {
+        return (SimpleDateFormat) prototype.clone();
+    }
+
+    private String formatByCopy(long epochMilli) {
+        SimpleDateFormat format = fallback;
+        if (format == null) {
+            fallback = format = toFormat();
+        }
+        synchronized (format) {
+            return format.format(new Date(epochMilli));
+        }
+    }
+
+    /**
+     * Returns the pattern of this formatter.
+     *
+     * @return the pattern, not null
+     * @see SimpleDateFormat#toPattern()
+     */
+    public String toPattern() {
+        return prototype.toPattern();
+    }
+
+    /**
+     * Returns a description of this formatter, which is its pattern.
+     *
+     * @return the pattern of this formatter
+     */
+    @Override
+    public String toString() {
+        return toPattern();
+    }
+
+    // Tags of the compiled pattern of SimpleDateFormat.
+    private static final int TAG_QUOTE_ASCII_CHAR = 100;
+    private static final int TAG_QUOTE_CHARS      = 101;
+
+    /**
+     * Key of the formatter cache.
+     */
+    private static final class CacheKey {
+        private final String pattern;
+        private final Locale locale;
+        private final TimeZone zone;
+
+        CacheKey(String pattern, Locale locale, TimeZone zone) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return pattern.equals(other.pattern) && locale.equals(other.locale)
+                && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + locale.hashCode()) * 31 + zone.hashCode();
+        }
+    }
+}
@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.time.chrono;
+
+import static java.time.temporal.ChronoField.ALIGNED_DAY_OF_WEEK_IN_MONTH;
+import static java.time.temporal.ChronoField.ALIGNED_DAY_OF_WEEK_IN_YEAR;
+import static java.time.temporal.ChronoField.ALIGNED_WEEK_OF_MONTH;
+import static java.time.temporal.ChronoField.ALIGNED_WEEK_OF_YEAR;
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
+import static java.time.temporal.ChronoField.DAY_OF_WEEK;
+import static java.time.temporal.ChronoField.DAY_OF_YEAR;
+import static java.time.temporal.ChronoField.ERA;
+import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
+import static java.time.temporal.ChronoField.YEAR;
+import static java.time.temporal.ChronoField.YEAR_OF_ERA;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.Objects;
+
+/**
+ * Bulk operations on dates and instants in the ISO calendar system,
+ * held in columns of primitive values.
+ * <p>
+ * Analytical code often holds dates as arrays of epoch-days or instants as arrays
+ * of epoch-seconds. Converting each value to a {@link LocalDate} or {@link Instant}
+ * to query or adjust it allocates an object per value. The methods in this class
+ * process a range of such an array in a single call, writing into arrays supplied
+ * by the caller, and allocate nothing.
+ * <p>
+ * The calculations follow the rules of {@link IsoChronology}, and the result of each
+ * method is the same as that of the equivalent operation on {@code LocalDate} or
+ * {@code Instant}, as described by each method.
+ * Each method processes the range {@code fromIndex}, inclusive, to {@code toIndex},
+ * exclusive, of the source array, storing each result at the same index of the
+ * destination array. If a value is invalid, an exception is thrown, and the
+ * destination array may have been partly updated.
+ *
+ * @implSpec
+ * This is a thread-safe utility class.
+ * All returned results are stored in arrays supplied by the caller.
+ *
+ * @since 1.8
+ */
+public final class ChronoColumns {
+
+    /**
+     * The number of days in a 400 year cycle.
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+    /**
+     * The number of days from year zero to year 1970.
+     * There are five 400 year cycles from year zero to 2000.
+     * There are 7 leap years from 1970 to 2000.
+     */
+    private static final long DAYS_0000_TO_1970 = (DAYS_PER_CYCLE * 5L) - (30L * 365L + 7L);
+    /**
+     * Seconds per day.
+     */
+    private static final long SECONDS_PER_DAY = 86400;
+    /**
+     * Nanos per second.
+     */
+    private static final long NANOS_PER_SECOND = 1000_000_000L;
+    /**
+     * The minimum and maximum epoch-day of a {@code LocalDate}, which lie
+     * within the wider range of {@code EPOCH_DAY}.
+     */
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+
+    /**
+     * Restricted constructor.
+     */
+    private ChronoColumns() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Converts epoch-days to year, month and day-of-month.
+     * <p>
+     * For each epoch-day, this stores the values of
+     * {@code LocalDate.ofEpochDay(epochDay).getYear()}, {@code getMonthValue()}
+     * and {@code getDayOfMonth()}.
+     * Any of the destination arrays may be null if that value is not required.
+     *
+     * @param epochDays  the epoch-days to convert, not null
+     * @param fromIndex  the index of the first epoch-day, inclusive
+     * @param toIndex  the index of the last epoch-day, exclusive
+     * @param years  the array to store the proleptic years in, null to skip
+     * @param months  the array to store the months-of-year, from 1 to 12, in, null to skip
+     * @param days  the array to store the days-of-month, from 1 to 31, in, null to skip
+     * @throws DateTimeException if an epoch-day exceeds the supported date range
+     * @throws IndexOutOfBoundsException if the range is outside any of the arrays
+     */
+    public static void toYearMonthDay(long[] epochDays, int fromIndex, int toIndex,
+                                      int[] years, int[] months, int[] days) {
+        checkRange(epochDays.length, fromIndex, toIndex);
+        checkDestination(years, toIndex);
+        checkDestination(months, toIndex);
+        checkDestination(days, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            long packed = toPackedDate(checkEpochDay(epochDays[i]));
+            if (years != null) {
+                years[i] = packedYear(packed);
+            }
+            if (months != null) {
+                months[i] = packedMonth(packed);
+            }
+            if (days != null) {
+                days[i] = packedDay(packed);
+            }
+        }
+    }
+
+    /**
+     * Converts years, months and days-of-month to epoch-days.
+     * <p>
+     * For each date, this stores the value of
+     * {@code LocalDate.of(year, month, dayOfMonth).toEpochDay()}.
+     *
+     * @param years  the proleptic years, not null
+     * @param months  the months-of-year, from 1 to 12, not null
+     * @param days  the days-of-month, from 1 to 31, not null
+     * @param fromIndex  the index of the first date, inclusive
+     * @param toIndex  the index of the last date, exclusive
+     * @param epochDays  the array to store the epoch-days in, not null
+     * @throws DateTimeException if a value is out of range, or the day-of-month
+     *  is invalid for the month-year
+     * @throws IndexOutOfBoundsException if the range is outside any of the arrays
+     */
+    public static void toEpochDays(int[] years, int[] months, int[] days, int fromIndex, int toIndex,
+                                   long[] epochDays) {
+        checkRange(years.length, fromIndex, toIndex);
+        checkRange(months.length, fromIndex, toIndex);
+        checkRange(days.length, fromIndex, toIndex);
+        checkDestination(Objects.requireNonNull(epochDays, "epochDays"), toIndex);
+        long minYear = YEAR.range().getMinimum();
+        long maxYear = YEAR.range().getMaximum();
+        for (int i = fromIndex; i < toIndex; i++) {
+            int year = years[i];
+            int month = months[i];
+            int day = days[i];
+            if (year < minYear || year > maxYear || month < 1 || month > 12 ||
+                    day < 1 || (day > 28 && day > monthLength(year, month))) {
+                // obtain the standard exception
+                LocalDate.of(year, month, day);
+            }
+            epochDays[i] = toEpochDay(year, month, day);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the value of a field for each epoch-day.
+     * <p>
+     * For each epoch-day, this stores the value of
+     * {@code LocalDate.ofEpochDay(epochDay).get(field)}.
+     * <p>
+     * The date-based fields of {@link java.time.temporal.ChronoField} with an
+     * {@code int} range, together with {@link IsoFields#QUARTER_OF_YEAR},
+     * {@link IsoFields#WEEK_OF_WEEK_BASED_YEAR} and {@link IsoFields#WEEK_BASED_YEAR},
+     * are calculated directly. Other fields are obtained from {@code LocalDate}.
+     *
+     * @param epochDays  the epoch-days to query, not null
+     * @param fromIndex  the index of the first epoch-day, inclusive
+     * @param toIndex  the index of the last epoch-day, exclusive
+     * @param field  the field to get, not null
+     * @param values  the array to store the values in, not null
+     * @throws DateTimeException if an epoch-day exceeds the supported date range,
+     *  or a value for the field cannot be obtained
+     * @throws UnsupportedTemporalTypeException if the field is not supported or
+     *  the range of values exceeds an {@code int}
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     */
+    public static void get(long[] epochDays, int fromIndex, int toIndex, TemporalField field, int[] values) {
+        checkRange(epochDays.length, fromIndex, toIndex);
+        Objects.requireNonNull(field, "field");
+        checkDestination(Objects.requireNonNull(values, "values"), toIndex);
+        if (field == DAY_OF_WEEK) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                values[i] = dayOfWeek0(checkEpochDay(epochDays[i])) + 1;
+            }
+        } else if (field == IsoFields.WEEK_OF_WEEK_BASED_YEAR || field == IsoFields.WEEK_BASED_YEAR) {
+            boolean week = (field == IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            for (int i = fromIndex; i < toIndex; i++) {
+                long epochDay = checkEpochDay(epochDays[i]);
+                int year = packedYear(toPackedDate(epochDay));
+                // the week belongs to the year of its Thursday
+                long thursday = epochDay - dayOfWeek0(epochDay) + 3;
+                long yearStart = toEpochDay(year, 1, 1);
+                if (thursday < yearStart) {
+                    year--;
+                    yearStart = toEpochDay(year, 1, 1);
+                } else if (thursday >= toEpochDay(year + 1, 1, 1)) {
+                    year++;
+                    yearStart = toEpochDay(year, 1, 1);
+                }
+                if (week) {
+                    values[i] = (int) ((thursday - yearStart) / 7) + 1;
+                } else {
+                    // checked as LocalDate.get checks the value from IsoFields
+                    values[i] = field.range().checkValidIntValue(year, field);
+                }
+            }
+        } else if (field == DAY_OF_MONTH || field == MONTH_OF_YEAR || field == YEAR ||
+                field == YEAR_OF_ERA || field == ERA || field == DAY_OF_YEAR ||
+                field == ALIGNED_DAY_OF_WEEK_IN_MONTH || field == ALIGNED_WEEK_OF_MONTH ||
+                field == ALIGNED_DAY_OF_WEEK_IN_YEAR || field == ALIGNED_WEEK_OF_YEAR ||
+                field == IsoFields.QUARTER_OF_YEAR) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                long epochDay = checkEpochDay(epochDays[i]);
+                values[i] = getDateField(epochDay, toPackedDate(epochDay), field);
+            }
+        } else {
+            for (int i = fromIndex; i < toIndex; i++) {
+                values[i] = LocalDate.ofEpochDay(epochDays[i]).get(field);
+            }
+        }
+    }
+
+    /**
+     * Gets a field that is derived from the year, month and day.
+     *
+     * @param epochDay  the epoch-day
+     * @param packed  the packed date of the epoch-day
+     * @param field  the field, one of those handled by {@code get}
+     * @return the value of the field
+     */
+    private static int getDateField(long epochDay, long packed, TemporalField field) {
+        int year = packedYear(packed);
+        if (field == DAY_OF_MONTH) {
+            return packedDay(packed);
+        } else if (field == MONTH_OF_YEAR) {
+            return packedMonth(packed);
+        } else if (field == YEAR) {
+            return year;
+        } else if (field == YEAR_OF_ERA) {
+            return (year >= 1 ? year : 1 - year);
+        } else if (field == ERA) {
+            return (year >= 1 ? 1 : 0);
+        } else if (field == ALIGNED_DAY_OF_WEEK_IN_MONTH) {
+            return ((packedDay(packed) - 1) % 7) + 1;
+        } else if (field == ALIGNED_WEEK_OF_MONTH) {
+            return ((packedDay(packed) - 1) / 7) + 1;
+        } else if (field == IsoFields.QUARTER_OF_YEAR) {
+            return ((packedMonth(packed) - 1) / 3) + 1;
+        }
+        int dayOfYear0 = (int) (epochDay - toEpochDay(year, 1, 1));
+        if (field == DAY_OF_YEAR) {
+            return dayOfYear0 + 1;
+        } else if (field == ALIGNED_DAY_OF_WEEK_IN_YEAR) {
+            return (dayOfYear0 % 7) + 1;
+        } else {
+            return (dayOfYear0 / 7) + 1;  // ALIGNED_WEEK_OF_YEAR
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Truncates epoch-days to the start of a unit.
+     * <p>
+     * The supported units are {@link ChronoUnit#DAYS DAYS}, which leaves the
+     * epoch-day unchanged, {@link ChronoUnit#WEEKS WEEKS}, which truncates to the
+     * previous or same Monday, {@link ChronoUnit#MONTHS MONTHS},
+     * {@link IsoFields#QUARTER_YEARS QUARTER_YEARS} and {@link ChronoUnit#YEARS YEARS},
+     * which truncate to the first day of the month, quarter or year.
+     * <p>
+     * The source and destination may be the same array.
+     *
+     * @param epochDays  the epoch-days to truncate, not null
+     * @param fromIndex  the index of the first epoch-day, inclusive
+     * @param toIndex  the index of the last epoch-day, exclusive
+     * @param unit  the unit to truncate to, not null
+     * @param truncated  the array to store the truncated epoch-days in, not null
+     * @throws DateTimeException if an epoch-day exceeds the supported date range
+     * @throws UnsupportedTemporalTypeException if the unit is not supported
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     */
+    public static void truncateEpochDays(long[] epochDays, int fromIndex, int toIndex,
+                                         TemporalUnit unit, long[] truncated) {
+        checkRange(epochDays.length, fromIndex, toIndex);
+        Objects.requireNonNull(unit, "unit");
+        checkDestination(Objects.requireNonNull(truncated, "truncated"), toIndex);
+        if (unit == ChronoUnit.DAYS) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                truncated[i] = checkEpochDay(epochDays[i]);
+            }
+        } else if (unit == ChronoUnit.WEEKS) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                long epochDay = checkEpochDay(epochDays[i]);
+                truncated[i] = epochDay - dayOfWeek0(epochDay);
+            }
+        } else if (unit == ChronoUnit.MONTHS) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                long epochDay = checkEpochDay(epochDays[i]);
+                truncated[i] = epochDay - packedDay(toPackedDate(epochDay)) + 1;
+            }
+        } else if (unit == IsoFields.QUARTER_YEARS || unit == ChronoUnit.YEARS) {
+            boolean quarter = (unit == IsoFields.QUARTER_YEARS);
+            for (int i = fromIndex; i < toIndex; i++) {
+                long packed = toPackedDate(checkEpochDay(epochDays[i]));
+                int month = (quarter ? packedMonth(packed) - ((packedMonth(packed) - 1) % 3) : 1);
+                truncated[i] = toEpochDay(packedYear(packed), month, 1);
+            }
+        } else {
+            throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+        }
+    }
+
+    /**
+     * Truncates instants, expressed as epoch-seconds, to a unit.
+     * <p>
+     * For each epoch-second, this stores the value of
+     * {@code Instant.ofEpochSecond(epochSecond).truncatedTo(unit).getEpochSecond()}.
+     * Units smaller than a second must divide into a second without remainder,
+     * as otherwise the result would not be a whole number of seconds.
+     * <p>
+     * As in {@code Instant}, the time-of-day is the remainder of the division
+     * of the epoch-second by the length of a day, which is negative before
+     * 1970. An earlier epoch-second that is not a multiple of the unit is thus
+     * moved later, to the next multiple, rather than earlier.
+     * <p>
+     * The source and destination may be the same array.
+     *
+     * @param epochSeconds  the instants to truncate, as epoch-seconds, not null
+     * @param fromIndex  the index of the first epoch-second, inclusive
+     * @param toIndex  the index of the last epoch-second, exclusive
+     * @param unit  the unit to truncate to, not null
+     * @param truncated  the array to store the truncated epoch-seconds in, not null
+     * @throws DateTimeException if an epoch-second exceeds the minimum or maximum instant
+     * @throws UnsupportedTemporalTypeException if the unit is invalid for truncation
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     */
+    public static void truncateEpochSeconds(long[] epochSeconds, int fromIndex, int toIndex,
+                                            TemporalUnit unit, long[] truncated) {
+        checkRange(epochSeconds.length, fromIndex, toIndex);
+        Objects.requireNonNull(unit, "unit");
+        checkDestination(Objects.requireNonNull(truncated, "truncated"), toIndex);
+        Duration unitDur = unit.getDuration();
+        if (unitDur.getSeconds() > SECONDS_PER_DAY) {
+            throw new UnsupportedTemporalTypeException("Unit is too large to be used for truncation");
+        }
+        long dur = unitDur.toNanos();
+        if ((SECONDS_PER_DAY * NANOS_PER_SECOND) % dur != 0) {
+            throw new UnsupportedTemporalTypeException("Unit must divide into a standard day without remainder");
+        }
+        if (dur % NANOS_PER_SECOND != 0 && NANOS_PER_SECOND % dur != 0) {
+            throw new UnsupportedTemporalTypeException("Unit must divide into a second without remainder");
+        }
+        long durSecs = Math.max(dur / NANOS_PER_SECOND, 1);
+        long min = Instant.MIN.getEpochSecond();
+        long max = Instant.MAX.getEpochSecond();
+        for (int i = fromIndex; i < toIndex; i++) {
+            long epochSecond = epochSeconds[i];
+            if (epochSecond < min || epochSecond > max) {
+                throw new DateTimeException("Instant exceeds minimum or maximum instant");
+            }
+            long secsOfDay = epochSecond % SECONDS_PER_DAY;
+            truncated[i] = epochSecond - secsOfDay + (secsOfDay / durSecs) * durSecs;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Converts an epoch-day to a packed year, month and day-of-month.
+     * <p>
+     * This is the algorithm of {@link LocalDate#ofEpochDay(long)}.
+     * The result holds the year in the high bits, the month in bits 5 to 8
+     * and the day-of-month in bits 0 to 4.
+     *
+     * @param epochDay  the epoch-day, validated
+     * @return the packed date
+     */
+    private static long toPackedDate(long epochDay) {
+        long zeroDay = epochDay + DAYS_0000_TO_1970;
+        // find the march-based year
+        zeroDay -= 60;  // adjust to 0000-03-01 so leap day is at end of four year cycle
+        long adjust = 0;
+        if (zeroDay < 0) {
+            // adjust negative years to positive for calculation
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            // fix estimate
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;  // reset any negative year
+        int marchDoy0 = (int) doyEst;
+
+        // convert march-based values back to january-based
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        int month = (marchMonth0 + 2) % 12 + 1;
+        int dom = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        yearEst += marchMonth0 / 10;
+        return (yearEst << 9) | (month << 5) | dom;
+    }
+
+    private static int packedYear(long packed) {
+        return (int) (packed >> 9);
+    }
+
+    private static int packedMonth(long packed) {
+        return (int) (packed >>> 5) & 15;
+    }
+
+    private static int packedDay(long packed) {
+        return (int) packed & 31;
+    }
+
+    /**
+     * Converts a valid date to an epoch-day.
+     * <p>
+     * This is the algorithm of {@link LocalDate#toEpochDay()}.
+     *
+     * @param year  the year
+     * @param month  the month-of-year
+     * @param day  the day-of-month
+     * @return the epoch-day
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long m = month;
+        long total = 0;
+        total += 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += ((367 * m - 362) / 12);
+        total += day - 1;
+        if (m > 2) {
+            total--;
+            if (IsoChronology.INSTANCE.isLeapYear(year) == false) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                return (IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28);
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Gets the day-of-week of an epoch-day, from 0 for Monday to 6 for Sunday.
+     */
+    private static int dayOfWeek0(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static long checkEpochDay(long epochDay) {
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            // obtain the standard exception
+            LocalDate.ofEpochDay(epochDay);
+        }
+        return epochDay;
+    }
+
+    private static void checkRange(int length, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > length) {
+            throw new IndexOutOfBoundsException(
+                    "fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", length: " + length);
+        }
+    }
+
+    private static void checkDestination(int[] array, int toIndex) {
+        if (array != null && array.length < toIndex) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex + ", destination length: " + array.length);
+        }
+    }
+
+    private static void checkDestination(long[] array, int toIndex) {
+        if (array.length < toIndex) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex + ", destination length: " + array.length);
+        }
+    }
+
+}
@@ -0,0 +1,905 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.time.format;
+
+import static java.time.temporal.ChronoField.NANO_OF_SECOND;
+import static java.time.temporal.ChronoField.YEAR;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatterBuilder.CharLiteralPrinterParser;
+import java.time.format.DateTimeFormatterBuilder.CompositePrinterParser;
+import java.time.format.DateTimeFormatterBuilder.DateTimePrinterParser;
+import java.time.format.DateTimeFormatterBuilder.FractionPrinterParser;
+import java.time.format.DateTimeFormatterBuilder.InstantPrinterParser;
+import java.time.format.DateTimeFormatterBuilder.NumberPrinterParser;
+import java.time.format.DateTimeFormatterBuilder.SettingsParser;
+import java.time.format.DateTimeFormatterBuilder.StringLiteralPrinterParser;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A printer-parser compiled from the composite printer-parser of a formatter
+ * that only uses numeric ISO date and time fields, literals and instants.
+ * <p>
+ * Such formatters include {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME},
+ * {@link DateTimeFormatter#ISO_INSTANT} and patterns such as
+ * "yyyy-MM-dd HH:mm:ss.SSS".
+ * The compiled form parses directly into primitive values, without a
+ * {@code DateTimeParseContext}, a {@code Parsed} map or a resolving pass,
+ * and prints directly from {@code LocalDate}, {@code LocalTime},
+ * {@code LocalDateTime} and {@code Instant}.
+ * <p>
+ * The compiled form only handles input that the general purpose printer-parser
+ * would print or parse successfully to the same result.
+ * Anything else, such as signed or out of range values, leap seconds, the
+ * hour 24 or any parse error, is reported as unsupported and the caller uses
+ * the general purpose path, which then produces the result or the exception.
+ *
+ * @implSpec
+ * This class is immutable and thread-safe.
+ *
+ * @since 1.8
+ */
+final class CompiledPrinterParser {
+
+    /**
+     * Result of parse or format when the compiled form cannot handle the input.
+     */
+    private static final int UNSUPPORTED = Integer.MIN_VALUE;
+
+    // Bits of the fields, as stored in Fields.present.
+    private static final int YEAR_BIT = 1;
+    private static final int YEAR_OF_ERA_BIT = 1 << 1;
+    private static final int MONTH_BIT = 1 << 2;
+    private static final int DAY_BIT = 1 << 3;
+    private static final int HOUR_BIT = 1 << 4;
+    private static final int MINUTE_BIT = 1 << 5;
+    private static final int SECOND_BIT = 1 << 6;
+    private static final int NANO_BIT = 1 << 7;
+    private static final int INSTANT_BIT = 1 << 8;
+    private static final int DATE_BITS = YEAR_BIT | YEAR_OF_ERA_BIT | MONTH_BIT | DAY_BIT;
+    private static final int TIME_BITS = HOUR_BIT | MINUTE_BIT | SECOND_BIT | NANO_BIT;
+
+    /**
+     * Seconds from 0000-01-01T00:00Z to 1970-01-01T00:00Z.
+     */
+    private static final long SECONDS_0000_TO_1970 = ((146097L * 5L) - (30L * 365L + 7L)) * 86400L;
+    /**
+     * Seconds from 1970-01-01T00:00Z to 10000-01-01T00:00Z.
+     */
+    private static final long SECONDS_1970_TO_10000 = 146097L * 25L * 86400L - SECONDS_0000_TO_1970;
+
+    /**
+     * The steps of the formatter, as a non-optional section.
+     */
+    private final Section root;
+    /**
+     * Whether the steps use an instant, rather than date and time fields.
+     */
+    private final boolean instant;
+
+    private CompiledPrinterParser(Section root, boolean instant) {
+        this.root = root;
+        this.instant = instant;
+    }
+
+    /**
+     * Compiles the printer-parser of a formatter.
+     *
+     * @param printerParser  the printer-parser of the formatter, not null
+     * @param decimalStyle  the decimal style of the formatter, not null
+     * @param resolverStyle  the resolver style of the formatter, not null
+     * @param resolverFields  the resolver fields of the formatter, null for all fields
+     * @param chrono  the chronology override of the formatter, null for none
+     * @return the compiled printer-parser, null if the formatter cannot be compiled
+     */
+    static CompiledPrinterParser compile(CompositePrinterParser printerParser,
+            DecimalStyle decimalStyle, ResolverStyle resolverStyle,
+            Set<TemporalField> resolverFields, Chronology chrono) {
+        if (resolverFields != null || (chrono != null && chrono != IsoChronology.INSTANCE) ||
+                decimalStyle.equals(DecimalStyle.STANDARD) == false) {
+            return null;
+        }
+        Compiler compiler = new Compiler(resolverStyle);
+        Section root = compiler.compile(printerParser.printerParsers, false, false);
+        if (root == null || compiler.fields == 0 ||
+                ((compiler.fields & INSTANT_BIT) != 0 && compiler.fields != INSTANT_BIT)) {
+            return null;
+        }
+        return new CompiledPrinterParser(root, compiler.fields == INSTANT_BIT);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Formats a temporal into the buffer.
+     * <p>
+     * On failure the buffer may contain partial output, which the caller
+     * must discard.
+     *
+     * @param temporal  the temporal to format, not null
+     * @param zone  the zone override of the formatter, null for none
+     * @param buf  the buffer to format into, not null
+     * @return true if formatted, false if the general purpose path must be used
+     */
+    boolean format(TemporalAccessor temporal, ZoneId zone, StringBuilder buf) {
+        Fields fields = new Fields();
+        Class<?> type = temporal.getClass();
+        if (type == LocalDateTime.class) {
+            LocalDateTime ldt = (LocalDateTime) temporal;
+            fields.setDate(ldt.toLocalDate());
+            fields.setTime(ldt.toLocalTime());
+        } else if (type == LocalDate.class) {
+            fields.setDate((LocalDate) temporal);
+        } else if (type == LocalTime.class) {
+            fields.setTime((LocalTime) temporal);
+        } else if (type == Instant.class) {
+            Instant inst = (Instant) temporal;
+            fields.instantSeconds = inst.getEpochSecond();
+            fields.nano = inst.getNano();
+            fields.present = INSTANT_BIT | NANO_BIT;
+            if (zone != null) {
+                // as DateTimePrintContext, view the instant in the zone
+                LocalDateTime ldt;
+                try {
+                    ldt = LocalDateTime.ofInstant(inst, zone);
+                } catch (DateTimeException ex) {
+                    return false;
+                }
+                fields.setDate(ldt.toLocalDate());
+                fields.setTime(ldt.toLocalTime());
+            }
+        } else {
+            return false;
+        }
+        return root.format(fields, buf, false) > 0;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Parses text to a local date-time.
+     *
+     * @param text  the text to parse, not null
+     * @param start  the start index of the text
+     * @param end  the end index of the text
+     * @param zone  the zone override of the formatter, null for none
+     * @return the parsed date-time, null if the general purpose path must be used
+     */
+    LocalDateTime parseLocalDateTime(CharSequence text, int start, int end, ZoneId zone) {
+        Fields fields = parse(text, start, end);
+        if (fields == null) {
+            return null;
+        }
+        if (instant) {
+            if (zone == null) {
+                return null;
+            }
+            return toLocalDateTime(fields.instantSeconds, fields.nano, zone);
+        }
+        return fields.toLocalDateTime();
+    }
+
+    /**
+     * Parses text to an instant.
+     *
+     * @param text  the text to parse, not null
+     * @param start  the start index of the text
+     * @param end  the end index of the text
+     * @param zone  the zone override of the formatter, null for none
+     * @return the parsed instant, null if the general purpose path must be used
+     */
+    Instant parseInstant(CharSequence text, int start, int end, ZoneId zone) {
+        Fields fields = parse(text, start, end);
+        if (fields == null) {
+            return null;
+        }
+        if (instant && zone == null) {
+            return Instant.ofEpochSecond(fields.instantSeconds, fields.nano);
+        }
+        if (zone == null) {
+            return null;
+        }
+        // as Parsed, an instant with an override zone is resolved through the
+        // local date-time, so the earlier offset is used in an overlap
+        LocalDateTime ldt = (instant ? toLocalDateTime(fields.instantSeconds, fields.nano, zone)
+                : fields.toLocalDateTime());
+        if (ldt == null) {
+            return null;
+        }
+        try {
+            return ldt.atZone(zone).toInstant();
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private Fields parse(CharSequence text, int start, int end) {
+        Fields fields = new Fields();
+        int pos = root.parse(fields, text, start, end);
+        return (pos == end ? fields : null);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond, int nano, ZoneId zone) {
+        try {
+            ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, offset);
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Mutable values of the fields during a single parse or format.
+     */
+    private static final class Fields {
+        int present;
+        int year;
+        int yearOfEra;
+        int month;
+        int day;
+        int hour;
+        int minute;
+        int second;
+        int nano;
+        long instantSeconds;
+
+        void setDate(LocalDate date) {
+            year = date.getYear();
+            yearOfEra = (year >= 1 ? year : 1 - year);
+            month = date.getMonthValue();
+            day = date.getDayOfMonth();
+            present |= DATE_BITS;
+        }
+
+        void setTime(LocalTime time) {
+            hour = time.getHour();
+            minute = time.getMinute();
+            second = time.getSecond();
+            nano = time.getNano();
+            present |= TIME_BITS;
+        }
+
+        long get(int bit) {
+            switch (bit) {
+                case YEAR_BIT: return year;
+                case YEAR_OF_ERA_BIT: return yearOfEra;
+                case MONTH_BIT: return month;
+                case DAY_BIT: return day;
+                case HOUR_BIT: return hour;
+                case MINUTE_BIT: return minute;
+                case SECOND_BIT: return second;
+                default: return nano;
+            }
+        }
+
+        void set(int bit, long value) {
+            // values are checked before use, so keep out of range values out of range
+            int intValue = (int) Math.max(Math.min(value, Integer.MAX_VALUE), Integer.MIN_VALUE);
+            switch (bit) {
+                case YEAR_BIT: year = intValue; break;
+                case YEAR_OF_ERA_BIT: yearOfEra = intValue; break;
+                case MONTH_BIT: month = intValue; break;
+                case DAY_BIT: day = intValue; break;
+                case HOUR_BIT: hour = intValue; break;
+                case MINUTE_BIT: minute = intValue; break;
+                case SECOND_BIT: second = intValue; break;
+                default: nano = intValue; break;
+            }
+            present |= bit;
+        }
+
+        /**
+         * Resolves the parsed fields as {@code Parsed} would for valid values.
+         *
+         * @return the date-time, null if the fields are incomplete or invalid
+         */
+        LocalDateTime toLocalDateTime() {
+            int y;
+            if ((present & YEAR_BIT) != 0) {
+                y = year;
+            } else if ((present & YEAR_OF_ERA_BIT) != 0 && yearOfEra >= 1) {
+                y = yearOfEra;  // era defaults to CE when not strict
+            } else {
+                return null;
+            }
+            if ((present & (MONTH_BIT | DAY_BIT | HOUR_BIT)) != (MONTH_BIT | DAY_BIT | HOUR_BIT) ||
+                    y < YEAR.range().getMinimum() || y > YEAR.range().getMaximum() ||
+                    month < 1 || month > 12 ||
+                    day < 1 || day > lengthOfMonth(y, month) ||
+                    hour < 0 || hour > 23) {
+                return null;
+            }
+            // as Parsed, minutes and seconds default to zero, but only from the right
+            boolean hasMinute = (present & MINUTE_BIT) != 0;
+            boolean hasSecond = (present & SECOND_BIT) != 0;
+            boolean hasNano = (present & NANO_BIT) != 0;
+            if ((hasMinute == false && (hasSecond || hasNano)) || (hasMinute && hasSecond == false && hasNano)) {
+                return null;
+            }
+            int m = (hasMinute ? minute : 0);
+            int s = (hasSecond ? second : 0);
+            int n = (hasNano ? nano : 0);
+            if (m < 0 || m > 59 || s < 0 || s > 59) {
+                return null;
+            }
+            return LocalDateTime.of(y, month, day, hour, m, s, n);
+        }
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return (IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28);
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean charEquals(char ch1, char ch2, boolean caseSensitive) {
+        return ch1 == ch2 || (caseSensitive == false && DateTimeParseContext.charEqualsIgnoreCase(ch1, ch2));
+    }
+
+    /**
+     * Counts the ASCII digits starting at a position.
+     */
+    private static int digitRun(CharSequence text, int pos, int end) {
+        int start = pos;
+        while (pos < end) {
+            char ch = text.charAt(pos);
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+            pos++;
+        }
+        return pos - start;
+    }
+
+    private static long digits(CharSequence text, int pos, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total = total * 10 + (text.charAt(pos + i) - '0');
+        }
+        return total;
+    }
+
+    private static void appendPadded(StringBuilder buf, long value, int width) {
+        for (int i = stringSize(value); i < width; i++) {
+            buf.append('0');
+        }
+        buf.append(value);
+    }
+
+    private static int stringSize(long value) {
+        int size = 1;
+        for (long p = 10; size < 19 && value >= p; p *= 10) {
+            size++;
+        }
+        return size;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Walks a composite printer-parser, checking that each part can be compiled.
+     */
+    private static final class Compiler {
+        private final ResolverStyle resolverStyle;
+        /** The fields seen so far. */
+        int fields;
+        /** The case sensitivity in effect, as set by SettingsParser. */
+        private boolean caseSensitive = true;
+
+        Compiler(ResolverStyle resolverStyle) {
+            this.resolverStyle = resolverStyle;
+        }
+
+        Section compile(DateTimePrinterParser[] printerParsers, boolean optional, boolean inOptional) {
+            List<Step> steps = new ArrayList<>(printerParsers.length);
+            for (DateTimePrinterParser pp : printerParsers) {
+                Step step = compile(pp, inOptional);
+                if (step == null) {
+                    return null;
+                }
+                if (step != Section.EMPTY) {
+                    steps.add(step);
+                }
+            }
+            return new Section(steps.toArray(new Step[steps.size()]), optional);
+        }
+
+        private Step compile(DateTimePrinterParser pp, boolean inOptional) {
+            if (pp instanceof CompositePrinterParser) {
+                CompositePrinterParser cpp = (CompositePrinterParser) pp;
+                return compile(cpp.printerParsers, cpp.optional, inOptional || cpp.optional);
+            }
+            if (pp instanceof SettingsParser) {
+                // case sensitivity is not restored when an optional section fails
+                if (inOptional) {
+                    return null;
+                }
+                switch ((SettingsParser) pp) {
+                    case SENSITIVE: caseSensitive = true; break;
+                    case INSENSITIVE: caseSensitive = false; break;
+                    case STRICT: break;
+                    default: return null;  // lenient parsing is not compiled
+                }
+                return Section.EMPTY;
+            }
+            if (pp instanceof CharLiteralPrinterParser) {
+                return new LiteralStep(String.valueOf(((CharLiteralPrinterParser) pp).literal), caseSensitive);
+            }
+            if (pp instanceof StringLiteralPrinterParser) {
+                return new LiteralStep(((StringLiteralPrinterParser) pp).literal, caseSensitive);
+            }
+            if (pp.getClass() == NumberPrinterParser.class) {
+                NumberPrinterParser npp = (NumberPrinterParser) pp;
+                int bit = bit(npp.field);
+                if (bit == 0 || npp.signStyle == SignStyle.ALWAYS || (bit == YEAR_OF_ERA_BIT && resolverStyle == ResolverStyle.STRICT) ||
+                        addField(bit) == false) {
+                    return null;
+                }
+                return new NumberStep(bit, npp.minWidth, npp.maxWidth, npp.signStyle, npp.subsequentWidth);
+            }
+            if (pp instanceof FractionPrinterParser) {
+                FractionPrinterParser fpp = (FractionPrinterParser) pp;
+                if (fpp.field != NANO_OF_SECOND || addField(NANO_BIT) == false) {
+                    return null;
+                }
+                return new FractionStep(fpp.minWidth, fpp.maxWidth, fpp.decimalPoint);
+            }
+            if (pp instanceof InstantPrinterParser) {
+                if (addField(INSTANT_BIT) == false) {
+                    return null;
+                }
+                return new InstantStep(((InstantPrinterParser) pp).fractionalDigits, caseSensitive);
+            }
+            return null;
+        }
+
+        private boolean addField(int bit) {
+            // a field parsed twice is cross-checked by the general purpose path
+            int conflicting = (bit == YEAR_BIT || bit == YEAR_OF_ERA_BIT ? YEAR_BIT | YEAR_OF_ERA_BIT : bit);
+            if ((fields & conflicting) != 0) {
+                return false;
+            }
+            fields |= bit;
+            return true;
+        }
+
+        private static int bit(TemporalField field) {
+            if (field instanceof ChronoField) {
+                switch ((ChronoField) field) {
+                    case YEAR: return YEAR_BIT;
+                    case YEAR_OF_ERA: return YEAR_OF_ERA_BIT;
+                    case MONTH_OF_YEAR: return MONTH_BIT;
+                    case DAY_OF_MONTH: return DAY_BIT;
+                    case HOUR_OF_DAY: return HOUR_BIT;
+                    case MINUTE_OF_HOUR: return MINUTE_BIT;
+                    case SECOND_OF_MINUTE: return SECOND_BIT;
+                    default: break;
+                }
+            }
+            return 0;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * A compiled step, mirroring one printer-parser.
+     */
+    private static abstract class Step {
+        /**
+         * Parses the step.
+         *
+         * @return the new position, the complement of the position on a parse error,
+         *  or UNSUPPORTED
+         */
+        abstract int parse(Fields fields, CharSequence text, int pos, int end);
+
+        /**
+         * Formats the step.
+         *
+         * @param inOptional  whether the step is within an optional section
+         * @return 1 if formatted, 0 if a field is unavailable in an optional section,
+         *  or UNSUPPORTED
+         */
+        abstract int format(Fields fields, StringBuilder buf, boolean inOptional);
+    }
+
+    /**
+     * Mirrors {@code CompositePrinterParser}.
+     */
+    private static final class Section extends Step {
+        static final Section EMPTY = new Section(new Step[0], false);
+
+        private final Step[] steps;
+        private final boolean optional;
+
+        Section(Step[] steps, boolean optional) {
+            this.steps = steps;
+            this.optional = optional;
+        }
+
+        @Override
+        int parse(Fields fields, CharSequence text, int pos, int end) {
+            int present = fields.present;
+            int position = pos;
+            for (Step step : steps) {
+                position = step.parse(fields, text, position, end);
+                if (position < 0) {
+                    if (optional && position != UNSUPPORTED) {
+                        fields.present = present;  // discard the fields of the section
+                        return pos;
+                    }
+                    return position;
+                }
+            }
+            return position;
+        }
+
+        @Override
+        int format(Fields fields, StringBuilder buf, boolean inOptional) {
+            int length = buf.length();
+            for (Step step : steps) {
+                int result = step.format(fields, buf, inOptional || optional);
+                if (result == UNSUPPORTED) {
+                    return UNSUPPORTED;
+                }
+                if (result == 0) {
+                    buf.setLength(length);
+                    return 1;
+                }
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * Mirrors {@code CharLiteralPrinterParser} and {@code StringLiteralPrinterParser}.
+     */
+    private static final class LiteralStep extends Step {
+        private final String literal;
+        private final boolean caseSensitive;
+
+        LiteralStep(String literal, boolean caseSensitive) {
+            this.literal = literal;
+            this.caseSensitive = caseSensitive;
+        }
+
+        @Override
+        int parse(Fields fields, CharSequence text, int pos, int end) {
+            int length = literal.length();
+            if (pos + length > end) {
+                return ~pos;
+            }
+            for (int i = 0; i < length; i++) {
+                if (charEquals(text.charAt(pos + i), literal.charAt(i), caseSensitive) == false) {
+                    return ~pos;
+                }
+            }
+            return pos + length;
+        }
+
+        @Override
+        int format(Fields fields, StringBuilder buf, boolean inOptional) {
+            buf.append(literal);
+            return 1;
+        }
+    }
+
+    /**
+     * Mirrors {@code NumberPrinterParser} for strict parsing of unsigned values.
+     */
+    private static final class NumberStep extends Step {
+        private final int bit;
+        private final int minWidth;
+        private final int maxWidth;
+        private final SignStyle signStyle;
+        private final int subsequentWidth;
+
+        NumberStep(int bit, int minWidth, int maxWidth, SignStyle signStyle, int subsequentWidth) {
+            this.bit = bit;
+            this.minWidth = minWidth;
+            this.maxWidth = maxWidth;
+            this.signStyle = signStyle;
+            this.subsequentWidth = subsequentWidth;
+        }
+
+        @Override
+        int parse(Fields fields, CharSequence text, int pos, int end) {
+            if (pos == end) {
+                return ~pos;
+            }
+            char sign = text.charAt(pos);
+            if (sign == '+' || sign == '-') {
+                return UNSUPPORTED;
+            }
+            if (pos + minWidth > end) {
+                return ~pos;
+            }
+            int run = digitRun(text, pos, end);
+            int count;
+            if (subsequentWidth > 0) {
+                // adjacent value parsing leaves the subsequent width for the following fields
+                int total = Math.min(run, maxWidth + subsequentWidth);
+                if (total < minWidth) {
+                    return ~pos;
+                }
+                count = Math.max(minWidth, total - subsequentWidth);
+            } else {
+                count = Math.min(run, maxWidth);
+                if (count < minWidth) {
+                    return ~pos;
+                }
+            }
+            if (signStyle == SignStyle.EXCEEDS_PAD && count > minWidth) {
+                return ~pos;  // '+' must be parsed if minWidth exceeded
+            }
+            if (count > 18) {
+                return UNSUPPORTED;
+            }
+            fields.set(bit, digits(text, pos, count));
+            return pos + count;
+        }
+
+        @Override
+        int format(Fields fields, StringBuilder buf, boolean inOptional) {
+            if ((fields.present & bit) == 0) {
+                return (inOptional ? 0 : UNSUPPORTED);
+            }
+            long value = fields.get(bit);
+            if (value < 0 || stringSize(value) > maxWidth) {
+                return UNSUPPORTED;
+            }
+            if (signStyle == SignStyle.EXCEEDS_PAD && minWidth < 19 &&
+                    value >= NumberPrinterParser.EXCEED_POINTS[minWidth]) {
+                buf.append('+');
+            }
+            appendPadded(buf, value, minWidth);
+            return 1;
+        }
+    }
+
+    /**
+     * Mirrors {@code FractionPrinterParser} for the nano-of-second.
+     */
+    private static final class FractionStep extends Step {
+        private final int minWidth;
+        private final int maxWidth;
+        private final boolean decimalPoint;
+
+        FractionStep(int minWidth, int maxWidth, boolean decimalPoint) {
+            this.minWidth = minWidth;
+            this.maxWidth = maxWidth;
+            this.decimalPoint = decimalPoint;
+        }
+
+        @Override
+        int parse(Fields fields, CharSequence text, int pos, int end) {
+            return parseFraction(fields, text, pos, end, minWidth, maxWidth, decimalPoint);
+        }
+
+        @Override
+        int format(Fields fields, StringBuilder buf, boolean inOptional) {
+            if ((fields.present & NANO_BIT) == 0) {
+                return (inOptional ? 0 : UNSUPPORTED);
+            }
+            int nano = fields.nano;
+            if (nano == 0) {
+                if (minWidth > 0) {
+                    if (decimalPoint) {
+                        buf.append('.');
+                    }
+                    for (int i = 0; i < minWidth; i++) {
+                        buf.append('0');
+                    }
+                }
+                return 1;
+            }
+            int scale = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                scale--;
+            }
+            int outputScale = Math.min(Math.max(scale, minWidth), maxWidth);
+            if (decimalPoint) {
+                buf.append('.');
+            }
+            int digits = fields.nano;
+            int div = 100_000_000;
+            for (int i = 0; i < outputScale; i++) {
+                buf.append((char) ('0' + digits / div));
+                digits %= div;
+                div /= 10;
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * Parses a fraction of second as {@code FractionPrinterParser} does when strict.
+     */
+    private static int parseFraction(Fields fields, CharSequence text, int pos, int end,
+                                     int minWidth, int maxWidth, boolean decimalPoint) {
+        if (pos == end) {
+            return (minWidth > 0 ? ~pos : pos);
+        }
+        if (decimalPoint) {
+            if (text.charAt(pos) != '.') {
+                return (minWidth > 0 ? ~pos : pos);
+            }
+            pos++;
+        }
+        if (pos + minWidth > end) {
+            return ~pos;
+        }
+        int count = Math.min(digitRun(text, pos, end), maxWidth);
+        if (count < minWidth) {
+            return ~pos;
+        }
+        int nano = (int) digits(text, pos, count);
+        for (int i = count; i < 9; i++) {
+            nano *= 10;
+        }
+        fields.set(NANO_BIT, nano);
+        return pos + count;
+    }
+
+    /**
+     * Mirrors {@code InstantPrinterParser} for years from 0000 to 9999.
+     */
+    private static final class InstantStep extends Step {
+        /**
+         * The literals preceding the month, day, hour, minute and second.
+         */
+        private static final char[] SEPARATORS = {'-', '-', 'T', ':', ':'};
+
+        private final int fractionalDigits;
+        private final boolean caseSensitive;
+
+        InstantStep(int fractionalDigits, boolean caseSensitive) {
+            this.fractionalDigits = fractionalDigits;
+            this.caseSensitive = caseSensitive;
+        }
+
+        @Override
+        int parse(Fields fields, CharSequence text, int pos, int end) {
+            // the layout of InstantPrinterParser: ISO_LOCAL_DATE 'T' HH ':' mm ':' ss fraction 'Z'
+            if (fractionalDigits == 0) {
+                return UNSUPPORTED;  // the general purpose path rejects a fraction of width zero
+            }
+            if (pos == end) {
+                return ~pos;
+            }
+            char sign = text.charAt(pos);
+            if (sign == '+' || sign == '-') {
+                return UNSUPPORTED;
+            }
+            if (pos + 4 > end || digitRun(text, pos, end) != 4) {
+                return ~pos;  // year is four digits unless signed
+            }
+            int year = (int) digits(text, pos, 4);
+            pos += 4;
+            int month = 0;
+            int day = 0;
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            for (int i = 0; i < SEPARATORS.length; i++) {
+                if (pos == end || charEquals(text.charAt(pos), SEPARATORS[i], caseSensitive) == false) {
+                    return ~pos;
+                }
+                pos++;
+                if (pos + 2 > end || digitRun(text, pos, pos + 2) != 2) {
+                    return ~pos;
+                }
+                int value = (int) digits(text, pos, 2);
+                pos += 2;
+                switch (i) {
+                    case 0: month = value; break;
+                    case 1: day = value; break;
+                    case 2: hour = value; break;
+                    case 3: minute = value; break;
+                    default: second = value; break;
+                }
+            }
+            int minDigits = (fractionalDigits < 0 ? 0 : fractionalDigits);
+            int maxDigits = (fractionalDigits < 0 ? 9 : fractionalDigits);
+            fields.nano = 0;
+            pos = parseFraction(fields, text, pos, end, minDigits, maxDigits, true);
+            if (pos < 0) {
+                return pos;
+            }
+            if (pos == end || charEquals(text.charAt(pos), 'Z', caseSensitive) == false) {
+                return ~pos;
+            }
+            pos++;
+            // hour 24, leap seconds and invalid dates are left to the general purpose path
+            if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) ||
+                    hour > 23 || minute > 59 || second > 59) {
+                return UNSUPPORTED;
+            }
+            fields.instantSeconds = LocalDateTime.of(year, month, day, hour, minute, second)
+                    .toEpochSecond(ZoneOffset.UTC);
+            fields.present |= INSTANT_BIT | NANO_BIT;
+            return pos;
+        }
+
+        @Override
+        int format(Fields fields, StringBuilder buf, boolean inOptional) {
+            if ((fields.present & INSTANT_BIT) == 0) {
+                return (inOptional ? 0 : UNSUPPORTED);
+            }
+            long inSec = fields.instantSeconds;
+            if (inSec < -SECONDS_0000_TO_1970 || inSec >= SECONDS_1970_TO_10000) {
+                return UNSUPPORTED;
+            }
+            LocalDateTime ldt = LocalDateTime.ofEpochSecond(inSec, 0, ZoneOffset.UTC);
+            appendPadded(buf, ldt.getYear(), 4);
+            buf.append('-');
+            appendPadded(buf, ldt.getMonthValue(), 2);
+            buf.append('-');
+            appendPadded(buf, ldt.getDayOfMonth(), 2);
+            buf.append('T');
+            appendPadded(buf, ldt.getHour(), 2);
+            buf.append(':');
+            appendPadded(buf, ldt.getMinute(), 2);
+            buf.append(':');
+            appendPadded(buf, ldt.getSecond(), 2);
+            int inNano = fields.nano;
+            if ((fractionalDigits < 0 && inNano > 0) || fractionalDigits > 0) {
+                buf.append('.');
+                int div = 100_000_000;
+                for (int i = 0; ((fractionalDigits == -1 && inNano > 0) ||
+                                    (fractionalDigits == -2 && (inNano > 0 || (i % 3) != 0)) ||
+                                    i < fractionalDigits); i++) {
+                    int digit = inNano / div;
+                    buf.append((char) (digit + '0'));
+                    inNano = inNano - (digit * div);
+                    div = div / 10;
+                }
+            }
+            buf.append('Z');
+            return 1;
+        }
+    }
+}
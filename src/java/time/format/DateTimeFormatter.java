@@ -77,6 +77,8 @@ import java.text.Format;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -510,6 +512,10 @@ public final class DateTimeFormatter {
      * The zone to use for formatting, null for no override.
      */
     private final ZoneId zone;
+    /**
+     * The compiled form of the printer-parser, null if it cannot be compiled.
+     */
+    private final CompiledPrinterParser compiled;
 
     //-----------------------------------------------------------------------
     /**
@@ -1380,6 +1386,7 @@ public final class DateTimeFormatter {
         this.resolverStyle = Objects.requireNonNull(resolverStyle, "resolverStyle");
         this.chrono = chrono;
         this.zone = zone;
+        this.compiled = CompiledPrinterParser.compile(printerParser, decimalStyle, resolverStyle, resolverFields, chrono);
     }
 
     //-----------------------------------------------------------------------
@@ -1741,6 +1748,22 @@ public final class DateTimeFormatter {
         Objects.requireNonNull(temporal, "temporal");
         Objects.requireNonNull(appendable, "appendable");
         try {
+            if (compiled != null) {
+                if (appendable instanceof StringBuilder) {
+                    StringBuilder sb = (StringBuilder) appendable;
+                    int length = sb.length();
+                    if (compiled.format(temporal, zone, sb)) {
+                        return;
+                    }
+                    sb.setLength(length);
+                } else {
+                    StringBuilder buf = new StringBuilder(32);
+                    if (compiled.format(temporal, zone, buf)) {
+                        appendable.append(buf);
+                        return;
+                    }
+                }
+            }
             DateTimePrintContext context = new DateTimePrintContext(temporal, this);
             if (appendable instanceof StringBuilder) {
                 printerParser.format(context, (StringBuilder) appendable);
@@ -1856,6 +1879,99 @@ public final class DateTimeFormatter {
         }
     }
 
+    /**
+     * Fully parses the text producing a local date-time.
+     * <p>
+     * This has the same effect as {@code parse(text, LocalDateTime::from)}.
+     *
+     * @param text  the text to parse, not null
+     * @return the parsed local date-time, not null
+     * @throws DateTimeParseException if unable to parse the requested result
+     */
+    public LocalDateTime parseLocalDateTime(CharSequence text) {
+        Objects.requireNonNull(text, "text");
+        return parseLocalDateTime(text, 0, text.length());
+    }
+
+    /**
+     * Fully parses a range of the text producing a local date-time.
+     * <p>
+     * This has the same effect as
+     * {@code parse(text.subSequence(beginIndex, endIndex), LocalDateTime::from)}.
+     * Formatters that only use numeric ISO fields and literals, such as
+     * {@link #ISO_LOCAL_DATE_TIME} or {@code ofPattern("yyyy-MM-dd HH:mm:ss.SSS")},
+     * parse the range in place, without creating a sub-sequence or an
+     * intermediate {@code TemporalAccessor}.
+     *
+     * @param text  the text to parse, not null
+     * @param beginIndex  the index to start parsing from, inclusive
+     * @param endIndex  the index to parse to, exclusive
+     * @return the parsed local date-time, not null
+     * @throws DateTimeParseException if unable to parse the requested result
+     * @throws IndexOutOfBoundsException if the range is invalid
+     */
+    public LocalDateTime parseLocalDateTime(CharSequence text, int beginIndex, int endIndex) {
+        Objects.requireNonNull(text, "text");
+        checkRange(text, beginIndex, endIndex);
+        if (compiled != null) {
+            LocalDateTime result = compiled.parseLocalDateTime(text, beginIndex, endIndex, zone);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parse(text.subSequence(beginIndex, endIndex), LocalDateTime::from);
+    }
+
+    /**
+     * Fully parses the text producing an instant.
+     * <p>
+     * This has the same effect as {@code parse(text, Instant::from)}.
+     *
+     * @param text  the text to parse, not null
+     * @return the parsed instant, not null
+     * @throws DateTimeParseException if unable to parse the requested result
+     */
+    public Instant parseInstant(CharSequence text) {
+        Objects.requireNonNull(text, "text");
+        return parseInstant(text, 0, text.length());
+    }
+
+    /**
+     * Fully parses a range of the text producing an instant.
+     * <p>
+     * This has the same effect as
+     * {@code parse(text.subSequence(beginIndex, endIndex), Instant::from)}.
+     * The formatter {@link #ISO_INSTANT}, and formatters that only use numeric
+     * ISO fields and literals together with an {@linkplain #withZone(ZoneId)
+     * override zone}, parse the range in place, without creating a sub-sequence
+     * or an intermediate {@code TemporalAccessor}.
+     *
+     * @param text  the text to parse, not null
+     * @param beginIndex  the index to start parsing from, inclusive
+     * @param endIndex  the index to parse to, exclusive
+     * @return the parsed instant, not null
+     * @throws DateTimeParseException if unable to parse the requested result
+     * @throws IndexOutOfBoundsException if the range is invalid
+     */
+    public Instant parseInstant(CharSequence text, int beginIndex, int endIndex) {
+        Objects.requireNonNull(text, "text");
+        checkRange(text, beginIndex, endIndex);
+        if (compiled != null) {
+            Instant result = compiled.parseInstant(text, beginIndex, endIndex, zone);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parse(text.subSequence(beginIndex, endIndex), Instant::from);
+    }
+
+    private static void checkRange(CharSequence text, int beginIndex, int endIndex) {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > text.length()) {
+            throw new IndexOutOfBoundsException("Invalid range: " + beginIndex + " to " + endIndex +
+                    " for length " + text.length());
+        }
+    }
+
     /**
      * Fully parses the text producing an object of one of the specified types.
      * <p>
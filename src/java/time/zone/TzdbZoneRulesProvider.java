@@ -62,41 +62,60 @@
 package java.time.zone;
 
 import java.io.ByteArrayInputStream;
-import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.NavigableMap;
-import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loads time-zone rules for 'TZDB'.
+ * <p>
+ * The data file is read into a single array, and only the region IDs and the
+ * position of each set of rules are decoded when the provider is created.
+ * The rules themselves are deserialized from the array the first time they
+ * are requested.
  *
  * @since 1.8
  */
 final class TzdbZoneRulesProvider extends ZoneRulesProvider {
 
     /**
-     * All the regions that are available.
+     * All the regions that are available, sorted.
      */
-    private List<String> regionIds;
+    private String[] regionIds;
+    /**
+     * The index of the rules for each region, in the same order as {@code regionIds},
+     * -1 if the region is not linked to any rules.
+     */
+    private int[] regionToRuleIndex;
     /**
      * Version Id of this tzdb rules
      */
     private String versionId;
     /**
-     * Region to rules mapping
+     * The contents of the data file.
+     */
+    private byte[] data;
+    /**
+     * The position in {@code data} of the bytes of each set of rules.
+     */
+    private int[] rulePositions;
+    /**
+     * The length of the bytes of each set of rules.
+     */
+    private int[] ruleLengths;
+    /**
+     * The rules that have been deserialized, indexed as {@code rulePositions}.
+     * Elements are published racily, which is safe as {@code ZoneRules} is immutable.
      */
-    private final Map<String, Object> regionToRules = new ConcurrentHashMap<>();
+    private ZoneRules[] rules;
 
     /**
      * Creates an instance.
@@ -107,10 +126,11 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
     public TzdbZoneRulesProvider() {
         try {
             String libDir = System.getProperty("java.home") + File.separator + "lib";
-            try (DataInputStream dis = new DataInputStream(
-                     new BufferedInputStream(new FileInputStream(
-                         new File(libDir, "tzdb.dat"))))) {
-                load(dis);
+            File file = new File(libDir, "tzdb.dat");
+            try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+                byte[] bytes = new byte[(int) file.length()];
+                dis.readFully(bytes);
+                load(bytes);
             }
         } catch (Exception ex) {
             throw new ZoneRulesException("Unable to load TZDB time-zone rules", ex);
@@ -119,27 +139,30 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
 
     @Override
     protected Set<String> provideZoneIds() {
-        return new HashSet<>(regionIds);
+        return new HashSet<>(Arrays.asList(regionIds));
     }
 
     @Override
     protected ZoneRules provideRules(String zoneId, boolean forCaching) {
         // forCaching flag is ignored because this is not a dynamic provider
-        Object obj = regionToRules.get(zoneId);
-        if (obj == null) {
+        int region = Arrays.binarySearch(regionIds, zoneId);
+        int index = (region >= 0 ? regionToRuleIndex[region] : -1);
+        if (index < 0) {
             throw new ZoneRulesException("Unknown time-zone ID: " + zoneId);
         }
+        ZoneRules obj = rules[index];
+        if (obj != null) {
+            return obj;
+        }
         try {
-            if (obj instanceof byte[]) {
-                byte[] bytes = (byte[]) obj;
-                DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
-                obj = Ser.read(dis);
-                regionToRules.put(zoneId, obj);
-            }
-            return (ZoneRules) obj;
+            DataInputStream dis = new DataInputStream(
+                    new ByteArrayInputStream(data, rulePositions[index], ruleLengths[index]));
+            obj = (ZoneRules) Ser.read(dis);
         } catch (Exception ex) {
             throw new ZoneRulesException("Invalid binary time-zone data: TZDB:" + zoneId + ", version: " + versionId, ex);
         }
+        rules[index] = obj;
+        return obj;
     }
 
     @Override
@@ -153,12 +176,16 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
     }
 
     /**
-     * Loads the rules from a DateInputStream, often in a jar file.
+     * Loads the index of the rules from the contents of the data file.
+     * <p>
+     * The bytes of each set of rules are skipped, recording only their position.
      *
-     * @param dis  the DateInputStream to load, not null
+     * @param bytes  the contents of the data file, not null
      * @throws Exception if an error occurs
      */
-    private void load(DataInputStream dis) throws Exception {
+    private void load(byte[] bytes) throws Exception {
+        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+        DataInputStream dis = new DataInputStream(bis);
         if (dis.readByte() != 1) {
             throw new StreamCorruptedException("File format not recognised");
         }
@@ -176,27 +203,98 @@ final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         int regionCount = dis.readShort();
         String[] regionArray = new String[regionCount];
         for (int i = 0; i < regionCount; i++) {
-            regionArray[i] = dis.readUTF();
+            regionArray[i] = readRegionId(bytes, bis, dis);
         }
-        regionIds = Arrays.asList(regionArray);
         // rules
         int ruleCount = dis.readShort();
-        Object[] ruleArray = new Object[ruleCount];
+        int[] positions = new int[ruleCount];
+        int[] lengths = new int[ruleCount];
         for (int i = 0; i < ruleCount; i++) {
-            byte[] bytes = new byte[dis.readShort()];
-            dis.readFully(bytes);
-            ruleArray[i] = bytes;
+            lengths[i] = dis.readShort();
+            positions[i] = bytes.length - bis.available();
+            if (dis.skipBytes(lengths[i]) != lengths[i]) {
+                throw new StreamCorruptedException("Truncated rules");
+            }
         }
         // link version-region-rules
+        int[] regionRules = new int[regionCount];
         for (int i = 0; i < versionCount; i++) {
             int versionRegionCount = dis.readShort();
-            regionToRules.clear();
+            Arrays.fill(regionRules, -1);
             for (int j = 0; j < versionRegionCount; j++) {
-                String region = regionArray[dis.readShort()];
-                Object rule = ruleArray[dis.readShort() & 0xffff];
-                regionToRules.put(region, rule);
+                int region = dis.readShort();
+                int rule = dis.readShort() & 0xffff;
+                if (region < 0 || region >= regionCount || rule >= ruleCount) {
+                    throw new StreamCorruptedException("File format not recognised");
+                }
+                regionRules[region] = rule;
+            }
+        }
+        index(regionArray, regionRules);
+        data = bytes;
+        rulePositions = positions;
+        ruleLengths = lengths;
+        rules = new ZoneRules[ruleCount];
+    }
+
+    /**
+     * Reads a region ID, as written by {@code DataOutput.writeUTF}.
+     * <p>
+     * Region IDs are almost always ASCII, which is decoded directly from
+     * the array, avoiding the general decoder during startup.
+     *
+     * @param bytes  the contents of the data file, not null
+     * @param bis  the stream reading {@code bytes}, not null
+     * @param dis  the data stream wrapping {@code bis}, not null
+     * @return the region ID, not null
+     * @throws IOException if an error occurs
+     */
+    private static String readRegionId(byte[] bytes, ByteArrayInputStream bis, DataInputStream dis)
+            throws IOException {
+        int length = dis.readUnsignedShort();
+        int pos = bytes.length - bis.available();
+        if (length > bis.available()) {
+            throw new StreamCorruptedException("Truncated region ID");
+        }
+        for (int i = pos; i < pos + length; i++) {
+            if (bytes[i] < 0) {
+                // decode from the length again, in modified UTF-8
+                dis.skipBytes(length);
+                return new DataInputStream(new ByteArrayInputStream(bytes, pos - 2, length + 2)).readUTF();
             }
         }
+        dis.skipBytes(length);
+        return new String(bytes, pos, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Stores the regions, sorted for searching.
+     *
+     * @param regionArray  the regions in file order, not null
+     * @param regionRules  the rule index of each region, -1 if not linked, not null
+     */
+    private void index(String[] regionArray, int[] regionRules) {
+        boolean sorted = true;
+        for (int i = 1; i < regionArray.length && sorted; i++) {
+            sorted = regionArray[i - 1].compareTo(regionArray[i]) < 0;
+        }
+        if (sorted) {
+            // the compiler writes the regions in order, so this is the usual case
+            regionIds = regionArray;
+            regionToRuleIndex = regionRules;
+            return;
+        }
+        TreeMap<String, Integer> map = new TreeMap<>();
+        for (int i = 0; i < regionArray.length; i++) {
+            map.put(regionArray[i], regionRules[i]);
+        }
+        String[] ids = map.keySet().toArray(new String[map.size()]);
+        int[] ruleIndex = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ruleIndex[i] = map.get(ids[i]);
+        }
+        regionIds = ids;
+        regionToRuleIndex = ruleIndex;
     }
 
     @Override
@@ -115,6 +115,10 @@ public final class ZoneOffsetTransition
      * The offset after transition.
      */
     private final ZoneOffset offsetAfter;
+    /**
+     * The transition instant, as epoch-seconds.
+     */
+    private final long epochSecond;
 
     //-----------------------------------------------------------------------
     /**
@@ -155,6 +159,7 @@ public final class ZoneOffsetTransition
         this.transition = transition;
         this.offsetBefore = offsetBefore;
         this.offsetAfter = offsetAfter;
+        this.epochSecond = transition.toEpochSecond(offsetBefore);
     }
 
     /**
@@ -168,6 +173,7 @@ public final class ZoneOffsetTransition
         this.transition = LocalDateTime.ofEpochSecond(epochSecond, 0, offsetBefore);
         this.offsetBefore = offsetBefore;
         this.offsetAfter = offsetAfter;
+        this.epochSecond = epochSecond;
     }
 
     //-----------------------------------------------------------------------
@@ -244,7 +250,7 @@ public final class ZoneOffsetTransition
      * @return the transition instant, not null
      */
     public Instant getInstant() {
-        return transition.toInstant(offsetBefore);
+        return Instant.ofEpochSecond(epochSecond);
     }
 
     /**
@@ -253,7 +259,7 @@ public final class ZoneOffsetTransition
      * @return the transition epoch second
      */
     public long toEpochSecond() {
-        return transition.toEpochSecond(offsetBefore);
+        return epochSecond;
     }
 
     //-------------------------------------------------------------------------
@@ -67,6 +67,7 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -79,8 +80,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * The rules defining how the zone offset varies for a single time-zone.
@@ -136,6 +136,11 @@ public final class ZoneRules implements Serializable {
      * and the second entry is the end of the transition.
      */
     private final LocalDateTime[] savingsLocalTransitions;
+    /**
+     * The transitions between local date-times as epoch seconds in UTC, sorted.
+     * This mirrors {@code savingsLocalTransitions} for faster searching.
+     */
+    private final transient long[] savingsLocalTransitionSeconds;
     /**
      * The wall offsets.
      */
@@ -145,10 +150,21 @@ public final class ZoneRules implements Serializable {
      */
     private final ZoneOffsetTransitionRule[] lastRules;
     /**
-     * The map of recent transitions.
+     * The first year in {@code lastRulesCache}.
+     */
+    private final transient int firstCachedYear;
+    /**
+     * The transitions of the last rules by year, from {@code firstCachedYear}
+     * to the year before {@code LAST_CACHED_YEAR}, created as needed.
+     * Null if there are no years to cache.
+     */
+    private final transient AtomicReferenceArray<ZoneOffsetTransition[]> lastRulesCache;
+    /**
+     * The range of epoch seconds and offset found by the most recent instant lookup.
+     * Consecutive lookups are usually close together, so the range often
+     * contains the next instant as well.
      */
-    private final transient ConcurrentMap<Integer, ZoneOffsetTransition[]> lastRulesCache =
-                new ConcurrentHashMap<Integer, ZoneOffsetTransition[]>();
+    private transient OffsetRange lastOffsetRange;
     /**
      * The zero-length long array.
      */
@@ -254,6 +270,9 @@ public final class ZoneRules implements Serializable {
             throw new IllegalArgumentException("Too many transition rules");
         }
         this.lastRules = lastRules.toArray(new ZoneOffsetTransitionRule[lastRules.size()]);
+        this.savingsLocalTransitionSeconds = toEpochSeconds(savingsLocalTransitions);
+        this.firstCachedYear = firstCachedYear();
+        this.lastRulesCache = createLastRulesCache();
     }
 
     /**
@@ -297,6 +316,9 @@ public final class ZoneRules implements Serializable {
             }
             this.savingsLocalTransitions = localTransitionList.toArray(new LocalDateTime[localTransitionList.size()]);
         }
+        this.savingsLocalTransitionSeconds = toEpochSeconds(savingsLocalTransitions);
+        this.firstCachedYear = firstCachedYear();
+        this.lastRulesCache = createLastRulesCache();
     }
 
     /**
@@ -314,6 +336,46 @@ public final class ZoneRules implements Serializable {
         this.savingsLocalTransitions = EMPTY_LDT_ARRAY;
         this.wallOffsets = standardOffsets;
         this.lastRules = EMPTY_LASTRULES;
+        this.savingsLocalTransitionSeconds = EMPTY_LONG_ARRAY;
+        this.firstCachedYear = LAST_CACHED_YEAR;
+        this.lastRulesCache = null;
+    }
+
+    /**
+     * Converts local date-times to epoch seconds in UTC.
+     *
+     * @param localDateTimes  the local date-times, not null
+     * @return the epoch seconds, not null
+     */
+    private static long[] toEpochSeconds(LocalDateTime[] localDateTimes) {
+        if (localDateTimes.length == 0) {
+            return EMPTY_LONG_ARRAY;
+        }
+        long[] seconds = new long[localDateTimes.length];
+        for (int i = 0; i < localDateTimes.length; i++) {
+            seconds[i] = localDateTimes[i].toEpochSecond(ZoneOffset.UTC);
+        }
+        return seconds;
+    }
+
+    /**
+     * Finds the first year that the last rules can be needed for.
+     *
+     * @return the year, {@code LAST_CACHED_YEAR} if the last rules are never used
+     */
+    private int firstCachedYear() {
+        if (lastRules.length == 0 || savingsInstantTransitions.length == 0) {
+            return LAST_CACHED_YEAR;
+        }
+        // the year before that of the last transition is needed by previousTransition
+        int lastYear = findYear(savingsInstantTransitions[savingsInstantTransitions.length - 1],
+                                wallOffsets[wallOffsets.length - 1]);
+        return Math.max(Math.min(lastYear - 1, LAST_CACHED_YEAR), LAST_CACHED_YEAR - 1000);
+    }
+
+    private AtomicReferenceArray<ZoneOffsetTransition[]> createLastRulesCache() {
+        int years = LAST_CACHED_YEAR - firstCachedYear;
+        return (years > 0 ? new AtomicReferenceArray<>(years) : null);
     }
 
     /**
@@ -481,19 +543,127 @@ public final class ZoneRules implements Serializable {
             return standardOffsets[0];
         }
         long epochSec = instant.getEpochSecond();
+        OffsetRange range = lastOffsetRange;
+        if (range == null || epochSec < range.start || epochSec >= range.end) {
+            range = findOffsetRange(epochSec);
+            lastOffsetRange = range;
+        }
+        return range.offset;
+    }
+
+    /**
+     * Gets the offsets applicable at the specified instants in these rules,
+     * as total seconds.
+     * <p>
+     * This is equivalent to calling {@link #getOffset(Instant)} for each instant,
+     * but avoids creating an {@code Instant} for each element and is considerably
+     * faster for instants that are close together, such as a sorted time-series.
+     *
+     * @param epochSeconds  the instants to find the offsets for, as epoch-seconds, not null
+     * @return the total offset in seconds for each instant, not null
+     * @throws DateTimeException if an epoch-second exceeds the minimum or maximum instant
+     */
+    public int[] getOffsetSeconds(long[] epochSeconds) {
+        int[] offsetSeconds = new int[epochSeconds.length];
+        getOffsetSeconds(epochSeconds, 0, epochSeconds.length, offsetSeconds, 0);
+        return offsetSeconds;
+    }
+
+    /**
+     * Gets the offsets applicable at a range of instants in these rules,
+     * as total seconds.
+     * <p>
+     * The offset for {@code epochSeconds[fromIndex + i]} is stored in
+     * {@code offsetSeconds[destIndex + i]}, for each {@code i} from zero to
+     * {@code toIndex - fromIndex - 1}.
+     * This is equivalent to calling {@link #getOffset(Instant)} for each instant,
+     * but avoids creating an {@code Instant} for each element and is considerably
+     * faster for instants that are close together, such as a sorted time-series.
+     *
+     * @param epochSeconds  the instants to find the offsets for, as epoch-seconds, not null
+     * @param fromIndex  the index of the first instant, inclusive
+     * @param toIndex  the index of the last instant, exclusive
+     * @param offsetSeconds  the array to store the total offsets in seconds into, not null
+     * @param destIndex  the index in {@code offsetSeconds} to store the first offset at
+     * @throws DateTimeException if an epoch-second exceeds the minimum or maximum instant
+     * @throws IndexOutOfBoundsException if either range is outside its array
+     */
+    public void getOffsetSeconds(long[] epochSeconds, int fromIndex, int toIndex,
+                                 int[] offsetSeconds, int destIndex) {
+        Objects.requireNonNull(epochSeconds, "epochSeconds");
+        Objects.requireNonNull(offsetSeconds, "offsetSeconds");
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > epochSeconds.length ||
+                destIndex < 0 || destIndex > offsetSeconds.length - (toIndex - fromIndex)) {
+            throw new IndexOutOfBoundsException("Invalid range");
+        }
+        long min = Instant.MIN.getEpochSecond();
+        long max = Instant.MAX.getEpochSecond();
+        if (savingsInstantTransitions.length == 0) {
+            int total = standardOffsets[0].getTotalSeconds();
+            for (int i = fromIndex; i < toIndex; i++) {
+                checkEpochSecond(epochSeconds[i], min, max);
+                offsetSeconds[destIndex++] = total;
+            }
+            return;
+        }
+        OffsetRange range = lastOffsetRange;
+        if (range == null) {
+            range = findOffsetRange(0);
+        }
+        // the first and last ranges are open-ended, so the bounds are clamped
+        // to the valid instants to check every epoch-second outside them
+        long start = Math.max(range.start, min);
+        long end = Math.min(range.end, max + 1);
+        int total = range.offset.getTotalSeconds();
+        for (int i = fromIndex; i < toIndex; i++) {
+            long epochSec = epochSeconds[i];
+            if (epochSec < start || epochSec >= end) {
+                checkEpochSecond(epochSec, min, max);
+                range = findOffsetRange(epochSec);
+                start = Math.max(range.start, min);
+                end = Math.min(range.end, max + 1);
+                total = range.offset.getTotalSeconds();
+            }
+            offsetSeconds[destIndex++] = total;
+        }
+        lastOffsetRange = range;
+    }
+
+    private static void checkEpochSecond(long epochSec, long min, long max) {
+        if (epochSec < min || epochSec > max) {
+            throw new DateTimeException("Instant exceeds minimum or maximum instant");
+        }
+    }
+
+    /**
+     * Finds the range of instants around the specified instant that have the same offset.
+     * <p>
+     * The range never extends over a transition or, when the last rules are used,
+     * over the start of a year, so that every instant in the range would be given
+     * the same offset by the search done here.
+     *
+     * @param epochSec  the instant, as epoch-seconds
+     * @return the range, not null
+     */
+    private OffsetRange findOffsetRange(long epochSec) {
         // check if using last rules
-        if (lastRules.length > 0 &&
-                epochSec > savingsInstantTransitions[savingsInstantTransitions.length - 1]) {
-            int year = findYear(epochSec, wallOffsets[wallOffsets.length - 1]);
+        long lastHistoric = savingsInstantTransitions[savingsInstantTransitions.length - 1];
+        if (lastRules.length > 0 && epochSec > lastHistoric) {
+            ZoneOffset lastHistoricOffset = wallOffsets[wallOffsets.length - 1];
+            int year = findYear(epochSec, lastHistoricOffset);
             ZoneOffsetTransition[] transArray = findTransitionArray(year);
+            long start = Math.max(findYearStart(year, lastHistoricOffset), lastHistoric + 1);
+            long end = (year < Year.MAX_VALUE ? findYearStart(year + 1, lastHistoricOffset) : Long.MAX_VALUE);
             ZoneOffsetTransition trans = null;
             for (int i = 0; i < transArray.length; i++) {
                 trans = transArray[i];
-                if (epochSec < trans.toEpochSecond()) {
-                    return trans.getOffsetBefore();
+                long transEpochSec = trans.toEpochSecond();
+                if (epochSec < transEpochSec) {
+                    return new OffsetRange(start, Math.min(transEpochSec, end), trans.getOffsetBefore());
                 }
+                start = Math.max(start, transEpochSec);
             }
-            return trans.getOffsetAfter();
+            return new OffsetRange(start, end, trans.getOffsetAfter());
         }
 
         // using historic rules
@@ -502,7 +672,14 @@ public final class ZoneRules implements Serializable {
             // switch negative insert position to start of matched range
             index = -index - 2;
         }
-        return wallOffsets[index + 1];
+        long start = (index >= 0 ? savingsInstantTransitions[index] : Long.MIN_VALUE);
+        long end;
+        if (index + 1 < savingsInstantTransitions.length) {
+            end = savingsInstantTransitions[index + 1];
+        } else {
+            end = (lastRules.length > 0 ? lastHistoric + 1 : Long.MAX_VALUE);
+        }
+        return new OffsetRange(start, end, wallOffsets[index + 1]);
     }
 
     /**
@@ -635,9 +812,15 @@ public final class ZoneRules implements Serializable {
         if (savingsInstantTransitions.length == 0) {
             return standardOffsets[0];
         }
+        // compare as epoch seconds, where a non-zero nano-of-second places the
+        // date-time after any transition in the same second
+        long localSec = dt.toEpochSecond(ZoneOffset.UTC);
+        boolean hasNano = dt.getNano() != 0;
+        long[] localSeconds = savingsLocalTransitionSeconds;
         // check if using last rules
+        long lastLocalSec = localSeconds[localSeconds.length - 1];
         if (lastRules.length > 0 &&
-                dt.isAfter(savingsLocalTransitions[savingsLocalTransitions.length - 1])) {
+                (localSec > lastLocalSec || (localSec == lastLocalSec && hasNano))) {
             ZoneOffsetTransition[] transArray = findTransitionArray(dt.getYear());
             Object info = null;
             for (ZoneOffsetTransition trans : transArray) {
@@ -650,7 +833,23 @@ public final class ZoneRules implements Serializable {
         }
 
         // using historic rules
-        int index  = Arrays.binarySearch(savingsLocalTransitions, dt);
+        int index;
+        if (hasNano) {
+            // never equal to a transition, so find the insert position
+            int low = 0;
+            int high = localSeconds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (localSeconds[mid] <= localSec) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            index = -low - 1;
+        } else {
+            index = Arrays.binarySearch(localSeconds, localSec);
+        }
         if (index == -1) {
             // before first transition
             return wallOffsets[0];
@@ -658,8 +857,8 @@ public final class ZoneRules implements Serializable {
         if (index < 0) {
             // switch negative insert position to start of matched range
             index = -index - 2;
-        } else if (index < savingsLocalTransitions.length - 1 &&
-                savingsLocalTransitions[index].equals(savingsLocalTransitions[index + 1])) {
+        } else if (index < localSeconds.length - 1 &&
+                localSeconds[index] == localSeconds[index + 1]) {
             // handle overlap immediately following gap
             index++;
         }
@@ -719,18 +918,22 @@ public final class ZoneRules implements Serializable {
      * @return the transition array, not null
      */
     private ZoneOffsetTransition[] findTransitionArray(int year) {
-        Integer yearObj = year;  // should use Year class, but this saves a class load
-        ZoneOffsetTransition[] transArray = lastRulesCache.get(yearObj);
-        if (transArray != null) {
-            return transArray;
+        int index = year - firstCachedYear;
+        boolean cached = (year >= firstCachedYear && year < LAST_CACHED_YEAR);
+        ZoneOffsetTransition[] transArray;
+        if (cached) {
+            transArray = lastRulesCache.get(index);
+            if (transArray != null) {
+                return transArray;
+            }
         }
         ZoneOffsetTransitionRule[] ruleArray = lastRules;
         transArray  = new ZoneOffsetTransition[ruleArray.length];
         for (int i = 0; i < ruleArray.length; i++) {
             transArray[i] = ruleArray[i].createTransition(year);
         }
-        if (year < LAST_CACHED_YEAR) {
-            lastRulesCache.putIfAbsent(yearObj, transArray);
+        if (cached && lastRulesCache.compareAndSet(index, null, transArray) == false) {
+            return lastRulesCache.get(index);
         }
         return transArray;
     }
@@ -928,6 +1131,35 @@ public final class ZoneRules implements Serializable {
         return LocalDate.ofEpochDay(localEpochDay).getYear();
     }
 
+    /**
+     * Finds the first epoch-second that {@link #findYear} maps to the specified year.
+     *
+     * @param year  the year
+     * @param offset  the offset used to find the year, not null
+     * @return the first epoch-second of the year
+     */
+    private long findYearStart(int year, ZoneOffset offset) {
+        return LocalDate.of(year, 1, 1).toEpochDay() * 86400 - offset.getTotalSeconds();
+    }
+
+    /**
+     * A range of epoch-seconds sharing the same offset.
+     */
+    private static final class OffsetRange {
+        /** The first epoch-second of the range, inclusive. */
+        final long start;
+        /** The last epoch-second of the range, exclusive. */
+        final long end;
+        /** The offset of the range, not null. */
+        final ZoneOffset offset;
+
+        OffsetRange(long start, long end, ZoneOffset offset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+        }
+    }
+
     /**
      * Gets the complete list of fully defined transitions.
      * <p>
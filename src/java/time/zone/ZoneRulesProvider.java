@@ -256,6 +256,28 @@ public abstract class ZoneRulesProvider {
         return getProvider(zoneId).provideVersions(zoneId);
     }
 
+    /**
+     * Loads the rules for a set of zone IDs in advance of their use.
+     * <p>
+     * Providers may defer loading the rules for a zone ID until first requested,
+     * as the 'TZDB' provider does. An application that knows which zones it will
+     * use can call this method during startup to load them in parallel, rather
+     * than paying the cost on the first call to {@link ZoneId#of(String)} or
+     * {@link #getRules(String, boolean)} for each zone.
+     * <p>
+     * All the zone IDs are validated before any rules are loaded.
+     *
+     * @param zoneIds  the zone IDs as defined by {@code ZoneId}, not null
+     * @throws ZoneRulesException if a zone ID is unknown or its rules cannot be obtained
+     */
+    public static void preloadRules(Set<String> zoneIds) {
+        Objects.requireNonNull(zoneIds, "zoneIds");
+        for (String zoneId : zoneIds) {
+            getProvider(Objects.requireNonNull(zoneId, "zoneId"));
+        }
+        zoneIds.parallelStream().forEach(zoneId -> getProvider(zoneId).provideRules(zoneId, true));
+    }
+
     /**
      * Gets the provider for the zone ID.
      *
@@ -0,0 +1,2538 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A B+tree based {@link NavigableMap} implementation.  The map is sorted
+ * according to the {@linkplain Comparable natural ordering} of its keys,
+ * or by a {@link Comparator} provided at map creation time, depending on
+ * which constructor is used.
+ *
+ * <p>Unlike {@link TreeMap}, which allocates one node per mapping, this
+ * implementation stores keys and values in arrays held by wide nodes, so
+ * that a lookup touches a few nodes of up to 64 keys each and a scan
+ * reads keys and values sequentially from consecutive array slots.  The
+ * leaves are linked in key order, so iteration, range views and bulk
+ * traversal of a range take time proportional to the size of the range
+ * after an initial O(log n) search.  This makes the map well suited to
+ * large maps and range scans, at the cost of moving array elements on
+ * insertion and removal.  Keys inserted in ascending order fill the
+ * leaves completely.
+ *
+ * <p>When the map uses the natural ordering and its keys are {@link Long}
+ * values, the keys are stored unboxed in {@code long} arrays.  The
+ * {@link #getByLong getByLong}, {@link #putByLong putByLong},
+ * {@link #removeByLong removeByLong} and
+ * {@link #containsKeyByLong containsKeyByLong} methods look up such keys
+ * without boxing them.
+ *
+ * <p>This implementation provides guaranteed log(n) time cost for the
+ * {@code containsKey}, {@code get}, {@code put} and {@code remove}
+ * operations.  It does not permit {@code null} keys; {@code null} values
+ * are permitted.
+ *
+ * <p>Note that the ordering maintained by this map, like any sorted map, and
+ * whether or not an explicit comparator is provided, must be <em>consistent
+ * with {@code equals}</em> if this sorted map is to correctly implement the
+ * {@code Map} interface.  (See {@code Comparable} or {@code Comparator} for a
+ * precise definition of <em>consistent with equals</em>.)
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <em>must</em> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated
+ * with an existing key is not a structural modification.)  If no object
+ * that naturally encapsulates the map exists, the map should be "wrapped"
+ * using the {@link Collections#synchronizedSortedMap
+ * Collections.synchronizedSortedMap} method.
+ *
+ * <p>The iterators returned by the {@code iterator} method of the collections
+ * returned by all of this class's "collection view methods" are
+ * <em>fail-fast</em>: if the map is structurally modified at any time after
+ * the iterator is created, in any way except through the iterator's own
+ * {@code remove} method, the iterator will throw a {@link
+ * ConcurrentModificationException}.  Fail-fast iterators throw
+ * {@code ConcurrentModificationException} on a best-effort basis, and the
+ * fail-fast behavior of iterators should be used only to detect bugs.
+ *
+ * <p>All {@code Map.Entry} pairs returned by methods in this class
+ * and its views represent snapshots of mappings at the time they were
+ * produced.  Entries returned by the iterators of the entry set views
+ * support {@code Entry.setValue}, which writes through to the map; the
+ * others do not.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see TreeMap
+ * @see java.util.concurrent.ConcurrentSkipListMap
+ * @since 1.8
+ */
+public class BTreeMap<K,V> extends AbstractMap<K,V>
+    implements NavigableMap<K,V>, Cloneable, Serializable
+{
+    /*
+     * Implementation notes.
+     *
+     * The tree is a B+tree: all mappings are held in leaves, which are
+     * linked in key order, and inner nodes hold separator keys.  The
+     * separator at index i of an inner node is no greater than any key
+     * in child i+1, and greater than every key in child i.  Separators
+     * are not updated when the key they were copied from is removed,
+     * which keeps them valid bounds.
+     *
+     * Every node other than the root and those on the rightmost path
+     * holds at least half its capacity.  A full node that receives a key
+     * past the end of the map is split leaving it full, with the new key
+     * alone in its new right sibling, so that ascending insertion
+     * produces full nodes; this is why the rightmost nodes may hold
+     * fewer, and inner ones may have a single child.  Insertion and
+     * removal first work on the leaf alone, and descend again recording
+     * the path only in the uncommon case that the leaf must be split or
+     * rebalanced.
+     *
+     * Each node stores its keys either in keys, or, when longKeys is set
+     * for the map, in longKeys.  The mode is chosen when the first
+     * mapping is added to an empty map: a map with natural ordering that
+     * holds a Long can only hold Longs.
+     */
+
+    private static final long serialVersionUID = 7329081635274105532L;
+
+    /** The maximum number of mappings in a leaf. */
+    static final int MAX_LEAF = 64;
+
+    /** The maximum number of children of an inner node. */
+    static final int MAX_CHILDREN = 64;
+
+    /** The minimum number of mappings in a leaf other than the root. */
+    static final int MIN_LEAF = MAX_LEAF / 2;
+
+    /** The minimum number of keys in an inner node other than the root. */
+    static final int MIN_INNER_KEYS = MAX_CHILDREN / 2 - 1;
+
+    /** The initial capacity of the first leaf. */
+    static final int INITIAL_LEAF = 4;
+
+    /**
+     * The comparator used to maintain order in this map, or
+     * null if it uses the natural ordering of its keys.
+     *
+     * @serial
+     */
+    private final Comparator<? super K> comparator;
+
+    private transient Node root;
+
+    /** The first and last leaves, or null if the map is empty. */
+    private transient Leaf head, tail;
+
+    /** The number of inner levels above the leaves. */
+    private transient int height;
+
+    /** Whether keys are held unboxed in longKeys arrays. */
+    private transient boolean longKeys;
+
+    private transient int size = 0;
+
+    /**
+     * The number of structural modifications to the map.
+     */
+    private transient int modCount = 0;
+
+    // Views, lazily initialized
+    private transient KeySet<K> keySetView;
+    private transient EntrySet<K,V> entrySetView;
+    private transient Values<V> valuesView;
+    private transient SubMap<K,V> descendingMapView;
+
+    /**
+     * Constructs a new, empty map, sorted according to the natural
+     * ordering of its keys.  All keys inserted into the map must
+     * implement the {@link Comparable} interface and be <em>mutually
+     * comparable</em>.
+     */
+    public BTreeMap() {
+        comparator = null;
+    }
+
+    /**
+     * Constructs a new, empty map, ordered according to the given
+     * comparator.  All keys inserted into the map must be <em>mutually
+     * comparable</em> by the given comparator.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public BTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Constructs a new map containing the same mappings as the given
+     * map, ordered according to the <em>natural ordering</em> of its keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in m are not {@link Comparable},
+     *         or are not mutually comparable
+     * @throws NullPointerException if the specified map or any of its keys
+     *         is null
+     */
+    public BTreeMap(Map<? extends K, ? extends V> m) {
+        comparator = null;
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new map containing the same mappings and using the
+     * same ordering as the specified sorted map.  The mappings are
+     * appended in order, so the leaves of the new map are full.
+     *
+     * @param  m the sorted map whose mappings are to be placed in this map,
+     *         and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified map or any of its keys
+     *         is null
+     */
+    public BTreeMap(SortedMap<K, ? extends V> m) {
+        comparator = m.comparator();
+        putAll(m);
+    }
+
+    // Nodes
+
+    /**
+     * A node of the tree.  Exactly one of keys and longKeys is non-null.
+     */
+    static class Node {
+        int size;           // number of keys
+        Object[] keys;
+        long[] longKeys;
+
+        Node(int capacity, boolean longKeys) {
+            if (longKeys)
+                this.longKeys = new long[capacity];
+            else
+                this.keys = new Object[capacity];
+        }
+
+        final int capacity() {
+            return (keys != null) ? keys.length : longKeys.length;
+        }
+
+        /** Copies n keys from index from of src to index to of dest. */
+        static void copyKeys(Node src, int from, Node dest, int to, int n) {
+            if (src.keys != null)
+                System.arraycopy(src.keys, from, dest.keys, to, n);
+            else
+                System.arraycopy(src.longKeys, from, dest.longKeys, to, n);
+        }
+
+        /** Clears the key slots from index from up to the old size. */
+        final void clearKeys(int from, int oldSize) {
+            if (keys != null)
+                Arrays.fill(keys, from, oldSize, null);
+        }
+    }
+
+    /** A leaf, holding mappings. */
+    static final class Leaf extends Node {
+        Object[] values;
+        Leaf prev, next;
+
+        Leaf(int capacity, boolean longKeys) {
+            super(capacity, longKeys);
+            values = new Object[capacity];
+        }
+    }
+
+    /** An inner node, holding size separator keys and size+1 children. */
+    static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(boolean longKeys) {
+            super(MAX_CHILDREN - 1, longKeys);
+            children = new Node[MAX_CHILDREN];
+        }
+    }
+
+    /** A position in the leaves; leaf is null past either end. */
+    static final class Cursor {
+        Leaf leaf;
+        int index;
+
+        final void next() {
+            if (++index == leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        final void prev() {
+            if (--index < 0 && (leaf = leaf.prev) != null)
+                index = leaf.size - 1;
+        }
+
+        final boolean at(Leaf l, int i) {
+            return leaf == l && index == i;
+        }
+    }
+
+    // Key access and search
+
+    /**
+     * Compares two keys using the correct comparison method for this map.
+     */
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>)k1).compareTo((K)k2)
+            : comparator.compare((K)k1, (K)k2);
+    }
+
+    /** Returns the key at index i of node n. */
+    @SuppressWarnings("unchecked")
+    final K key(Node n, int i) {
+        return (K)(longKeys ? Long.valueOf(n.longKeys[i]) : n.keys[i]);
+    }
+
+    /** Stores key at index i of node n. */
+    final void setKey(Node n, int i, Object key) {
+        if (longKeys)
+            n.longKeys[i] = (Long)key;
+        else
+            n.keys[i] = key;
+    }
+
+    /**
+     * Searches the keys of n for key, returning its index if found,
+     * and otherwise (-(insertion point) - 1), as Arrays.binarySearch.
+     *
+     * @throws ClassCastException if key cannot be compared with the keys
+     */
+    @SuppressWarnings("unchecked")
+    final int search(Node n, Object key) {
+        if (longKeys)
+            return search(n, ((Long)key).longValue());
+        Object[] a = n.keys;
+        int lo = 0, hi = n.size - 1;
+        Comparator<? super K> cpr = comparator;
+        if (cpr == null) {
+            Comparable<? super K> k = (Comparable<? super K>)key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = k.compareTo((K)a[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        } else {
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = cpr.compare((K)key, (K)a[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** Version of search for a node holding long keys. */
+    static int search(Node n, long key) {
+        long[] a = n.longKeys;
+        int lo = 0, hi = n.size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = a[mid];
+            if (k < key)
+                lo = mid + 1;
+            else if (k > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /** Returns the index of the child of n that may hold key. */
+    final int childIndex(Inner n, Object key) {
+        int i = search(n, key);
+        return (i < 0) ? -i - 1 : i + 1;
+    }
+
+    /** Returns the leaf that may hold key, or null if the map is empty. */
+    final Leaf findLeaf(Object key) {
+        Node n = root;
+        for (int h = height; h > 0; h--) {
+            Inner in = (Inner)n;
+            n = in.children[childIndex(in, key)];
+        }
+        return (Leaf)n;
+    }
+
+    /** Version of findLeaf for a map holding long keys. */
+    final Leaf findLeaf(long key) {
+        Node n = root;
+        for (int h = height; h > 0; h--) {
+            Inner in = (Inner)n;
+            int i = search(in, key);
+            n = in.children[(i < 0) ? -i - 1 : i + 1];
+        }
+        return (Leaf)n;
+    }
+
+    /** Returns the leftmost leaf of the subtree n at the given height. */
+    static Leaf leftmostLeaf(Node n, int h) {
+        for (; h > 0; h--)
+            n = ((Inner)n).children[0];
+        return (Leaf)n;
+    }
+
+    // Relations for seek.  EQ accepts an equal key; a relation without LT
+    // seeks above the key, so GT is the absence of LT and has no bit.
+    static final int EQ = 1;
+    static final int LT = 2;
+    static final int GT = 0;
+
+    /**
+     * Positions c at the mapping whose key is nearest to key in the given
+     * relation: LT, LT|EQ, GT|EQ or GT.  Returns false, leaving c past
+     * the corresponding end, if there is no such mapping.
+     */
+    final boolean seek(Object key, int rel, Cursor c) {
+        Leaf l = findLeaf(key);
+        if (l == null) {
+            c.leaf = null;
+            return false;
+        }
+        int i = search(l, key);
+        if (i >= 0) {
+            if ((rel & EQ) == 0)
+                i += ((rel & LT) != 0) ? -1 : 1;
+        } else {
+            i = -i - 1;
+            if ((rel & LT) != 0)
+                i--;
+        }
+        if (i < 0) {
+            if ((l = l.prev) != null)
+                i = l.size - 1;
+        } else if (i >= l.size) {
+            l = l.next;
+            i = 0;
+        }
+        c.leaf = l;
+        c.index = i;
+        return l != null;
+    }
+
+    /** Positions c at the lowest mapping, returning false if none. */
+    final boolean seekFirst(Cursor c) {
+        c.leaf = head;
+        c.index = 0;
+        return head != null;
+    }
+
+    /** Positions c at the highest mapping, returning false if none. */
+    final boolean seekLast(Cursor c) {
+        Leaf l = tail;
+        c.leaf = l;
+        c.index = (l == null) ? 0 : l.size - 1;
+        return l != null;
+    }
+
+    /**
+     * Positions c at the lowest mapping at or above (if inclusive) or
+     * above lo, or the lowest mapping if lo is null.
+     */
+    final boolean seekLow(Object lo, boolean inclusive, Cursor c) {
+        return (lo == null) ? seekFirst(c) : seek(lo, inclusive ? GT|EQ : GT, c);
+    }
+
+    /**
+     * Positions c at the highest mapping at or below (if inclusive) or
+     * below hi, or the highest mapping if hi is null.
+     */
+    final boolean seekHigh(Object hi, boolean inclusive, Cursor c) {
+        return (hi == null) ? seekLast(c) : seek(hi, inclusive ? LT|EQ : LT, c);
+    }
+
+    /**
+     * Positions c at the first mapping past the ascending range bounded
+     * by hi, or past the end if there is none.
+     */
+    final void seekAbove(Object hi, boolean inclusive, Cursor c) {
+        if (hi == null)
+            c.leaf = null;
+        else
+            seek(hi, inclusive ? GT : GT|EQ, c);
+    }
+
+    /**
+     * Positions c at the first mapping past the descending range bounded
+     * by lo, or past the start if there is none.
+     */
+    final void seekBelow(Object lo, boolean inclusive, Cursor c) {
+        if (lo == null)
+            c.leaf = null;
+        else
+            seek(lo, inclusive ? LT : LT|EQ, c);
+    }
+
+    /**
+     * Returns true if position c, which is not cleared, is at or past the
+     * fence position f in the given direction.  The start of an empty
+     * range, such as one with equal exclusive bounds, may lie past its
+     * fence, so this compares keys rather than positions.
+     */
+    final boolean atOrPast(Cursor c, Cursor f, boolean descending) {
+        if (f.leaf == null)
+            return false;
+        if (c.at(f.leaf, f.index))
+            return true;
+        int cmp = compare(key(c.leaf, c.index), key(f.leaf, f.index));
+        return descending ? cmp <= 0 : cmp >= 0;
+    }
+
+    /**
+     * Returns the number of mappings from position c up to but not
+     * including the fence position, or the end if fence is null.
+     */
+    static int count(Leaf l, int i, Leaf fence, int fenceIndex) {
+        long n = 0;
+        for (; l != null && l != fence; l = l.next, i = 0)
+            n += l.size - i;
+        if (l != null)
+            n += fenceIndex - i;
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    final Map.Entry<K,V> exportEntry(Cursor c) {
+        if (c.leaf == null)
+            return null;
+        @SuppressWarnings("unchecked") V v = (V)c.leaf.values[c.index];
+        return new AbstractMap.SimpleImmutableEntry<>(key(c.leaf, c.index), v);
+    }
+
+    // Query Operations
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the
+     *         specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        return l != null && search(l, key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * {@code long} key, without boxing it if the map holds unboxed keys.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the
+     *         specified key
+     * @throws ClassCastException if the keys of this map cannot be compared
+     *         with a {@code Long}
+     */
+    public boolean containsKeyByLong(long key) {
+        if (!longKeys)
+            return containsKey(Long.valueOf(key));
+        Leaf l = findLeaf(key);
+        return l != null && search(l, key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This scans the leaves in order, taking time linear
+     * in the size of the map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     */
+    public boolean containsValue(Object value) {
+        for (Leaf l = head; l != null; l = l.next) {
+            Object[] vs = l.values;
+            for (int i = 0, n = l.size; i < n; i++)
+                if (Objects.equals(value, vs[i]))
+                    return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int i;
+        return (l != null && (i = search(l, key)) >= 0) ? (V)l.values[i] : null;
+    }
+
+    /**
+     * Returns the value to which the specified {@code long} key is mapped,
+     * or {@code null} if this map contains no mapping for the key.  The
+     * key is not boxed if the map holds unboxed keys.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     * @throws ClassCastException if the keys of this map cannot be compared
+     *         with a {@code Long}
+     */
+    @SuppressWarnings("unchecked")
+    public V getByLong(long key) {
+        if (!longKeys)
+            return get(Long.valueOf(key));
+        Leaf l = findLeaf(key);
+        int i;
+        return (l != null && (i = search(l, key)) >= 0) ? (V)l.values[i] : null;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        Leaf l = head;
+        if (l == null)
+            throw new NoSuchElementException();
+        return key(l, 0);
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        Leaf l = tail;
+        if (l == null)
+            throw new NoSuchElementException();
+        return key(l, l.size - 1);
+    }
+
+    // Modification Operations
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    /**
+     * Associates the specified value with the specified {@code long} key
+     * in this map, without boxing the key if the map holds unboxed keys.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws ClassCastException if the keys of this map cannot be compared
+     *         with a {@code Long}
+     */
+    @SuppressWarnings("unchecked")
+    public V putByLong(long key, V value) {
+        Leaf l;
+        if (longKeys && (l = findLeaf(key)) != null) {
+            int i = search(l, key);
+            if (i >= 0) {
+                V old = (V)l.values[i];
+                l.values[i] = value;
+                return old;
+            }
+            if (l.size < MAX_LEAF) {
+                i = -i - 1;
+                openSlot(l, i);
+                l.longKeys[i] = key;
+                l.values[i] = value;
+                ++size;
+                ++modCount;
+                return null;
+            }
+        }
+        return doPut((K)Long.valueOf(key), value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    /**
+     * Main put method.  Inserts into the leaf directly unless it is
+     * full, in which case splitInsert rebuilds the path.
+     */
+    @SuppressWarnings("unchecked")
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        if (l == null) {
+            compare(key, key); // type check
+            longKeys = (comparator == null && key instanceof Long);
+            l = new Leaf(INITIAL_LEAF, longKeys);
+            setKey(l, 0, key);
+            l.values[0] = value;
+            l.size = 1;
+            root = head = tail = l;
+            height = 0;
+            size = 1;
+            modCount++;
+            return null;
+        }
+        int i = search(l, key);
+        if (i >= 0) {
+            V old = (V)l.values[i];
+            if (!onlyIfAbsent || old == null)
+                l.values[i] = value;
+            return old;
+        }
+        i = -i - 1;
+        if (l.size < MAX_LEAF) {
+            openSlot(l, i);
+            setKey(l, i, key);
+            l.values[i] = value;
+        } else {
+            splitInsert(key, value);
+        }
+        ++size;
+        ++modCount;
+        return null;
+    }
+
+    /**
+     * Makes room for a mapping at index i of leaf l, growing its arrays
+     * if needed, and increments its size.
+     */
+    private static void openSlot(Leaf l, int i) {
+        int n = l.size, cap = l.capacity();
+        if (n == cap) {
+            int newCap = Math.min(cap << 1, MAX_LEAF);
+            if (l.keys != null)
+                l.keys = Arrays.copyOf(l.keys, newCap);
+            else
+                l.longKeys = Arrays.copyOf(l.longKeys, newCap);
+            l.values = Arrays.copyOf(l.values, newCap);
+        }
+        Node.copyKeys(l, i, l, i + 1, n - i);
+        System.arraycopy(l.values, i, l.values, i + 1, n - i);
+        l.size = n + 1;
+    }
+
+    /**
+     * Inserts a key that is not present and belongs in a full leaf,
+     * splitting the leaf and as many of its ancestors as necessary.
+     */
+    private void splitInsert(Object key, Object value) {
+        int h = height;
+        Inner[] path = new Inner[h];
+        int[] index = new int[h];
+        Node n = root;
+        for (int d = 0; d < h; d++) {
+            Inner in = (Inner)n;
+            int c = childIndex(in, key);
+            path[d] = in;
+            index[d] = c;
+            n = in.children[c];
+        }
+        Leaf l = (Leaf)n;
+        int pos = -search(l, key) - 1;
+
+        // Split the leaf.  Appending to the map leaves it full.
+        boolean append = (l == tail && pos == l.size);
+        int keep = append ? l.size : MAX_LEAF / 2;
+        Leaf r = new Leaf(MAX_LEAF, longKeys);
+        int moved = l.size - keep;
+        Node.copyKeys(l, keep, r, 0, moved);
+        System.arraycopy(l.values, keep, r.values, 0, moved);
+        l.clearKeys(keep, l.size);
+        Arrays.fill(l.values, keep, l.size, null);
+        l.size = keep;
+        r.size = moved;
+        if ((r.next = l.next) != null)
+            r.next.prev = r;
+        else
+            tail = r;
+        l.next = r;
+        r.prev = l;
+        Leaf target = (pos < keep) ? l : r;
+        int i = (pos < keep) ? pos : pos - keep;
+        openSlot(target, i);
+        setKey(target, i, key);
+        target.values[i] = value;
+
+        // Insert the separator and new node into the ancestors
+        Object sep = key(r, 0);
+        Node child = r;
+        for (int d = h - 1; d >= 0; d--) {
+            Inner p = path[d];
+            int c = index[d];
+            int k = p.size;
+            if (k < MAX_CHILDREN - 1) {
+                Node.copyKeys(p, c, p, c + 1, k - c);
+                System.arraycopy(p.children, c + 1, p.children, c + 2, k - c);
+                setKey(p, c, sep);
+                p.children[c + 1] = child;
+                p.size = k + 1;
+                return;
+            }
+            // Split p around its middle key, taking the new one into account
+            Object[] ks = new Object[k + 1];
+            Node[] cs = new Node[k + 2];
+            for (int j = 0, s = 0; j <= k; j++)
+                ks[j] = (j == c) ? sep : key(p, s++);
+            for (int j = 0, s = 0; j <= k + 1; j++)
+                cs[j] = (j == c + 1) ? child : p.children[s++];
+            int half = append ? k : (k + 1) / 2;
+            Inner q = new Inner(longKeys);
+            p.clearKeys(0, k);
+            Arrays.fill(p.children, null);
+            for (int j = 0; j < half; j++)
+                setKey(p, j, ks[j]);
+            System.arraycopy(cs, 0, p.children, 0, half + 1);
+            p.size = half;
+            for (int j = half + 1; j <= k; j++)
+                setKey(q, j - half - 1, ks[j]);
+            System.arraycopy(cs, half + 1, q.children, 0, k + 1 - half);
+            q.size = k - half;
+            sep = ks[half];
+            child = q;
+        }
+        Inner newRoot = new Inner(longKeys);
+        setKey(newRoot, 0, sep);
+        newRoot.children[0] = root;
+        newRoot.children[1] = child;
+        newRoot.size = 1;
+        root = newRoot;
+        height = h + 1;
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int i;
+        if (l == null || (i = search(l, key)) < 0)
+            return null;
+        V old = (V)l.values[i];
+        removeAt(l, i, key);
+        return old;
+    }
+
+    /**
+     * Removes the mapping for the specified {@code long} key from this map
+     * if present, without boxing the key if the map holds unboxed keys.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws ClassCastException if the keys of this map cannot be compared
+     *         with a {@code Long}
+     */
+    @SuppressWarnings("unchecked")
+    public V removeByLong(long key) {
+        if (!longKeys)
+            return remove(Long.valueOf(key));
+        Leaf l = findLeaf(key);
+        int i;
+        if (l == null || (i = search(l, key)) < 0)
+            return null;
+        V old = (V)l.values[i];
+        removeAt(l, i, null);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int i;
+        if (l == null || (i = search(l, key)) < 0 ||
+            !Objects.equals(l.values[i], value))
+            return false;
+        removeAt(l, i, key);
+        return true;
+    }
+
+    /**
+     * Removes the mapping at index i of leaf l, whose key is key (or
+     * null to fetch it when needed), rebalancing if the leaf underflows.
+     */
+    private void removeAt(Leaf l, int i, Object key) {
+        ++modCount;
+        if (--size == 0) {
+            root = head = tail = null;
+            height = 0;
+            return;
+        }
+        if (l.size > MIN_LEAF || l == root) {
+            deleteSlot(l, i);
+            return;
+        }
+        if (key == null)
+            key = key(l, i);
+        deleteSlot(l, i);
+        rebalance(key);
+    }
+
+    /** Removes the mapping at index i of leaf l. */
+    private static void deleteSlot(Leaf l, int i) {
+        int n = l.size - 1;
+        Node.copyKeys(l, i + 1, l, i, n - i);
+        System.arraycopy(l.values, i + 1, l.values, i, n - i);
+        l.clearKeys(n, n + 1);
+        l.values[n] = null;
+        l.size = n;
+    }
+
+    /** Removes the key at index k and the child at index c of inner p. */
+    private static void deleteSlot(Inner p, int k, int c) {
+        int n = p.size;
+        Node.copyKeys(p, k + 1, p, k, n - 1 - k);
+        System.arraycopy(p.children, c + 1, p.children, c, n - c);
+        p.clearKeys(n - 1, n);
+        p.children[n] = null;
+        p.size = n - 1;
+    }
+
+    /**
+     * Restores the minimum occupancy of the nodes on the path to the leaf
+     * for key, which has just lost a mapping, by moving mappings from or
+     * merging with a sibling, and so on upwards.
+     */
+    private void rebalance(Object key) {
+        int h = height;
+        Inner[] path = new Inner[h];
+        int[] index = new int[h];
+        Node n = root;
+        for (int d = 0; d < h; d++) {
+            Inner in = (Inner)n;
+            int c = childIndex(in, key);
+            path[d] = in;
+            index[d] = c;
+            n = in.children[c];
+        }
+        for (int d = h - 1; d >= 0; d--) {
+            Inner p = path[d];
+            int c = index[d];
+            Node node = p.children[c];
+            if (p.size == 0)        // no siblings; rebalance p instead
+                continue;
+            if (node instanceof Leaf) {
+                if (node.size >= MIN_LEAF)
+                    return;
+                rebalanceLeaf(p, c, (Leaf)node);
+            } else {
+                if (node.size >= MIN_INNER_KEYS)
+                    return;
+                rebalanceInner(p, c, (Inner)node);
+            }
+        }
+        if (root.size == 0 && height > 0) {
+            root = ((Inner)root).children[0];
+            height--;
+        }
+    }
+
+    private void rebalanceLeaf(Inner p, int c, Leaf l) {
+        Leaf left = (c > 0) ? (Leaf)p.children[c - 1] : null;
+        Leaf right = (c < p.size) ? (Leaf)p.children[c + 1] : null;
+        if (left != null && left.size > MIN_LEAF) {
+            int last = left.size - 1;
+            openSlot(l, 0);
+            Node.copyKeys(left, last, l, 0, 1);
+            l.values[0] = left.values[last];
+            deleteSlot(left, last);
+            Node.copyKeys(l, 0, p, c - 1, 1);
+        } else if (right != null && right.size > MIN_LEAF) {
+            int n = l.size;
+            openSlot(l, n);
+            Node.copyKeys(right, 0, l, n, 1);
+            l.values[n] = right.values[0];
+            deleteSlot(right, 0);
+            Node.copyKeys(right, 0, p, c, 1);
+        } else if (left != null) {
+            mergeLeaves(left, l);
+            deleteSlot(p, c - 1, c);
+        } else {
+            mergeLeaves(l, right);
+            deleteSlot(p, c, c + 1);
+        }
+    }
+
+    /** Appends the mappings of r to l and unlinks r. */
+    private void mergeLeaves(Leaf l, Leaf r) {
+        int n = l.size, m = r.size;
+        Node.copyKeys(r, 0, l, n, m);
+        System.arraycopy(r.values, 0, l.values, n, m);
+        l.size = n + m;
+        if ((l.next = r.next) != null)
+            l.next.prev = l;
+        else
+            tail = l;
+    }
+
+    private void rebalanceInner(Inner p, int c, Inner node) {
+        Inner left = (c > 0) ? (Inner)p.children[c - 1] : null;
+        Inner right = (c < p.size) ? (Inner)p.children[c + 1] : null;
+        int n = node.size;
+        if (left != null && left.size > MIN_INNER_KEYS) {
+            // rotate the last child of left through p
+            int ln = left.size;
+            Node.copyKeys(node, 0, node, 1, n);
+            System.arraycopy(node.children, 0, node.children, 1, n + 1);
+            Node.copyKeys(p, c - 1, node, 0, 1);
+            node.children[0] = left.children[ln];
+            node.size = n + 1;
+            Node.copyKeys(left, ln - 1, p, c - 1, 1);
+            left.clearKeys(ln - 1, ln);
+            left.children[ln] = null;
+            left.size = ln - 1;
+        } else if (right != null && right.size > MIN_INNER_KEYS) {
+            // rotate the first child of right through p
+            Node.copyKeys(p, c, node, n, 1);
+            node.children[n + 1] = right.children[0];
+            node.size = n + 1;
+            Node.copyKeys(right, 0, p, c, 1);
+            deleteSlot(right, 0, 0);
+        } else if (left != null) {
+            mergeInner(left, p, c - 1, node);
+            deleteSlot(p, c - 1, c);
+        } else {
+            mergeInner(node, p, c, right);
+            deleteSlot(p, c, c + 1);
+        }
+    }
+
+    /** Appends separator k of p and the keys and children of r to l. */
+    private static void mergeInner(Inner l, Inner p, int k, Inner r) {
+        int n = l.size, m = r.size;
+        Node.copyKeys(p, k, l, n, 1);
+        Node.copyKeys(r, 0, l, n + 1, m);
+        System.arraycopy(r.children, 0, l.children, n + 1, m + 1);
+        l.size = n + 1 + m;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        size = 0;
+        height = 0;
+        root = head = tail = null;
+    }
+
+    /**
+     * Returns a shallow copy of this {@code BTreeMap} instance. (The keys
+     * and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public Object clone() {
+        BTreeMap<?,?> clone;
+        try {
+            clone = (BTreeMap<?,?>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        clone.root = clone.head = clone.tail = null;
+        clone.size = 0;
+        clone.height = 0;
+        clone.modCount = 0;
+        clone.keySetView = null;
+        clone.entrySetView = null;
+        clone.valuesView = null;
+        clone.descendingMapView = null;
+        clone.appendAll(this);
+        return clone;
+    }
+
+    /**
+     * Adds the mappings of m in ascending key order.  Each is appended to
+     * the last leaf, so the leaves are filled.
+     */
+    @SuppressWarnings("unchecked")
+    private void appendAll(BTreeMap<?,?> m) {
+        for (Leaf l = m.head; l != null; l = l.next)
+            for (int i = 0; i < l.size; i++)
+                doPut((K)m.key(l, i), (V)l.values[i], false);
+    }
+
+    // NavigableMap API methods
+
+    public Map.Entry<K,V> firstEntry() {
+        Cursor c = new Cursor();
+        seekFirst(c);
+        return exportEntry(c);
+    }
+
+    public Map.Entry<K,V> lastEntry() {
+        Cursor c = new Cursor();
+        seekLast(c);
+        return exportEntry(c);
+    }
+
+    public Map.Entry<K,V> pollFirstEntry() {
+        Cursor c = new Cursor();
+        seekFirst(c);
+        Map.Entry<K,V> e = exportEntry(c);
+        if (e != null)
+            removeAt(c.leaf, c.index, null);
+        return e;
+    }
+
+    public Map.Entry<K,V> pollLastEntry() {
+        Cursor c = new Cursor();
+        seekLast(c);
+        Map.Entry<K,V> e = exportEntry(c);
+        if (e != null)
+            removeAt(c.leaf, c.index, null);
+        return e;
+    }
+
+    final Map.Entry<K,V> nearEntry(K key, int rel) {
+        if (key == null)
+            throw new NullPointerException();
+        Cursor c = new Cursor();
+        seek(key, rel, c);
+        return exportEntry(c);
+    }
+
+    final K nearKey(K key, int rel) {
+        if (key == null)
+            throw new NullPointerException();
+        Cursor c = new Cursor();
+        return seek(key, rel, c) ? key(c.leaf, c.index) : null;
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return nearEntry(key, LT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K lowerKey(K key) {
+        return nearKey(key, LT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return nearEntry(key, LT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K floorKey(K key) {
+        return nearKey(key, LT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return nearEntry(key, GT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K ceilingKey(K key) {
+        return nearKey(key, GT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return nearEntry(key, GT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K higherKey(K key) {
+        return nearKey(key, GT);
+    }
+
+    // Views
+
+    /**
+     * Returns a {@link NavigableSet} view of the keys contained in this map.
+     * The set's iterator returns the keys in ascending order.  The set is
+     * backed by the map, so changes to the map are reflected in the set,
+     * and vice-versa.  The set supports element removal, but not the
+     * {@code add} or {@code addAll} operations.
+     */
+    public NavigableSet<K> keySet() {
+        return navigableKeySet();
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> ks = keySetView;
+        return (ks != null) ? ks : (keySetView = new KeySet<>(this));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * The collection's iterator returns the values in ascending order of
+     * the corresponding keys.  The collection is backed by the map, and
+     * supports element removal, but not the {@code add} or {@code addAll}
+     * operations.
+     */
+    public Collection<V> values() {
+        Values<V> vs = valuesView;
+        return (vs != null) ? vs : (valuesView = new Values<>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set's iterator returns the entries in ascending key order.  The
+     * set is backed by the map, and supports element removal, but not the
+     * {@code add} or {@code addAll} operations.
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySetView;
+        return (es != null) ? es : (entrySetView = new EntrySet<>(this));
+    }
+
+    public NavigableMap<K, V> descendingMap() {
+        SubMap<K,V> km = descendingMapView;
+        return (km != null) ? km :
+            (descendingMapView = new SubMap<>(this, null, false, null, false, true));
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                    K toKey,   boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, fromKey, inclusive, null, false, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                action.accept(key(l, i), (V)l.values[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                l.values[i] = function.apply(key(l, i), (V)l.values[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(null, false, null, false, false);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator(null, false, null, false, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator(null, false, null, false, false);
+    }
+
+    Spliterator<K> keySpliterator() {
+        return new KeySpliterator(null, false, null, false);
+    }
+
+    Spliterator<V> valueSpliterator() {
+        return new ValueSpliterator(null, false, null, false);
+    }
+
+    Spliterator<Map.Entry<K,V>> entrySpliterator() {
+        return new EntrySpliterator(null, false, null, false);
+    }
+
+    // View classes
+
+    static final class KeySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+        private final NavigableMap<E,?> m;
+        KeySet(NavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public boolean remove(Object o) {
+            if (!m.containsKey(o))
+                return false;
+            m.remove(o);
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,Object>)m).keyIterator();
+            else
+                return ((SubMap<E,Object>)m).keyIterator();
+        }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<>(m.subMap(fromElement, fromInclusive,
+                                         toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<>(m.tailMap(fromElement, inclusive));
+        }
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<>(m.descendingMap());
+        }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,Object>)m).keySpliterator();
+            else
+                return ((SubMap<E,Object>)m).keySpliterator();
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        private final NavigableMap<?,E> m;
+        Values(NavigableMap<?,E> map) { m = map; }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<Object,E>)m).valueIterator();
+            else
+                return ((SubMap<Object,E>)m).valueIterator();
+        }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsValue(o); }
+        public void clear() { m.clear(); }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<Object,E>)m).valueSpliterator();
+            else
+                return ((SubMap<Object,E>)m).valueSpliterator();
+        }
+    }
+
+    static final class EntrySet<K,V> extends AbstractSet<Map.Entry<K,V>> {
+        private final NavigableMap<K,V> m;
+        EntrySet(NavigableMap<K,V> map) { m = map; }
+        public Iterator<Map.Entry<K,V>> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K,V>)m).entryIterator();
+            else
+                return ((SubMap<K,V>)m).entryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey();
+            if (key == null || !m.containsKey(key))
+                return false;
+            return Objects.equals(m.get(key), e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey();
+            return key != null && m.remove(key, e.getValue());
+        }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public void clear() { m.clear(); }
+        public Spliterator<Map.Entry<K,V>> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K,V>)m).entrySpliterator();
+            else
+                return ((SubMap<K,V>)m).entrySpliterator();
+        }
+    }
+
+    /**
+     * An entry returned by the entry set iterators, whose setValue
+     * writes through to the map.
+     */
+    final class IteratorEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = -1437245271869231853L;
+
+        IteratorEntry(K key, V value) {
+            super(key, value);
+        }
+
+        public V setValue(V value) {
+            K key = getKey();
+            Leaf l = findLeaf(key);
+            int i;
+            if (l == null || (i = search(l, key)) < 0)
+                throw new IllegalStateException();
+            l.values[i] = value;
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Submaps returned by BTreeMap submap operations represent a subrange
+     * of mappings of their underlying maps.  Instances of this class
+     * support all methods of their underlying maps, differing in that
+     * mappings outside their range are ignored, and attempts to add
+     * mappings outside their ranges result in {@link
+     * IllegalArgumentException}.  Instances of this class are constructed
+     * only using the {@code subMap}, {@code headMap}, and {@code tailMap}
+     * methods of their underlying maps.
+     *
+     * @serial include
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements NavigableMap<K,V>, Serializable {
+        private static final long serialVersionUID = 3276405939728215426L;
+
+        /** Underlying map */
+        private final BTreeMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        /**
+         * Creates a new submap, initializing all fields.
+         */
+        SubMap(BTreeMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            if (fromKey != null && toKey != null &&
+                map.compare(fromKey, toKey) > 0)
+                throw new IllegalArgumentException("inconsistent range");
+            if (fromKey != null && toKey == null)
+                map.compare(fromKey, fromKey); // type check
+            if (toKey != null && fromKey == null)
+                map.compare(toKey, toKey);
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key) {
+            int c;
+            return (lo != null && ((c = m.compare(key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key) {
+            int c;
+            return (hi != null && ((c = m.compare(key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        void checkKeyBounds(K key) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /**
+         * Positions c at the lowest mapping in range, returning false,
+         * with c cleared, if there is none.
+         */
+        boolean seekLowest(Cursor c) {
+            if (m.seekLow(lo, loInclusive, c) && !tooHigh(m.key(c.leaf, c.index)))
+                return true;
+            c.leaf = null;
+            return false;
+        }
+
+        /**
+         * Positions c at the highest mapping in range, returning false,
+         * with c cleared, if there is none.
+         */
+        boolean seekHighest(Cursor c) {
+            if (m.seekHigh(hi, hiInclusive, c) && !tooLow(m.key(c.leaf, c.index)))
+                return true;
+            c.leaf = null;
+            return false;
+        }
+
+        K lowestKey() {
+            Cursor c = new Cursor();
+            if (!seekLowest(c))
+                throw new NoSuchElementException();
+            return m.key(c.leaf, c.index);
+        }
+
+        K highestKey() {
+            Cursor c = new Cursor();
+            if (!seekHighest(c))
+                throw new NoSuchElementException();
+            return m.key(c.leaf, c.index);
+        }
+
+        Map.Entry<K,V> lowestEntry() {
+            Cursor c = new Cursor();
+            seekLowest(c);
+            return m.exportEntry(c);
+        }
+
+        Map.Entry<K,V> highestEntry() {
+            Cursor c = new Cursor();
+            seekHighest(c);
+            return m.exportEntry(c);
+        }
+
+        Map.Entry<K,V> removeLowest() {
+            Cursor c = new Cursor();
+            seekLowest(c);
+            Map.Entry<K,V> e = m.exportEntry(c);
+            if (e != null)
+                m.removeAt(c.leaf, c.index, null);
+            return e;
+        }
+
+        Map.Entry<K,V> removeHighest() {
+            Cursor c = new Cursor();
+            seekHighest(c);
+            Map.Entry<K,V> e = m.exportEntry(c);
+            if (e != null)
+                m.removeAt(c.leaf, c.index, null);
+            return e;
+        }
+
+        /**
+         * Submap version of BTreeMap.nearEntry
+         */
+        Map.Entry<K,V> getNearEntry(K key, int rel) {
+            if (key == null)
+                throw new NullPointerException();
+            if (isDescending) { // adjust relation for direction
+                if ((rel & LT) == 0)
+                    rel |= LT;
+                else
+                    rel &= ~LT;
+            }
+            if (tooLow(key))
+                return ((rel & LT) != 0) ? null : lowestEntry();
+            if (tooHigh(key))
+                return ((rel & LT) != 0) ? highestEntry() : null;
+            Cursor c = new Cursor();
+            if (!m.seek(key, rel, c) || !inBounds(m.key(c.leaf, c.index)))
+                return null;
+            return m.exportEntry(c);
+        }
+
+        K getNearKey(K key, int rel) {
+            Map.Entry<K,V> e = getNearEntry(key, rel);
+            return (e == null) ? null : e.getKey();
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key)) ? null : m.remove(key);
+        }
+
+        /**
+         * Returns the number of mappings in range, counting whole leaves
+         * between the end points.
+         */
+        public int size() {
+            Cursor c = new Cursor();
+            if (!seekLowest(c))
+                return 0;
+            Cursor f = new Cursor();
+            m.seekAbove(hi, hiInclusive, f);
+            return count(c.leaf, c.index, f.leaf, f.index);
+        }
+
+        public boolean isEmpty() {
+            return !seekLowest(new Cursor());
+        }
+
+        public boolean containsValue(Object value) {
+            for (V v : values())
+                if (Objects.equals(value, v))
+                    return true;
+            return false;
+        }
+
+        public void clear() {
+            while (removeLowest() != null)
+                ;
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            checkKeyBounds(key);
+            return m.putIfAbsent(key, value);
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key) && m.remove(key, value);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = m.compare(fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = m.compare(toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<>(m, fromKey, fromInclusive,
+                                toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<>(m, lo, loInclusive,
+                                hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return getNearEntry(key, GT|EQ);
+        }
+
+        public K ceilingKey(K key) {
+            return getNearKey(key, GT|EQ);
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return getNearEntry(key, LT);
+        }
+
+        public K lowerKey(K key) {
+            return getNearKey(key, LT);
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return getNearEntry(key, LT|EQ);
+        }
+
+        public K floorKey(K key) {
+            return getNearKey(key, LT|EQ);
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return getNearEntry(key, GT);
+        }
+
+        public K higherKey(K key) {
+            return getNearKey(key, GT);
+        }
+
+        public K firstKey() {
+            return isDescending ? highestKey() : lowestKey();
+        }
+
+        public K lastKey() {
+            return isDescending ? lowestKey() : highestKey();
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return isDescending ? highestEntry() : lowestEntry();
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return isDescending ? lowestEntry() : highestEntry();
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return isDescending ? removeHighest() : removeLowest();
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return isDescending ? removeLowest() : removeHighest();
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<>(this));
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            return keySet();
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return m.new KeyIterator(lo, loInclusive, hi, hiInclusive, isDescending);
+        }
+
+        Iterator<V> valueIterator() {
+            return m.new ValueIterator(lo, loInclusive, hi, hiInclusive, isDescending);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return m.new EntryIterator(lo, loInclusive, hi, hiInclusive, isDescending);
+        }
+
+        /*
+         * Ascending submaps split like the map itself.  Descending ones
+         * traverse their iterators sequentially.
+         */
+
+        Spliterator<K> keySpliterator() {
+            if (isDescending)
+                return Spliterators.spliterator(keySet(), Spliterator.DISTINCT |
+                                                Spliterator.ORDERED | Spliterator.NONNULL);
+            return m.new KeySpliterator(lo, loInclusive, hi, hiInclusive);
+        }
+
+        Spliterator<V> valueSpliterator() {
+            if (isDescending)
+                return Spliterators.spliterator(values(), Spliterator.ORDERED);
+            return m.new ValueSpliterator(lo, loInclusive, hi, hiInclusive);
+        }
+
+        Spliterator<Map.Entry<K,V>> entrySpliterator() {
+            if (isDescending)
+                return Spliterators.spliterator(entrySet(), Spliterator.DISTINCT |
+                                                Spliterator.ORDERED | Spliterator.NONNULL);
+            return m.new EntrySpliterator(lo, loInclusive, hi, hiInclusive);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            for (Map.Entry<K,V> e : entrySet())
+                action.accept(e.getKey(), e.getValue());
+        }
+    }
+
+    // Iterators
+
+    /**
+     * Base of iterators over a range of the map, in either direction.
+     * Null bounds are unbounded.  The fence is the first position past
+     * the range in the direction of iteration, so that traversal need
+     * only compare positions rather than keys.
+     */
+    abstract class Iter<T> implements Iterator<T> {
+        final Object lo, hi;
+        final boolean loInclusive, hiInclusive, descending;
+        final Cursor next = new Cursor();
+        final Cursor fence = new Cursor();
+        Leaf lastLeaf;      // position of the last returned mapping
+        int lastIndex;
+        int expectedModCount;
+
+        Iter(Object lo, boolean loInclusive, Object hi, boolean hiInclusive,
+             boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            position(null);
+        }
+
+        /**
+         * Positions next at the start of the range, or just past the key
+         * from if it is not null, and recomputes the fence.
+         */
+        final void position(Object from) {
+            expectedModCount = modCount;
+            if (descending) {
+                seekBelow(lo, loInclusive, fence);
+                if (from != null)
+                    seek(from, LT, next);
+                else
+                    seekHigh(hi, hiInclusive, next);
+            } else {
+                seekAbove(hi, hiInclusive, fence);
+                if (from != null)
+                    seek(from, GT, next);
+                else
+                    seekLow(lo, loInclusive, next);
+            }
+            if (next.leaf != null && atOrPast(next, fence, descending))
+                next.leaf = null;
+        }
+
+        public final boolean hasNext() {
+            return next.leaf != null;
+        }
+
+        /** Advances, leaving the position of the returned mapping in last. */
+        final void advance() {
+            if (next.leaf == null)
+                throw new NoSuchElementException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            lastLeaf = next.leaf;
+            lastIndex = next.index;
+            if (descending)
+                next.prev();
+            else
+                next.next();
+            if (next.leaf != null && next.at(fence.leaf, fence.index))
+                next.leaf = null;
+        }
+
+        public final void remove() {
+            if (lastLeaf == null)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            K key = key(lastLeaf, lastIndex);
+            removeAt(lastLeaf, lastIndex, key);
+            lastLeaf = null;
+            position(key);
+        }
+    }
+
+    final class KeyIterator extends Iter<K> {
+        KeyIterator(Object lo, boolean loInclusive, Object hi, boolean hiInclusive,
+                    boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public K next() {
+            advance();
+            return key(lastLeaf, lastIndex);
+        }
+    }
+
+    final class ValueIterator extends Iter<V> {
+        ValueIterator(Object lo, boolean loInclusive, Object hi, boolean hiInclusive,
+                      boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public V next() {
+            advance();
+            return (V)lastLeaf.values[lastIndex];
+        }
+    }
+
+    final class EntryIterator extends Iter<Map.Entry<K,V>> {
+        EntryIterator(Object lo, boolean loInclusive, Object hi, boolean hiInclusive,
+                      boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            advance();
+            return new IteratorEntry(key(lastLeaf, lastIndex),
+                                     (V)lastLeaf.values[lastIndex]);
+        }
+    }
+
+    // Spliterators
+
+    /**
+     * Base of spliterators over an ascending range of the map, from the
+     * current position up to the fence position.  Positions are bound
+     * on first use.
+     *
+     * To split, we descend from the root to the highest node whose
+     * children divide the remaining range, and split at the first
+     * mapping of the middle such child, or in the middle of the range
+     * if it lies within one leaf.  Since all leaves are at the same
+     * depth and at least half full, the parts are close in size, and the
+     * estimate is divided in proportion to the number of children on
+     * either side.
+     */
+    abstract class BTreeSpliterator {
+        final Object lo, hi;            // bounds, for binding
+        final boolean loInclusive, hiInclusive;
+        final Cursor current = new Cursor();
+        final Cursor fence = new Cursor();  // null leaf for end of map
+        long est;                       // size estimate; -1 until bound
+        boolean exact;                  // true if est is exact
+        int expectedModCount;
+
+        BTreeSpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.est = -1;
+        }
+
+        /** Creates the prefix split off from s, which is bound. */
+        BTreeSpliterator(BTreeSpliterator s, Leaf l, int i, long est) {
+            this(null, false, null, false);
+            current.leaf = l;
+            current.index = i;
+            fence.leaf = s.current.leaf;
+            fence.index = s.current.index;
+            this.est = est;
+            this.exact = s.exact;
+            this.expectedModCount = s.expectedModCount;
+        }
+
+        final void bind() {
+            if (est < 0) {
+                expectedModCount = modCount;
+                seekAbove(hi, hiInclusive, fence);
+                seekLow(lo, loInclusive, current);
+                if (current.leaf != null && atOrPast(current, fence, false))
+                    current.leaf = null;
+                est = (current.leaf == null) ? 0 :
+                    (lo == null && hi == null) ? size :
+                    count(current.leaf, current.index, fence.leaf, fence.index);
+                exact = true;
+            }
+        }
+
+        public final long estimateSize() {
+            bind();
+            return est;
+        }
+
+        /**
+         * Moves the current position to a split point, returning the
+         * estimated size of the part before it, or -1 if the range is too
+         * small to split.  The caller records the old position first.
+         */
+        final long splitAt() {
+            bind();
+            Leaf l = current.leaf;
+            if (l == null)
+                return -1L;
+            Leaf fl = fence.leaf;
+            int fi = fence.index;
+            Object ck = key(l, current.index);
+            Object fk = (fl == null) ? null : key(fl, fi);
+            boolean fenceBelow = fk != null; // fence is in the current subtree
+            Node n = root;
+            for (int h = height; h > 0; h--) {
+                Inner in = (Inner)n;
+                int ci = childIndex(in, ck);
+                int cj = in.size;
+                if (fenceBelow) {
+                    cj = childIndex(in, fk);
+                    if (cj > ci && fi == 0 &&
+                        leftmostLeaf(in.children[cj], h - 1) == fl) {
+                        cj--;         // the range ends with child cj - 1
+                        fenceBelow = false;
+                    }
+                }
+                if (cj > ci) {
+                    int mid = (ci + cj + 1) >>> 1;
+                    long n1 = est * (mid - ci) / (cj - ci + 1);
+                    current.leaf = leftmostLeaf(in.children[mid], h - 1);
+                    current.index = 0;
+                    est -= n1;
+                    exact = false;
+                    return n1;
+                }
+                n = in.children[ci];
+            }
+            int lo = current.index, hi = (l == fl) ? fi : l.size;
+            if (hi - lo < 2)
+                return -1L;
+            int mid = (lo + hi) >>> 1;
+            current.index = mid;
+            if (exact)
+                est -= mid - lo;
+            else
+                est = Math.max(est - (mid - lo), hi - mid);
+            return mid - lo;
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        /** Returns the fence index within leaf l. */
+        final int end(Leaf l) {
+            return (l == fence.leaf) ? fence.index : l.size;
+        }
+    }
+
+    final class KeySpliterator extends BTreeSpliterator
+        implements Spliterator<K> {
+        KeySpliterator(Object lo, boolean loInclusive,
+                       Object hi, boolean hiInclusive) {
+            super(lo, loInclusive, hi, hiInclusive);
+        }
+
+        KeySpliterator(BTreeSpliterator s, Leaf l, int i, long est) {
+            super(s, l, i, est);
+        }
+
+        public KeySpliterator trySplit() {
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            long n1 = splitAt();
+            return (n1 < 0) ? null : new KeySpliterator(this, l, i, n1);
+        }
+
+        public void forEachRemaining(Consumer<? super K> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            current.leaf = null;
+            for (; l != null; l = l.next, i = 0) {
+                for (int end = end(l); i < end; i++)
+                    action.accept(key(l, i));
+                if (l == fence.leaf)
+                    break;
+            }
+            checkForComodification();
+        }
+
+        public boolean tryAdvance(Consumer<? super K> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            if (l == null)
+                return false;
+            int i = current.index;
+            current.next();
+            if (current.leaf != null && current.at(fence.leaf, fence.index))
+                current.leaf = null;
+            action.accept(key(l, i));
+            checkForComodification();
+            return true;
+        }
+
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT | Spliterator.SORTED |
+                Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+
+        public final Comparator<? super K> getComparator() {
+            return comparator;
+        }
+    }
+
+    final class ValueSpliterator extends BTreeSpliterator
+        implements Spliterator<V> {
+        ValueSpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive) {
+            super(lo, loInclusive, hi, hiInclusive);
+        }
+
+        ValueSpliterator(BTreeSpliterator s, Leaf l, int i, long est) {
+            super(s, l, i, est);
+        }
+
+        public ValueSpliterator trySplit() {
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            long n1 = splitAt();
+            return (n1 < 0) ? null : new ValueSpliterator(this, l, i, n1);
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            current.leaf = null;
+            for (; l != null; l = l.next, i = 0) {
+                Object[] vs = l.values;
+                for (int end = end(l); i < end; i++)
+                    action.accept((V)vs[i]);
+                if (l == fence.leaf)
+                    break;
+            }
+            checkForComodification();
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            if (l == null)
+                return false;
+            int i = current.index;
+            current.next();
+            if (current.leaf != null && current.at(fence.leaf, fence.index))
+                current.leaf = null;
+            action.accept((V)l.values[i]);
+            checkForComodification();
+            return true;
+        }
+
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) | Spliterator.ORDERED;
+        }
+    }
+
+    final class EntrySpliterator extends BTreeSpliterator
+        implements Spliterator<Map.Entry<K,V>> {
+        EntrySpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive) {
+            super(lo, loInclusive, hi, hiInclusive);
+        }
+
+        EntrySpliterator(BTreeSpliterator s, Leaf l, int i, long est) {
+            super(s, l, i, est);
+        }
+
+        public EntrySpliterator trySplit() {
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            long n1 = splitAt();
+            return (n1 < 0) ? null : new EntrySpliterator(this, l, i, n1);
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super Map.Entry<K,V>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            int i = current.index;
+            current.leaf = null;
+            for (; l != null; l = l.next, i = 0) {
+                for (int end = end(l); i < end; i++)
+                    action.accept(new AbstractMap.SimpleImmutableEntry<>(
+                                      key(l, i), (V)l.values[i]));
+                if (l == fence.leaf)
+                    break;
+            }
+            checkForComodification();
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Map.Entry<K,V>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            bind();
+            Leaf l = current.leaf;
+            if (l == null)
+                return false;
+            int i = current.index;
+            current.next();
+            if (current.leaf != null && current.at(fence.leaf, fence.index))
+                current.leaf = null;
+            action.accept(new AbstractMap.SimpleImmutableEntry<>(
+                              key(l, i), (V)l.values[i]));
+            checkForComodification();
+            return true;
+        }
+
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT | Spliterator.SORTED |
+                Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<Map.Entry<K,V>> getComparator() {
+            // Adapt or create a key-based comparator
+            if (comparator != null) {
+                return Map.Entry.comparingByKey(comparator);
+            }
+            else {
+                return (Comparator<Map.Entry<K,V>> & Serializable) (e1, e2) -> {
+                    @SuppressWarnings("unchecked")
+                    Comparable<? super K> k1 = (Comparable<? super K>) e1.getKey();
+                    return k1.compareTo(e2.getKey());
+                };
+            }
+        }
+    }
+
+    // Serialization
+
+    /**
+     * Save the state of the {@code BTreeMap} instance to a stream (i.e.,
+     * serialize it).
+     *
+     * @serialData The <em>size</em> of the BTreeMap (the number of key-value
+     *             mappings) is emitted (int), followed by the key (Object)
+     *             and value (Object) for each key-value mapping represented
+     *             by the BTreeMap. The key-value mappings are emitted in
+     *             key-order (as determined by the BTreeMap's Comparator,
+     *             or by the keys' natural ordering if the BTreeMap has no
+     *             Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out size (number of Mappings)
+        s.writeInt(size);
+
+        // Write out keys and values (alternating)
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                s.writeObject(key(l, i));
+                s.writeObject(l.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code BTreeMap} instance from a stream (i.e.,
+     * deserialize it).  The mappings are appended in order, filling the
+     * leaves.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator and any hidden stuff
+        s.defaultReadObject();
+
+        // Read in size and mappings
+        int n = s.readInt();
+        for (int i = 0; i < n; i++)
+            doPut((K)s.readObject(), (V)s.readObject(), false);
+    }
+}
@@ -0,0 +1,1163 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Chunked-array implementation of the {@code List} and {@code Deque}
+ * interfaces.  Implements all optional list operations, and permits all
+ * elements, including {@code null}.
+ *
+ * <p>The elements are stored in fixed-size arrays, or <i>chunks</i>, of
+ * 1024 elements, indexed by a directory of chunks.  Unlike an
+ * {@link ArrayList}, a {@code ChunkedArrayList} never copies its
+ * elements to grow: it adds chunks, copying only the directory, which
+ * is a thousandth the size.  There is room to grow at both ends, so
+ * that, as with an {@link ArrayDeque}, inserting or removing an element
+ * at either end takes amortized constant time, and an insertion or
+ * removal at an index moves the elements on the nearer side of it,
+ * which are at most half of them.  The {@code size}, {@code get},
+ * {@code set}, {@code iterator}, and {@code listIterator} operations
+ * run in constant time; {@code get} and {@code set} need one more
+ * memory access than those of {@code ArrayList}.
+ *
+ * <p>The list holds at least one chunk once it has more elements than
+ * a small initial array, and releases chunks as elements are removed
+ * from either end.  It is therefore suited to lists that become large,
+ * where it avoids the copying of an {@code ArrayList} when it grows,
+ * and to queues that are also accessed by index.
+ *
+ * <p>The {@link #spliterator() spliterator} splits at chunk boundaries,
+ * so that the parts of a parallel traversal each read whole chunks.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a {@code ChunkedArrayList} instance
+ * concurrently, and at least one of the threads modifies the list
+ * structurally, it <i>must</i> be synchronized externally.
+ *
+ * <p>The iterators returned by this class's {@link #iterator() iterator}
+ * and {@link #listIterator(int) listIterator} methods are <i>fail-fast</i>:
+ * if the list is structurally modified at any time after the iterator is
+ * created, in any way except through the iterator's own
+ * {@link ListIterator#remove() remove} or
+ * {@link ListIterator#add(Object) add} methods, the iterator will throw a
+ * {@link ConcurrentModificationException}.  Note that the fail-fast
+ * behavior of an iterator cannot be guaranteed; fail-fast iterators throw
+ * {@code ConcurrentModificationException} on a best-effort basis.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <E> the type of elements in this list
+ * @see     ArrayList
+ * @see     ArrayDeque
+ * @since   1.8
+ */
+public class ChunkedArrayList<E> extends AbstractList<E>
+        implements List<E>, Deque<E>, RandomAccess, Cloneable, java.io.Serializable
+{
+    private static final long serialVersionUID = 2981627035549314470L;
+
+    /*
+     * Elements are addressed by their position in the concatenation of
+     * the chunks in use: element i is at position offset + i, in chunk
+     * (offset + i) >>> CHUNK_SHIFT of the directory, counting from head.
+     * Chunks are full-size except while the list has a single chunk,
+     * which then grows by copying until it reaches CHUNK_SIZE, so that
+     * small lists stay small.  offset is always less than CHUNK_SIZE,
+     * and exactly the chunks holding positions offset to offset + size
+     * are kept, but at least one.  Unused slots are null.
+     *
+     * Insertions and removals open or close a gap by moving the
+     * elements on the shorter side of it toward or away from the gap,
+     * as in a gap buffer, adding chunks at either end as needed.
+     */
+
+    /** log2 of the number of elements in a chunk. */
+    static final int CHUNK_SHIFT = 10;
+
+    /** The number of elements in a full chunk. */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /** Mask for the index of a position within its chunk. */
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** The initial length of the first chunk. */
+    private static final int INITIAL_CAPACITY = 10;
+
+    /**
+     * The maximum size of list.  Positions must not overflow.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 2 * CHUNK_SIZE;
+
+    /** The directory of chunks; chunks[head] is the first one in use. */
+    transient Object[][] chunks; // non-private to simplify nested class access
+
+    /** The index in the directory of the first chunk. */
+    transient int head;
+
+    /** The number of chunks in use. */
+    transient int count;
+
+    /** The position of the first element in the first chunk. */
+    transient int offset;
+
+    /** The number of elements in the list. */
+    transient int size;
+
+    /** A released chunk kept for reuse, or null. */
+    private transient Object[] spare;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ChunkedArrayList() {
+        chunks = new Object[][] { new Object[INITIAL_CAPACITY] };
+        count = 1;
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified
+     * collection, in the order they are returned by the collection's
+     * iterator.
+     *
+     * @param c the collection whose elements are to be placed into this list
+     * @throws NullPointerException if the specified collection is null
+     */
+    public ChunkedArrayList(Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    // Positions
+
+    @SuppressWarnings("unchecked")
+    final E elementAt(int p) {
+        return (E) chunks[head + (p >>> CHUNK_SHIFT)][p & CHUNK_MASK];
+    }
+
+    private void setAt(int p, Object e) {
+        chunks[head + (p >>> CHUNK_SHIFT)][p & CHUNK_MASK] = e;
+    }
+
+    /**
+     * Moves len elements from position from to position to, which may
+     * overlap, a run within a pair of chunks at a time.
+     */
+    private void move(int from, int to, int len) {
+        if (len <= 0 || from == to)
+            return;
+        Object[][] cs = chunks;
+        int h = head;
+        if (to < from) {
+            while (len > 0) {
+                int fo = from & CHUNK_MASK, to0 = to & CHUNK_MASK;
+                int n = Math.min(len, CHUNK_SIZE - Math.max(fo, to0));
+                System.arraycopy(cs[h + (from >>> CHUNK_SHIFT)], fo,
+                                 cs[h + (to >>> CHUNK_SHIFT)], to0, n);
+                from += n;
+                to += n;
+                len -= n;
+            }
+        } else {
+            int fe = from + len, te = to + len;
+            while (len > 0) {
+                // copy backwards, ending at the ends of the ranges
+                int fo = ((fe - 1) & CHUNK_MASK) + 1, to0 = ((te - 1) & CHUNK_MASK) + 1;
+                int n = Math.min(len, Math.min(fo, to0));
+                System.arraycopy(cs[h + ((fe - 1) >>> CHUNK_SHIFT)], fo - n,
+                                 cs[h + ((te - 1) >>> CHUNK_SHIFT)], to0 - n, n);
+                fe -= n;
+                te -= n;
+                len -= n;
+            }
+        }
+    }
+
+    /**
+     * Sets the slots from position from to position to (exclusive) to null.
+     */
+    private void nullOut(int from, int to) {
+        while (from < to) {
+            int n = Math.min(to - from, CHUNK_SIZE - (from & CHUNK_MASK));
+            Arrays.fill(chunks[head + (from >>> CHUNK_SHIFT)],
+                        from & CHUNK_MASK, (from & CHUNK_MASK) + n, null);
+            from += n;
+        }
+    }
+
+    // Chunks
+
+    /** Returns true if the list is a single chunk shorter than CHUNK_SIZE. */
+    private boolean isSmall() {
+        return count == 1 && chunks[head].length < CHUNK_SIZE;
+    }
+
+    private Object[] newChunk() {
+        Object[] c = spare;
+        if (c == null)
+            return new Object[CHUNK_SIZE];
+        spare = null;
+        return c;
+    }
+
+    /**
+     * Makes room in the directory for a chunk at either end by
+     * recentering the chunks in use, growing the directory unless it
+     * is at most half full, as when the list is used as a queue.
+     */
+    private void growDirectory() {
+        Object[][] cs = chunks;
+        int n = count;
+        Object[][] d = (2 * n < cs.length) ? cs : new Object[Math.max(2 * n, 4)][];
+        int h = (d.length - n) >>> 1;
+        System.arraycopy(cs, head, d, h, n);
+        if (d == cs)
+            Arrays.fill(d, (h < head) ? h + n : head,
+                        (h < head) ? head + n : h, null);
+        chunks = d;
+        head = h;
+    }
+
+    /**
+     * Ensures room for k more elements after the last, allocating chunks.
+     */
+    private void ensureBack(int k) {
+        long need = (long)offset + size + k;
+        if (size + (long)k > MAX_SIZE)
+            throw new OutOfMemoryError("Required list size too large");
+        if (isSmall()) {
+            Object[] c = chunks[head];
+            if (need <= c.length)
+                return;
+            int len = (int)Math.min(Math.max(2L * c.length, need), CHUNK_SIZE);
+            chunks[head] = Arrays.copyOf(c, len);
+            if (need <= len)
+                return;
+        }
+        int needed = (int)((need - 1) >>> CHUNK_SHIFT) + 1;
+        while (count < needed) {
+            if (head + count == chunks.length)
+                growDirectory();
+            chunks[head + count++] = newChunk();
+        }
+    }
+
+    /**
+     * Ensures room for k more elements before the first, allocating
+     * chunks, and adjusting offset for those added.
+     */
+    private void ensureFront(int k) {
+        if (offset >= k)
+            return;
+        if (size + (long)k > MAX_SIZE)
+            throw new OutOfMemoryError("Required list size too large");
+        if (isSmall()) {
+            // Grow the chunk, moving the elements to the end of it
+            Object[] c = chunks[head];
+            int len = (int)Math.min(Math.max(2L * c.length,
+                                             (long)c.length + k - offset),
+                                    CHUNK_SIZE);
+            Object[] a = new Object[len];
+            System.arraycopy(c, offset, a, offset + len - c.length, size);
+            chunks[head] = a;
+            offset += len - c.length;
+            if (offset >= k)
+                return;
+        }
+        int added = (k - offset + CHUNK_MASK) >>> CHUNK_SHIFT;
+        for (int i = 0; i < added; i++) {
+            if (head == 0)
+                growDirectory();
+            chunks[--head] = newChunk();
+            count++;
+        }
+        offset += added << CHUNK_SHIFT;
+    }
+
+    /**
+     * Releases the chunks no longer holding elements at either end.
+     */
+    private void trim() {
+        if (isSmall())
+            return;
+        while (count > 1 && offset >= CHUNK_SIZE) {
+            spare = chunks[head];
+            chunks[head++] = null;
+            count--;
+            offset -= CHUNK_SIZE;
+        }
+        int needed = (size == 0) ? 1 : ((offset + size - 1) >>> CHUNK_SHIFT) + 1;
+        while (count > needed) {
+            spare = chunks[head + --count];
+            chunks[head + count] = null;
+        }
+    }
+
+    /**
+     * Opens a gap of k slots before index, moving the elements before
+     * or after it, whichever are fewer.  Returns the position of the
+     * gap.
+     */
+    private int openGap(int index, int k) {
+        modCount++;
+        if (index < size - index) {
+            ensureFront(k);
+            int p = offset;
+            move(p, p - k, index);
+            offset = p - k;
+        } else {
+            ensureBack(k);
+            int p = offset + index;
+            move(p, p + k, size - index);
+        }
+        size += k;
+        return offset + index;
+    }
+
+    /**
+     * Removes the k elements from index, moving the elements before or
+     * after them, whichever are fewer.
+     */
+    private void closeGap(int index, int k) {
+        modCount++;
+        int p = offset;
+        if (index < size - index - k) {
+            move(p, p + k, index);
+            nullOut(p, p + k);
+            offset = p + k;
+        } else {
+            move(p + index + k, p + index, size - index - k);
+            nullOut(p + size - k, p + size);
+        }
+        size -= k;
+        trim();
+    }
+
+    // List operations
+
+    private void rangeCheck(int index) {
+        if (index >= size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index > size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: "+index+", Size: "+size;
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this list contains no elements.
+     *
+     * @return {@code true} if this list contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param  index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E get(int index) {
+        rangeCheck(index);
+        return elementAt(offset + index);
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with
+     * the specified element.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E set(int index, E element) {
+        rangeCheck(index);
+        int p = offset + index;
+        E oldValue = elementAt(p);
+        setAt(p, element);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     *
+     * @param e element to be appended to this list
+     * @return {@code true} (as specified by {@link Collection#add})
+     */
+    public boolean add(E e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this
+     * list. Shifts the element currently at that position (if any) and
+     * any subsequent elements to the right (adds one to their indices).
+     * Only the elements before or after the position, whichever are
+     * fewer, are moved.
+     *
+     * @param index index at which the specified element is to be inserted
+     * @param element element to be inserted
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public void add(int index, E element) {
+        rangeCheckForAdd(index);
+        setAt(openGap(index, 1), element);
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * Shifts any subsequent elements to the left (subtracts one from their
+     * indices).  Only the elements before or after the position,
+     * whichever are fewer, are moved.
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    public E remove(int index) {
+        rangeCheck(index);
+        E oldValue = elementAt(offset + index);
+        closeGap(index, 1);
+        return oldValue;
+    }
+
+    /**
+     * Removes the first occurrence of the specified element from this list,
+     * if it is present.  If the list does not contain the element, it is
+     * unchanged.
+     *
+     * @param o element to be removed from this list, if present
+     * @return {@code true} if this list contained the specified element
+     */
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i < 0)
+            return false;
+        closeGap(i, 1);
+        return true;
+    }
+
+    /**
+     * Removes all of the elements from this list.  The list will
+     * be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        nullOut(offset, offset + size);
+        size = 0;
+        trim();
+        offset = isSmall() ? 0 : CHUNK_SIZE >>> 1;
+    }
+
+    /**
+     * Removes from this list all of the elements whose index is between
+     * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     *
+     * @throws IndexOutOfBoundsException if {@code fromIndex} or
+     *         {@code toIndex} is out of range
+     *         ({@code fromIndex < 0 ||
+     *          fromIndex >= size() ||
+     *          toIndex > size() ||
+     *          toIndex < fromIndex})
+     */
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || toIndex < fromIndex)
+            throw new IndexOutOfBoundsException();
+        if (fromIndex < toIndex)
+            closeGap(fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Appends all of the elements in the specified collection to the end of
+     * this list, in the order that they are returned by the
+     * specified collection's Iterator.
+     *
+     * @param c collection containing elements to be added to this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified collection is null
+     */
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Inserts all of the elements in the specified collection into this
+     * list, starting at the specified position.  Shifts the element
+     * currently at that position (if any) and any subsequent elements to
+     * the right (increases their indices), or, if there are fewer elements
+     * before it, moves those down.  The new elements will appear in the
+     * list in the order that they are returned by the specified
+     * collection's iterator.
+     *
+     * @param index index at which to insert the first element from the
+     *              specified collection
+     * @param c collection containing elements to be added to this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws NullPointerException if the specified collection is null
+     */
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+        Object[] a = c.toArray();
+        int n = a.length;
+        if (n == 0)
+            return false;
+        int p = openGap(index, n);
+        for (int i = 0; i < n; ) {
+            int k = Math.min(n - i, CHUNK_SIZE - (p & CHUNK_MASK));
+            System.arraycopy(a, i, chunks[head + (p >>> CHUNK_SHIFT)],
+                             p & CHUNK_MASK, k);
+            i += k;
+            p += k;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element
+     * in this list, or -1 if this list does not contain the element.
+     */
+    public int indexOf(Object o) {
+        Object[][] cs = chunks;
+        for (int p = offset, end = offset + size; p < end; ) {
+            Object[] c = cs[head + (p >>> CHUNK_SHIFT)];
+            int i = p & CHUNK_MASK, n = Math.min(end - p, c.length - i);
+            for (int stop = i + n; i < stop; i++)
+                if (o == null ? c[i] == null : o.equals(c[i]))
+                    return p - offset + i - (p & CHUNK_MASK);
+            p += n;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified element
+     * in this list, or -1 if this list does not contain the element.
+     */
+    public int lastIndexOf(Object o) {
+        for (int i = size - 1; i >= 0; i--) {
+            Object e = elementAt(offset + i);
+            if (o == null ? e == null : o.equals(e))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this list contains the specified element.
+     *
+     * @param o element whose presence in this list is to be tested
+     * @return {@code true} if this list contains the specified element
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list
+     * in proper sequence (from first to last element).
+     *
+     * @return an array containing all of the elements in this list in
+     *         proper sequence
+     */
+    public Object[] toArray() {
+        return copyTo(new Object[size]);
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in proper
+     * sequence (from first to last element); the runtime type of the returned
+     * array is that of the specified array.  If the list fits in the
+     * specified array, it is returned therein.  Otherwise, a new array is
+     * allocated with the runtime type of the specified array and the size of
+     * this list.
+     *
+     * <p>If the list fits in the specified array with room to spare
+     * (i.e., the array has more elements than the list), the element in
+     * the array immediately following the end of the collection is set to
+     * {@code null}.
+     *
+     * @param a the array into which the elements of the list are to
+     *          be stored, if it is big enough; otherwise, a new array of the
+     *          same runtime type is allocated for this purpose.
+     * @return an array containing the elements of the list
+     * @throws ArrayStoreException if the runtime type of the specified array
+     *         is not a supertype of the runtime type of every element in
+     *         this list
+     * @throws NullPointerException if the specified array is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size)
+            a = (T[]) java.lang.reflect.Array.newInstance(
+                a.getClass().getComponentType(), size);
+        copyTo(a);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+    /** Copies the elements into the start of a, returning a. */
+    private <T> T[] copyTo(T[] a) {
+        for (int p = offset, end = offset + size, i = 0; p < end; ) {
+            int n = Math.min(end - p, CHUNK_SIZE - (p & CHUNK_MASK));
+            System.arraycopy(chunks[head + (p >>> CHUNK_SHIFT)],
+                             p & CHUNK_MASK, a, i, n);
+            i += n;
+            p += n;
+        }
+        return a;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        for (int p = offset, end = offset + size; p < end && modCount == expectedModCount; ) {
+            Object[] c = chunks[head + (p >>> CHUNK_SHIFT)];
+            int i = p & CHUNK_MASK, stop = i + Math.min(end - p, CHUNK_SIZE - i);
+            p += stop - i;
+            for (; i < stop; i++) {
+                @SuppressWarnings("unchecked") E e = (E) c[i];
+                action.accept(e);
+            }
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        // Compact the survivors toward the front, then drop the tail
+        final int expectedModCount = modCount;
+        int base = offset, n = size, kept = 0;
+        for (int i = 0; i < n; i++) {
+            E e = elementAt(base + i);
+            if (!filter.test(e)) {
+                if (kept != i)
+                    setAt(base + kept, e);
+                kept++;
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+        if (kept == n)
+            return false;
+        nullOut(base + kept, base + n);
+        size = kept;
+        trim();
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        final int expectedModCount = modCount;
+        for (int i = 0, n = size; i < n && modCount == expectedModCount; i++) {
+            int p = offset + i;
+            setAt(p, operator.apply(elementAt(p)));
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        Object[] a = toArray();
+        Arrays.sort(a, (Comparator) c);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        for (int p = offset, end = offset + size, i = 0; p < end; ) {
+            int n = Math.min(end - p, CHUNK_SIZE - (p & CHUNK_MASK));
+            System.arraycopy(a, i, chunks[head + (p >>> CHUNK_SHIFT)],
+                             p & CHUNK_MASK, n);
+            i += n;
+            p += n;
+        }
+        modCount++;
+    }
+
+    // Deque operations
+
+    /**
+     * Inserts the specified element at the beginning of this list.
+     *
+     * @param e the element to add
+     */
+    public void addFirst(E e) {
+        setAt(openGap(0, 1), e);
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     *
+     * <p>This method is equivalent to {@link #add}.
+     *
+     * @param e the element to add
+     */
+    public void addLast(E e) {
+        modCount++;
+        ensureBack(1);
+        setAt(offset + size++, e);
+    }
+
+    /**
+     * Inserts the specified element at the front of this list.
+     *
+     * @param e the element to insert
+     * @return {@code true} (as specified by {@link Deque#offerFirst})
+     */
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the end of this list.
+     *
+     * @param e the element to insert
+     * @return {@code true} (as specified by {@link Deque#offerLast})
+     */
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * Removes and returns the first element from this list.
+     *
+     * @return the first element from this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E removeFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return remove(0);
+    }
+
+    /**
+     * Removes and returns the last element from this list.
+     *
+     * @return the last element from this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E removeLast() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return remove(size - 1);
+    }
+
+    /**
+     * Retrieves and removes the first element of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the first element of this list, or {@code null} if
+     *     this list is empty
+     */
+    public E pollFirst() {
+        return (size == 0) ? null : remove(0);
+    }
+
+    /**
+     * Retrieves and removes the last element of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the last element of this list, or {@code null} if
+     *     this list is empty
+     */
+    public E pollLast() {
+        return (size == 0) ? null : remove(size - 1);
+    }
+
+    /**
+     * Returns the first element in this list.
+     *
+     * @return the first element in this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E getFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return elementAt(offset);
+    }
+
+    /**
+     * Returns the last element in this list.
+     *
+     * @return the last element in this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E getLast() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return elementAt(offset + size - 1);
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the first element of this list, or {@code null}
+     *         if this list is empty
+     */
+    public E peekFirst() {
+        return (size == 0) ? null : elementAt(offset);
+    }
+
+    /**
+     * Retrieves, but does not remove, the last element of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the last element of this list, or {@code null}
+     *         if this list is empty
+     */
+    public E peekLast() {
+        return (size == 0) ? null : elementAt(offset + size - 1);
+    }
+
+    /**
+     * Removes the first occurrence of the specified element in this
+     * list (when traversing the list from head to tail).  If the list
+     * does not contain the element, it is unchanged.
+     *
+     * @param o element to be removed from this list, if present
+     * @return {@code true} if the list contained the specified element
+     */
+    public boolean removeFirstOccurrence(Object o) {
+        return remove(o);
+    }
+
+    /**
+     * Removes the last occurrence of the specified element in this
+     * list (when traversing the list from head to tail).  If the list
+     * does not contain the element, it is unchanged.
+     *
+     * @param o element to be removed from this list, if present
+     * @return {@code true} if the list contained the specified element
+     */
+    public boolean removeLastOccurrence(Object o) {
+        int i = lastIndexOf(o);
+        if (i < 0)
+            return false;
+        closeGap(i, 1);
+        return true;
+    }
+
+    // Queue operations
+
+    /**
+     * Adds the specified element as the tail (last element) of this list.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Queue#offer})
+     */
+    public boolean offer(E e) {
+        return add(e);
+    }
+
+    /**
+     * Retrieves and removes the head (first element) of this list.
+     *
+     * @return the head of this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E remove() {
+        return removeFirst();
+    }
+
+    /**
+     * Retrieves and removes the head (first element) of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the head of this list, or {@code null} if this list is empty
+     */
+    public E poll() {
+        return pollFirst();
+    }
+
+    /**
+     * Retrieves, but does not remove, the head (first element) of this list.
+     *
+     * @return the head of this list
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E element() {
+        return getFirst();
+    }
+
+    /**
+     * Retrieves, but does not remove, the head (first element) of this list,
+     * or returns {@code null} if this list is empty.
+     *
+     * @return the head of this list, or {@code null} if this list is empty
+     */
+    public E peek() {
+        return peekFirst();
+    }
+
+    // Stack operations
+
+    /**
+     * Pushes an element onto the stack represented by this list.  In other
+     * words, inserts the element at the front of this list.
+     *
+     * <p>This method is equivalent to {@link #addFirst}.
+     *
+     * @param e the element to push
+     */
+    public void push(E e) {
+        addFirst(e);
+    }
+
+    /**
+     * Pops an element from the stack represented by this list.  In other
+     * words, removes and returns the first element of this list.
+     *
+     * <p>This method is equivalent to {@link #removeFirst()}.
+     *
+     * @return the element at the front of this list (which is the top
+     *         of the stack represented by this list)
+     * @throws NoSuchElementException if this list is empty
+     */
+    public E pop() {
+        return removeFirst();
+    }
+
+    /**
+     * Returns an iterator over the elements in this list in reverse
+     * sequential order.  The elements will be returned in order from
+     * last (tail) to first (head).
+     *
+     * @return an iterator over the elements in this list in reverse
+     *         sequence
+     */
+    public Iterator<E> descendingIterator() {
+        return new Iterator<E>() {
+            private final ListIterator<E> it = listIterator(size());
+            public boolean hasNext() {
+                return it.hasPrevious();
+            }
+            public E next() {
+                return it.previous();
+            }
+            public void remove() {
+                it.remove();
+            }
+        };
+    }
+
+    // Object methods
+
+    /**
+     * Returns a shallow copy of this {@code ChunkedArrayList} instance.
+     * (The elements themselves are not copied.)
+     *
+     * @return a clone of this {@code ChunkedArrayList} instance
+     */
+    public Object clone() {
+        try {
+            @SuppressWarnings("unchecked")
+            ChunkedArrayList<E> v = (ChunkedArrayList<E>) super.clone();
+            v.chunks = new Object[count][];
+            for (int i = 0; i < count; i++)
+                v.chunks[i] = chunks[head + i].clone();
+            v.head = 0;
+            v.spare = null;
+            v.modCount = 0;
+            return v;
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Save the state of the {@code ChunkedArrayList} instance to a stream
+     * (that is, serialize it).
+     *
+     * @serialData The number of elements in the list ({@code int}),
+     *             followed by all of its elements (each an {@code Object})
+     *             in the proper order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        int expectedModCount = modCount;
+        s.defaultWriteObject();
+        s.writeInt(size);
+        for (int i = 0; i < size; i++)
+            s.writeObject(elementAt(offset + i));
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Reconstitute the {@code ChunkedArrayList} instance from a stream
+     * (that is, deserialize it).
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = s.readInt();
+        if (n < 0)
+            throw new java.io.InvalidObjectException("Negative size: " + n);
+        chunks = new Object[][] { new Object[INITIAL_CAPACITY] };
+        count = 1;
+        for (int i = 0; i < n; i++)
+            addLast((E)s.readObject());
+    }
+
+    // Spliterator
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator} over the elements in this
+     * list.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+     * It splits ranges in half, rounded to a chunk boundary where the
+     * range spans one.
+     *
+     * @return a {@code Spliterator} over the elements in this list
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ChunkSpliterator<>(this, 0, -1, 0);
+    }
+
+    /** Index-based split-by-two, lazily initialized Spliterator */
+    static final class ChunkSpliterator<E> implements Spliterator<E> {
+        // Interference is detected as in ArrayList.ArrayListSpliterator
+        private final ChunkedArrayList<E> list;
+        private int index; // current index, modified on advance/split
+        private int fence; // -1 until used; then one past last index
+        private int expectedModCount; // initialized when fence set
+
+        /** Create new spliterator covering the given range */
+        ChunkSpliterator(ChunkedArrayList<E> list, int origin, int fence,
+                         int expectedModCount) {
+            this.list = list;
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence to size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                expectedModCount = list.modCount;
+                hi = fence = list.size;
+            }
+            return hi;
+        }
+
+        public ChunkSpliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            // Round to the start of the chunk holding mid, if in range
+            int off = list.offset;
+            int aligned = (((off + mid) >>> CHUNK_SHIFT) << CHUNK_SHIFT) - off;
+            if (aligned > lo)
+                mid = aligned;
+            return (lo >= mid) ? null : // divide range in half unless too small
+                new ChunkSpliterator<E>(list, lo, index = mid,
+                                        expectedModCount);
+        }
+
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                E e = list.elementAt(list.offset + i);
+                action.accept(e);
+                if (list.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null)
+                throw new NullPointerException();
+            ChunkedArrayList<E> lst = list;
+            int hi = getFence(), i = index, mc = expectedModCount;
+            index = hi;
+            Object[][] cs = lst.chunks;
+            int h = lst.head;
+            for (int p = lst.offset + i, end = lst.offset + hi; p < end; ) {
+                Object[] c = cs[h + (p >>> CHUNK_SHIFT)];
+                int j = p & CHUNK_MASK, stop = j + Math.min(end - p, c.length - j);
+                p += stop - j;
+                for (; j < stop; j++) {
+                    @SuppressWarnings("unchecked") E e = (E) c[j];
+                    action.accept(e);
+                }
+            }
+            if (lst.modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
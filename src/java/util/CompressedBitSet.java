@@ -0,0 +1,1920 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class implements a compressed set of bits, indexed by nonnegative
+ * integers, with the operations of {@link BitSet}.  Where a
+ * {@code BitSet} holds a word for every 64 bits up to its highest set
+ * bit, a {@code CompressedBitSet} divides the index space into chunks of
+ * 2<sup>16</sup> bits, stores only the chunks that have bits set, and
+ * represents each of them in whichever of three forms is smallest: a
+ * sorted array of the set positions, a bitmap, or a list of runs of set
+ * bits.  (This is the layout of "Roaring" bitmaps.)  A set of a million
+ * bits scattered over the whole range of {@code int} indexes therefore
+ * takes a few megabytes rather than the quarter gigabyte of a
+ * {@code BitSet}, and logical operations skip the chunks that only one
+ * operand has.
+ *
+ * <p>Individual bits are examined, set and cleared in logarithmic time
+ * in the number of chunks and, for array and run chunks, in their size.
+ * Bit sets may be combined with {@link #and and}, {@link #or or},
+ * {@link #xor xor} and {@link #andNot andNot}, searched with
+ * {@link #nextSetBit nextSetBit} and its relatives, and traversed with
+ * {@link #stream stream}.  They may be converted to and from
+ * {@code BitSet}.
+ *
+ * <p>A bit set may be written to a {@link ByteBuffer} with {@link
+ * #serialize serialize}, in a compact form that is read back either by
+ * {@link #valueOf(ByteBuffer) valueOf}, which copies it, or by {@link
+ * #view view}, which returns an immutable bit set that reads each chunk
+ * from the buffer when it is first used.  A view of a memory-mapped file
+ * can therefore be opened without reading the file.
+ *
+ * <p>Unless otherwise noted, passing a null parameter to any of the
+ * methods in a {@code CompressedBitSet} will result in a
+ * {@code NullPointerException}.
+ *
+ * <p>A {@code CompressedBitSet}, including a view, is not safe for
+ * multithreaded use without external synchronization.
+ *
+ * @see BitSet
+ * @since 1.8
+ */
+public class CompressedBitSet implements Cloneable, java.io.Serializable {
+    /*
+     * The set is held as a sorted array of the chunks, each being the
+     * high 16 bits of the indexes in it (a key) and a container of the
+     * low 16 bits.  Empty containers are never stored.  Containers are
+     * arrays of up to ARRAY_MAX values, bitmaps of 1024 words, or runs.
+     * Single-bit updates keep array and bitmap containers on the right
+     * side of ARRAY_MAX, and run containers only while they are no
+     * larger than the alternatives.  The results of logical operations
+     * take the smallest form, except that an operation updating a
+     * bitmap in place keeps it unless it drops to ARRAY_MAX bits.
+     *
+     * Containers are owned by one bit set and are copied when taken
+     * from another.  Views keep the serialized form, and decode the
+     * container of a chunk into the containers array on first access,
+     * so all reads of containers go through container(i).
+     */
+
+    private static final long serialVersionUID = -2718529049276932562L;
+
+    /** The largest number of values held in an array container. */
+    static final int ARRAY_MAX = 4096;
+
+    /** The number of words in a bitmap container. */
+    static final int WORDS = 1 << 10;
+
+    /** The number of bits in a chunk. */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /** Mask for the position of an index within its chunk. */
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Logical operations
+    static final int AND = 0, OR = 1, XOR = 2, ANDNOT = 3;
+
+    // Container types in the serialized form
+    static final int ARRAY = 0, BITMAP = 1, RUN = 2;
+
+    /** The keys of the chunks in use, in ascending order. */
+    private transient char[] keys;
+
+    /** The containers of the chunks in use, null if not yet decoded. */
+    private transient Container[] containers;
+
+    /** The number of chunks in use. */
+    private transient int size;
+
+    /**
+     * The serialized form of a view, in little-endian order, or null
+     * if this bit set is not a view.
+     */
+    private transient ByteBuffer source;
+
+    /** The type and offset of each container of a view. */
+    private transient int[] locations;
+
+    /** The index of the chunk last found by index(), possibly stale. */
+    private transient int hint;
+
+    /**
+     * Creates a new, empty bit set.
+     */
+    public CompressedBitSet() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    /**
+     * Creates a bit set with room for n chunks.
+     */
+    private CompressedBitSet(int n) {
+        keys = new char[n];
+        containers = new Container[n];
+    }
+
+    /**
+     * Returns a new bit set containing all the bits in the given bit set.
+     *
+     * @param set a bit set
+     * @return a {@code CompressedBitSet} with the same bits set as
+     *         {@code set}
+     */
+    public static CompressedBitSet valueOf(BitSet set) {
+        long[] words = set.toLongArray();
+        CompressedBitSet result = new CompressedBitSet((words.length + WORDS - 1) / WORDS);
+        for (int from = 0, key = 0; from < words.length; from += WORDS, key++) {
+            long[] w = new long[WORDS];
+            System.arraycopy(words, from, w, 0, Math.min(WORDS, words.length - from));
+            Container c = Container.fromWords(w);
+            if (c.cardinality() > 0)
+                result.insert(result.size, key, c);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new {@link BitSet} containing all the bits in this bit
+     * set.  Note that the {@code BitSet} takes space in proportion to
+     * the {@link #length() length} of this set.
+     *
+     * @return a {@code BitSet} with the same bits set as this bit set
+     */
+    public BitSet toBitSet() {
+        if (size == 0)
+            return new BitSet();
+        long[] words = new long[(length() + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            int from = keys[i] * WORDS;
+            System.arraycopy(container(i).words(), 0, words, from,
+                             Math.min(WORDS, words.length - from));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /* ---------------- Chunks -------------- */
+
+    /**
+     * Returns the index of the chunk with the given key, or
+     * (-(insertion point) - 1) if there is none.
+     */
+    private int index(int key) {
+        int n = size, h = hint;
+        // Scans and sequential updates mostly stay in one chunk
+        if (h < n && keys[h] == key)
+            return h;
+        if (n > 0 && keys[n - 1] == key)
+            return n - 1;
+        int i = Arrays.binarySearch(keys, 0, n, (char)key);
+        if (i >= 0)
+            hint = i;
+        return i;
+    }
+
+    /**
+     * Returns the container of chunk i, decoding it if this is a view.
+     */
+    private Container container(int i) {
+        Container c = containers[i];
+        if (c == null)
+            containers[i] = c = Container.read(source, locations[i],
+                                               cardinality(i));
+        return c;
+    }
+
+    /**
+     * Returns the number of bits set in chunk i, without decoding it.
+     */
+    private int cardinality(int i) {
+        Container c = containers[i];
+        if (c != null)
+            return c.cardinality();
+        return (source.getInt(4 + 4 * i) & CHUNK_MASK) + 1;
+    }
+
+    /**
+     * Inserts a chunk at index i.
+     */
+    private void insert(int i, int key, Container c) {
+        int n = size;
+        if (n == keys.length) {
+            int capacity = Math.max(2 * n, 4);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, n - i);
+        System.arraycopy(containers, i, containers, i + 1, n - i);
+        keys[i] = (char)key;
+        containers[i] = c;
+        size = n + 1;
+    }
+
+    /**
+     * Removes the chunk at index i.
+     */
+    private void delete(int i) {
+        int n = --size;
+        System.arraycopy(keys, i + 1, keys, i, n - i);
+        System.arraycopy(containers, i + 1, containers, i, n - i);
+        containers[n] = null;
+    }
+
+    /**
+     * Throws UnsupportedOperationException if this bit set is a view.
+     */
+    private void checkMutable() {
+        if (source != null)
+            throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks that fromIndex ... toIndex is a valid range of bit indices.
+     */
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex +
+                                                " > toIndex: " + toIndex);
+    }
+
+    /* ---------------- Single bits -------------- */
+
+    /**
+     * Sets the bit at the specified index to {@code true}.
+     *
+     * @param  bitIndex a bit index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void set(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        checkMutable();
+        int key = bitIndex >>> 16, i = index(key);
+        if (i >= 0)
+            containers[i] = containers[i].add(bitIndex & CHUNK_MASK);
+        else
+            insert(-i - 1, key, new ArrayContainer(bitIndex & CHUNK_MASK));
+    }
+
+    /**
+     * Sets the bit at the specified index to the specified value.
+     *
+     * @param  bitIndex a bit index
+     * @param  value a boolean value to set
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    /**
+     * Sets the bit specified by the index to {@code false}.
+     *
+     * @param  bitIndex the index of the bit to be cleared
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void clear(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        checkMutable();
+        int i = index(bitIndex >>> 16);
+        if (i >= 0) {
+            Container c = containers[i].remove(bitIndex & CHUNK_MASK);
+            if (c.cardinality() == 0)
+                delete(i);
+            else
+                containers[i] = c;
+        }
+    }
+
+    /**
+     * Sets the bit at the specified index to the complement of its
+     * current value.
+     *
+     * @param  bitIndex the index of the bit to flip
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void flip(int bitIndex) {
+        if (get(bitIndex))
+            clear(bitIndex);
+        else
+            set(bitIndex);
+    }
+
+    /**
+     * Returns the value of the bit with the specified index. The value
+     * is {@code true} if the bit with the index {@code bitIndex}
+     * is currently set in this {@code CompressedBitSet}; otherwise, the
+     * result is {@code false}.
+     *
+     * @param  bitIndex   the bit index
+     * @return the value of the bit with the specified index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public boolean get(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int i = index(bitIndex >>> 16);
+        return i >= 0 && container(i).contains(bitIndex & CHUNK_MASK);
+    }
+
+    /* ---------------- Ranges -------------- */
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to {@code true}.
+     *
+     * @param  fromIndex index of the first bit to be set
+     * @param  toIndex index after the last bit to be set
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void set(int fromIndex, int toIndex) {
+        rangeOp(fromIndex, toIndex, OR);
+    }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to the specified value.
+     *
+     * @param  fromIndex index of the first bit to be set
+     * @param  toIndex index after the last bit to be set
+     * @param  value value to set the selected bits to
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void set(int fromIndex, int toIndex, boolean value) {
+        rangeOp(fromIndex, toIndex, value ? OR : ANDNOT);
+    }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to {@code false}.
+     *
+     * @param  fromIndex index of the first bit to be cleared
+     * @param  toIndex index after the last bit to be cleared
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void clear(int fromIndex, int toIndex) {
+        rangeOp(fromIndex, toIndex, ANDNOT);
+    }
+
+    /**
+     * Sets each bit from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to the complement of its current
+     * value.
+     *
+     * @param  fromIndex index of the first bit to flip
+     * @param  toIndex index after the last bit to flip
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void flip(int fromIndex, int toIndex) {
+        rangeOp(fromIndex, toIndex, XOR);
+    }
+
+    /**
+     * Combines the bits from fromIndex to toIndex with this set by the
+     * given operation, a chunk at a time.
+     */
+    private void rangeOp(int fromIndex, int toIndex, int op) {
+        checkRange(fromIndex, toIndex);
+        checkMutable();
+        if (fromIndex == toIndex)
+            return;
+        int last = toIndex - 1;
+        int firstKey = fromIndex >>> 16, lastKey = last >>> 16;
+        for (int key = firstKey; key <= lastKey; key++) {
+            int lo = (key == firstKey) ? fromIndex & CHUNK_MASK : 0;
+            int hi = (key == lastKey) ? last & CHUNK_MASK : CHUNK_MASK;
+            boolean whole = (lo == 0 && hi == CHUNK_MASK);
+            int i = index(key);
+            if (i < 0) {
+                if (op != ANDNOT)
+                    insert(-i - 1, key, RunContainer.range(lo, hi));
+            } else if (whole && op == OR) {
+                containers[i] = RunContainer.range(lo, hi);
+            } else if (whole && op == ANDNOT) {
+                delete(i);
+            } else {
+                Container c = Container.op(containers[i],
+                                           RunContainer.range(lo, hi), op);
+                if (c.cardinality() == 0)
+                    delete(i);
+                else
+                    containers[i] = c;
+            }
+        }
+    }
+
+    /**
+     * Sets all of the bits in this CompressedBitSet to {@code false}.
+     *
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void clear() {
+        checkMutable();
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    /* ---------------- Searching -------------- */
+
+    /**
+     * Returns the index of the first bit that is set to {@code true}
+     * that occurs on or after the specified starting index. If no such
+     * bit exists then {@code -1} is returned.
+     *
+     * <p>To iterate over the {@code true} bits in a {@code CompressedBitSet},
+     * use the following loop, or use {@link #stream stream}:
+     *
+     *  <pre> {@code
+     * for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i+1)) {
+     *     // operate on index i here
+     *     if (i == Integer.MAX_VALUE) {
+     *         break; // or (i+1) would overflow
+     *     }
+     * }}</pre>
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the next set bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        int key = fromIndex >>> 16, i = index(key);
+        if (i >= 0) {
+            int r = container(i).next(fromIndex & CHUNK_MASK);
+            if (r >= 0)
+                return key << 16 | r;
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        return (i < size) ? keys[i] << 16 | container(i).next(0) : -1;
+    }
+
+    /**
+     * Returns the index of the first bit that is set to {@code false}
+     * that occurs on or after the specified starting index.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the next clear bit, or {@code -1} if all of
+     *         the bits from {@code fromIndex} to {@code Integer.MAX_VALUE}
+     *         are set
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        for (int x = fromIndex;;) {
+            int key = x >>> 16, i = index(key);
+            if (i < 0)
+                return x;
+            int r = container(i).nextAbsent(x & CHUNK_MASK);
+            if (r < CHUNK_SIZE)
+                return key << 16 | r;
+            if (key == Integer.MAX_VALUE >>> 16)
+                return -1;
+            x = (key + 1) << 16;
+        }
+    }
+
+    /**
+     * Returns the index of the nearest bit that is set to {@code true}
+     * that occurs on or before the specified starting index.
+     * If no such bit exists, or if {@code -1} is given as the
+     * starting index, then {@code -1} is returned.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the previous set bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is less
+     *         than {@code -1}
+     */
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1)
+                return -1;
+            throw new IndexOutOfBoundsException(
+                "fromIndex < -1: " + fromIndex);
+        }
+        int key = fromIndex >>> 16, i = index(key);
+        if (i >= 0) {
+            int r = container(i).previous(fromIndex & CHUNK_MASK);
+            if (r >= 0)
+                return key << 16 | r;
+            i--;
+        } else {
+            i = -i - 2;
+        }
+        return (i >= 0) ? keys[i] << 16 | container(i).previous(CHUNK_MASK) : -1;
+    }
+
+    /**
+     * Returns the index of the nearest bit that is set to {@code false}
+     * that occurs on or before the specified starting index.
+     * If no such bit exists, or if {@code -1} is given as the
+     * starting index, then {@code -1} is returned.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the previous clear bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is less
+     *         than {@code -1}
+     */
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1)
+                return -1;
+            throw new IndexOutOfBoundsException(
+                "fromIndex < -1: " + fromIndex);
+        }
+        for (int x = fromIndex;;) {
+            int key = x >>> 16, i = index(key);
+            if (i < 0)
+                return x;
+            int r = container(i).previousAbsent(x & CHUNK_MASK);
+            if (r >= 0)
+                return key << 16 | r;
+            if (key == 0)
+                return -1;
+            x = (key << 16) - 1;
+        }
+    }
+
+    /**
+     * Returns the "logical size" of this {@code CompressedBitSet}: the
+     * index of the highest set bit in the {@code CompressedBitSet} plus
+     * one.  Returns zero if the {@code CompressedBitSet} contains no set
+     * bits.
+     *
+     * @return the logical size of this {@code CompressedBitSet}
+     */
+    public int length() {
+        int n = size;
+        if (n == 0)
+            return 0;
+        return (keys[n - 1] << 16 | container(n - 1).previous(CHUNK_MASK)) + 1;
+    }
+
+    /**
+     * Returns true if this {@code CompressedBitSet} contains no bits that
+     * are set to {@code true}.
+     *
+     * @return boolean indicating whether this {@code CompressedBitSet}
+     *         is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of bits set to {@code true} in this
+     * {@code CompressedBitSet}.
+     *
+     * @return the number of bits set to {@code true} in this
+     *         {@code CompressedBitSet}
+     */
+    public int cardinality() {
+        int sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += cardinality(i);
+        return sum;
+    }
+
+    /* ---------------- Logical operations -------------- */
+
+    /**
+     * Returns true if the specified {@code CompressedBitSet} has any bits
+     * set to {@code true} that are also set to {@code true} in this
+     * {@code CompressedBitSet}.
+     *
+     * @param  set {@code CompressedBitSet} to intersect with
+     * @return boolean indicating whether this {@code CompressedBitSet}
+     *         intersects the specified {@code CompressedBitSet}
+     */
+    public boolean intersects(CompressedBitSet set) {
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            int k1 = keys[i], k2 = set.keys[j];
+            if (k1 < k2)
+                i++;
+            else if (k1 > k2)
+                j++;
+            else if (Container.intersects(container(i++), set.container(j++)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Performs a logical <b>AND</b> of this target bit set with the
+     * argument bit set. This bit set is modified so that each bit in it
+     * has the value {@code true} if and only if it both initially
+     * had the value {@code true} and the corresponding bit in the
+     * bit set argument also had the value {@code true}.
+     *
+     * @param set a bit set
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void and(CompressedBitSet set) {
+        checkMutable();
+        if (this == set)
+            return;
+        int n = 0;
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            int k1 = keys[i], k2 = set.keys[j];
+            if (k1 < k2)
+                i++;
+            else if (k1 > k2)
+                j++;
+            else {
+                Container c = Container.op(containers[i++], set.container(j++),
+                                           AND);
+                if (c.cardinality() > 0) {
+                    keys[n] = (char)k1;
+                    containers[n++] = c;
+                }
+            }
+        }
+        Arrays.fill(containers, n, size, null);
+        size = n;
+    }
+
+    /**
+     * Performs a logical <b>OR</b> of this bit set with the bit set
+     * argument. This bit set is modified so that a bit in it has the
+     * value {@code true} if and only if it either already had the
+     * value {@code true} or the corresponding bit in the bit set
+     * argument has the value {@code true}.
+     *
+     * @param set a bit set
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void or(CompressedBitSet set) {
+        checkMutable();
+        if (this != set)
+            merge(set, OR);
+    }
+
+    /**
+     * Performs a logical <b>XOR</b> of this bit set with the bit set
+     * argument. This bit set is modified so that a bit in it has the
+     * value {@code true} if and only if one of the following
+     * statements holds:
+     * <ul>
+     * <li>The bit initially has the value {@code true}, and the
+     *     corresponding bit in the argument has the value {@code false}.
+     * <li>The bit initially has the value {@code false}, and the
+     *     corresponding bit in the argument has the value {@code true}.
+     * </ul>
+     *
+     * @param  set a bit set
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void xor(CompressedBitSet set) {
+        checkMutable();
+        if (this == set)
+            clear();
+        else
+            merge(set, XOR);
+    }
+
+    /**
+     * Clears all of the bits in this {@code CompressedBitSet} whose
+     * corresponding bit is set in the specified {@code CompressedBitSet}.
+     *
+     * @param  set the {@code CompressedBitSet} with which to mask this
+     *         {@code CompressedBitSet}
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void andNot(CompressedBitSet set) {
+        checkMutable();
+        if (this == set) {
+            clear();
+            return;
+        }
+        int n = 0, i = 0;
+        for (int j = 0; i < size && j < set.size; ) {
+            int k1 = keys[i], k2 = set.keys[j];
+            if (k1 > k2)
+                j++;
+            else {
+                Container c = containers[i++];
+                if (k1 == k2 &&
+                    (c = Container.op(c, set.container(j++), ANDNOT))
+                    .cardinality() == 0)
+                    continue;
+                keys[n] = (char)k1;
+                containers[n++] = c;
+            }
+        }
+        for (; i < size; i++) {
+            keys[n] = keys[i];
+            containers[n++] = containers[i];
+        }
+        Arrays.fill(containers, n, size, null);
+        size = n;
+    }
+
+    /**
+     * Combines this bit set with another by OR or XOR, for which chunks
+     * of either set appear in the result.
+     */
+    private void merge(CompressedBitSet set, int op) {
+        int n1 = size, n2 = set.size;
+        char[] k = new char[Math.max(n1 + n2, 4)];
+        Container[] cs = new Container[k.length];
+        int n = 0, i = 0, j = 0;
+        while (i < n1 || j < n2) {
+            int k1 = (i < n1) ? keys[i] : CHUNK_SIZE;
+            int k2 = (j < n2) ? set.keys[j] : CHUNK_SIZE;
+            Container c;
+            if (k1 < k2) {
+                c = containers[i++];
+            } else if (k1 > k2) {
+                c = set.container(j++).copy();
+                k1 = k2;
+            } else if ((c = Container.op(containers[i++], set.container(j++),
+                                         op)).cardinality() == 0) {
+                continue;
+            }
+            k[n] = (char)k1;
+            cs[n++] = c;
+        }
+        keys = k;
+        containers = cs;
+        size = n;
+    }
+
+    /**
+     * Converts the container of each chunk to the smallest of the
+     * array, bitmap and run representations.  Run-length encoding is
+     * otherwise chosen only for the results of range operations and
+     * logical operations, so this may shrink bit sets built a bit at a
+     * time that hold long runs of set bits.
+     *
+     * @throws UnsupportedOperationException if this bit set is a view
+     */
+    public void compact() {
+        checkMutable();
+        for (int i = 0; i < size; i++)
+            containers[i] = Container.fromWords(containers[i].words());
+        if (keys.length > size) {
+            keys = Arrays.copyOf(keys, size);
+            containers = Arrays.copyOf(containers, size);
+        }
+    }
+
+    /* ---------------- Object methods -------------- */
+
+    /**
+     * Returns the hash code value for this bit set. The hash code depends
+     * only on which bits are set within this {@code CompressedBitSet}, and
+     * is equal to the hash code of a {@link BitSet} with the same bits
+     * set.
+     *
+     * @return the hash code value for this bit set
+     */
+    public int hashCode() {
+        long h = 1234;
+        for (int i = 0; i < size; i++) {
+            long[] words = container(i).words();
+            long base = (long)keys[i] * WORDS + 1;
+            for (int j = 0; j < WORDS; j++)
+                h ^= words[j] * (base + j);
+        }
+        return (int)((h >> 32) ^ h);
+    }
+
+    /**
+     * Compares this object against the specified object.
+     * The result is {@code true} if and only if the argument is
+     * not {@code null} and is a {@code CompressedBitSet} object that has
+     * exactly the same set of bits set to {@code true} as this bit
+     * set, whatever representation each holds them in.
+     *
+     * @param  obj the object to compare with
+     * @return {@code true} if the objects are the same;
+     *         {@code false} otherwise
+     */
+    public boolean equals(Object obj) {
+        if (!(obj instanceof CompressedBitSet))
+            return false;
+        if (this == obj)
+            return true;
+
+        CompressedBitSet set = (CompressedBitSet) obj;
+        if (size != set.size)
+            return false;
+        for (int i = 0; i < size; i++)
+            if (keys[i] != set.keys[i] ||
+                cardinality(i) != set.cardinality(i))
+                return false;
+        for (int i = 0; i < size; i++)
+            if (!Container.sameBits(container(i), set.container(i)))
+                return false;
+        return true;
+    }
+
+    /**
+     * Cloning this {@code CompressedBitSet} produces a new
+     * {@code CompressedBitSet} that is equal to it.  The clone of a view
+     * is a modifiable bit set that does not refer to the buffer.
+     *
+     * @return a clone of this bit set
+     */
+    public Object clone() {
+        try {
+            CompressedBitSet result = (CompressedBitSet) super.clone();
+            result.keys = Arrays.copyOf(keys, Math.max(size, 4));
+            result.containers = new Container[result.keys.length];
+            for (int i = 0; i < size; i++)
+                result.containers[i] = container(i).copy();
+            result.source = null;
+            result.locations = null;
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Returns a string representation of this bit set. For every index
+     * for which this {@code CompressedBitSet} contains a bit in the set
+     * state, the decimal representation of that index is included in
+     * the result. Such indices are listed in order from lowest to
+     * highest, separated by ",&nbsp;" (a comma and a space) and
+     * surrounded by braces, resulting in the usual mathematical
+     * notation for a set of integers.
+     *
+     * @return a string representation of this bit set
+     */
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('{');
+        PrimitiveIterator.OfInt it = new BitIterator();
+        if (it.hasNext()) {
+            b.append(it.nextInt());
+            while (it.hasNext())
+                b.append(", ").append(it.nextInt());
+        }
+        b.append('}');
+        return b.toString();
+    }
+
+    /**
+     * An iterator over the set bits, copying out a chunk at a time.
+     */
+    final class BitIterator implements PrimitiveIterator.OfInt {
+        int chunk;          // index of the next chunk to copy
+        int[] values = new int[0];
+        int count, index;
+
+        @Override
+        public boolean hasNext() {
+            if (index < count)
+                return true;
+            if (chunk >= size)
+                return false;
+            int n = cardinality(chunk);
+            if (values.length < n)
+                values = new int[Math.max(n, Math.min(2 * values.length,
+                                                      CHUNK_SIZE))];
+            count = container(chunk).toArray(values, keys[chunk] << 16);
+            chunk++;
+            index = 0;
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return values[index++];
+        }
+    }
+
+    /**
+     * Returns a stream of indices for which this {@code CompressedBitSet}
+     * contains a bit in the set state. The indices are returned
+     * in order, from lowest to highest. The size of the stream
+     * is the number of bits in the set state, equal to the value
+     * returned by the {@link #cardinality()} method.
+     *
+     * <p>The bit set must remain constant during the execution of the
+     * terminal stream operation.  Otherwise, the result of the terminal
+     * stream operation is undefined.
+     *
+     * @return a stream of integers representing set indices
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(
+                () -> Spliterators.spliterator(
+                        new BitIterator(), cardinality(),
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED),
+                Spliterator.SIZED | Spliterator.SUBSIZED |
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED,
+                false);
+    }
+
+    /* ---------------- Serialized form -------------- */
+
+    /**
+     * Returns the number of bytes that {@link #serialize serialize} will
+     * write for this bit set.
+     *
+     * @return the size of the serialized form of this bit set
+     */
+    public int serializedSize() {
+        int n = 4 + 8 * size;
+        for (int i = 0; i < size; i++)
+            n += container(i).bodySize();
+        return n;
+    }
+
+    /**
+     * Writes this bit set to the given buffer, starting at its current
+     * position, and advances the position past it.  The form written
+     * does not depend on the byte order of the buffer, and can be read
+     * by {@link #valueOf(ByteBuffer) valueOf} or {@link #view view}.
+     *
+     * @param bb the buffer
+     * @throws BufferOverflowException if there are fewer than
+     *         {@link #serializedSize()} bytes remaining in the buffer
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     *
+     * @serialData The number of chunks, n ({@code int}), then for each
+     * chunk its key and cardinality ({@code int}, the key in the high
+     * 16 bits, and the cardinality minus one in the low 16 bits), then
+     * for each chunk the type of its container and the offset of its
+     * body from the start of the form ({@code int}, the type in the high
+     * two bits), then the bodies.  The body of an array container is
+     * its values ({@code char}); that of a bitmap container is 1024
+     * words ({@code long}); that of a run container is the number of
+     * runs ({@code char}) followed by the start and the length minus one
+     * of each ({@code char}).  All values are little-endian.
+     */
+    public void serialize(ByteBuffer bb) {
+        int total = serializedSize(), n = size;
+        if (bb.remaining() < total)
+            throw new BufferOverflowException();
+        ByteBuffer b = bb.slice().order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(n);
+        for (int i = 0; i < n; i++)
+            b.putInt(keys[i] << 16 | (cardinality(i) - 1));
+        for (int i = 0, offset = 4 + 8 * n; i < n; i++) {
+            Container c = container(i);
+            b.putInt(c.type() << 30 | offset);
+            offset += c.bodySize();
+        }
+        for (int i = 0; i < n; i++)
+            container(i).write(b);
+        bb.position(bb.position() + total);
+    }
+
+    /**
+     * Returns a new bit set containing the bits in the form written by
+     * {@link #serialize serialize} found at the position of the given
+     * buffer.
+     *
+     * <p>The byte buffer is not modified by this method, and no
+     * reference to the buffer is retained by the bit set.
+     *
+     * @param bb a byte buffer holding a serialized bit set at its
+     *        position
+     * @return a {@code CompressedBitSet} containing the bits in the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a
+     *         valid serialized bit set
+     */
+    public static CompressedBitSet valueOf(ByteBuffer bb) {
+        CompressedBitSet set = view(bb);
+        for (int i = 0; i < set.size; i++)
+            set.container(i);
+        set.source = null;
+        set.locations = null;
+        return set;
+    }
+
+    /**
+     * Returns an immutable bit set backed by the form written by
+     * {@link #serialize serialize} found at the position of the given
+     * buffer.  Only the table of chunks is read by this method; the
+     * container of each chunk is decoded and retained the first time
+     * the chunk is used.  Methods that would modify the view throw
+     * {@code UnsupportedOperationException}.
+     *
+     * <p>The contents of the buffer must not be changed while the view
+     * is in use.  The position, limit and byte order of the buffer are
+     * not used after this method returns, and may be changed.
+     *
+     * @param bb a byte buffer, for example a
+     *        {@link java.nio.MappedByteBuffer MappedByteBuffer}, holding
+     *        a serialized bit set at its position
+     * @return an immutable {@code CompressedBitSet} view of the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a
+     *         valid serialized bit set
+     */
+    public static CompressedBitSet view(ByteBuffer bb) {
+        ByteBuffer b = bb.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int limit = b.limit();
+        int n = (limit >= 4) ? b.getInt(0) : -1;
+        if (n < 0 || n > CHUNK_SIZE / 2 || 4 + 8 * n > limit)
+            throw new IllegalArgumentException("Malformed bit set");
+        CompressedBitSet set = new CompressedBitSet(n);
+        int[] locations = new int[n];
+        for (int i = 0, prev = -1; i < n; i++) {
+            int key = b.getInt(4 + 4 * i) >>> 16;
+            int location = b.getInt(4 + 4 * n + 4 * i);
+            if (key <= prev || (location & 0x3fffffff) > limit)
+                throw new IllegalArgumentException("Malformed bit set");
+            set.keys[i] = (char)key;
+            locations[i] = location;
+            prev = key;
+        }
+        set.size = n;
+        set.source = b;
+        set.locations = locations;
+        return set;
+    }
+
+    /**
+     * Saves the state of the {@code CompressedBitSet} instance to a
+     * stream (i.e., serializes it).
+     *
+     * @serialData The length of the form written by {@link #serialize
+     * serialize} ({@code int}), followed by that form.
+     */
+    private void writeObject(ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        byte[] bytes = new byte[serializedSize()];
+        serialize(ByteBuffer.wrap(bytes));
+        s.writeInt(bytes.length);
+        s.write(bytes);
+    }
+
+    /**
+     * Reconstitutes the {@code CompressedBitSet} instance from a stream
+     * (i.e., deserializes it).
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = s.readInt();
+        if (n < 0)
+            throw new InvalidObjectException("Negative length");
+        byte[] bytes = new byte[n];
+        s.readFully(bytes);
+        CompressedBitSet set;
+        try {
+            set = valueOf(ByteBuffer.wrap(bytes));
+        } catch (RuntimeException e) {
+            throw new InvalidObjectException("Malformed bit set");
+        }
+        keys = set.keys;
+        containers = set.containers;
+        size = set.size;
+    }
+
+    /* ---------------- Containers -------------- */
+
+    /**
+     * The set bits of a chunk, as positions from 0 to 65535.  Updates
+     * return the container to use afterwards, which may be a new one of
+     * another type.
+     */
+    abstract static class Container {
+        /** Returns the number of set bits. */
+        abstract int cardinality();
+
+        /** Returns true if x is set. */
+        abstract boolean contains(int x);
+
+        /** Sets x. */
+        abstract Container add(int x);
+
+        /** Clears x, possibly leaving an empty container. */
+        abstract Container remove(int x);
+
+        /** Returns the least set bit at or after x, or -1. */
+        abstract int next(int x);
+
+        /** Returns the greatest set bit at or before x, or -1. */
+        abstract int previous(int x);
+
+        /** Returns the least clear bit at or after x, or CHUNK_SIZE. */
+        abstract int nextAbsent(int x);
+
+        /** Returns the greatest clear bit at or before x, or -1. */
+        abstract int previousAbsent(int x);
+
+        /**
+         * Returns the bits as 1024 words.  The array may belong to the
+         * container, and must then not be modified except by it.
+         */
+        abstract long[] words();
+
+        /**
+         * Stores the set bits, each or'ed with high, into dst, and
+         * returns their number.
+         */
+        abstract int toArray(int[] dst, int high);
+
+        /** Returns a copy. */
+        abstract Container copy();
+
+        /** Returns the type in the serialized form. */
+        abstract int type();
+
+        /** Returns the size of the serialized body. */
+        abstract int bodySize();
+
+        /** Writes the body at the position of the buffer. */
+        abstract void write(ByteBuffer b);
+
+        /**
+         * Returns the smallest container for the given words, taking
+         * ownership of the array.
+         */
+        static Container fromWords(long[] words) {
+            int card = 0, runs = 0;
+            long carry = 0L;
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                card += Long.bitCount(w);
+                // count the bits that start a run
+                runs += Long.bitCount(w & ~((w << 1) | carry));
+                carry = w >>> 63;
+            }
+            if (RunContainer.bodySize(runs) < Math.min(2 * card, 8 * WORDS))
+                return RunContainer.fromWords(words, runs, card);
+            if (card <= ARRAY_MAX)
+                return ArrayContainer.fromWords(words, card);
+            return new BitmapContainer(words, card);
+        }
+
+        /**
+         * Returns the result of the logical operation on a and b.  A
+         * bitmap container a may be modified and returned; b is never
+         * changed.
+         */
+        static Container op(Container a, Container b, int op) {
+            if (a instanceof ArrayContainer) {
+                ArrayContainer x = (ArrayContainer)a;
+                if (b instanceof ArrayContainer)
+                    return ArrayContainer.merge(x, (ArrayContainer)b, op);
+                if (op == AND || op == ANDNOT)
+                    return x.filter(b, op == AND);
+            } else if (b instanceof ArrayContainer) {
+                ArrayContainer y = (ArrayContainer)b;
+                if (op == AND)
+                    return y.filter(a, true);
+                if (a instanceof BitmapContainer)
+                    return ((BitmapContainer)a).apply(y, op);
+            }
+            if (a instanceof RunContainer && b instanceof RunContainer)
+                return RunContainer.merge((RunContainer)a, (RunContainer)b, op);
+            long[] x = a.words(), y = b.words();
+            boolean reuse = a instanceof BitmapContainer;
+            long[] r = reuse ? x : new long[WORDS];
+            switch (op) {
+            case AND:
+                for (int i = 0; i < WORDS; i++) r[i] = x[i] & y[i];
+                break;
+            case OR:
+                for (int i = 0; i < WORDS; i++) r[i] = x[i] | y[i];
+                break;
+            case XOR:
+                for (int i = 0; i < WORDS; i++) r[i] = x[i] ^ y[i];
+                break;
+            default:
+                for (int i = 0; i < WORDS; i++) r[i] = x[i] & ~y[i];
+                break;
+            }
+            if (!reuse)
+                return fromWords(r);
+            BitmapContainer c = (BitmapContainer)a;
+            c.card = bitCount(r);
+            return (c.card > ARRAY_MAX) ? c : ArrayContainer.fromWords(r, c.card);
+        }
+
+        /** Returns true if a and b have a set bit in common. */
+        static boolean intersects(Container a, Container b) {
+            if (b instanceof ArrayContainer) {
+                Container t = a;
+                a = b;
+                b = t;
+            }
+            if (a instanceof ArrayContainer) {
+                ArrayContainer x = (ArrayContainer)a;
+                for (int i = 0; i < x.card; i++)
+                    if (b.contains(x.values[i]))
+                        return true;
+                return false;
+            }
+            long[] x = a.words(), y = b.words();
+            for (int i = 0; i < WORDS; i++)
+                if ((x[i] & y[i]) != 0)
+                    return true;
+            return false;
+        }
+
+        /** Returns true if a and b have the same bits set. */
+        static boolean sameBits(Container a, Container b) {
+            if (a.cardinality() != b.cardinality())
+                return false;
+            if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+                char[] x = ((ArrayContainer)a).values, y = ((ArrayContainer)b).values;
+                for (int i = a.cardinality() - 1; i >= 0; i--)
+                    if (x[i] != y[i])
+                        return false;
+                return true;
+            }
+            return Arrays.equals(a.words(), b.words());
+        }
+
+        /**
+         * Returns a container decoded from the body at the given type
+         * and offset in b.
+         */
+        static Container read(ByteBuffer b, int location, int card) {
+            int type = location >>> 30, offset = location & 0x3fffffff;
+            ByteBuffer d = b.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            d.position(offset);
+            switch (type) {
+            case ARRAY: {
+                if (card > ARRAY_MAX)
+                    break;
+                char[] values = new char[card];
+                d.asCharBuffer().get(values);
+                return new ArrayContainer(values, card);
+            }
+            case BITMAP: {
+                long[] words = new long[WORDS];
+                d.asLongBuffer().get(words);
+                return new BitmapContainer(words, card);
+            }
+            case RUN: {
+                int n = d.getChar();
+                char[] runs = new char[2 * n];
+                d.asCharBuffer().get(runs);
+                return new RunContainer(runs, n, card);
+            }
+            }
+            throw new IllegalArgumentException("Malformed bit set");
+        }
+
+        static int bitCount(long[] words) {
+            int n = 0;
+            for (long w : words)
+                n += Long.bitCount(w);
+            return n;
+        }
+
+        // Searches of words, as in BitSet
+
+        static int nextSetBit(long[] words, int from) {
+            int u = from >>> 6;
+            long word = words[u] & (-1L << from);
+            for (;;) {
+                if (word != 0)
+                    return (u << 6) + Long.numberOfTrailingZeros(word);
+                if (++u == WORDS)
+                    return -1;
+                word = words[u];
+            }
+        }
+
+        static int nextClearBit(long[] words, int from) {
+            int u = from >>> 6;
+            long word = ~words[u] & (-1L << from);
+            for (;;) {
+                if (word != 0)
+                    return (u << 6) + Long.numberOfTrailingZeros(word);
+                if (++u == WORDS)
+                    return CHUNK_SIZE;
+                word = ~words[u];
+            }
+        }
+
+        static int previousSetBit(long[] words, int from) {
+            int u = from >>> 6;
+            long word = words[u] & (-1L >>> -(from + 1));
+            for (;;) {
+                if (word != 0)
+                    return ((u + 1) << 6) - 1 - Long.numberOfLeadingZeros(word);
+                if (u-- == 0)
+                    return -1;
+                word = words[u];
+            }
+        }
+
+        static int previousClearBit(long[] words, int from) {
+            int u = from >>> 6;
+            long word = ~words[u] & (-1L >>> -(from + 1));
+            for (;;) {
+                if (word != 0)
+                    return ((u + 1) << 6) - 1 - Long.numberOfLeadingZeros(word);
+                if (u-- == 0)
+                    return -1;
+                word = ~words[u];
+            }
+        }
+
+        /** Sets the bits from a to b inclusive. */
+        static void setRange(long[] words, int a, int b) {
+            int s = a >>> 6, e = b >>> 6;
+            long first = -1L << a, last = -1L >>> (63 - (b & 63));
+            if (s == e) {
+                words[s] |= first & last;
+            } else {
+                words[s] |= first;
+                for (int i = s + 1; i < e; i++)
+                    words[i] = -1L;
+                words[e] |= last;
+            }
+        }
+    }
+
+    /**
+     * A container holding the set bits in a sorted array.
+     */
+    static final class ArrayContainer extends Container {
+        char[] values;
+        int card;
+
+        ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        ArrayContainer(int x) {
+            values = new char[] { (char)x, 0, 0, 0 };
+            card = 1;
+        }
+
+        static ArrayContainer fromWords(long[] words, int card) {
+            char[] values = new char[card];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long w = words[i]; w != 0; w &= w - 1)
+                    values[n++] = (char)((i << 6) + Long.numberOfTrailingZeros(w));
+            }
+            return new ArrayContainer(values, card);
+        }
+
+        private int search(int x) {
+            return Arrays.binarySearch(values, 0, card, (char)x);
+        }
+
+        int cardinality() {
+            return card;
+        }
+
+        boolean contains(int x) {
+            return search(x) >= 0;
+        }
+
+        Container add(int x) {
+            int i = search(x);
+            if (i >= 0)
+                return this;
+            if (card == ARRAY_MAX)
+                return toBitmap().add(x);
+            i = -i - 1;
+            int n = card;
+            if (n == values.length)
+                values = Arrays.copyOf(values, Math.min(Math.max(2 * n, 4),
+                                                        ARRAY_MAX));
+            System.arraycopy(values, i, values, i + 1, n - i);
+            values[i] = (char)x;
+            card = n + 1;
+            return this;
+        }
+
+        Container remove(int x) {
+            int i = search(x);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, card - i - 1);
+                card--;
+            }
+            return this;
+        }
+
+        int next(int x) {
+            int i = search(x);
+            if (i >= 0)
+                return x;
+            i = -i - 1;
+            return (i < card) ? values[i] : -1;
+        }
+
+        int previous(int x) {
+            int i = search(x);
+            if (i >= 0)
+                return x;
+            i = -i - 2;
+            return (i >= 0) ? values[i] : -1;
+        }
+
+        int nextAbsent(int x) {
+            int i = search(x);
+            if (i < 0)
+                return x;
+            while (i + 1 < card && values[i + 1] == values[i] + 1)
+                i++;
+            return values[i] + 1;
+        }
+
+        int previousAbsent(int x) {
+            int i = search(x);
+            if (i < 0)
+                return x;
+            while (i > 0 && values[i - 1] == values[i] - 1)
+                i--;
+            return values[i] - 1;
+        }
+
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < card; i++) {
+                int v = values[i];
+                words[v >>> 6] |= 1L << v;
+            }
+            return words;
+        }
+
+        int toArray(int[] dst, int high) {
+            char[] vs = values;
+            for (int i = 0, n = card; i < n; i++)
+                dst[i] = high | vs[i];
+            return card;
+        }
+
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, card), card);
+        }
+
+        BitmapContainer toBitmap() {
+            return new BitmapContainer(words(), card);
+        }
+
+        /** Returns the values that are (or are not) set in b. */
+        ArrayContainer filter(Container b, boolean keep) {
+            char[] r = new char[card];
+            int n = 0;
+            for (int i = 0; i < card; i++) {
+                char v = values[i];
+                if (b.contains(v) == keep)
+                    r[n++] = v;
+            }
+            return new ArrayContainer(r, n);
+        }
+
+        static Container merge(ArrayContainer a, ArrayContainer b, int op) {
+            char[] x = a.values, y = b.values;
+            int na = a.card, nb = b.card;
+            char[] r = new char[(op == AND) ? Math.min(na, nb) :
+                                (op == ANDNOT) ? na : na + nb];
+            int n = 0, i = 0, j = 0;
+            while (i < na && j < nb) {
+                char u = x[i], v = y[j];
+                if (u < v) {
+                    if (op != AND)
+                        r[n++] = u;
+                    i++;
+                } else if (u > v) {
+                    if (op == OR || op == XOR)
+                        r[n++] = v;
+                    j++;
+                } else {
+                    if (op == AND || op == OR)
+                        r[n++] = u;
+                    i++;
+                    j++;
+                }
+            }
+            if (op != AND)
+                while (i < na)
+                    r[n++] = x[i++];
+            if (op == OR || op == XOR)
+                while (j < nb)
+                    r[n++] = y[j++];
+            ArrayContainer c = new ArrayContainer(r, n);
+            return (n > ARRAY_MAX) ? c.toBitmap() : c;
+        }
+
+        int type() {
+            return ARRAY;
+        }
+
+        int bodySize() {
+            return 2 * card;
+        }
+
+        void write(ByteBuffer b) {
+            b.asCharBuffer().put(values, 0, card);
+            b.position(b.position() + 2 * card);
+        }
+    }
+
+    /**
+     * A container holding the set bits in a bitmap of 1024 words.
+     */
+    static final class BitmapContainer extends Container {
+        final long[] words;
+        int card;
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        int cardinality() {
+            return card;
+        }
+
+        boolean contains(int x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        Container add(int x) {
+            long bit = 1L << x;
+            int i = x >>> 6;
+            if ((words[i] & bit) == 0) {
+                words[i] |= bit;
+                card++;
+            }
+            return this;
+        }
+
+        Container remove(int x) {
+            long bit = 1L << x;
+            int i = x >>> 6;
+            if ((words[i] & bit) != 0) {
+                words[i] &= ~bit;
+                if (--card <= ARRAY_MAX)
+                    return ArrayContainer.fromWords(words, card);
+            }
+            return this;
+        }
+
+        /** Applies OR, XOR or ANDNOT of the values of b in place. */
+        Container apply(ArrayContainer b, int op) {
+            long[] ws = words;
+            char[] vs = b.values;
+            for (int i = 0, n = b.card; i < n; i++) {
+                int v = vs[i];
+                long bit = 1L << v;
+                if (op == OR)
+                    ws[v >>> 6] |= bit;
+                else if (op == XOR)
+                    ws[v >>> 6] ^= bit;
+                else
+                    ws[v >>> 6] &= ~bit;
+            }
+            card = bitCount(ws);
+            return (card > ARRAY_MAX) ? this : ArrayContainer.fromWords(ws, card);
+        }
+
+        int next(int x) {
+            return nextSetBit(words, x);
+        }
+
+        int previous(int x) {
+            return previousSetBit(words, x);
+        }
+
+        int nextAbsent(int x) {
+            return nextClearBit(words, x);
+        }
+
+        int previousAbsent(int x) {
+            return previousClearBit(words, x);
+        }
+
+        long[] words() {
+            return words;
+        }
+
+        int toArray(int[] dst, int high) {
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long w = words[i]; w != 0; w &= w - 1)
+                    dst[n++] = high | (i << 6) + Long.numberOfTrailingZeros(w);
+            }
+            return n;
+        }
+
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        int type() {
+            return BITMAP;
+        }
+
+        int bodySize() {
+            return 8 * WORDS;
+        }
+
+        void write(ByteBuffer b) {
+            b.asLongBuffer().put(words);
+            b.position(b.position() + 8 * WORDS);
+        }
+    }
+
+    /**
+     * A container holding the set bits as runs, each a start and a
+     * length minus one, in ascending order and separated by clear bits.
+     */
+    static final class RunContainer extends Container {
+        char[] runs;
+        int nruns;
+        int card;
+
+        RunContainer(char[] runs, int nruns, int card) {
+            this.runs = runs;
+            this.nruns = nruns;
+            this.card = card;
+        }
+
+        /** Returns a container holding the bits from a to b inclusive. */
+        static RunContainer range(int a, int b) {
+            return new RunContainer(new char[] { (char)a, (char)(b - a) },
+                                    1, b - a + 1);
+        }
+
+        static RunContainer fromWords(long[] words, int nruns, int card) {
+            char[] runs = new char[2 * nruns];
+            int n = 0;
+            for (int s = nextSetBit(words, 0); s >= 0; ) {
+                int e = nextClearBit(words, s);
+                runs[n++] = (char)s;
+                runs[n++] = (char)(e - 1 - s);
+                s = (e < CHUNK_SIZE) ? nextSetBit(words, e) : -1;
+            }
+            return new RunContainer(runs, nruns, card);
+        }
+
+        static int bodySize(int nruns) {
+            return 2 + 4 * nruns;
+        }
+
+        private int start(int i) {
+            return runs[2 * i];
+        }
+
+        private int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /** Returns the index of the last run starting at or before x, or -1. */
+        private int find(int x) {
+            int lo = 0, hi = nruns - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= x)
+                    lo = mid + 1;
+                else
+                    hi = mid - 1;
+            }
+            return hi;
+        }
+
+        private void insertRun(int i, int start, int length) {
+            int n = nruns;
+            if (2 * n + 2 > runs.length)
+                runs = Arrays.copyOf(runs, Math.max(4 * n, 4));
+            System.arraycopy(runs, 2 * i, runs, 2 * i + 2, 2 * (n - i));
+            runs[2 * i] = (char)start;
+            runs[2 * i + 1] = (char)length;
+            nruns = n + 1;
+        }
+
+        private void deleteRun(int i) {
+            System.arraycopy(runs, 2 * i + 2, runs, 2 * i, 2 * (nruns - i - 1));
+            nruns--;
+        }
+
+        /**
+         * Returns this container, or a smaller one of another type.
+         */
+        Container optimize() {
+            if (bodySize(nruns) <= Math.min(2 * card, 8 * WORDS))
+                return this;
+            return (card <= ARRAY_MAX) ?
+                ArrayContainer.fromWords(words(), card) :
+                new BitmapContainer(words(), card);
+        }
+
+        int cardinality() {
+            return card;
+        }
+
+        boolean contains(int x) {
+            int i = find(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        Container add(int x) {
+            int i = find(x);
+            if (i >= 0 && x <= end(i))
+                return this;
+            card++;
+            if (i >= 0 && x == end(i) + 1) {
+                if (i + 1 < nruns && start(i + 1) == x + 1) {
+                    runs[2 * i + 1] = (char)(end(i + 1) - start(i));
+                    deleteRun(i + 1);
+                } else {
+                    runs[2 * i + 1]++;
+                }
+            } else if (i + 1 < nruns && start(i + 1) == x + 1) {
+                runs[2 * i + 2] = (char)x;
+                runs[2 * i + 3]++;
+            } else {
+                insertRun(i + 1, x, 0);
+            }
+            return optimize();
+        }
+
+        Container remove(int x) {
+            int i = find(x);
+            if (i < 0 || x > end(i))
+                return this;
+            card--;
+            int s = start(i), e = end(i);
+            if (s == e) {
+                deleteRun(i);
+            } else if (x == s) {
+                runs[2 * i] = (char)(x + 1);
+                runs[2 * i + 1]--;
+            } else if (x == e) {
+                runs[2 * i + 1]--;
+            } else {
+                runs[2 * i + 1] = (char)(x - 1 - s);
+                insertRun(i + 1, x + 1, e - x - 1);
+            }
+            return (card == 0) ? this : optimize();
+        }
+
+        int next(int x) {
+            int i = find(x);
+            if (i >= 0 && x <= end(i))
+                return x;
+            return (i + 1 < nruns) ? start(i + 1) : -1;
+        }
+
+        int previous(int x) {
+            int i = find(x);
+            return (i < 0) ? -1 : Math.min(x, end(i));
+        }
+
+        int nextAbsent(int x) {
+            int i = find(x);
+            return (i >= 0 && x <= end(i)) ? end(i) + 1 : x;
+        }
+
+        int previousAbsent(int x) {
+            int i = find(x);
+            return (i >= 0 && x <= end(i)) ? start(i) - 1 : x;
+        }
+
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < nruns; i++)
+                setRange(words, start(i), end(i));
+            return words;
+        }
+
+        int toArray(int[] dst, int high) {
+            int n = 0;
+            for (int i = 0; i < nruns; i++)
+                for (int v = start(i), e = end(i); v <= e; v++)
+                    dst[n++] = high | v;
+            return n;
+        }
+
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * nruns), nruns, card);
+        }
+
+        /**
+         * Returns the result of the logical operation on the runs of a
+         * and b, found by sweeping over the positions where either
+         * starts or ends a run.
+         */
+        static Container merge(RunContainer a, RunContainer b, int op) {
+            int na = a.nruns, nb = b.nruns;
+            RunContainer r = new RunContainer(new char[2 * (na + nb) + 2], 0, 0);
+            int ia = 0, ib = 0, n = 0, card = 0, lastEnd = -2;
+            char[] out = r.runs;
+            for (int pos = 0; pos < CHUNK_SIZE; ) {
+                while (ia < na && a.end(ia) < pos)
+                    ia++;
+                while (ib < nb && b.end(ib) < pos)
+                    ib++;
+                if (ia == na && (ib == nb || op == AND || op == ANDNOT))
+                    break;
+                boolean inA = ia < na && a.start(ia) <= pos;
+                boolean inB = ib < nb && b.start(ib) <= pos;
+                int next = CHUNK_SIZE;
+                if (ia < na)
+                    next = inA ? a.end(ia) + 1 : a.start(ia);
+                if (ib < nb)
+                    next = Math.min(next, inB ? b.end(ib) + 1 : b.start(ib));
+                boolean in;
+                switch (op) {
+                case AND:  in = inA & inB;  break;
+                case OR:   in = inA | inB;  break;
+                case XOR:  in = inA ^ inB;  break;
+                default:   in = inA & !inB; break;
+                }
+                if (in) {
+                    if (lastEnd + 1 == pos) {
+                        out[2 * n - 1] += (char)(next - pos);
+                    } else {
+                        out[2 * n] = (char)pos;
+                        out[2 * n + 1] = (char)(next - pos - 1);
+                        n++;
+                    }
+                    lastEnd = next - 1;
+                    card += next - pos;
+                }
+                pos = next;
+            }
+            r.nruns = n;
+            r.card = card;
+            return r.optimize();
+        }
+
+        int type() {
+            return RUN;
+        }
+
+        int bodySize() {
+            return bodySize(nruns);
+        }
+
+        void write(ByteBuffer b) {
+            b.putChar((char)nruns);
+            b.asCharBuffer().put(runs, 0, 2 * nruns);
+            b.position(b.position() + 4 * nruns);
+        }
+    }
+}
@@ -203,6 +203,42 @@ public class TreeMap<K,V>
         }
     }
 
+    /**
+     * Returns a new tree map containing the given keys, each mapped to the
+     * value at the same index, ordered by the given comparator.  The keys
+     * must already be in strictly ascending order; this is checked with
+     * one comparison per key, and the tree is then built in linear time,
+     * without the rebalancing done by repeated {@link #put put} calls.
+     * A sorted stream may be loaded by collecting its keys and values to
+     * arrays first.  The arrays are not retained.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of mapped values
+     * @param keys the keys, in strictly ascending order
+     * @param values the values, or {@code null} to map every key to
+     *        {@code null}
+     * @param comparator the comparator that will be used to order the map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     * @return a new tree map containing the given mappings
+     * @throws IllegalArgumentException if the keys are not in strictly
+     *         ascending order, or {@code values} is not the same length
+     *         as {@code keys}
+     * @throws ClassCastException if the keys cannot be compared with one
+     *         another
+     * @throws NullPointerException if {@code keys} is null, or it contains
+     *         a null key and the comparator does not permit null keys
+     */
+    public static <K,V> TreeMap<K,V> fromSorted(K[] keys, V[] values,
+                                                Comparator<? super K> comparator) {
+        if (values != null && values.length != keys.length)
+            throw new IllegalArgumentException("keys.length != values.length");
+        TreeMap<K,V> map = new TreeMap<>(comparator);
+        map.checkSorted(keys);
+        map.buildFromSorted(keys, values, null);
+        return map;
+    }
+
 
     // Query Operations
 
@@ -1507,6 +1543,18 @@ public class TreeMap<K,V>
             return (fromStart && toEnd) ? m.size() : entrySet().size();
         }
 
+        /**
+         * Removes all of the mappings in this range from the backing map.
+         * The entries are detached from the tree together rather than one
+         * at a time.
+         */
+        public void clear() {
+            if (fromStart && toEnd)
+                m.clear();
+            else
+                m.removeRange(absLowest(), absHighFence());
+        }
+
         public final boolean containsKey(Object key) {
             return inRange(key) && m.containsKey(key);
         }
@@ -1645,6 +1693,10 @@ public class TreeMap<K,V>
                 return n == null || tooHigh(n.key);
             }
 
+            public void clear() {
+                NavigableSubMap.this.clear();
+            }
+
             public boolean contains(Object o) {
                 if (!(o instanceof Map.Entry))
                     return false;
@@ -2409,6 +2461,193 @@ public class TreeMap<K,V>
         setColor(x, BLACK);
     }
 
+    /**
+     * Ranges of at most this many entries are removed one entry at a
+     * time; larger ones by splitting and joining the tree.
+     */
+    private static final int RANGE_DELETE_THRESHOLD = 32;
+
+    /**
+     * Removes the entries from first up to but not including fence (or
+     * to the end of the map if fence is null).
+     *
+     * Rather than deleting and rebalancing after each entry, the tree is
+     * split into the entries below the range and the entries at or above
+     * the fence, and the two trees are joined again.  Each split and join
+     * step only rebalances along one path, so this takes O(log n)
+     * restructuring (O(log^2 n) including black height computations),
+     * plus O(k) to count the k removed entries.
+     */
+    void removeRange(Entry<K,V> first, Entry<K,V> fence) {
+        if (first == null || first == fence)
+            return;
+        int count = 0;
+        for (Entry<K,V> e = first; e != null && e != fence; e = successor(e))
+            count++;
+        if (count == size) {
+            clear();
+            return;
+        }
+        if (count <= RANGE_DELETE_THRESHOLD) {
+            Entry<K,V> e = first;
+            while (count-- > 0) {
+                // deleteEntry moves the successor of an internal node into it
+                Entry<K,V> next = (e.left != null && e.right != null) ?
+                    e : successor(e);
+                deleteEntry(e);
+                e = next;
+            }
+            return;
+        }
+
+        K lo = first.key;
+        K hi = (fence == null) ? null : fence.key;
+        // Descend to the highest entry in the range, remembering the entries
+        // passed on the way: those below the range keep their left subtrees,
+        // those above keep their right subtrees.
+        ArrayList<Entry<K,V>> below = new ArrayList<>();
+        ArrayList<Entry<K,V>> above = new ArrayList<>();
+        Entry<K,V> t = root;
+        for (;;) {
+            if (compare(t.key, lo) < 0) {
+                below.add(t);
+                t = t.right;
+            } else if (hi != null && compare(t.key, hi) >= 0) {
+                above.add(t);
+                t = t.left;
+            } else {
+                break;
+            }
+        }
+        Entry<K,V> l = splitBelow(t.left, lo);
+        Entry<K,V> r = splitAbove(t.right, hi);
+        for (int i = below.size() - 1; i >= 0; i--) {
+            Entry<K,V> b = below.get(i);
+            l = join(b.left, b, l);
+        }
+        for (int i = above.size() - 1; i >= 0; i--) {
+            Entry<K,V> a = above.get(i);
+            r = join(r, a, a.right);
+        }
+
+        if (l == null) {
+            l = r;
+        } else if (r != null) {
+            // Take the lowest entry of r as the key joining the two trees
+            Entry<K,V> p = r;
+            while (p.left != null)
+                p = p.left;
+            root = r;
+            deleteEntry(p);
+            size++; // counted below
+            l = join(l, p, root);
+        }
+        l.parent = null;
+        l.color = BLACK;
+        root = l;
+        size -= count;
+        modCount++;
+    }
+
+    /**
+     * Returns the tree of the entries in subtree t with keys below lo.
+     */
+    private Entry<K,V> splitBelow(Entry<K,V> t, K lo) {
+        while (t != null) {
+            if (compare(t.key, lo) < 0)
+                return join(t.left, t, splitBelow(t.right, lo));
+            t = t.left;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the tree of the entries in subtree t with keys at or above
+     * hi, or null if hi is null.
+     */
+    private Entry<K,V> splitAbove(Entry<K,V> t, K hi) {
+        if (hi == null)
+            return null;
+        while (t != null) {
+            if (compare(t.key, hi) >= 0) {
+                Entry<K,V> r = t.right;
+                return join(splitAbove(t.left, hi), t, r);
+            }
+            t = t.right;
+        }
+        return null;
+    }
+
+    /**
+     * Joins trees l and r, all of whose keys are respectively below and
+     * above the key of k, into a single valid tree containing k.  Either
+     * tree may be null, and their roots may be red; the links of k are
+     * ignored.  The root field is used as scratch space.
+     */
+    private Entry<K,V> join(Entry<K,V> l, Entry<K,V> k, Entry<K,V> r) {
+        k.left = k.right = k.parent = null;
+        int hl = blackHeight(l), hr = blackHeight(r);
+        if (hl == hr) {
+            k.left = l;
+            if (l != null)
+                l.parent = k;
+            k.right = r;
+            if (r != null)
+                r.parent = k;
+            k.color = BLACK;
+            return k;
+        }
+        // Replace the black entry c of the taller tree that has the black
+        // height of the shorter one by k, with c and the shorter tree as its
+        // children, and then rebalance from k as after an insertion.
+        Entry<K,V> p = null, c;
+        int h;
+        if (hl > hr) {
+            for (c = l, h = hl; c != null && (c.color == RED || h > hr); c = c.right) {
+                if (c.color == BLACK)
+                    h--;
+                p = c;
+            }
+            k.left = c;
+            k.right = r;
+            p.right = k;
+            root = l;
+        } else {
+            for (c = r, h = hr; c != null && (c.color == RED || h > hl); c = c.left) {
+                if (c.color == BLACK)
+                    h--;
+                p = c;
+            }
+            k.left = l;
+            k.right = c;
+            p.left = k;
+            root = r;
+        }
+        k.parent = p;
+        if (k.left != null)
+            k.left.parent = k;
+        if (k.right != null)
+            k.right.parent = k;
+        fixAfterInsertion(k);
+        return root;
+    }
+
+    /**
+     * Detaches t from any parent, colors it black, and returns the number
+     * of black entries on each path from it to a leaf.
+     */
+    private static <K,V> int blackHeight(Entry<K,V> t) {
+        if (t == null)
+            return 0;
+        t.parent = null;
+        t.color = BLACK;
+        int h = 0;
+        for (; t != null; t = t.left)
+            if (t.color == BLACK)
+                h++;
+        return h;
+    }
+
     private static final long serialVersionUID = 919286545866124006L;
 
     /**
@@ -2470,6 +2709,64 @@ public class TreeMap<K,V>
     }
 
 
+    /**
+     * Checks that keys are in strictly ascending order, as required by
+     * {@link #buildFromSorted(Object[], Object[], Object)}.
+     */
+    final void checkSorted(Object[] keys) {
+        if (keys.length > 0)
+            compare(keys[0], keys[0]); // type (and possibly null) check
+        for (int i = 1; i < keys.length; i++) {
+            if (compare(keys[i - 1], keys[i]) >= 0)
+                throw new IllegalArgumentException(
+                    "keys not in strictly ascending order at index " + i);
+        }
+    }
+
+    /**
+     * Linear time tree building algorithm from an array of sorted keys, with
+     * the value at the same index in values, or defaultVal if values is
+     * null.  The current contents of the map are replaced.
+     */
+    final void buildFromSorted(Object[] keys, Object[] values, V defaultVal) {
+        modCount++;
+        size = keys.length;
+        root = buildFromSorted(0, 0, keys.length - 1, computeRedLevel(keys.length),
+                               keys, values, defaultVal);
+    }
+
+    /**
+     * Recursive helper for the previous method.  Unlike the iterator
+     * version, keys and values are taken by index.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K,V> Entry<K,V> buildFromSorted(int level, int lo, int hi,
+                                                    int redLevel,
+                                                    Object[] keys, Object[] values,
+                                                    V defaultVal) {
+        if (hi < lo) return null;
+
+        int mid = (lo + hi) >>> 1;
+        Entry<K,V> middle = new Entry<>((K)keys[mid],
+                                        values == null ? defaultVal : (V)values[mid],
+                                        null);
+        if (level == redLevel)
+            middle.color = RED;
+        if (lo < mid) {
+            Entry<K,V> left = buildFromSorted(level+1, lo, mid - 1, redLevel,
+                                              keys, values, defaultVal);
+            middle.left = left;
+            left.parent = middle;
+        }
+        if (mid < hi) {
+            Entry<K,V> right = buildFromSorted(level+1, mid+1, hi, redLevel,
+                                               keys, values, defaultVal);
+            middle.right = right;
+            right.parent = middle;
+        }
+        return middle;
+    }
+
     /**
      * Linear time tree building algorithm from sorted data.  Can accept keys
      * and/or values from iterator or stream. This leads to too many
@@ -2646,11 +2943,11 @@ public class TreeMap<K,V>
     /**
      * Base class for spliterators.  Iteration starts at a given
      * origin and continues up to but not including a given fence (or
-     * null for end).  At top-level, for ascending cases, the first
-     * split uses the root as left-fence/right-origin. From there,
-     * right-hand splits replace the current fence with its left
-     * child, also serving as origin for the split-off spliterator.
-     * Left-hands are symmetric. Descending versions place the origin
+     * null for end).  Each split uses the highest entry of the tree
+     * lying strictly between the current origin and fence (at
+     * top-level, the root) as left-fence/right-origin, and divides the
+     * size estimate according to the shape of the subtrees on either
+     * side (see splitEstimate).  Descending versions place the origin
      * at the end and invert ascending split rules.  This base class
      * is non-commital about directionality, or whether the top-level
      * spliterator covers the whole tree. This means that the actual
@@ -2704,6 +3001,70 @@ public class TreeMap<K,V>
         public final long estimateSize() {
             return (long)getEstimate();
         }
+
+        /**
+         * Returns the entry at which to split off the range from current
+         * up to (but not including) the returned entry, or null if the
+         * range cannot be split.  This is the highest entry in the tree
+         * lying strictly between current and fence in traversal order,
+         * found by descending from the root, so it is well defined
+         * however far traversal has advanced.
+         */
+        final TreeMap.Entry<K,V> splitEntry(boolean ascending) {
+            TreeMap.Entry<K,V> e = current, f = fence, s;
+            if (e == null || e == f)
+                return null;
+            for (s = tree.root; s != null; ) {
+                int c = (s == e) ? 0 : tree.compare(s.key, e.key);
+                if (ascending ? c <= 0 : c >= 0) {
+                    s = ascending ? s.right : s.left;  // at or before current
+                    continue;
+                }
+                if (f != null) {
+                    c = (s == f) ? 0 : tree.compare(s.key, f.key);
+                    if (ascending ? c >= 0 : c <= 0) {
+                        s = ascending ? s.left : s.right;  // at or after fence
+                        continue;
+                    }
+                }
+                return s;
+            }
+            return null;
+        }
+
+        /**
+         * Divides the estimate between the range before split entry s,
+         * which is returned, and the rest, which is kept.  Red-black trees
+         * built by successive insertions are often lopsided, so rather than
+         * halving, the estimate is divided in proportion to the squares of
+         * the outer path lengths of the subtrees on either side of s, which
+         * tracks their relative sizes closely for both random and ordered
+         * insertions.
+         */
+        final int splitEstimate(TreeMap.Entry<K,V> s, boolean ascending) {
+            long wl = Math.max(1, outerPathLength(ascending ? s.left : s.right));
+            long wr = 1 + outerPathLength(ascending ? s.right : s.left);
+            wl *= wl;
+            wr *= wr;
+            int n = (int)(est * wl / (wl + wr));
+            est -= n;
+            return n;
+        }
+
+        /**
+         * Returns the number of entries on the leftmost and rightmost paths
+         * of subtree p.
+         */
+        static <K,V> int outerPathLength(TreeMap.Entry<K,V> p) {
+            if (p == null)
+                return 0;
+            int n = 1;
+            for (TreeMap.Entry<K,V> q = p.left; q != null; q = q.left)
+                n++;
+            for (TreeMap.Entry<K,V> q = p.right; q != null; q = q.right)
+                n++;
+            return n;
+        }
     }
 
     static final class KeySpliterator<K,V>
@@ -2718,20 +3079,12 @@ public class TreeMap<K,V>
         public KeySpliterator<K,V> trySplit() {
             if (est < 0)
                 getEstimate(); // force initialization
-            int d = side;
-            TreeMap.Entry<K,V> e = current, f = fence,
-                s = ((e == null || e == f) ? null :      // empty
-                     (d == 0)              ? tree.root : // was top
-                     (d >  0)              ? e.right :   // was right
-                     (d <  0 && f != null) ? f.left :    // was left
-                     null);
-            if (s != null && s != e && s != f &&
-                tree.compare(e.key, s.key) < 0) {        // e not already past s
-                side = 1;
-                return new KeySpliterator<>
-                    (tree, e, current = s, -1, est >>>= 1, expectedModCount);
-            }
-            return null;
+            TreeMap.Entry<K,V> e = current, s = splitEntry(true);
+            if (s == null)
+                return null;
+            side = 1;
+            return new KeySpliterator<>
+                (tree, e, current = s, -1, splitEstimate(s, true), expectedModCount);
         }
 
         public void forEachRemaining(Consumer<? super K> action) {
@@ -2796,20 +3149,12 @@ public class TreeMap<K,V>
         public DescendingKeySpliterator<K,V> trySplit() {
             if (est < 0)
                 getEstimate(); // force initialization
-            int d = side;
-            TreeMap.Entry<K,V> e = current, f = fence,
-                    s = ((e == null || e == f) ? null :      // empty
-                         (d == 0)              ? tree.root : // was top
-                         (d <  0)              ? e.left :    // was left
-                         (d >  0 && f != null) ? f.right :   // was right
-                         null);
-            if (s != null && s != e && s != f &&
-                tree.compare(e.key, s.key) > 0) {       // e not already past s
-                side = 1;
-                return new DescendingKeySpliterator<>
-                        (tree, e, current = s, -1, est >>>= 1, expectedModCount);
-            }
-            return null;
+            TreeMap.Entry<K,V> e = current, s = splitEntry(false);
+            if (s == null)
+                return null;
+            side = 1;
+            return new DescendingKeySpliterator<>
+                (tree, e, current = s, -1, splitEstimate(s, false), expectedModCount);
         }
 
         public void forEachRemaining(Consumer<? super K> action) {
@@ -2869,20 +3214,12 @@ public class TreeMap<K,V>
         public ValueSpliterator<K,V> trySplit() {
             if (est < 0)
                 getEstimate(); // force initialization
-            int d = side;
-            TreeMap.Entry<K,V> e = current, f = fence,
-                    s = ((e == null || e == f) ? null :      // empty
-                         (d == 0)              ? tree.root : // was top
-                         (d >  0)              ? e.right :   // was right
-                         (d <  0 && f != null) ? f.left :    // was left
-                         null);
-            if (s != null && s != e && s != f &&
-                tree.compare(e.key, s.key) < 0) {        // e not already past s
-                side = 1;
-                return new ValueSpliterator<>
-                        (tree, e, current = s, -1, est >>>= 1, expectedModCount);
-            }
-            return null;
+            TreeMap.Entry<K,V> e = current, s = splitEntry(true);
+            if (s == null)
+                return null;
+            side = 1;
+            return new ValueSpliterator<>
+                (tree, e, current = s, -1, splitEstimate(s, true), expectedModCount);
         }
 
         public void forEachRemaining(Consumer<? super V> action) {
@@ -2941,20 +3278,12 @@ public class TreeMap<K,V>
         public EntrySpliterator<K,V> trySplit() {
             if (est < 0)
                 getEstimate(); // force initialization
-            int d = side;
-            TreeMap.Entry<K,V> e = current, f = fence,
-                    s = ((e == null || e == f) ? null :      // empty
-                         (d == 0)              ? tree.root : // was top
-                         (d >  0)              ? e.right :   // was right
-                         (d <  0 && f != null) ? f.left :    // was left
-                         null);
-            if (s != null && s != e && s != f &&
-                tree.compare(e.key, s.key) < 0) {        // e not already past s
-                side = 1;
-                return new EntrySpliterator<>
-                        (tree, e, current = s, -1, est >>>= 1, expectedModCount);
-            }
-            return null;
+            TreeMap.Entry<K,V> e = current, s = splitEntry(true);
+            if (s == null)
+                return null;
+            side = 1;
+            return new EntrySpliterator<>
+                (tree, e, current = s, -1, splitEstimate(s, true), expectedModCount);
         }
 
         public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
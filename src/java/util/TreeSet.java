@@ -172,6 +172,36 @@ public class TreeSet<E> extends AbstractSet<E>
         addAll(s);
     }
 
+    /**
+     * Returns a new tree set containing the given elements, sorted
+     * according to the given comparator.  The elements must already be
+     * in strictly ascending order; this is checked with one comparison
+     * per element, and the tree is then built in linear time.  A sorted
+     * stream may be loaded by collecting it to an array first.  The array
+     * is not retained.
+     *
+     * @param <E> the type of elements
+     * @param elements the elements, in strictly ascending order
+     * @param comparator the comparator that will be used to order the set.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the elements will be used.
+     * @return a new tree set containing the given elements
+     * @throws IllegalArgumentException if the elements are not in strictly
+     *         ascending order
+     * @throws ClassCastException if the elements cannot be compared with
+     *         one another
+     * @throws NullPointerException if {@code elements} is null, or it
+     *         contains a null element and the comparator does not permit
+     *         null elements
+     */
+    public static <E> TreeSet<E> fromSorted(E[] elements,
+                                            Comparator<? super E> comparator) {
+        TreeMap<E,Object> map = new TreeMap<>(comparator);
+        map.checkSorted(elements);
+        map.buildFromSorted(elements, null, PRESENT);
+        return new TreeSet<>(map);
+    }
+
     /**
      * Returns an iterator over the elements in this set in ascending order.
      *
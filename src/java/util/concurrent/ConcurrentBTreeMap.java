@@ -0,0 +1,2576 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A scalable concurrent {@link ConcurrentNavigableMap} implementation
+ * based on a B+tree.  The map is sorted according to the {@linkplain
+ * Comparable natural ordering} of its keys, or by a {@link Comparator}
+ * provided at map creation time, depending on which constructor is used.
+ *
+ * <p>Where {@link ConcurrentSkipListMap} allocates a node, and on
+ * average a third of an index, per mapping, this class keeps keys and
+ * values in arrays held by wide nodes, so that a lookup touches a few
+ * nodes and a range scan reads up to 64 mappings from consecutive array
+ * slots at a time.  It provides guaranteed <i>log(n)</i> time cost for
+ * the {@code containsKey}, {@code get}, {@code put} and {@code remove}
+ * operations and their variants.  Insertion, removal, update, and access
+ * operations safely execute concurrently by multiple threads.
+ *
+ * <p>Each node carries a version counter, in the manner of the
+ * optimistic read mode of {@link java.util.concurrent.locks.StampedLock}.
+ * Readers never write shared memory: they read a node optimistically and
+ * validate its version before relying on what they read, descending from
+ * node to node by <em>optimistic lock coupling</em>.  Updates lock only
+ * the leaf they modify, and, when a node must be split, its parent.
+ * Threads encountering a locked node spin briefly until it is released.
+ *
+ * <p>Iterators and spliterators are
+ * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+ * They copy the mappings of one leaf at a time.
+ *
+ * <p>All {@code Map.Entry} pairs returned by methods in this class
+ * and its views represent snapshots of mappings at the time they were
+ * produced. They do <em>not</em> support the {@code Entry.setValue}
+ * method. (Note however that it is possible to change mappings in the
+ * associated map using {@code put}, {@code putIfAbsent}, or
+ * {@code replace}, depending on exactly which effect you need.)
+ *
+ * <p>The {@code size} method of this map is a constant-time operation,
+ * but its result may be inaccurate if the map is modified concurrently.
+ * The {@code size} method of submaps requires a traversal of the range.
+ * The bulk operations {@code putAll}, {@code equals},
+ * {@code toArray}, {@code containsValue}, and {@code clear} are
+ * <em>not</em> guaranteed to be performed atomically. For example, an
+ * iterator operating concurrently with a {@code putAll} operation
+ * might view only some of the added elements.
+ *
+ * <p>Nodes are split as the map grows, but are not merged as it shrinks;
+ * only leaves that become empty are unlinked.  A map that grows large
+ * and then loses most of its mappings without regaining them therefore
+ * holds more, sparser nodes than one built to its current size.
+ *
+ * <p>This class and its views and iterators implement all of the
+ * <em>optional</em> methods of the {@link Map} and {@link Iterator}
+ * interfaces. Like most other concurrent collections, this class does
+ * <em>not</em> permit the use of {@code null} keys or values because some
+ * null return values cannot be reliably distinguished from the absence of
+ * elements.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @see ConcurrentSkipListMap
+ * @see java.util.BTreeMap
+ * @since 1.8
+ */
+public class ConcurrentBTreeMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+    /*
+     * Overview:
+     *
+     * The map is a B+tree: mappings are held in leaves, and inner
+     * nodes hold separator keys, where the separator at index i of an
+     * inner node is no greater than any key in child i+1, and greater
+     * than any key in child i.  Leaves are not linked to each other;
+     * traversals move to the next leaf by searching again from the root
+     * for the bound that ended the previous one.  This costs a descent
+     * per leaf, but means that a node is reachable only from its parent,
+     * which keeps the locking simple.
+     *
+     * Concurrency control is by optimistic lock coupling (see Leis,
+     * Scheibner, Kemper and Neumann, "The ART of Practical
+     * Synchronization", DaMoN 2016).  Each node has a version word,
+     * whose LOCKED bit is set while a writer holds it and whose
+     * OBSOLETE bit is set once it has been unlinked.  Releasing the
+     * lock advances the version.  A reader takes the version of a node
+     * (waiting while it is locked), reads the node, and then validates
+     * that the version has not changed; on descent it validates the
+     * parent after taking the version of the child, so that the child
+     * is known to have been the right one.  Any failed validation
+     * restarts the operation from the root.  As in StampedLock, a load
+     * fence orders the reads before the validation.
+     *
+     * Reads of a node being modified may see any mixture of old and
+     * new contents, and must not fail before validation.  Node arrays
+     * have a fixed capacity and are never replaced, so indexes stay in
+     * bounds; a null key, value or child means a concurrent shift and
+     * forces a restart, and user comparators see only actual keys.
+     *
+     * Writers upgrade the optimistic read of the leaf to a lock with a
+     * CAS from the validated version, which fails if anything changed.
+     * A node that is full is split before descending into it, locking
+     * the parent first and then the node, so its parent always has room
+     * for the new separator.  A writer never waits for a lock while
+     * holding one: a failed CAS releases whatever is held and restarts.
+     * The root field changes only while the old root is locked.
+     *
+     * Removal does not rebalance.  A leaf that becomes empty is
+     * unlinked from its parent unless it is the only child, and marked
+     * obsolete.  Inner nodes never become empty, and the height never
+     * decreases.
+     *
+     * The size is kept in a LongAdder, so that size() does not need
+     * to traverse.
+     */
+
+    private static final long serialVersionUID = -6357934436628738946L;
+
+    /** The number of mappings a leaf can hold. */
+    static final int LEAF_CAPACITY = 64;
+
+    /** The number of children an inner node can hold. */
+    static final int INNER_CAPACITY = 64;
+
+    /** Number of processors, for spin control */
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of times to spin on a locked node before yielding. */
+    private static final int SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /** Version bit set while a node is locked. */
+    static final long LOCKED = 2L;
+
+    /** Version bit set once a node is unlinked. */
+    static final long OBSOLETE = 1L;
+
+    /** Result of search indicating a concurrent update was seen. */
+    static final int RETRY = Integer.MIN_VALUE;
+
+    /**
+     * The comparator used to maintain order in this map, or null if
+     * using natural ordering.  (Non-private to simplify access in
+     * nested classes.)
+     * @serial
+     */
+    final Comparator<? super K> comparator;
+
+    /** The root of the tree; written only while the old root is locked. */
+    private transient volatile Node root;
+
+    /** The number of mappings. */
+    private transient LongAdder count;
+
+    /** Lazily initialized key set */
+    private transient KeySet<K> keySet;
+    /** Lazily initialized entry set */
+    private transient EntrySet<K,V> entrySet;
+    /** Lazily initialized values collection */
+    private transient Values<V> values;
+    /** Lazily initialized descending key set */
+    private transient ConcurrentNavigableMap<K,V> descendingMap;
+
+    /**
+     * Initializes or resets state. Needed by constructors, clone,
+     * clear, readObject.
+     */
+    private void initialize() {
+        keySet = null;
+        entrySet = null;
+        values = null;
+        descendingMap = null;
+        count = new LongAdder();
+        root = new Leaf();
+    }
+
+    /**
+     * Constructs a new, empty map, sorted according to the
+     * {@linkplain Comparable natural ordering} of the keys.
+     */
+    public ConcurrentBTreeMap() {
+        this.comparator = null;
+        initialize();
+    }
+
+    /**
+     * Constructs a new, empty map, sorted according to the specified
+     * comparator.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public ConcurrentBTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        initialize();
+    }
+
+    /**
+     * Constructs a new map containing the same mappings as the given map,
+     * sorted according to the {@linkplain Comparable natural ordering} of
+     * the keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in {@code m} are not
+     *         {@link Comparable}, or are not mutually comparable
+     * @throws NullPointerException if the specified map or any of its keys
+     *         or values are null
+     */
+    public ConcurrentBTreeMap(Map<? extends K, ? extends V> m) {
+        this.comparator = null;
+        initialize();
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new map containing the same mappings and using the
+     * same ordering as the specified sorted map.
+     *
+     * @param m the sorted map whose mappings are to be placed in this
+     *        map, and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified sorted map or any of
+     *         its keys or values are null
+     */
+    public ConcurrentBTreeMap(SortedMap<K, ? extends V> m) {
+        this.comparator = m.comparator();
+        initialize();
+        putAll(m);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code ConcurrentBTreeMap}
+     * instance. (The keys and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public ConcurrentBTreeMap<K,V> clone() {
+        try {
+            @SuppressWarnings("unchecked")
+            ConcurrentBTreeMap<K,V> clone =
+                (ConcurrentBTreeMap<K,V>) super.clone();
+            clone.initialize();
+            clone.putAll(this);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError();
+        }
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * Nodes hold size keys in fixed-capacity arrays.  Fields other
+     * than version are written only while the node is locked, or
+     * before it is published.
+     */
+    static class Node {
+        volatile long version;
+        int size;
+        final Object[] keys;
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /** Leaves hold values parallel to their keys. */
+    static final class Leaf extends Node {
+        final Object[] values;
+
+        Leaf() {
+            super(LEAF_CAPACITY);
+            values = new Object[LEAF_CAPACITY];
+        }
+    }
+
+    /** Inner nodes hold size keys and size+1 children. */
+    static final class Inner extends Node {
+        final Node[] children;
+
+        Inner() {
+            super(INNER_CAPACITY - 1);
+            children = new Node[INNER_CAPACITY];
+        }
+    }
+
+    /* ---------------- Versions -------------- */
+
+    /**
+     * Returns the version of n, waiting while it is locked.  The result
+     * may have the OBSOLETE bit set.
+     */
+    static long awaitUnlocked(Node n) {
+        long v;
+        for (int spins = SPINS;;) {
+            if (((v = n.version) & LOCKED) == 0L)
+                return v;
+            if (spins > 0)
+                --spins;
+            else
+                Thread.yield();
+        }
+    }
+
+    /**
+     * Returns true if n still has version v, ordering preceding reads
+     * before the check.
+     */
+    static boolean validate(Node n, long v) {
+        U.loadFence();
+        return n.version == v;
+    }
+
+    /**
+     * Locks n if it still has version v, which must be neither locked
+     * nor obsolete.
+     */
+    static boolean tryLock(Node n, long v) {
+        return U.compareAndSwapLong(n, VERSION, v, v | LOCKED);
+    }
+
+    /** Releases the lock on n, advancing its version. */
+    static void unlock(Node n) {
+        n.version = n.version + LOCKED;
+    }
+
+    /** Releases the lock on n, marking it obsolete. */
+    static void unlockObsolete(Node n) {
+        n.version = n.version + LOCKED + OBSOLETE;
+    }
+
+    /* ---------------- Searching -------------- */
+
+    /**
+     * Compares using comparator or natural ordering if null.
+     * Called only by methods that have performed required type checks.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static final int cpr(Comparator c, Object x, Object y) {
+        return (c != null) ? c.compare(x, y) : ((Comparable)x).compareTo(y);
+    }
+
+    /**
+     * Searches the keys of n, returning the index of key if present,
+     * else (-(insertion point) - 1), or RETRY if a null key shows that
+     * n is being modified.
+     */
+    final int search(Node n, Object key) {
+        Comparator<? super K> cmp = comparator;
+        Object[] ks = n.keys;
+        int lo = 0, hi = n.size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Object k = ks[mid];
+            if (k == null)
+                return RETRY;
+            int c = cpr(cmp, key, k);
+            if (c > 0)
+                lo = mid + 1;
+            else if (c < 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * The leaf reached by a descent, with what was learned on the way.
+     * The bounds are the separators enclosing the leaf, with null for
+     * none: the keys of the leaf are at least lower and less than upper.
+     */
+    static final class Path {
+        Inner parent;       // null if the leaf is the root
+        long parentVersion;
+        Leaf leaf;
+        long version;       // validated version of leaf
+        Object lower, upper;
+    }
+
+    /**
+     * Descends to the leaf that would hold key, or, if below is true,
+     * the leaf left of any separator equal to key, which holds the
+     * keys nearest below it.  If key is null, descends to the first
+     * leaf, or the last one if below is true.  If split is
+     * true, full inner nodes are split on the way.  Returns false if
+     * the descent must be retried.
+     */
+    final boolean descend(Object key, boolean below, boolean split, Path p) {
+        Node n = root;
+        long v = awaitUnlocked(n);
+        if (n != root)
+            return false;
+        Inner parent = null;
+        long pv = 0L;
+        Object lower = null, upper = null;
+        while (n instanceof Inner) {
+            Inner in = (Inner)n;
+            int size = in.size;
+            if (split && size == INNER_CAPACITY - 1) {
+                split(parent, pv, in, v, null);
+                return false;
+            }
+            int c;
+            if (key == null)
+                c = below ? size : 0;
+            else if ((c = search(in, key)) == RETRY)
+                return false;
+            else
+                c = (c < 0) ? -c - 1 : below ? c : c + 1;
+            Node child = in.children[c];
+            if (child == null)
+                return false;
+            if (c > 0)
+                lower = in.keys[c - 1];
+            if (c < size)
+                upper = in.keys[c];
+            long cv = awaitUnlocked(child);
+            if (!validate(in, v) || (cv & OBSOLETE) != 0L)
+                return false;
+            parent = in;
+            pv = v;
+            n = child;
+            v = cv;
+        }
+        p.parent = parent;
+        p.parentVersion = pv;
+        p.leaf = (Leaf)n;
+        p.version = v;
+        p.lower = lower;
+        p.upper = upper;
+        return true;
+    }
+
+    /**
+     * Splits the full node n, read at version v, whose parent p was
+     * read at version pv, or is null if n was the root.  If
+     * appendKey is non-null, it is greater than all keys of n and will
+     * be inserted next, and n is the last leaf; n is then left full and
+     * its new sibling empty, so that ascending insertion fills leaves.
+     * Does nothing if either node has changed.  Callers then retry in
+     * either case.
+     */
+    private void split(Inner p, long pv, Node n, long v, Object appendKey) {
+        if (p != null && !tryLock(p, pv))
+            return;
+        if (!tryLock(n, v)) {
+            if (p != null)
+                unlock(p);
+            return;
+        }
+        if (p == null && n != root) {
+            unlock(n);
+            return;
+        }
+        Object sep;
+        Node right;
+        int size = n.size;
+        if (n instanceof Leaf) {
+            Leaf l = (Leaf)n, r = new Leaf();
+            if (appendKey != null) {
+                sep = appendKey;
+            } else {
+                int half = LEAF_CAPACITY / 2, m = size - half;
+                System.arraycopy(l.keys, half, r.keys, 0, m);
+                System.arraycopy(l.values, half, r.values, 0, m);
+                r.size = m;
+                for (int i = half; i < size; i++)
+                    l.keys[i] = l.values[i] = null;
+                l.size = half;
+                sep = r.keys[0];
+            }
+            right = r;
+        } else {
+            Inner in = (Inner)n, r = new Inner();
+            int half = size / 2, m = size - half - 1;
+            sep = in.keys[half];
+            System.arraycopy(in.keys, half + 1, r.keys, 0, m);
+            System.arraycopy(in.children, half + 1, r.children, 0, m + 1);
+            r.size = m;
+            for (int i = half; i < size; i++) {
+                in.keys[i] = null;
+                in.children[i + 1] = null;
+            }
+            in.size = half;
+            right = r;
+        }
+        if (p == null) {
+            Inner r = new Inner();
+            r.keys[0] = sep;
+            r.children[0] = n;
+            r.children[1] = right;
+            r.size = 1;
+            root = r;
+        } else {
+            int ps = p.size, c = 0;
+            while (p.children[c] != n)
+                ++c;
+            System.arraycopy(p.keys, c, p.keys, c + 1, ps - c);
+            System.arraycopy(p.children, c + 1, p.children, c + 2, ps - c);
+            p.keys[c] = sep;
+            p.children[c + 1] = right;
+            p.size = ps + 1;
+        }
+        unlock(n);
+        if (p != null)
+            unlock(p);
+    }
+
+    /**
+     * Unlinks the leaf that would hold key from its parent if it is
+     * empty and has a sibling.  Gives up if the leaf is not empty or a
+     * lock is contended, as the leaf may then be reused.
+     */
+    private void unlinkIfEmpty(Object key) {
+        Path p = new Path();
+        if (!descend(key, false, false, p))
+            return;
+        Inner parent = p.parent;
+        Leaf l = p.leaf;
+        if (parent == null || l.size != 0 || !tryLock(parent, p.parentVersion))
+            return;
+        if (!tryLock(l, p.version)) {
+            unlock(parent);
+            return;
+        }
+        int ps = parent.size;
+        if (ps > 0) {
+            int c = 0;
+            while (parent.children[c] != l)
+                ++c;
+            int k = (c > 0) ? c - 1 : 0;
+            System.arraycopy(parent.keys, k + 1, parent.keys, k, ps - k - 1);
+            System.arraycopy(parent.children, c + 1, parent.children, c, ps - c);
+            parent.keys[ps - 1] = null;
+            parent.children[ps] = null;
+            parent.size = ps - 1;
+            unlockObsolete(l);
+        } else {
+            unlock(l);
+        }
+        unlock(parent);
+    }
+
+    /* ---------------- Reading -------------- */
+
+    /**
+     * Gets value for key.  Descends without allocation, restarting
+     * whenever a validation fails.
+     *
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    private V doGet(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        outer: for (;;) {
+            Node n = root;
+            long v = awaitUnlocked(n);
+            if (n != root)
+                continue;
+            while (n instanceof Inner) {
+                Inner in = (Inner)n;
+                int c = search(in, key);
+                if (c == RETRY)
+                    continue outer;
+                Node child = in.children[(c < 0) ? -c - 1 : c + 1];
+                if (child == null)
+                    continue outer;
+                long cv = awaitUnlocked(child);
+                if (!validate(in, v) || (cv & OBSOLETE) != 0L)
+                    continue outer;
+                n = child;
+                v = cv;
+            }
+            int i = search(n, key);
+            if (i == RETRY)
+                continue;
+            Object val = (i >= 0) ? ((Leaf)n).values[i] : null;
+            if (validate(n, v) && (i < 0 || val != null))
+                return (V)val;
+        }
+    }
+
+    /**
+     * A batch of mappings copied from a leaf.
+     */
+    static final class Batch {
+        final Object[] keys;
+        final Object[] values;
+        int size;
+
+        Batch(int capacity) {
+            keys = new Object[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    // Relations for scan, as in ConcurrentSkipListMap
+    static final int EQ = 1;
+    static final int LT = 2;
+    static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Copies into b up to max of the mappings nearest to key in the
+     * given relation, in order of distance from key.  If key is null,
+     * copies from the first mapping when rel is GT, or from the last
+     * when it is LT.  All mappings copied come from a single leaf.
+     *
+     * @return the number of mappings copied, zero if there are none
+     */
+    final int scan(Object key, int rel, Batch b, int max) {
+        boolean descending = (rel & LT) != 0;
+        Object[] bk = b.keys, bv = b.values;
+        Path p = new Path();
+        for (;;) {
+            if (!descend(key, (rel & (LT|EQ)) == LT, false, p))
+                continue;
+            Leaf l = p.leaf;
+            Object[] ks = l.keys, vs = l.values;
+            int n = l.size, i;
+            if (key == null)
+                i = descending ? n - 1 : 0;
+            else if ((i = search(l, key)) == RETRY)
+                continue;
+            else if (i >= 0)
+                i += ((rel & EQ) != 0) ? 0 : descending ? -1 : 1;
+            else
+                i = descending ? -i - 2 : -i - 1;
+            int c = 0;
+            boolean torn = false;
+            for (; c < max && i >= 0 && i < n; ++c) {
+                Object k = ks[i], v = vs[i];
+                if (k == null || v == null) {
+                    torn = true;
+                    break;
+                }
+                bk[c] = k;
+                bv[c] = v;
+                i += descending ? -1 : 1;
+            }
+            if (torn || !validate(l, p.version))
+                continue;
+            if (c > 0)
+                return b.size = c;
+            // Nothing here; resume from the bound of the leaf
+            if (descending) {
+                if ((key = p.lower) == null)
+                    return b.size = 0;
+                rel = LT;
+            } else {
+                if ((key = p.upper) == null)
+                    return b.size = 0;
+                rel = GT|EQ;
+            }
+        }
+    }
+
+    /**
+     * Returns an entry for the mapping nearest to key in the relation,
+     * or null if there is none.  A null key stands for the first or
+     * last mapping, as in scan.
+     */
+    @SuppressWarnings("unchecked")
+    final AbstractMap.SimpleImmutableEntry<K,V> findNear(Object key, int rel) {
+        Batch b = new Batch(1);
+        if (scan(key, rel, b, 1) == 0)
+            return null;
+        return new AbstractMap.SimpleImmutableEntry<K,V>((K)b.keys[0],
+                                                         (V)b.values[0]);
+    }
+
+    /** As findNear, but returns only the key. */
+    @SuppressWarnings("unchecked")
+    final K findNearKey(Object key, int rel) {
+        Batch b = new Batch(1);
+        return (scan(key, rel, b, 1) == 0) ? null : (K)b.keys[0];
+    }
+
+    /* ---------------- Writing -------------- */
+
+    /**
+     * Main insertion method.  Adds element if not present, or
+     * replaces value if present and onlyIfAbsent is false.
+     *
+     * @param key the key
+     * @param value the value that must be associated with key
+     * @param onlyIfAbsent if should not insert if already present
+     * @return the old value, or null if newly inserted
+     */
+    @SuppressWarnings("unchecked")
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        Comparator<? super K> cmp = comparator;
+        cpr(cmp, key, key); // type check, as the map may be empty
+        Path p = new Path();
+        for (;;) {
+            if (!descend(key, false, true, p))
+                continue;
+            Leaf l = p.leaf;
+            long v = p.version;
+            int i = search(l, key);
+            if (i == RETRY)
+                continue;
+            if (i >= 0 && onlyIfAbsent) {
+                Object old = l.values[i];
+                if (old != null && validate(l, v))
+                    return (V)old;
+                continue;
+            }
+            int n = l.size;
+            if (i < 0 && n == LEAF_CAPACITY) {
+                Object last = l.keys[n - 1];
+                if (last == null)
+                    continue;
+                boolean append = p.upper == null && cpr(cmp, key, last) > 0;
+                if (validate(l, v))
+                    split(p.parent, p.parentVersion, l, v, append ? key : null);
+                continue;
+            }
+            if (!tryLock(l, v))
+                continue;
+            // The leaf is unchanged since i and n were read
+            Object old = null;
+            if (i >= 0) {
+                old = l.values[i];
+                l.values[i] = value;
+            } else {
+                i = -i - 1;
+                System.arraycopy(l.keys, i, l.keys, i + 1, n - i);
+                System.arraycopy(l.values, i, l.values, i + 1, n - i);
+                l.keys[i] = key;
+                l.values[i] = value;
+                l.size = n + 1;
+            }
+            unlock(l);
+            if (old == null)
+                count.increment();
+            return (V)old;
+        }
+    }
+
+    /**
+     * Main deletion method.  Removes the mapping for key, if its value
+     * equals value, or unconditionally if value is null.  If newValue
+     * is non-null, the value is replaced instead.
+     *
+     * @param key the key
+     * @param value if non-null, the value that must be associated with key
+     * @param newValue if non-null, the value to replace it with
+     * @return the old value, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    final V doRemove(Object key, Object value, Object newValue) {
+        if (key == null)
+            throw new NullPointerException();
+        Path p = new Path();
+        for (;;) {
+            if (!descend(key, false, false, p))
+                continue;
+            Leaf l = p.leaf;
+            long v = p.version;
+            int i = search(l, key);
+            if (i == RETRY)
+                continue;
+            if (i < 0) {
+                if (validate(l, v))
+                    return null;
+                continue;
+            }
+            Object old = l.values[i];
+            if (old == null || !validate(l, v))
+                continue;
+            if (value != null && !value.equals(old))
+                return null;
+            if (!tryLock(l, v))
+                continue;
+            // The leaf is unchanged since i and old were read
+            if (newValue != null) {
+                l.values[i] = newValue;
+                unlock(l);
+                return (V)old;
+            }
+            int n = l.size - 1;
+            System.arraycopy(l.keys, i + 1, l.keys, i, n - i);
+            System.arraycopy(l.values, i + 1, l.values, i, n - i);
+            l.keys[n] = l.values[n] = null;
+            l.size = n;
+            unlock(l);
+            count.decrement();
+            if (n == 0 && p.parent != null)
+                unlinkIfEmpty(key);
+            return (V)old;
+        }
+    }
+
+    /**
+     * Removes the mappings within the given bounds, a null bound meaning
+     * unbounded, a leaf at a time.  Mappings added concurrently may
+     * remain.
+     */
+    final void removeRange(Object lo, boolean loInclusive,
+                           Object hi, boolean hiInclusive) {
+        Comparator<? super K> cmp = comparator;
+        Path p = new Path();
+        Object key = lo;
+        boolean inclusive = loInclusive;
+        for (;;) {
+            if (!descend(key, false, false, p))
+                continue;
+            Leaf l = p.leaf;
+            long v = p.version;
+            if (!tryLock(l, v))
+                continue;
+            int n = l.size, from = 0, to = n;
+            if (key != null) {
+                int i = search(l, key);
+                from = (i < 0) ? -i - 1 : inclusive ? i : i + 1;
+            }
+            if (hi != null) {
+                int i = search(l, hi);
+                to = (i < 0) ? -i - 1 : hiInclusive ? i + 1 : i;
+            }
+            int removed = to - from;
+            if (removed > 0) {
+                System.arraycopy(l.keys, to, l.keys, from, n - to);
+                System.arraycopy(l.values, to, l.values, from, n - to);
+                for (int i = n - removed; i < n; i++)
+                    l.keys[i] = l.values[i] = null;
+                l.size = n - removed;
+            }
+            unlock(l);
+            if (removed > 0) {
+                count.add(-removed);
+                if (removed == n && p.parent != null)
+                    unlinkIfEmpty(key);
+            }
+            Object upper = p.upper;
+            int c;
+            if (upper == null ||
+                (hi != null && ((c = cpr(cmp, upper, hi)) > 0 ||
+                                (c == 0 && !hiInclusive))))
+                return;
+            key = upper;
+            inclusive = true;
+        }
+    }
+
+    /* ---------------- Map API methods -------------- */
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        return doGet(key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * <p>More formally, if this map contains a mapping from a key
+     * {@code k} to a value {@code v} such that {@code key} compares
+     * equal to {@code k} according to the map's ordering, then this
+     * method returns {@code v}; otherwise it returns {@code null}.
+     * (There can be at most one such mapping.)
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        return doGet(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the given defaultValue if this map contains no mapping for the key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if this map contains
+     * no mapping for the given key
+     * @return the mapping for the key, if present; else the defaultValue
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = doGet(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return doRemove(key, null, null);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * map size. Additionally, it is possible for the map to change
+     * during execution of this method, in which case the returned
+     * result may be inaccurate.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (V v : values())
+            if (value.equals(v))
+                return true;
+        return false;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  If this map
+     * contains more than {@code Integer.MAX_VALUE} elements, it
+     * returns {@code Integer.MAX_VALUE}.
+     *
+     * <p>The count is maintained as mappings are added and removed, so
+     * this is a constant-time operation, but if the map is modified
+     * concurrently the result may not reflect any single state of it.
+     *
+     * @return the number of elements in this map
+     */
+    public int size() {
+        long n = count.sum();
+        return (n < 0L) ? 0 : (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return findNearKey(null, GT) == null;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        removeRange(null, false, null, false);
+    }
+
+    /* ---------------- View methods -------------- */
+
+    /**
+     * Returns a {@link NavigableSet} view of the keys contained in this map.
+     *
+     * <p>The set's iterator returns the keys in ascending order.
+     * The set's spliterator additionally reports {@link Spliterator#CONCURRENT},
+     * {@link Spliterator#NONNULL}, {@link Spliterator#SORTED} and
+     * {@link Spliterator#ORDERED}, with an encounter order that is ascending
+     * key order.  The spliterator's comparator (see
+     * {@link java.util.Spliterator#getComparator()}) is {@code null} if
+     * the map's comparator (see {@link #comparator()}) is {@code null}.
+     * Otherwise, the spliterator's comparator is the same as or imposes the
+     * same total ordering as the map's comparator.
+     *
+     * <p>The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, which removes the corresponding mapping from the map,
+     * via the {@code Iterator.remove}, {@code Set.remove},
+     * {@code removeAll}, {@code retainAll}, and {@code clear}
+     * operations.  It does not support the {@code add} or {@code addAll}
+     * operations.
+     *
+     * <p>The view's iterators and spliterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return a navigable set view of the keys in this map
+     */
+    public NavigableSet<K> keySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        return keySet();
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * <p>The collection's iterator returns the values in ascending order
+     * of the corresponding keys. The collections's spliterator additionally
+     * reports {@link Spliterator#CONCURRENT}, {@link Spliterator#NONNULL} and
+     * {@link Spliterator#ORDERED}, with an encounter order that is ascending
+     * order of the corresponding keys.
+     *
+     * <p>The collection is backed by the map, so changes to the map are
+     * reflected in the collection, and vice-versa.  The collection
+     * supports element removal, which removes the corresponding
+     * mapping from the map, via the {@code Iterator.remove},
+     * {@code Collection.remove}, {@code removeAll},
+     * {@code retainAll} and {@code clear} operations.  It does not
+     * support the {@code add} or {@code addAll} operations.
+     *
+     * <p>The view's iterators and spliterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     */
+    public Collection<V> values() {
+        Values<V> vs = values;
+        return (vs != null) ? vs : (values = new Values<V>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     *
+     * <p>The set's iterator returns the entries in ascending key order.  The
+     * set's spliterator additionally reports {@link Spliterator#CONCURRENT},
+     * {@link Spliterator#NONNULL}, {@link Spliterator#SORTED} and
+     * {@link Spliterator#ORDERED}, with an encounter order that is ascending
+     * key order.
+     *
+     * <p>The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, which removes the corresponding mapping from the map,
+     * via the {@code Iterator.remove}, {@code Set.remove},
+     * {@code removeAll}, {@code retainAll} and {@code clear}
+     * operations.  It does not support the {@code add} or
+     * {@code addAll} operations.
+     *
+     * <p>The view's iterators and spliterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * <p>The {@code Map.Entry} elements traversed by the {@code iterator}
+     * or {@code spliterator} do <em>not</em> support the {@code setValue}
+     * operation.
+     *
+     * @return a set view of the mappings contained in this map,
+     *         sorted in ascending key order
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet<K,V>(this));
+    }
+
+    public ConcurrentNavigableMap<K,V> descendingMap() {
+        ConcurrentNavigableMap<K,V> dm = descendingMap;
+        return (dm != null) ? dm : (descendingMap = new SubMap<K,V>
+                                    (this, null, false, null, false, true));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /* ---------------- ConcurrentMap API methods -------------- */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && doRemove(key, value, null) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return doRemove(key, oldValue, newValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        return doRemove(key, null, value);
+    }
+
+    /* ------ SortedMap API methods ------ */
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        K k = findNearKey(null, GT);
+        if (k == null)
+            throw new NoSuchElementException();
+        return k;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        K k = findNearKey(null, LT);
+        if (k == null)
+            throw new NoSuchElementException();
+        return k;
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey,
+                                              boolean fromInclusive,
+                                              K toKey,
+                                              boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey,
+                                               boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey,
+                                               boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, inclusive, null, false, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /* ---------------- Relational operations -------------- */
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * strictly less than the given key, or {@code null} if there is
+     * no such key. The returned entry does <em>not</em> support the
+     * {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return findNear(checkKey(key), LT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K lowerKey(K key) {
+        return findNearKey(checkKey(key), LT);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * less than or equal to the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return findNear(checkKey(key), LT|EQ);
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K floorKey(K key) {
+        return findNearKey(checkKey(key), LT|EQ);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * greater than or equal to the given key, or {@code null} if
+     * there is no such entry. The returned entry does <em>not</em>
+     * support the {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return findNear(checkKey(key), GT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K ceilingKey(K key) {
+        return findNearKey(checkKey(key), GT|EQ);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * strictly greater than the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return findNear(checkKey(key), GT);
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K higherKey(K key) {
+        return findNearKey(checkKey(key), GT);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> firstEntry() {
+        return findNear(null, GT);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> lastEntry() {
+        return findNear(null, LT);
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the least key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollFirstEntry() {
+        return pollNear(null, GT);
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the greatest key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollLastEntry() {
+        return pollNear(null, LT);
+    }
+
+    /**
+     * Removes and returns the mapping found by findNear, retrying if
+     * it is removed concurrently.
+     */
+    final Map.Entry<K,V> pollNear(Object key, int rel) {
+        for (;;) {
+            AbstractMap.SimpleImmutableEntry<K,V> e = findNear(key, rel);
+            if (e == null)
+                return null;
+            V v = doRemove(e.getKey(), null, null);
+            if (v != null)
+                return new AbstractMap.SimpleImmutableEntry<K,V>(e.getKey(), v);
+        }
+    }
+
+    /** Checks a key argument of a relational method. */
+    private Object checkKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullPointerException();
+        Batch b = new Batch(LEAF_CAPACITY);
+        for (int n = scan(null, GT, b, LEAF_CAPACITY); n > 0;
+             n = scan(b.keys[n - 1], GT, b, LEAF_CAPACITY)) {
+            for (int i = 0; i < n; i++)
+                action.accept((K)b.keys[i], (V)b.values[i]);
+        }
+    }
+
+    /* ---------------- Iterators -------------- */
+
+    /**
+     * Base of iterators over a range of the map in either direction,
+     * where null bounds are unbounded.  Mappings are copied a leaf at a
+     * time into a batch, and the next batch is found by searching from
+     * the last key copied.
+     */
+    abstract class Iter<T> implements Iterator<T> {
+        final Object lo, hi;
+        final boolean loInclusive, hiInclusive, descending;
+        final Batch batch = new Batch(LEAF_CAPACITY);
+        int index;
+        /** the next key and value to return, or null at the end */
+        K nextKey;
+        V nextValue;
+        /** the last key returned, for remove */
+        K lastReturned;
+
+        Iter(Object lo, boolean loInclusive,
+             Object hi, boolean hiInclusive, boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            if (descending)
+                scan(hi, (hi == null) ? LT : hiInclusive ? LT|EQ : LT,
+                     batch, LEAF_CAPACITY);
+            else
+                scan(lo, (lo == null) ? GT : loInclusive ? GT|EQ : GT,
+                     batch, LEAF_CAPACITY);
+            take();
+        }
+
+        /** Sets next from the batch, refilling it if empty. */
+        @SuppressWarnings("unchecked")
+        final void take() {
+            Batch b = batch;
+            if (index == b.size) {
+                if (b.size == 0 ||
+                    scan(b.keys[b.size - 1], descending ? LT : GT,
+                         b, LEAF_CAPACITY) == 0) {
+                    nextKey = null;
+                    nextValue = null;
+                    return;
+                }
+                index = 0;
+            }
+            K k = (K)b.keys[index];
+            V v = (V)b.values[index++];
+            Object bound = descending ? lo : hi;
+            boolean inclusive = descending ? loInclusive : hiInclusive;
+            int c;
+            if (bound != null &&
+                ((c = cpr(comparator, k, bound)) == 0 ? !inclusive :
+                 descending ? c < 0 : c > 0)) {
+                b.size = index = 0;
+                nextKey = null;
+                nextValue = null;
+                return;
+            }
+            nextKey = k;
+            nextValue = v;
+        }
+
+        public final boolean hasNext() {
+            return nextKey != null;
+        }
+
+        /** Advances, returning the key taken. */
+        final K advance() {
+            K k = nextKey;
+            if (k == null)
+                throw new NoSuchElementException();
+            lastReturned = k;
+            take();
+            return k;
+        }
+
+        public final void remove() {
+            K k = lastReturned;
+            if (k == null)
+                throw new IllegalStateException();
+            // It would not be worth all of the overhead to directly
+            // unlink from here. Using remove is fast enough.
+            ConcurrentBTreeMap.this.remove(k);
+            lastReturned = null;
+        }
+    }
+
+    final class KeyIterator extends Iter<K> {
+        KeyIterator(Object lo, boolean loInclusive,
+                    Object hi, boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public K next() {
+            return advance();
+        }
+    }
+
+    final class ValueIterator extends Iter<V> {
+        ValueIterator(Object lo, boolean loInclusive,
+                      Object hi, boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public V next() {
+            V v = nextValue;
+            advance();
+            return v;
+        }
+    }
+
+    final class EntryIterator extends Iter<Map.Entry<K,V>> {
+        EntryIterator(Object lo, boolean loInclusive,
+                      Object hi, boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public Map.Entry<K,V> next() {
+            V v = nextValue;
+            K k = advance();
+            return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    // Factory methods for iterators needed by KeySet, SubMap etc
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(null, false, null, false, false);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator(null, false, null, false, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator(null, false, null, false, false);
+    }
+
+    /* ---------------- View Classes -------------- */
+
+    /*
+     * View classes are static, delegating to a ConcurrentNavigableMap
+     * to allow use by SubMaps, as in ConcurrentSkipListMap.
+     */
+
+    static final class KeySet<E>
+            extends AbstractSet<E> implements NavigableSet<E> {
+        final ConcurrentNavigableMap<E,?> m;
+        KeySet(ConcurrentNavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public boolean remove(Object o) { return m.remove(o) != null; }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<E,Object>)m).keyIterator();
+            else
+                return ((SubMap<E,Object>)m).keyIterator();
+        }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<E>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<E>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<E>(m.tailMap(fromElement, inclusive));
+        }
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<E>(m.descendingMap());
+        }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<E,?>)m).keySpliterator();
+            else
+                return ((SubMap<E,?>)m).keySpliterator();
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        final ConcurrentNavigableMap<?, E> m;
+        Values(ConcurrentNavigableMap<?, E> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<?,E>)m).valueIterator();
+            else
+                return ((SubMap<?,E>)m).valueIterator();
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public boolean contains(Object o) {
+            return m.containsValue(o);
+        }
+        public void clear() {
+            m.clear();
+        }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<?,E>)m).valueSpliterator();
+            else
+                return ((SubMap<?,E>)m).valueSpliterator();
+        }
+    }
+
+    static final class EntrySet<K1,V1> extends AbstractSet<Map.Entry<K1,V1>> {
+        final ConcurrentNavigableMap<K1, V1> m;
+        EntrySet(ConcurrentNavigableMap<K1, V1> map) {
+            m = map;
+        }
+        public Iterator<Map.Entry<K1,V1>> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<K1,V1>)m).entryIterator();
+            else
+                return ((SubMap<K1,V1>)m).entryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            V1 v = m.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return m.remove(e.getKey(),
+                            e.getValue());
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public void clear() {
+            m.clear();
+        }
+        public Spliterator<Map.Entry<K1,V1>> spliterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<K1,V1>)m).entrySpliterator();
+            else
+                return ((SubMap<K1,V1>)m).entrySpliterator();
+        }
+    }
+
+    /**
+     * Submaps returned by {@link ConcurrentBTreeMap} submap operations
+     * represent a subrange of mappings of their underlying
+     * maps. Instances of this class support all methods of their
+     * underlying maps, differing in that mappings outside their range are
+     * ignored, and attempts to add mappings outside their ranges result
+     * in {@link IllegalArgumentException}.  Instances of this class are
+     * constructed only using the {@code subMap}, {@code headMap}, and
+     * {@code tailMap} methods of their underlying maps.
+     *
+     * @serial include
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+        private static final long serialVersionUID = 4516263071213418735L;
+
+        /** Underlying map */
+        private final ConcurrentBTreeMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        /**
+         * Creates a new submap, initializing all fields.
+         */
+        SubMap(ConcurrentBTreeMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            Comparator<? super K> cmp = map.comparator;
+            if (fromKey != null && toKey != null &&
+                cpr(cmp, fromKey, toKey) > 0)
+                throw new IllegalArgumentException("inconsistent range");
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (lo != null && ((c = cpr(cmp, key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (hi != null && ((c = cpr(cmp, key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key, Comparator<? super K> cmp) {
+            return !tooLow(key, cmp) && !tooHigh(key, cmp);
+        }
+
+        void checkKeyBounds(K key, Comparator<? super K> cmp) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key, cmp))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /** Returns the relation for findNear of the lowest key in range. */
+        int loRel() {
+            return (lo == null) ? GT : loInclusive ? GT|EQ : GT;
+        }
+
+        /** Returns the relation for findNear of the highest key in range. */
+        int hiRel() {
+            return (hi == null) ? LT : hiInclusive ? LT|EQ : LT;
+        }
+
+        /**
+         * Returns lowest absolute key (ignoring directonality).
+         */
+        K lowestKey() {
+            K k = m.findNearKey(lo, loRel());
+            if (k == null || tooHigh(k, m.comparator))
+                throw new NoSuchElementException();
+            return k;
+        }
+
+        /**
+         * Returns highest absolute key (ignoring directonality).
+         */
+        K highestKey() {
+            K k = m.findNearKey(hi, hiRel());
+            if (k == null || tooLow(k, m.comparator))
+                throw new NoSuchElementException();
+            return k;
+        }
+
+        Map.Entry<K,V> lowestEntry() {
+            Map.Entry<K,V> e = m.findNear(lo, loRel());
+            return (e == null || tooHigh(e.getKey(), m.comparator)) ? null : e;
+        }
+
+        Map.Entry<K,V> highestEntry() {
+            Map.Entry<K,V> e = m.findNear(hi, hiRel());
+            return (e == null || tooLow(e.getKey(), m.comparator)) ? null : e;
+        }
+
+        Map.Entry<K,V> removeLowest() {
+            for (;;) {
+                Map.Entry<K,V> e = lowestEntry();
+                if (e == null)
+                    return null;
+                V v = m.doRemove(e.getKey(), null, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(e.getKey(), v);
+            }
+        }
+
+        Map.Entry<K,V> removeHighest() {
+            for (;;) {
+                Map.Entry<K,V> e = highestEntry();
+                if (e == null)
+                    return null;
+                V v = m.doRemove(e.getKey(), null, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(e.getKey(), v);
+            }
+        }
+
+        /**
+         * Submap version of ConcurrentBTreeMap.findNear
+         */
+        Map.Entry<K,V> getNearEntry(K key, int rel) {
+            Comparator<? super K> cmp = m.comparator;
+            if (key == null)
+                throw new NullPointerException();
+            if (isDescending) { // adjust relation for direction
+                if ((rel & LT) == 0)
+                    rel |= LT;
+                else
+                    rel &= ~LT;
+            }
+            if (tooLow(key, cmp))
+                return ((rel & LT) != 0) ? null : lowestEntry();
+            if (tooHigh(key, cmp))
+                return ((rel & LT) != 0) ? highestEntry() : null;
+            Map.Entry<K,V> e = m.findNear(key, rel);
+            return (e == null || !inBounds(e.getKey(), cmp)) ? null : e;
+        }
+
+        K getNearKey(K key, int rel) {
+            Map.Entry<K,V> e = getNearEntry(key, rel);
+            return (e == null) ? null : e.getKey();
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key, m.comparator) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key, m.comparator)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            return (!inBounds(key, m.comparator)) ? null : m.remove(key);
+        }
+
+        public int size() {
+            long count = 0;
+            for (Iterator<K> it = keyIterator(); it.hasNext(); it.next())
+                ++count;
+            return count >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)count;
+        }
+
+        public boolean isEmpty() {
+            return lowestEntry() == null;
+        }
+
+        public boolean containsValue(Object value) {
+            if (value == null)
+                throw new NullPointerException();
+            for (Iterator<V> it = valueIterator(); it.hasNext(); )
+                if (value.equals(it.next()))
+                    return true;
+            return false;
+        }
+
+        public void clear() {
+            m.removeRange(lo, loInclusive, hi, hiInclusive);
+        }
+
+        /* ----------------  ConcurrentMap API methods -------------- */
+
+        public V putIfAbsent(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.putIfAbsent(key, value);
+        }
+
+        public boolean remove(Object key, Object value) {
+            return inBounds(key, m.comparator) && m.remove(key, value);
+        }
+
+        public boolean replace(K key, V oldValue, V newValue) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, oldValue, newValue);
+        }
+
+        public V replace(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, value);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = cpr(cmp, fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = cpr(cmp, toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<K,V>(m, fromKey, fromInclusive,
+                                   toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<K,V>(m, lo, loInclusive,
+                                   hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return getNearEntry(key, GT|EQ);
+        }
+
+        public K ceilingKey(K key) {
+            return getNearKey(key, GT|EQ);
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return getNearEntry(key, LT);
+        }
+
+        public K lowerKey(K key) {
+            return getNearKey(key, LT);
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return getNearEntry(key, LT|EQ);
+        }
+
+        public K floorKey(K key) {
+            return getNearKey(key, LT|EQ);
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return getNearEntry(key, GT);
+        }
+
+        public K higherKey(K key) {
+            return getNearKey(key, GT);
+        }
+
+        public K firstKey() {
+            return isDescending ? highestKey() : lowestKey();
+        }
+
+        public K lastKey() {
+            return isDescending ? lowestKey() : highestKey();
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return isDescending ? highestEntry() : lowestEntry();
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return isDescending ? lowestEntry() : highestEntry();
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return isDescending ? removeHighest() : removeLowest();
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return isDescending ? removeLowest() : removeHighest();
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<V>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<K,V>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return m.new KeyIterator(lo, loInclusive, hi, hiInclusive,
+                                     isDescending);
+        }
+
+        Iterator<V> valueIterator() {
+            return m.new ValueIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return m.new EntryIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+
+        // Ascending submaps split like the map; descending ones do not
+
+        Spliterator<K> keySpliterator() {
+            if (isDescending)
+                return Spliterators.spliteratorUnknownSize
+                    (keyIterator(), Spliterator.DISTINCT | Spliterator.ORDERED |
+                     Spliterator.CONCURRENT | Spliterator.NONNULL);
+            return m.new KeySpliterator(lo, loInclusive, hi, hiInclusive,
+                                        m.estimate(lo, hi));
+        }
+
+        Spliterator<V> valueSpliterator() {
+            if (isDescending)
+                return Spliterators.spliteratorUnknownSize
+                    (valueIterator(), Spliterator.ORDERED |
+                     Spliterator.CONCURRENT | Spliterator.NONNULL);
+            return m.new ValueSpliterator(lo, loInclusive, hi, hiInclusive,
+                                          m.estimate(lo, hi));
+        }
+
+        Spliterator<Map.Entry<K,V>> entrySpliterator() {
+            if (isDescending)
+                return Spliterators.spliteratorUnknownSize
+                    (entryIterator(), Spliterator.DISTINCT | Spliterator.ORDERED |
+                     Spliterator.CONCURRENT | Spliterator.NONNULL);
+            return m.new EntrySpliterator(lo, loInclusive, hi, hiInclusive,
+                                          m.estimate(lo, hi));
+        }
+    }
+
+    /* ---------------- Spliterators -------------- */
+
+    /**
+     * Returns an estimate of the number of mappings between lo and hi,
+     * null meaning unbounded, from the fraction of the children of the
+     * node where their paths from the root diverge.
+     */
+    final long estimate(Object lo, Object hi) {
+        long est = count.sum();
+        if (lo == null && hi == null)
+            return Math.max(est, 0L);
+        for (double frac = 1.0;;) {
+            Node n = root;
+            long v = awaitUnlocked(n);
+            boolean retry = false;
+            while (n instanceof Inner) {
+                Inner in = (Inner)n;
+                int size = in.size, ci = 0, cj = size;
+                if (lo != null && (ci = search(in, lo)) != RETRY)
+                    ci = (ci < 0) ? -ci - 1 : ci + 1;
+                if (hi != null && (cj = search(in, hi)) != RETRY)
+                    cj = (cj < 0) ? -cj - 1 : cj + 1;
+                Node child = (ci == RETRY) ? null : in.children[ci];
+                if (ci == RETRY || cj == RETRY || child == null ||
+                    !validate(in, v)) {
+                    retry = true;
+                    break;
+                }
+                if (cj != ci)
+                    return (long)(est * frac * (Math.max(cj - ci, 0) + 1) /
+                                  (size + 1));
+                frac /= size + 1;
+                n = child;
+                v = awaitUnlocked(n);
+            }
+            if (!retry)
+                return (long)(est * frac);
+            frac = 1.0;
+        }
+    }
+
+    /**
+     * Base of spliterators over an ascending range of the map, where
+     * a null bound is unbounded.  Traversal copies a leaf's worth of
+     * mappings at a time.  To split, we descend from the root to the
+     * highest node whose children divide the range, and split at the
+     * separator before the middle such child, so that the two halves
+     * hold whole subtrees of the same height.  A range within a single
+     * leaf is not split.  Splitting is allowed only when no mappings
+     * remain buffered from tryAdvance.
+     */
+    abstract class BTreeSpliterator {
+        Object lo;                  // current lower bound
+        boolean loInclusive;
+        final Object hi;
+        final boolean hiInclusive;
+        long est;
+        Batch batch;                // buffered by tryAdvance
+        int index;
+        boolean exhausted;
+
+        BTreeSpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive, long est) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.est = est;
+        }
+
+        public final long estimateSize() { return est; }
+
+        /**
+         * Returns a separator key dividing the range, narrowing this
+         * spliterator to the part from it, or null if the range is too
+         * small.  The estimate of the part before is left in est of the
+         * caller's choosing: this one keeps the rest.
+         */
+        final Object split(long[] prefixEst) {
+            if (exhausted || (batch != null && index < batch.size))
+                return null;
+            outer: for (;;) {
+                Node n = root;
+                long v = awaitUnlocked(n);
+                while (n instanceof Inner) {
+                    Inner in = (Inner)n;
+                    int size = in.size, ci = 0, cj = size;
+                    if (lo != null && (ci = search(in, lo)) != RETRY)
+                        ci = (ci < 0) ? -ci - 1 : ci + 1;
+                    if (hi != null && (cj = search(in, hi)) != RETRY)
+                        cj = (cj < 0) ? -cj - 1 : hiInclusive ? cj + 1 : cj;
+                    if (ci == RETRY || cj == RETRY)
+                        continue outer;
+                    if (cj > ci) {
+                        // separators between the children are within range
+                        int mid = (ci + cj + 1) >>> 1;
+                        Object sep = in.keys[mid - 1];
+                        if (sep == null || !validate(in, v))
+                            continue outer;
+                        long n1 = est * (mid - ci) / (cj - ci + 1);
+                        prefixEst[0] = n1;
+                        est -= n1;
+                        lo = sep;
+                        loInclusive = true;
+                        return sep;
+                    }
+                    Node child = in.children[ci];
+                    if (child == null || !validate(in, v))
+                        continue outer;
+                    n = child;
+                    v = awaitUnlocked(n);
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Fills the batch from lo, returning the number of mappings in
+         * range, and advances lo past them.
+         */
+        final int fill(Batch b) {
+            int n = scan(lo, (lo == null) ? GT : loInclusive ? GT|EQ : GT,
+                         b, LEAF_CAPACITY);
+            if (n == 0) {
+                est = 0L;
+                return b.size = 0;
+            }
+            lo = b.keys[n - 1];
+            loInclusive = false;
+            if (hi != null) {
+                Comparator<? super K> cmp = comparator;
+                int c;
+                while (n > 0 && ((c = cpr(cmp, b.keys[n - 1], hi)) > 0 ||
+                                 (c == 0 && !hiInclusive)))
+                    --n;
+                b.size = n;
+            }
+            return n;
+        }
+
+        /**
+         * Returns the next buffered index for tryAdvance, refilling the
+         * batch if needed, or -1 at the end.
+         */
+        final int nextIndex() {
+            Batch b = batch;
+            if (b == null)
+                b = batch = new Batch(LEAF_CAPACITY);
+            else if (index < b.size)
+                return index++;
+            if (exhausted)
+                return -1;
+            index = 0;
+            if (fill(b) == 0) {
+                exhausted = true;
+                return -1;
+            }
+            return index++;
+        }
+    }
+
+    final class KeySpliterator extends BTreeSpliterator
+        implements Spliterator<K> {
+        KeySpliterator(Object lo, boolean loInclusive,
+                       Object hi, boolean hiInclusive, long est) {
+            super(lo, loInclusive, hi, hiInclusive, est);
+        }
+
+        public KeySpliterator trySplit() {
+            Object from = lo;
+            boolean inclusive = loInclusive;
+            long[] n1 = new long[1];
+            Object sep = split(n1);
+            return (sep == null) ? null :
+                new KeySpliterator(from, inclusive, sep, false, n1[0]);
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super K> action) {
+            if (action == null) throw new NullPointerException();
+            int i = nextIndex();
+            if (i < 0)
+                return false;
+            action.accept((K)batch.keys[i]);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super K> action) {
+            if (action == null) throw new NullPointerException();
+            for (int i; (i = nextIndex()) >= 0; ) {
+                Batch b = batch;
+                for (int n = b.size; i < n; i++)
+                    action.accept((K)b.keys[i]);
+                index = b.size;
+            }
+        }
+
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.SORTED |
+                Spliterator.ORDERED | Spliterator.CONCURRENT |
+                Spliterator.NONNULL;
+        }
+
+        public final Comparator<? super K> getComparator() {
+            return comparator;
+        }
+    }
+
+    final class ValueSpliterator extends BTreeSpliterator
+        implements Spliterator<V> {
+        ValueSpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive, long est) {
+            super(lo, loInclusive, hi, hiInclusive, est);
+        }
+
+        public ValueSpliterator trySplit() {
+            Object from = lo;
+            boolean inclusive = loInclusive;
+            long[] n1 = new long[1];
+            Object sep = split(n1);
+            return (sep == null) ? null :
+                new ValueSpliterator(from, inclusive, sep, false, n1[0]);
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (action == null) throw new NullPointerException();
+            int i = nextIndex();
+            if (i < 0)
+                return false;
+            action.accept((V)batch.values[i]);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (action == null) throw new NullPointerException();
+            for (int i; (i = nextIndex()) >= 0; ) {
+                Batch b = batch;
+                for (int n = b.size; i < n; i++)
+                    action.accept((V)b.values[i]);
+                index = b.size;
+            }
+        }
+
+        public int characteristics() {
+            return Spliterator.CONCURRENT | Spliterator.ORDERED |
+                Spliterator.NONNULL;
+        }
+    }
+
+    final class EntrySpliterator extends BTreeSpliterator
+        implements Spliterator<Map.Entry<K,V>> {
+        EntrySpliterator(Object lo, boolean loInclusive,
+                         Object hi, boolean hiInclusive, long est) {
+            super(lo, loInclusive, hi, hiInclusive, est);
+        }
+
+        public EntrySpliterator trySplit() {
+            Object from = lo;
+            boolean inclusive = loInclusive;
+            long[] n1 = new long[1];
+            Object sep = split(n1);
+            return (sep == null) ? null :
+                new EntrySpliterator(from, inclusive, sep, false, n1[0]);
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Map.Entry<K,V>> action) {
+            if (action == null) throw new NullPointerException();
+            int i = nextIndex();
+            if (i < 0)
+                return false;
+            action.accept(new AbstractMap.SimpleImmutableEntry<K,V>
+                          ((K)batch.keys[i], (V)batch.values[i]));
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super Map.Entry<K,V>> action) {
+            if (action == null) throw new NullPointerException();
+            for (int i; (i = nextIndex()) >= 0; ) {
+                Batch b = batch;
+                for (int n = b.size; i < n; i++)
+                    action.accept(new AbstractMap.SimpleImmutableEntry<K,V>
+                                  ((K)b.keys[i], (V)b.values[i]));
+                index = b.size;
+            }
+        }
+
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.SORTED |
+                Spliterator.ORDERED | Spliterator.CONCURRENT |
+                Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<Map.Entry<K,V>> getComparator() {
+            // Adapt or create a key-based comparator
+            if (comparator != null) {
+                return Map.Entry.comparingByKey(comparator);
+            }
+            else {
+                return (Comparator<Map.Entry<K,V>> & Serializable) (e1, e2) -> {
+                    @SuppressWarnings("unchecked")
+                    Comparable<? super K> k1 = (Comparable<? super K>) e1.getKey();
+                    return k1.compareTo(e2.getKey());
+                };
+            }
+        }
+    }
+
+    // Factory methods for spliterators needed by KeySet etc
+
+    final KeySpliterator keySpliterator() {
+        return new KeySpliterator(null, false, null, false, estimate(null, null));
+    }
+
+    final ValueSpliterator valueSpliterator() {
+        return new ValueSpliterator(null, false, null, false, estimate(null, null));
+    }
+
+    final EntrySpliterator entrySpliterator() {
+        return new EntrySpliterator(null, false, null, false, estimate(null, null));
+    }
+
+    /* ---------------- Serialization -------------- */
+
+    /**
+     * Saves this map to a stream (that is, serializes it).
+     *
+     * @param s the stream
+     * @throws java.io.IOException if an I/O error occurs
+     * @serialData The key (Object) and value (Object) for each
+     * key-value mapping represented by the map, followed by
+     * {@code null}. The key-value mappings are emitted in key-order
+     * (as determined by the Comparator, or by the keys' natural
+     * ordering if no Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out keys and values (alternating)
+        Batch b = new Batch(LEAF_CAPACITY);
+        for (int n = scan(null, GT, b, LEAF_CAPACITY); n > 0;
+             n = scan(b.keys[n - 1], GT, b, LEAF_CAPACITY)) {
+            for (int i = 0; i < n; i++) {
+                s.writeObject(b.keys[i]);
+                s.writeObject(b.values[i]);
+            }
+        }
+        s.writeObject(null);
+    }
+
+    /**
+     * Reconstitutes this map from a stream (that is, deserializes it).
+     * @param s the stream
+     * @throws ClassNotFoundException if the class of a serialized object
+     *         could not be found
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator and any hidden stuff
+        s.defaultReadObject();
+        // Reset transients
+        initialize();
+        for (;;) {
+            Object k = s.readObject();
+            if (k == null)
+                break;
+            Object v = s.readObject();
+            if (v == null)
+                throw new NullPointerException();
+            doPut((K)k, (V)v, false);
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long VERSION;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = Node.class;
+            VERSION = U.objectFieldOffset
+                (k.getDeclaredField("version"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
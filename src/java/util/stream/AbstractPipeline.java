@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -148,6 +149,19 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The recorder of the profile of the pipeline, if it is profiled; only
+     * valid for the source stage.  Created when profiling is requested, or
+     * when the terminal operation starts if all pipelines are profiled.
+     */
+    private StreamProfiler.Recorder profiler;
+
+    /**
+     * The profile counters of the operation represented by this pipeline
+     * object, if the pipeline is being profiled.
+     */
+    private StreamProfiler.Counters profileCounters;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -229,9 +243,37 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
-        return isParallel()
+        StreamProfiler.Recorder recorder = startProfile(terminalOp);
+        R result = isParallel()
                ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
+        if (recorder != null)
+            recorder.finish();
+        return result;
+    }
+
+    /**
+     * Starts recording the profile of the evaluation of the pipeline, up to
+     * this stage, by a terminal operation, if the pipeline is profiled.
+     *
+     * @param terminalOp the terminal operation, or the name of the operation
+     * @return the recorder of the profile, or null if the pipeline is not
+     *         profiled
+     */
+    @SuppressWarnings("rawtypes")
+    private StreamProfiler.Recorder startProfile(Object terminalOp) {
+        StreamProfiler.Recorder recorder = sourceStage.profiler;
+        if (recorder == null) {
+            if (!StreamProfiler.isEnabled())
+                return null;
+            recorder = sourceStage.profiler = new StreamProfiler.Recorder();
+        }
+        recorder.start(isParallel(), (terminalOp instanceof String)
+                                     ? (String) terminalOp
+                                     : StreamProfiler.nameOf(terminalOp));
+        for (AbstractPipeline p = this; p != sourceStage; p = p.previousStage)
+            p.profileCounters = recorder.addStage(StreamProfiler.nameOf(p));
+        return recorder;
     }
 
     /**
@@ -246,6 +288,8 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
+        StreamProfiler.Recorder recorder = startProfile("toArray");
+        Node<E_OUT> result;
         // If the last intermediate operation is stateful then
         // evaluate directly to avoid an extra collection step
         if (isParallel() && previousStage != null && opIsStateful()) {
@@ -254,11 +298,35 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            result = opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
         }
         else {
-            return evaluate(sourceSpliterator(0), true, generator);
+            result = evaluate(sourceSpliterator(0), true, generator);
         }
+        if (recorder != null)
+            recorder.finish();
+        return result;
+    }
+
+    /**
+     * Returns the source spliterator, consuming the pipeline, if this is the
+     * source stage of a sequential pipeline; otherwise returns {@code null}
+     * and leaves the pipeline unconsumed.  A terminal operation on a source
+     * stage may then traverse the spliterator itself, copying from sources
+     * that can supply elements in bulk, or evaluate the pipeline with it.
+     *
+     * @return the source spliterator, or {@code null}
+     * @throws IllegalStateException if this pipeline stage is linked or
+     *         consumed
+     */
+    final Spliterator<?> sequentialSourceSpliterator() {
+        if (linkedOrConsumed)
+            throw new IllegalStateException(MSG_STREAM_LINKED);
+        if (this != sourceStage || isParallel()
+            || profiler != null || StreamProfiler.isEnabled())
+            return null;
+        linkedOrConsumed = true;
+        return sourceSpliterator(0);
     }
 
     /**
@@ -324,6 +392,16 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public S profile(Consumer<? super StreamProfile> listener) {
+        Objects.requireNonNull(listener);
+        if (sourceStage.profiler == null)
+            sourceStage.profiler = new StreamProfiler.Recorder();
+        sourceStage.profiler.addListener(listener);
+        return (S) this;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public S onClose(Runnable closeHandler) {
@@ -514,8 +592,43 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     final <P_IN> Sink<P_IN> wrapSink(Sink<E_OUT> sink) {
         Objects.requireNonNull(sink);
 
+        StreamProfiler.Recorder recorder = sourceStage.profiler;
+        if (recorder != null) {
+            // Profile each stage, and the terminal operation, without fusion
+            StreamProfiler.Counters terminal = recorder.terminal();
+            if (terminal != null && nextStage == null)
+                sink = StreamProfiler.wrap(getOutputShape(), sink, terminal);
+            for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
+                sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+                if (p.profileCounters != null)
+                    sink = StreamProfiler.wrap(p.previousStage.getOutputShape(), sink, p.profileCounters);
+            }
+            return (Sink<P_IN>) sink;
+        }
+
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
-            sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            if (p instanceof ReferencePipeline.FusibleOp
+                && p.previousStage instanceof ReferencePipeline.FusibleOp
+                && p.previousStage.depth > 0) {
+                // Fuse the run of adjacent map and filter stages ending here
+                // into one sink
+                int n = 1;
+                @SuppressWarnings("rawtypes")
+                AbstractPipeline first = p;
+                while (first.previousStage instanceof ReferencePipeline.FusibleOp
+                       && first.previousStage.depth > 0) {
+                    first = first.previousStage;
+                    n++;
+                }
+                ReferencePipeline.FusibleOp<?, ?>[] run = new ReferencePipeline.FusibleOp<?, ?>[n];
+                for (@SuppressWarnings("rawtypes") AbstractPipeline q = p; n > 0; q = q.previousStage)
+                    run[--n] = (ReferencePipeline.FusibleOp<?, ?>) q;
+                sink = ReferencePipeline.FusibleOp.wrapFused(run, sink);
+                p = first;
+            }
+            else {
+                sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            }
         }
         return (Sink<P_IN>) sink;
     }
@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -149,6 +151,40 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S onClose(Runnable closeHandler);
 
+    /**
+     * Returns an equivalent stream whose pipeline is profiled.  When the
+     * terminal operation of the pipeline completes, the listener is passed a
+     * {@link StreamProfile} of the pipeline, with the number of elements each
+     * stage received and estimates of the time and allocation in each stage.
+     * Listeners are run in the order they were added, in the thread that
+     * invoked the terminal operation, before it returns.  No profile is
+     * produced if the terminal operation completes abruptly, or if the
+     * stream is traversed by its {@link #iterator()} or
+     * {@link #spliterator()}.  May return itself.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @apiNote
+     * Profiling slows the pipeline; it is meant for finding the stages in
+     * which a slow pipeline spends its time.  The most recent profiles are
+     * also available through the
+     * {@link java.lang.management.StreamProfilingMXBean}, which can enable
+     * the profiling of all pipelines.
+     *
+     * @implSpec
+     * The default implementation returns this stream, which is not
+     * profiled, so the listener is never called.
+     *
+     * @param listener a consumer of the profile of the pipeline
+     * @return a profiled stream
+     */
+    @SuppressWarnings("unchecked")
+    default S profile(Consumer<? super StreamProfile> listener) {
+        Objects.requireNonNull(listener);
+        return (S) this;
+    }
+
     /**
      * Closes this stream, causing all close handlers for this stream pipeline
      * to be called.
@@ -115,6 +115,8 @@ public final class Collectors {
     static final Set<Collector.Characteristics> CH_UNORDERED_ID
             = Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.UNORDERED,
                                                      Collector.Characteristics.IDENTITY_FINISH));
+    static final Set<Collector.Characteristics> CH_UNORDERED_NOID
+            = Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.UNORDERED));
     static final Set<Collector.Characteristics> CH_NOID = Collections.emptySet();
 
     private Collectors() { }
@@ -196,6 +198,47 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Implementation class for concurrent collectors that also have a
+     * <em>leaf-wise</em> form: a non-concurrent collector with the same
+     * result, whose containers are each filled by a single leaf task of a
+     * parallel reduction and then merged pairwise.  A parallel evaluation
+     * may use either form; the leaf-wise one avoids contention on a shared
+     * container, at the cost of the merges.
+     *
+     * @param <T> the type of elements to be collected
+     * @param <R> the type of the result
+     * @see ReferencePipeline#collect(Collector)
+     */
+    static class ConcurrentCollectorImpl<T, A, R> extends CollectorImpl<T, A, R> {
+        private final Collector<T, ?, R> leafwise;
+
+        ConcurrentCollectorImpl(Supplier<A> supplier,
+                                BiConsumer<A, T> accumulator,
+                                BinaryOperator<A> combiner,
+                                Function<A,R> finisher,
+                                Set<Characteristics> characteristics,
+                                Collector<T, ?, R> leafwise) {
+            super(supplier, accumulator, combiner, finisher, characteristics);
+            this.leafwise = leafwise;
+        }
+
+        ConcurrentCollectorImpl(Supplier<A> supplier,
+                                BiConsumer<A, T> accumulator,
+                                BinaryOperator<A> combiner,
+                                Set<Characteristics> characteristics,
+                                Collector<T, ?, R> leafwise) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics, leafwise);
+        }
+
+        /**
+         * Returns the leaf-wise form of this collector.
+         */
+        Collector<T, ?, R> leafwise() {
+            return leafwise;
+        }
+    }
+
     /**
      * Returns a {@code Collector} that accumulates the input elements into a
      * new {@code Collection}, in encounter order.  The {@code Collection} is
@@ -322,6 +365,33 @@ public final class Collectors {
         };
     }
 
+    /**
+     * {@code BinaryOperator<Map>} that merges the contents of the smaller of
+     * its arguments into the larger, using the provided merge function to
+     * handle duplicate keys.  Only for unordered reductions, as the values
+     * may be passed to the merge function in either order.
+     *
+     * @param <K> type of the map keys
+     * @param <V> type of the map values
+     * @param <M> type of the map
+     * @param mergeFunction A merge function suitable for
+     * {@link Map#merge(Object, Object, BiFunction) Map.merge()}
+     * @return a merge function for two maps
+     */
+    private static <K, V, M extends Map<K,V>>
+    BinaryOperator<M> unorderedMapMerger(BinaryOperator<V> mergeFunction) {
+        return (m1, m2) -> {
+            M into = m1, from = m2;
+            if (m1.size() < m2.size()) {
+                into = m2;
+                from = m1;
+            }
+            for (Map.Entry<K,V> e : from.entrySet())
+                into.merge(e.getKey(), e.getValue(), mergeFunction);
+            return into;
+        };
+    }
+
     /**
      * Adapts a {@code Collector} accepting elements of type {@code U} to one
      * accepting elements of type {@code T} by applying a mapping function to
@@ -1075,8 +1145,20 @@ public final class Collectors {
             };
         }
 
+        // Leaf-wise, each leaf groups into its own map from the factory,
+        // which matches keys as the result does, with no locking
+        BiConsumer<ConcurrentMap<K, A>, T> leafAccumulator = (m, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            A resultContainer = m.computeIfAbsent(key, k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(resultContainer, t);
+        };
+        BinaryOperator<ConcurrentMap<K, A>> leafMerger
+                = Collectors.<K, A, ConcurrentMap<K, A>>unorderedMapMerger(downstream.combiner());
+
         if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
-            return new CollectorImpl<>(mangledFactory, accumulator, merger, CH_CONCURRENT_ID);
+            Collector<T, ?, M> leafwise
+                    = new CollectorImpl<>(mangledFactory, leafAccumulator, leafMerger, CH_UNORDERED_ID);
+            return new ConcurrentCollectorImpl<>(mangledFactory, accumulator, merger, CH_CONCURRENT_ID, leafwise);
         }
         else {
             @SuppressWarnings("unchecked")
@@ -1087,7 +1169,9 @@ public final class Collectors {
                 M castResult = (M) intermediate;
                 return castResult;
             };
-            return new CollectorImpl<>(mangledFactory, accumulator, merger, finisher, CH_CONCURRENT_NOID);
+            Collector<T, ?, M> leafwise
+                    = new CollectorImpl<>(mangledFactory, leafAccumulator, leafMerger, finisher, CH_UNORDERED_NOID);
+            return new ConcurrentCollectorImpl<>(mangledFactory, accumulator, merger, finisher, CH_CONCURRENT_NOID, leafwise);
         }
     }
 
@@ -1471,7 +1555,13 @@ public final class Collectors {
         BiConsumer<M, T> accumulator
                 = (map, element) -> map.merge(keyMapper.apply(element),
                                               valueMapper.apply(element), mergeFunction);
-        return new CollectorImpl<>(mapSupplier, accumulator, mapMerger(mergeFunction), CH_CONCURRENT_ID);
+        // Leaf-wise, each leaf merges into its own map from the supplier
+        Collector<T, ?, M> leafwise
+                = new CollectorImpl<>(mapSupplier, accumulator,
+                                      Collectors.<K, U, M>unorderedMapMerger(mergeFunction),
+                                      CH_UNORDERED_ID);
+        return new ConcurrentCollectorImpl<>(mapSupplier, accumulator, mapMerger(mergeFunction),
+                                             CH_CONCURRENT_ID, leafwise);
     }
 
     /**
@@ -24,6 +24,7 @@
  */
 package java.util.stream;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Objects;
@@ -35,7 +36,8 @@ import java.util.function.IntFunction;
 
 /**
  * Factory methods for transforming streams into duplicate-free streams, using
- * {@link Object#equals(Object)} to determine equality.
+ * {@link Object#equals(Object)} to determine equality.  Primitive streams
+ * use the equality of their boxed values, without boxing them.
  *
  * @since 1.8
  */
@@ -75,6 +77,17 @@ final class DistinctOps {
                 else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
                     return reduce(helper, spliterator);
                 }
+                else if (StreamOpFlag.SIZED.isKnown(helper.getStreamAndOpFlags())) {
+                    // A sized stream splits into a bounded number of leaf
+                    // tasks, so collecting into a set per leaf, then merging
+                    // the smaller of each pair into the larger, avoids
+                    // contention on a shared map for little merge work
+                    TerminalOp<T, HashSet<T>> reduceOp
+                            = ReduceOps.makeRef(new Collectors.CollectorImpl<T, HashSet<T>, HashSet<T>>(
+                                    HashSet::new, HashSet::add, DistinctOps::union,
+                                    Collectors.CH_UNORDERED_ID));
+                    return Nodes.node(reduceOp.evaluateParallel(helper, spliterator));
+                }
                 else {
                     // Holder of null state since ConcurrentHashMap does not support null values
                     AtomicBoolean seenNull = new AtomicBoolean(false);
@@ -180,4 +193,511 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * Adds the elements of the smaller of two sets to the larger, returning
+     * it.
+     */
+    private static <T> HashSet<T> union(HashSet<T> s1, HashSet<T> s2) {
+        if (s1.size() < s2.size()) {
+            s2.addAll(s1);
+            return s2;
+        }
+        s1.addAll(s2);
+        return s1;
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream an int stream
+     * @return the new stream
+     */
+    static IntPipeline<Integer> makeInt(AbstractPipeline<?, Integer, ?> upstream) {
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                   StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Integer> reduce(PipelineHelper<Integer> helper, Spliterator<P_IN> spliterator) {
+                // The set keeps the encounter order of its elements, so the
+                // same reduction serves ordered and unordered streams
+                TerminalOp<Integer, IntHashSet> reduceOp
+                        = ReduceOps.<IntHashSet>makeInt(IntHashSet::new, IntHashSet::add,
+                                                        IntHashSet::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        boolean seen;
+                        int lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (!seen || t != lastSeen) {
+                                seen = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        IntHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new IntHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a long stream
+     * @return the new stream
+     */
+    static LongPipeline<Long> makeLong(AbstractPipeline<?, Long, ?> upstream) {
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Long> reduce(PipelineHelper<Long> helper, Spliterator<P_IN> spliterator) {
+                TerminalOp<Long, LongHashSet> reduceOp
+                        = ReduceOps.<LongHashSet>makeLong(LongHashSet::new, LongHashSet::add,
+                                                          LongHashSet::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                            Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        boolean seen;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (!seen || t != lastSeen) {
+                                seen = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.  Values are compared as by {@link Double#equals}, so that
+     * all NaN values are equal to each other, and {@code 0.0} is distinct
+     * from {@code -0.0}.
+     *
+     * @param upstream a double stream
+     * @return the new stream
+     */
+    static DoublePipeline<Double> makeDouble(AbstractPipeline<?, Double, ?> upstream) {
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                     StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Double> reduce(PipelineHelper<Double> helper, Spliterator<P_IN> spliterator) {
+                TerminalOp<Double, DoubleHashSet> reduceOp
+                        = ReduceOps.<DoubleHashSet>makeDouble(DoubleHashSet::new,
+                                                              DoubleHashSet::add,
+                                                              DoubleHashSet::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Double> opEvaluateParallelLazy(PipelineHelper<Double> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        boolean seen;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            long bits = Double.doubleToLongBits(t);
+                            if (!seen || bits != lastSeen) {
+                                seen = true;
+                                lastSeen = bits;
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            if (seen.add(Double.doubleToLongBits(t)))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * An open-addressing hash set of {@code int} values that remembers the
+     * order in which they were added.  The values are kept in a dense array
+     * in that order, and hashed with linear probing into a table of the
+     * values themselves, at most half full, in which 0 marks a free slot,
+     * the value 0 being recorded separately.
+     */
+    static final class IntHashSet {
+        private int[] table = new int[16];
+        private int[] elements = new int[8];
+        private int size;
+        private boolean hasZero;
+
+        private static int hash(int v) {
+            int h = v * 0x9E3779B9; // Fibonacci hashing
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * Adds the value if not present.
+         *
+         * @return true if the value was not present
+         */
+        boolean add(int v) {
+            if (v == 0) {
+                if (hasZero)
+                    return false;
+                hasZero = true;
+            } else {
+                int[] tab = table;
+                int mask = tab.length - 1;
+                int i = hash(v) & mask;
+                for (int t; (t = tab[i]) != 0; i = (i + 1) & mask) {
+                    if (t == v)
+                        return false;
+                }
+                tab[i] = v;
+                if (2 * (size + 1) > mask)
+                    resize();
+            }
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, size << 1);
+            elements[size++] = v;
+            return true;
+        }
+
+        private void resize() {
+            int[] tab = new int[table.length << 1];
+            int mask = tab.length - 1;
+            for (int v : table) {
+                if (v != 0) {
+                    int i = hash(v) & mask;
+                    while (tab[i] != 0)
+                        i = (i + 1) & mask;
+                    tab[i] = v;
+                }
+            }
+            table = tab;
+        }
+
+        /**
+         * Adds the values of another set, in its order, and returns this set.
+         */
+        IntHashSet addAll(IntHashSet other) {
+            int[] a = other.elements;
+            for (int i = 0, n = other.size; i < n; i++)
+                add(a[i]);
+            return this;
+        }
+
+        /**
+         * Returns the values in the order they were added.
+         */
+        int[] toArray() {
+            return (size == elements.length) ? elements : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * An open-addressing hash set of {@code long} values that remembers the
+     * order in which they were added, laid out as {@link IntHashSet}.
+     */
+    static final class LongHashSet {
+        private long[] table = new long[16];
+        private long[] elements = new long[8];
+        private int size;
+        private boolean hasZero;
+
+        private static int hash(long v) {
+            long h = v * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+            return (int) (h ^ (h >>> 32));
+        }
+
+        /**
+         * Adds the value if not present.
+         *
+         * @return true if the value was not present
+         */
+        boolean add(long v) {
+            if (v == 0L) {
+                if (hasZero)
+                    return false;
+                hasZero = true;
+            } else {
+                long[] tab = table;
+                int mask = tab.length - 1;
+                int i = hash(v) & mask;
+                for (long t; (t = tab[i]) != 0L; i = (i + 1) & mask) {
+                    if (t == v)
+                        return false;
+                }
+                tab[i] = v;
+                if (2 * (size + 1) > mask)
+                    resize();
+            }
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, size << 1);
+            elements[size++] = v;
+            return true;
+        }
+
+        private void resize() {
+            long[] tab = new long[table.length << 1];
+            int mask = tab.length - 1;
+            for (long v : table) {
+                if (v != 0L) {
+                    int i = hash(v) & mask;
+                    while (tab[i] != 0L)
+                        i = (i + 1) & mask;
+                    tab[i] = v;
+                }
+            }
+            table = tab;
+        }
+
+        /**
+         * Adds the values of another set, in its order, and returns this set.
+         */
+        LongHashSet addAll(LongHashSet other) {
+            long[] a = other.elements;
+            for (int i = 0, n = other.size; i < n; i++)
+                add(a[i]);
+            return this;
+        }
+
+        /**
+         * Returns the values in the order they were added.
+         */
+        long[] toArray() {
+            return (size == elements.length) ? elements : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * A set of {@code double} values, compared as by {@link Double#equals},
+     * that remembers the order in which they were added.  Values are keyed in
+     * a {@link LongHashSet} by their bits, as returned by
+     * {@link Double#doubleToLongBits}, which is a 1-1 mapping of
+     * {@code Double.equals} classes; the raw bits of the first value of each
+     * class are kept alongside, so that a NaN keeps its payload as it does
+     * when the stream is sequential.
+     */
+    static final class DoubleHashSet {
+        private final LongHashSet keys = new LongHashSet();
+        private long[] elements = new long[8];
+        private int size;
+
+        /**
+         * Adds the value if no equal value is present.
+         */
+        void add(double v) {
+            if (keys.add(Double.doubleToLongBits(v))) {
+                if (size == elements.length)
+                    elements = Arrays.copyOf(elements, size << 1);
+                elements[size++] = Double.doubleToRawLongBits(v);
+            }
+        }
+
+        /**
+         * Adds the values of another set, in its order, and returns this set.
+         */
+        DoubleHashSet addAll(DoubleHashSet other) {
+            long[] a = other.elements;
+            for (int i = 0, n = other.size; i < n; i++)
+                add(Double.longBitsToDouble(a[i]));
+            return this;
+        }
+
+        /**
+         * Returns the values in the order they were added.
+         */
+        double[] toArray() {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++)
+                values[i] = Double.longBitsToDouble(elements[i]);
+            return values;
+        }
+    }
 }
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Factory for instances of stateful intermediate operations that apply a
+ * {@link Gatherer} to their input stream, including those that group the
+ * elements into chunks and sliding windows.
+ *
+ * @since 1.8
+ */
+final class GatherOps {
+
+    // No instances
+    private GatherOps() { }
+
+    /**
+     * The number of output elements in the first batch split off a
+     * gathering spliterator; later batches are larger by this much.
+     */
+    private static final int BATCH_UNIT = 1 << 6;
+
+    /**
+     * The maximum number of output elements in a batch.
+     */
+    private static final int MAX_BATCH = 1 << 12;
+
+    /**
+     * The number of input elements after which a batch is ended, so that
+     * the input elements a batch holds, as in chunks or windows, are
+     * bounded.
+     */
+    private static final int MAX_BATCH_INPUT = 1 << 14;
+
+    @SuppressWarnings("unchecked")
+    private static <T> IntFunction<T[]> castingArray() {
+        return size -> (T[]) new Object[size];
+    }
+
+    /**
+     * Simple implementation class for {@code Gatherer}.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of the state
+     * @param <R> the type of output elements
+     */
+    static final class GathererImpl<T, A, R> implements Gatherer<T, A, R> {
+        private final Supplier<A> initializer;
+        private final Integrator<A, T, R> integrator;
+        private final BiConsumer<A, Consumer<? super R>> finisher;
+
+        GathererImpl(Supplier<A> initializer,
+                     Integrator<A, T, R> integrator,
+                     BiConsumer<A, Consumer<? super R>> finisher) {
+            this.initializer = initializer;
+            this.integrator = integrator;
+            this.finisher = finisher;
+        }
+
+        @Override
+        public Supplier<A> initializer() {
+            return initializer;
+        }
+
+        @Override
+        public Integrator<A, T, R> integrator() {
+            return integrator;
+        }
+
+        @Override
+        public BiConsumer<A, Consumer<? super R>> finisher() {
+            return finisher;
+        }
+    }
+
+    /**
+     * The state of a windowing gatherer: the elements of the current window.
+     */
+    private static final class Window {
+        Object[] elements;
+        int count;
+        long skip;
+
+        Window(int size) {
+            // Grow to the window size, in case the stream is short
+            elements = new Object[Math.min(size, 16)];
+        }
+    }
+
+    /**
+     * Returns a gatherer grouping the input elements into windows, as
+     * unmodifiable lists of {@code size} elements, the first of each window
+     * being {@code step} elements after that of the previous one.
+     *
+     * @param size the number of elements in a window, assumed to be > 0
+     * @param step the distance between the first elements of consecutive
+     *        windows, assumed to be > 0
+     * @param partial true if a final window of fewer than {@code size}
+     *        elements is emitted, assumed to be false if
+     *        {@code step < size}
+     */
+    static <T> Gatherer<T, ?, List<T>> windows(int size, int step, boolean partial) {
+        return new GathererImpl<T, Window, List<T>>(
+                () -> new Window(size),
+                (w, t, downstream) -> {
+                    if (w.skip > 0) {
+                        w.skip--;
+                        return true;
+                    }
+                    if (w.count == w.elements.length)
+                        w.elements = Arrays.copyOf(w.elements, Math.min(size, w.count * 2));
+                    w.elements[w.count++] = t;
+                    if (w.count == size) {
+                        if (step >= size) {
+                            // Hand over the elements, as none is in the next window
+                            downstream.accept(asList(w.elements));
+                            w.elements = new Object[size];
+                            w.count = 0;
+                            w.skip = step - size;
+                        }
+                        else {
+                            downstream.accept(asList(w.elements.clone()));
+                            System.arraycopy(w.elements, step, w.elements, 0, size - step);
+                            Arrays.fill(w.elements, size - step, size, null);
+                            w.count = size - step;
+                        }
+                    }
+                    return true;
+                },
+                (w, downstream) -> {
+                    if (partial && w.count > 0)
+                        downstream.accept(asList(Arrays.copyOf(w.elements, w.count)));
+                    w.elements = null;
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(Object[] elements) {
+        return Collections.unmodifiableList(Arrays.asList((T[]) elements));
+    }
+
+    /**
+     * Appends a gather operation to the provided stream.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of the state of the gatherer
+     * @param <R> the type of output elements
+     * @param upstream a reference stream with element type T
+     * @param gatherer the gatherer
+     * @param shortCircuit true if the gatherer may stop integrating elements
+     *        before the input stream is exhausted
+     */
+    static <T, A, R> Stream<R> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       Gatherer<? super T, A, R> gatherer,
+                                       boolean shortCircuit) {
+        Objects.requireNonNull(gatherer);
+        Supplier<A> initializer = Objects.requireNonNull(gatherer.initializer());
+        @SuppressWarnings("unchecked")
+        Gatherer.Integrator<A, T, R> integrator
+                = (Gatherer.Integrator<A, T, R>) Objects.requireNonNull(gatherer.integrator());
+        BiConsumer<A, Consumer<? super R>> finisher = Objects.requireNonNull(gatherer.finisher());
+        int flags = StreamOpFlag.NOT_SIZED | StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT;
+        if (shortCircuit)
+            flags |= StreamOpFlag.IS_SHORT_CIRCUIT;
+
+        return new ReferencePipeline.StatefulOp<T, R>(upstream, StreamShape.REFERENCE, flags) {
+            // The helpers given to the parallel evaluations are of the
+            // upstream pipeline, whose elements are of type T, not R
+            @SuppressWarnings("unchecked")
+            private PipelineHelper<T> input(PipelineHelper<R> helper) {
+                return (PipelineHelper<T>) (PipelineHelper<?>) helper;
+            }
+
+            @Override
+            <P_IN> Spliterator<R> opEvaluateParallelLazy(PipelineHelper<R> helper,
+                                                         Spliterator<P_IN> spliterator) {
+                // The elements are integrated sequentially, as they are
+                // pulled through the spliterator, which is split in batches
+                // so that the downstream stages are evaluated in parallel
+                return new GatherSpliterator<>(input(helper).wrapSpliterator(spliterator),
+                                               initializer, integrator, finisher);
+            }
+
+            @Override
+            <P_IN> Node<R> opEvaluateParallel(PipelineHelper<R> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<R[]> generator) {
+                Spliterator<T> s;
+                if (shortCircuit) {
+                    // The upstream elements are pulled lazily, since the
+                    // gatherer may not need all of them
+                    s = input(helper).wrapSpliterator(spliterator);
+                }
+                else {
+                    s = input(helper).evaluate(spliterator, true, castingArray()).spliterator();
+                }
+                Node.Builder<R> nb = Nodes.builder(-1, generator);
+                Sink<T> sink = opWrapSink(StreamOpFlag.NOT_SIZED, nb);
+                sink.begin(-1);
+                do { } while (!sink.cancellationRequested() && s.tryAdvance(sink));
+                sink.end();
+                return nb.build();
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<R> sink) {
+                return new Sink.ChainedReference<T, R>(sink) {
+                    A state;
+                    boolean done;
+
+                    @Override
+                    public void begin(long size) {
+                        state = initializer.get();
+                        done = false;
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        if (!done && !integrator.integrate(state, t, downstream))
+                            done = true;
+                    }
+
+                    @Override
+                    public void end() {
+                        finisher.accept(state, downstream);
+                        state = null;
+                        downstream.end();
+                    }
+
+                    @Override
+                    public boolean cancellationRequested() {
+                        return done || downstream.cancellationRequested();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator of the output elements of a gatherer applied to
+     * the elements of the provided spliterator, integrated as the output
+     * elements are needed.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of the state of the gatherer
+     * @param <R> the type of output elements
+     * @param input a spliterator of the input elements
+     * @param gatherer the gatherer
+     */
+    static <T, A, R> Spliterator<R> spliterator(Spliterator<T> input,
+                                                Gatherer<? super T, A, R> gatherer) {
+        Objects.requireNonNull(gatherer);
+        @SuppressWarnings("unchecked")
+        Gatherer.Integrator<A, T, R> integrator
+                = (Gatherer.Integrator<A, T, R>) Objects.requireNonNull(gatherer.integrator());
+        return new GatherSpliterator<>(input,
+                                       Objects.requireNonNull(gatherer.initializer()),
+                                       integrator,
+                                       Objects.requireNonNull(gatherer.finisher()));
+    }
+
+    /**
+     * A spliterator of the output elements of a gatherer, integrating the
+     * input elements of a spliterator as the output elements are needed.
+     * It splits by copying batches of output elements into arrays.
+     */
+    private static final class GatherSpliterator<T, A, R>
+            implements Spliterator<R>, Consumer<T> {
+        private final Spliterator<T> input;
+        private final Supplier<A> initializer;
+        private final Gatherer.Integrator<A, T, R> integrator;
+        private final BiConsumer<A, Consumer<? super R>> finisher;
+        /** Buffers the output elements */
+        private final Consumer<R> output = this::push;
+        private A state;
+        private boolean started;
+        private boolean done;
+        private boolean finished;
+        private Object[] buffer = new Object[16];
+        private int head;
+        private int tail;
+        private int batch;
+        /** The number of input elements integrated */
+        private long inputs;
+
+        GatherSpliterator(Spliterator<T> input,
+                          Supplier<A> initializer,
+                          Gatherer.Integrator<A, T, R> integrator,
+                          BiConsumer<A, Consumer<? super R>> finisher) {
+            this.input = input;
+            this.initializer = initializer;
+            this.integrator = integrator;
+            this.finisher = finisher;
+        }
+
+        private void push(R r) {
+            if (tail == buffer.length)
+                buffer = Arrays.copyOf(buffer, tail * 2);
+            buffer[tail++] = r;
+        }
+
+        @Override
+        public void accept(T t) {
+            inputs++;
+            if (!integrator.integrate(state, t, output))
+                done = true;
+        }
+
+        /**
+         * Integrates input elements until there is an output element, or
+         * there are no more; returns true if there is one.
+         */
+        private boolean fill() {
+            while (head == tail) {
+                if (finished)
+                    return false;
+                head = tail = 0;
+                if (!started) {
+                    state = initializer.get();
+                    started = true;
+                }
+                if (done || !input.tryAdvance(this)) {
+                    finished = true;
+                    finisher.accept(state, output);
+                    state = null;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private R next() {
+            R r = (R) buffer[head];
+            buffer[head++] = null;
+            return r;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            if (!fill())
+                return false;
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            while (fill())
+                action.accept(next());
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+            Object[] a = new Object[n];
+            int j = 0;
+            long end = inputs + MAX_BATCH_INPUT;
+            while (j < n && (j == 0 || inputs < end) && fill())
+                a[j++] = next();
+            if (j == 0)
+                return null;
+            batch = j;
+            return Spliterators.spliterator(a, 0, j, characteristics());
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return input.characteristics() & Spliterator.ORDERED;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A stateful intermediate operation that transforms a stream of input
+ * elements into a stream of output elements, with state that is carried
+ * from one element to the next, optionally emitting further elements once
+ * all the input elements have been processed, and optionally stopping
+ * before all the input elements have been processed.
+ *
+ * <p>Examples of such operations include grouping elements into batches of
+ * a fixed size, sliding windows, and running totals.  A gatherer is applied
+ * to a stream with {@link Stream#gather(Gatherer)}.
+ *
+ * <p>A {@code Gatherer} is specified by three functions that work together
+ * to process the elements of a stream:
+ * <ul>
+ *     <li>creation of a new state object ({@link #initializer()})</li>
+ *     <li>integrating an input element with the state, emitting zero or more
+ *     output elements ({@link #integrator()})</li>
+ *     <li>emitting any final output elements from the state
+ *     ({@link #finisher()})</li>
+ * </ul>
+ *
+ * <p>A sequential implementation of a gather operation creates a single
+ * state using the initializer function, and integrates each input element,
+ * in encounter order, with the integrator function.  If the integrator
+ * returns {@code false} no further input elements are integrated.  Then
+ * the finisher function is called with the state.  Output elements are
+ * emitted by passing them to the {@code Consumer} given to the integrator
+ * and finisher functions, and only during those calls.
+ *
+ * <p>A parallel implementation also integrates the input elements with a
+ * single state, sequentially and in encounter order, so a gatherer need
+ * not be thread-safe, nor combine states; the stages after the gather
+ * operation may be executed in parallel.
+ *
+ * @param <T> the type of input elements to the gather operation
+ * @param <A> the type of the state of the gather operation (often hidden
+ *            as an implementation detail)
+ * @param <R> the type of output elements of the gather operation
+ * @see Stream#gather(Gatherer)
+ * @since 1.8
+ */
+public interface Gatherer<T, A, R> {
+    /**
+     * A function that creates and returns a new state.
+     *
+     * @return a function which returns a new state
+     */
+    Supplier<A> initializer();
+
+    /**
+     * A function that integrates an input element with the state, emitting
+     * zero or more output elements.
+     *
+     * @return a function which integrates an input element with the state
+     */
+    Integrator<A, T, R> integrator();
+
+    /**
+     * A function that emits any final output elements from the state,
+     * once no further input elements are to be integrated.
+     *
+     * @return a function which emits the final output elements
+     */
+    BiConsumer<A, Consumer<? super R>> finisher();
+
+    /**
+     * Returns a new {@code Gatherer} described by the given
+     * {@code initializer}, {@code integrator}, and {@code finisher}
+     * functions.
+     *
+     * @param initializer The initializer function for the new gatherer
+     * @param integrator The integrator function for the new gatherer
+     * @param finisher The finisher function for the new gatherer
+     * @param <T> The type of input elements for the new gatherer
+     * @param <A> The type of the state of the new gatherer
+     * @param <R> The type of output elements for the new gatherer
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code Gatherer}
+     */
+    public static<T, A, R> Gatherer<T, A, R> of(Supplier<A> initializer,
+                                                Integrator<A, T, R> integrator,
+                                                BiConsumer<A, Consumer<? super R>> finisher) {
+        Objects.requireNonNull(initializer);
+        Objects.requireNonNull(integrator);
+        Objects.requireNonNull(finisher);
+        return new GatherOps.GathererImpl<>(initializer, integrator, finisher);
+    }
+
+    /**
+     * A function that integrates an input element with the state of a
+     * gather operation.
+     *
+     * @param <A> the type of the state
+     * @param <T> the type of input elements
+     * @param <R> the type of output elements
+     */
+    @FunctionalInterface
+    interface Integrator<A, T, R> {
+        /**
+         * Integrates the given input element with the given state, passing
+         * any output elements to the given downstream {@code Consumer}.
+         *
+         * @param state the state of the gather operation
+         * @param element the input element
+         * @param downstream the consumer of output elements
+         * @return {@code true} if further input elements are to be
+         *         integrated, or {@code false} if not
+         */
+        boolean integrate(A state, T element, Consumer<? super R> downstream);
+    }
+}
@@ -393,9 +393,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final IntStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires an int-specific map/set implementation.
-        return boxed().distinct().mapToInt(i -> i);
+        return DistinctOps.makeInt(this);
     }
 
     // Terminal ops from IntStream
@@ -501,6 +499,16 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final int[] toArray() {
+        Spliterator<?> s = sequentialSourceSpliterator();
+        if (s != null) {
+            // No operations to apply, so a range need not be traversed
+            @SuppressWarnings("unchecked")
+            Spliterator.OfInt spliterator = adapt((Spliterator<Integer>) s);
+            if (spliterator instanceof Streams.RangeIntSpliterator)
+                return ((Streams.RangeIntSpliterator) spliterator).toArray();
+            return Nodes.flattenInt((Node.OfInt) evaluate(spliterator, true, Integer[]::new))
+                    .asPrimitiveArray();
+        }
         return Nodes.flattenInt((Node.OfInt) evaluateToArrayNode(Integer[]::new))
                         .asPrimitiveArray();
     }
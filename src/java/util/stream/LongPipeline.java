@@ -374,9 +374,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final LongStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a long-specific map/set implementation.
-        return boxed().distinct().mapToLong(i -> (long) i);
+        return DistinctOps.makeLong(this);
     }
 
     // Terminal ops from LongStream
@@ -483,6 +481,16 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final long[] toArray() {
+        Spliterator<?> s = sequentialSourceSpliterator();
+        if (s != null) {
+            // No operations to apply, so a range need not be traversed
+            @SuppressWarnings("unchecked")
+            Spliterator.OfLong spliterator = adapt((Spliterator<Long>) s);
+            if (spliterator instanceof Streams.RangeLongSpliterator)
+                return ((Streams.RangeLongSpliterator) spliterator).toArray();
+            return Nodes.flattenLong((Node.OfLong) evaluate(spliterator, true, Long[]::new))
+                    .asPrimitiveArray();
+        }
         return Nodes.flattenLong((Node.OfLong) evaluateToArrayNode(Long[]::new))
                 .asPrimitiveArray();
     }
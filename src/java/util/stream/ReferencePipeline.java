@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -159,42 +160,16 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @Override
     public final Stream<P_OUT> filter(Predicate<? super P_OUT> predicate) {
         Objects.requireNonNull(predicate);
-        return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SIZED) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
-                return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
-                    @Override
-                    public void begin(long size) {
-                        downstream.begin(-1);
-                    }
-
-                    @Override
-                    public void accept(P_OUT u) {
-                        if (predicate.test(u))
-                            downstream.accept(u);
-                    }
-                };
-            }
-        };
+        return new FusibleOp<P_OUT, P_OUT>(this, StreamOpFlag.NOT_SIZED,
+                                           "filter", null, predicate);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public final <R> Stream<R> map(Function<? super P_OUT, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
-        return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
-                return new Sink.ChainedReference<P_OUT, R>(sink) {
-                    @Override
-                    public void accept(P_OUT u) {
-                        downstream.accept(mapper.apply(u));
-                    }
-                };
-            }
-        };
+        return new FusibleOp<P_OUT, R>(this, StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT,
+                                       "map", mapper, null);
     }
 
     @Override
@@ -411,6 +386,27 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             return SliceOps.makeRef(this, n, -1);
     }
 
+    @Override
+    public final <R> Stream<R> gather(Gatherer<? super P_OUT, ?, R> gatherer) {
+        return GatherOps.makeRef(this, gatherer, true);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> chunked(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return GatherOps.makeRef(this, GatherOps.windows(size, size, true), false);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowed(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        return GatherOps.makeRef(this, GatherOps.windows(size, step, false), false);
+    }
+
     // Terminal operations from Stream
 
     @Override
@@ -491,6 +487,14 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         if (isParallel()
                 && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
                 && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            if (collector instanceof Collectors.ConcurrentCollectorImpl
+                    && StreamOpFlag.SIZED.isKnown(getStreamAndOpFlags())) {
+                // A sized stream splits into a bounded number of leaf tasks,
+                // so collecting into one container per leaf, then merging
+                // them, avoids contention on a shared container for little
+                // merge work
+                return collect(((Collectors.ConcurrentCollectorImpl<? super P_OUT, A, R>) collector).leafwise());
+            }
             container = collector.supplier().get();
             BiConsumer<A, ? super P_OUT> accumulator = collector.accumulator();
             forEach(u -> accumulator.accept(container, u));
@@ -625,6 +629,113 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         }
     }
 
+    /**
+     * A {@code map} or {@code filter} stage of a Stream.  The sinks of a run
+     * of adjacent such stages are fused by {@link AbstractPipeline#wrapSink}
+     * into one sink, which applies their functions in turn, rather than
+     * each passing elements to the next through a call to
+     * {@link Sink#accept}.
+     *
+     * @param <E_IN> type of elements in the upstream source
+     * @param <E_OUT> type of elements in produced by this stage
+     * @since 1.8
+     */
+    static final class FusibleOp<E_IN, E_OUT> extends StatelessOp<E_IN, E_OUT> {
+        /** The name of the operation */
+        final String opName;
+        /** The mapping function of a map stage, or null */
+        final Function<? super E_IN, ? extends E_OUT> mapper;
+        /** The predicate of a filter stage, or null */
+        final Predicate<? super E_IN> predicate;
+
+        FusibleOp(AbstractPipeline<?, E_IN, ?> upstream,
+                  int opFlags,
+                  String opName,
+                  Function<? super E_IN, ? extends E_OUT> mapper,
+                  Predicate<? super E_IN> predicate) {
+            super(upstream, StreamShape.REFERENCE, opFlags);
+            this.opName = opName;
+            this.mapper = mapper;
+            this.predicate = predicate;
+        }
+
+        @Override
+        Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink) {
+            if (mapper != null) {
+                return new Sink.ChainedReference<E_IN, E_OUT>(sink) {
+                    @Override
+                    public void accept(E_IN u) {
+                        downstream.accept(mapper.apply(u));
+                    }
+                };
+            }
+            else {
+                return new Sink.ChainedReference<E_IN, E_OUT>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void accept(E_IN u) {
+                        if (predicate.test(u))
+                            downstream.accept((E_OUT) u);
+                    }
+                };
+            }
+        }
+
+        /**
+         * Returns one sink applying the functions of a run of stages, in
+         * order, to the elements it receives, and passing the results on to
+         * the given sink.
+         *
+         * @param run the stages, from first to last
+         * @param sink the sink receiving the output of the last stage
+         * @return a sink receiving the input of the first stage
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        static Sink wrapFused(FusibleOp<?, ?>[] run, Sink sink) {
+            boolean sized = true;
+            for (FusibleOp<?, ?> op : run)
+                sized &= (op.mapper != null);
+            return new FusedSink(run, sized, sink);
+        }
+    }
+
+    /**
+     * The sink of a run of fused map and filter stages.
+     */
+    private static final class FusedSink<T> extends Sink.ChainedReference<T, Object> {
+        private final FusibleOp<Object, Object>[] run;
+        private final boolean sized;
+
+        @SuppressWarnings("unchecked")
+        FusedSink(FusibleOp<?, ?>[] run, boolean sized, Sink<? super Object> downstream) {
+            super(downstream);
+            this.run = (FusibleOp<Object, Object>[]) run;
+            this.sized = sized;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(sized ? size : -1);
+        }
+
+        @Override
+        public void accept(T t) {
+            Object u = t;
+            for (FusibleOp<Object, Object> op : run) {
+                if (op.mapper != null)
+                    u = op.mapper.apply(u);
+                else if (!op.predicate.test(u))
+                    return;
+            }
+            downstream.accept(u);
+        }
+    }
+
     /**
      * Base class for a stateful intermediate stage of a Stream.
      *
@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -478,6 +479,110 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> skip(long n);
 
+    /**
+     * Returns a stream consisting of the results of applying the given
+     * {@code Gatherer} to the elements of this stream.  The elements are
+     * integrated, in encounter order, with a single state of the gatherer;
+     * the output elements are those the gatherer emits, in the order it
+     * emits them.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">short-circuiting
+     * stateful intermediate operation</a>.  Elements are pulled from this
+     * stream only as the output elements are needed, so a gather operation
+     * may be applied to an infinite stream.
+     *
+     * @apiNote
+     * In a parallel pipeline the elements of this stream are integrated
+     * sequentially, so a gather operation can limit the parallelism of the
+     * stages before it; those after it may still be executed in parallel.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps it in a spliterator that integrates its elements
+     * as the output elements are traversed, and returns a new stream of the
+     * wrapped spliterator.  The returned stream preserves the execution
+     * characteristics of this stream (namely parallel or sequential execution
+     * as per {@link #isParallel()}).  When the returned stream is closed, the
+     * close handlers for both the returned and this stream are invoked.
+     *
+     * @param <R> The element type of the new stream
+     * @param gatherer the gatherer to apply to the elements of this stream
+     * @return the new stream
+     * @throws NullPointerException if the gatherer or any of its functions
+     *         is null
+     */
+    default <R> Stream<R> gather(Gatherer<? super T, ?, R> gatherer) {
+        return StreamSupport.stream(GatherOps.spliterator(spliterator(), gatherer),
+                                    isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped,
+     * in encounter order, into unmodifiable lists of {@code size} elements,
+     * except the last, which has the remaining elements if there are fewer.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each list is emitted as soon as it is
+     * complete, so that at most {@code size} elements of this stream are
+     * held at a time, and it may be applied to an infinite stream.
+     *
+     * @apiNote
+     * This method batches the elements of a stream for processing in bulk,
+     * without collecting them first:
+     * <pre>{@code
+     *     Files.lines(path)
+     *          .map(Row::parse)
+     *          .chunked(1000)
+     *          .forEach(rows -> insert(rows));
+     * }</pre>
+     *
+     * @implSpec
+     * The default implementation applies, with {@link #gather(Gatherer)}, a
+     * gatherer that emits the lists.
+     *
+     * @param size the number of elements in each list
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    default Stream<List<T>> chunked(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return gather(GatherOps.windows(size, size, true));
+    }
+
+    /**
+     * Returns a stream consisting of the windows of {@code size} consecutive
+     * elements of this stream, as unmodifiable lists, the first of each
+     * window being {@code step} elements after the first of the previous
+     * one.  Only complete windows are emitted.
+     *
+     * <p>If {@code step} is less than {@code size} the windows slide, each
+     * sharing {@code size - step} elements with the previous one; if it is
+     * greater, the elements between the windows are discarded.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each window is emitted as soon as it is
+     * complete, so that at most {@code size} elements of this stream are
+     * held at a time, and it may be applied to an infinite stream.
+     *
+     * @implSpec
+     * The default implementation applies, with {@link #gather(Gatherer)}, a
+     * gatherer that emits the windows.
+     *
+     * @param size the number of elements in each window
+     * @param step the number of elements by which each window moves
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     */
+    default Stream<List<T>> windowed(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        return gather(GatherOps.windows(size, step, false));
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
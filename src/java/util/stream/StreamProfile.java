@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A profile of the evaluation of a stream pipeline: the number of elements
+ * each stage of the pipeline received, and estimates of the time spent, and
+ * of the heap memory allocated, in each stage.
+ *
+ * <p>Profiles are produced for pipelines whose profiling was requested with
+ * {@link BaseStream#profile(java.util.function.Consumer)}, or when the
+ * profiling of all pipelines is enabled through the
+ * {@link java.lang.management.StreamProfilingMXBean}.
+ *
+ * <p>Each intermediate operation is a stage, and the terminal operation is
+ * the last stage.  A stage receives elements through a
+ * {@link Sink}-like chain, each stage passing the elements it produces to
+ * the next, so the time and allocation of a stage are estimated as those
+ * spent from the time it receives an element until the next stage returns,
+ * minus those of the next stage.  They are measured for a sample of the
+ * elements, and scaled to all the elements the stage received.  Operations
+ * that are evaluated by a barrier in a parallel pipeline, such as
+ * {@code sorted()}, may receive their elements other than through the
+ * chain, in which case they are not counted.  The profile of a pipeline
+ * that is traversed by its {@code iterator()} or {@code spliterator()} is
+ * not recorded.
+ *
+ * @apiNote
+ * Profiling slows the pipeline, and the estimates include some of the
+ * overhead of measuring them; they are meant to compare the stages of a
+ * pipeline, not to time it.
+ *
+ * @since 1.8
+ */
+public final class StreamProfile {
+
+    /**
+     * The profile of one stage of a stream pipeline.
+     *
+     * @since 1.8
+     */
+    public static final class Stage {
+        private final String name;
+        private final long elementCount;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        Stage(String name, long elementCount, long nanos, long allocatedBytes) {
+            this.name = name;
+            this.elementCount = elementCount;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Returns a name describing the operation of this stage, such as
+         * {@code "map"}, or {@code "SortedOps.OfRef"}.
+         *
+         * @return the name of the operation of this stage
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of elements this stage received.
+         *
+         * @return the number of elements this stage received
+         */
+        public long getElementCount() {
+            return elementCount;
+        }
+
+        /**
+         * Returns an estimate of the time spent in this stage, excluding
+         * the following stages.
+         *
+         * @return an estimate of the time spent in this stage in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns an estimate of the heap memory allocated by this stage,
+         * excluding the following stages.
+         *
+         * @return an estimate of the memory allocated in this stage in
+         *         bytes, or {@code -1L} if the Java virtual machine does not
+         *         support the measurement of thread memory allocation
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Returns a string describing this stage profile, of its name, count
+         * of elements, time, and allocation.
+         *
+         * @return a string representation of this stage profile
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %d elements, %d us, %d bytes",
+                                 name, elementCount, nanos / 1000, allocatedBytes);
+        }
+    }
+
+    private final List<Stage> stages;
+    private final boolean parallel;
+    private final long elapsedNanos;
+
+    StreamProfile(List<Stage> stages, boolean parallel, long elapsedNanos) {
+        this.stages = Collections.unmodifiableList(Objects.requireNonNull(stages));
+        this.parallel = parallel;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the profiles of the stages of the pipeline, in order from the
+     * first intermediate operation to the terminal operation.
+     *
+     * @return an unmodifiable list of the stage profiles
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * Returns whether the pipeline was evaluated in parallel.
+     *
+     * @return {@code true} if the pipeline was evaluated in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Returns the time taken by the terminal operation, from its start until
+     * it produced its result, including the overhead of profiling.
+     *
+     * @return the elapsed time of the terminal operation in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns a string describing this profile, with one line for each
+     * stage.
+     *
+     * @return a string representation of this profile
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(parallel ? "parallel" : "sequential")
+          .append(" pipeline, ").append(elapsedNanos / 1000).append(" us");
+        for (Stage s : stages)
+            sb.append(System.lineSeparator()).append("  ").append(s);
+        return sb.toString();
+    }
+}
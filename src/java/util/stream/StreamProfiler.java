@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ManagementPermission;
+import java.lang.management.StreamProfilingMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.management.ObjectName;
+
+/**
+ * Support for the profiling of stream pipelines, and the implementation of
+ * the {@link StreamProfilingMXBean}.
+ *
+ * <p>When the terminal operation of a profiled pipeline starts, a
+ * {@link Recorder} gives each stage a {@link Counters}, and
+ * {@link AbstractPipeline#wrapSink} wraps the sink of each stage, and of the
+ * terminal operation, in a sink that counts the elements it receives.  For
+ * one in every {@link #SAMPLE_INTERVAL} elements it also measures the time,
+ * and the memory allocated by the current thread, until the wrapped sink
+ * returns, which includes the following stages.  The end of each sink is
+ * measured too, being where a barrier stage such as {@code sorted} does its
+ * work and pushes its elements to the following stages.  The counts and
+ * measures of each sink are added to the stage's counters when the sink
+ * ends.  When the
+ * terminal operation completes the recorder builds a {@link StreamProfile},
+ * subtracting the measures of each stage from those of the stage before it.
+ *
+ * @since 1.8
+ */
+final class StreamProfiler implements StreamProfilingMXBean {
+    private static final String PROFILE_PROPERTY = "java.util.stream.profile";
+
+    /** The number of elements received for each one measured. */
+    static final int SAMPLE_INTERVAL = 64;
+
+    /** The number of recent profiles kept for the MXBean. */
+    private static final int RECENT_PROFILES = 16;
+
+    /** The singleton, which is the MXBean. */
+    static final StreamProfiler INSTANCE = new StreamProfiler();
+
+    /** Are all pipelines profiled? */
+    private static volatile boolean enabled = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(PROFILE_PROPERTY));
+
+    private final AtomicLong pipelineCount = new AtomicLong();
+    private final ArrayDeque<StreamProfile> recent = new ArrayDeque<>(RECENT_PROFILES);
+
+    private StreamProfiler() { }
+
+    /**
+     * Returns true if all pipelines are profiled.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    private void record(StreamProfile profile) {
+        pipelineCount.incrementAndGet();
+        synchronized (recent) {
+            if (recent.size() == RECENT_PROFILES)
+                recent.pollFirst();
+            recent.addLast(profile);
+        }
+    }
+
+    // StreamProfilingMXBean
+
+    @Override
+    public ObjectName getObjectName() {
+        return sun.management.Util.newObjectName("java.util.stream:type=StreamProfiling");
+    }
+
+    @Override
+    public boolean isProfilingEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setProfilingEnabled(boolean enable) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null)
+            sm.checkPermission(new ManagementPermission("control"));
+        enabled = enable;
+    }
+
+    @Override
+    public long getProfiledPipelineCount() {
+        return pipelineCount.get();
+    }
+
+    @Override
+    public List<String> getRecentProfiles() {
+        List<String> profiles = new ArrayList<>(RECENT_PROFILES);
+        synchronized (recent) {
+            for (StreamProfile p : recent)
+                profiles.add(p.toString());
+        }
+        return profiles;
+    }
+
+    // Measurement
+
+    /**
+     * Holder of the ThreadMXBean measuring allocation, or null if that is
+     * not supported, initialized on first use.
+     */
+    private static final class Allocation {
+        static final com.sun.management.ThreadMXBean THREADS
+                = AccessController.doPrivileged(
+                        (PrivilegedAction<com.sun.management.ThreadMXBean>) () -> {
+                            ThreadMXBean t = ManagementFactory.getThreadMXBean();
+                            if (t instanceof com.sun.management.ThreadMXBean) {
+                                com.sun.management.ThreadMXBean s = (com.sun.management.ThreadMXBean) t;
+                                if (s.isThreadAllocatedMemorySupported()
+                                    && s.isThreadAllocatedMemoryEnabled())
+                                    return s;
+                            }
+                            return null;
+                        });
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread, or 0 if that
+     * cannot be measured.
+     */
+    static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = Allocation.THREADS;
+        return (threads == null) ? 0L
+               : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Returns a name for the operation of a pipeline stage, or a terminal
+     * operation, from its class: the name of the method that creates an
+     * anonymous class, qualified by its class unless that is a pipeline
+     * class, or else the class name, qualified by those of the classes
+     * enclosing it.
+     */
+    static String nameOf(Object op) {
+        if (op instanceof ReferencePipeline.FusibleOp)
+            return ((ReferencePipeline.FusibleOp<?, ?>) op).opName;
+        Class<?> c = op.getClass();
+        return AccessController.doPrivileged((PrivilegedAction<String>) () -> {
+            Method m = c.getEnclosingMethod();
+            if (m != null) {
+                String owner = m.getDeclaringClass().getSimpleName();
+                return owner.endsWith("Pipeline") ? m.getName() : owner + "." + m.getName();
+            }
+            StringBuilder sb = new StringBuilder(c.getSimpleName());
+            for (Class<?> e = c.getEnclosingClass(); e != null; e = e.getEnclosingClass())
+                sb.insert(0, '.').insert(0, e.getSimpleName());
+            return sb.toString();
+        });
+    }
+
+    /**
+     * The counts and measures of a stage, summed over its sinks.  The first
+     * element received by a sink is measured exactly, since it is the one
+     * that links and loads the code of the following stages, as is the end
+     * of the sink; the measures of the rest are estimated from a sample of
+     * them.
+     */
+    static final class Counters {
+        final String name;
+        private long count;
+        private long firstNanos;
+        private long firstBytes;
+        private long rest;
+        private long sampled;
+        private long nanos;
+        private long bytes;
+        private long endNanos;
+        private long endBytes;
+
+        Counters(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(long count, long firstNanos, long firstBytes,
+                              long sampled, long nanos, long bytes,
+                              long endNanos, long endBytes) {
+            this.endNanos += endNanos;
+            this.endBytes += endBytes;
+            if (count == 0)
+                return;
+            this.count += count;
+            this.firstNanos += firstNanos;
+            this.firstBytes += firstBytes;
+            this.rest += count - 1;
+            this.sampled += sampled;
+            this.nanos += nanos;
+            this.bytes += bytes;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        /** The estimated time including the following stages. */
+        synchronized long totalNanos() {
+            return firstNanos + endNanos
+                   + ((sampled == 0) ? 0L : (long) ((double) nanos * rest / sampled));
+        }
+
+        /** The estimated allocation including the following stages. */
+        synchronized long totalBytes() {
+            return firstBytes + endBytes
+                   + ((sampled == 0) ? 0L : (long) ((double) bytes * rest / sampled));
+        }
+    }
+
+    /**
+     * Records the profile of a pipeline.  One is held by the source stage
+     * of a profiled pipeline.
+     */
+    static final class Recorder {
+        private final List<Consumer<? super StreamProfile>> listeners = new ArrayList<>(1);
+        private final ArrayList<Counters> stages = new ArrayList<>();
+        private Counters terminal;
+        private boolean parallel;
+        private long start;
+
+        void addListener(Consumer<? super StreamProfile> listener) {
+            listeners.add(listener);
+        }
+
+        /**
+         * Starts recording the evaluation of the pipeline by a terminal
+         * operation; then counters are added for its stages, last first.
+         */
+        void start(boolean parallel, String terminalName) {
+            this.parallel = parallel;
+            stages.clear();
+            terminal = new Counters(terminalName);
+            start = System.nanoTime();
+        }
+
+        /**
+         * Returns new counters for the stage before those already added.
+         */
+        Counters addStage(String name) {
+            Counters c = new Counters(name);
+            stages.add(0, c);
+            return c;
+        }
+
+        /**
+         * Returns the counters of the terminal operation, or null if the
+         * pipeline is not being evaluated by one.
+         */
+        Counters terminal() {
+            return terminal;
+        }
+
+        /**
+         * Completes the profile, and publishes it to the listeners and the
+         * MXBean.
+         */
+        void finish() {
+            long elapsed = System.nanoTime() - start;
+            boolean allocation = Allocation.THREADS != null;
+            stages.add(terminal);
+            int n = stages.size();
+            long[] nanos = new long[n], bytes = new long[n];
+            long sum = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                Counters c = stages.get(i);
+                nanos[i] = c.totalNanos();
+                bytes[i] = c.totalBytes();
+                if (i + 1 < n) {
+                    Counters next = stages.get(i + 1);
+                    nanos[i] = Math.max(0L, nanos[i] - next.totalNanos());
+                    bytes[i] = Math.max(0L, bytes[i] - next.totalBytes());
+                }
+                sum += nanos[i];
+            }
+            // The estimates of a sequential evaluation are scaled down if
+            // need be so their sum does not exceed the time it took
+            double scale = (!parallel && sum > elapsed) ? (double) elapsed / sum : 1.0;
+            List<StreamProfile.Stage> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                result.add(new StreamProfile.Stage(stages.get(i).name, stages.get(i).count(),
+                                                   (long) (nanos[i] * scale),
+                                                   allocation ? bytes[i] : -1L));
+            stages.clear();
+            terminal = null;
+            StreamProfile profile = new StreamProfile(result, parallel, elapsed);
+            INSTANCE.record(profile);
+            for (Consumer<? super StreamProfile> listener : listeners)
+                listener.accept(profile);
+        }
+    }
+
+    // Sinks
+
+    /**
+     * Wraps a sink receiving elements of the given shape in a profiling
+     * sink adding to the given counters.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Sink<T> wrap(StreamShape shape, Sink<T> sink, Counters counters) {
+        switch (shape) {
+            case INT_VALUE:
+                if (sink instanceof Sink.OfInt)
+                    return (Sink<T>) new OfInt((Sink.OfInt) sink, counters);
+                break;
+            case LONG_VALUE:
+                if (sink instanceof Sink.OfLong)
+                    return (Sink<T>) new OfLong((Sink.OfLong) sink, counters);
+                break;
+            case DOUBLE_VALUE:
+                if (sink instanceof Sink.OfDouble)
+                    return (Sink<T>) new OfDouble((Sink.OfDouble) sink, counters);
+                break;
+            default:
+        }
+        return new OfRef<>(sink, counters);
+    }
+
+    /**
+     * Base of the profiling sinks, which count their elements and measure
+     * a sample of them.
+     */
+    private abstract static class ProfilingSink<T> implements Sink<T> {
+        private final Sink<?> sink;
+        private final Counters counters;
+        private long count;
+        private long firstNanos;
+        private long firstBytes;
+        private long sampled;
+        private long nanos;
+        private long bytes;
+        private long maxNanos;
+        private long startNanos;
+        private long startBytes;
+
+        ProfilingSink(Sink<?> sink, Counters counters) {
+            this.sink = sink;
+            this.counters = counters;
+        }
+
+        /**
+         * Counts an element, returning true if it is to be measured, having
+         * started measuring.
+         */
+        final boolean startSample() {
+            if (count++ % SAMPLE_INTERVAL != 0)
+                return false;
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+            return true;
+        }
+
+        final void endSample() {
+            long n = System.nanoTime() - startNanos;
+            long b = allocatedBytes() - startBytes;
+            if (count == 1) {
+                firstNanos = n;
+                firstBytes = b;
+            }
+            else {
+                nanos += n;
+                bytes += b;
+                sampled++;
+                if (n > maxNanos)
+                    maxNanos = n;
+            }
+        }
+
+        @Override
+        public void begin(long size) {
+            sink.begin(size);
+        }
+
+        @Override
+        public void end() {
+            long b = allocatedBytes();
+            long t = System.nanoTime();
+            sink.end();
+            long endNanos = System.nanoTime() - t;
+            long endBytes = allocatedBytes() - b;
+            // The longest sample is dropped, being likely to include a pause
+            // of the thread rather than the work of the stages
+            if (sampled > 1) {
+                nanos -= maxNanos;
+                sampled--;
+            }
+            counters.add(count, firstNanos, firstBytes, sampled, nanos, bytes,
+                         endNanos, endBytes);
+            count = firstNanos = firstBytes = sampled = nanos = bytes = maxNanos = 0;
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return sink.cancellationRequested();
+        }
+    }
+
+    private static final class OfRef<T> extends ProfilingSink<T> {
+        private final Sink<T> sink;
+
+        OfRef(Sink<T> sink, Counters counters) {
+            super(sink, counters);
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(T t) {
+            if (startSample()) {
+                sink.accept(t);
+                endSample();
+            }
+            else
+                sink.accept(t);
+        }
+    }
+
+    private static final class OfInt extends ProfilingSink<Integer> implements Sink.OfInt {
+        private final Sink.OfInt sink;
+
+        OfInt(Sink.OfInt sink, Counters counters) {
+            super(sink, counters);
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(int t) {
+            if (startSample()) {
+                sink.accept(t);
+                endSample();
+            }
+            else
+                sink.accept(t);
+        }
+    }
+
+    private static final class OfLong extends ProfilingSink<Long> implements Sink.OfLong {
+        private final Sink.OfLong sink;
+
+        OfLong(Sink.OfLong sink, Counters counters) {
+            super(sink, counters);
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(long t) {
+            if (startSample()) {
+                sink.accept(t);
+                endSample();
+            }
+            else
+                sink.accept(t);
+        }
+    }
+
+    private static final class OfDouble extends ProfilingSink<Double> implements Sink.OfDouble {
+        private final Sink.OfDouble sink;
+
+        OfDouble(Sink.OfDouble sink, Counters counters) {
+            super(sink, counters);
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(double t) {
+            if (startSample()) {
+                sink.accept(t);
+                endSample();
+            }
+            else
+                sink.accept(t);
+        }
+    }
+}
@@ -24,6 +24,7 @@
  */
 package java.util.stream;
 
+import java.lang.management.StreamProfilingMXBean;
 import java.util.Objects;
 import java.util.Spliterator;
 import java.util.function.Supplier;
@@ -315,4 +316,18 @@ public final class StreamSupport {
                                          StreamOpFlag.fromCharacteristics(characteristics),
                                          parallel);
     }
+
+    /**
+     * Returns the management interface for the profiling of stream
+     * pipelines.  It is also registered in the platform
+     * {@link javax.management.MBeanServer MBeanServer}, and can be obtained
+     * with {@link java.lang.management.ManagementFactory#getPlatformMXBean(Class)
+     * ManagementFactory.getPlatformMXBean}.
+     *
+     * @return the {@code StreamProfilingMXBean}
+     * @see BaseStream#profile(java.util.function.Consumer)
+     */
+    public static StreamProfilingMXBean getProfilingMXBean() {
+        return StreamProfiler.INSTANCE;
+    }
 }
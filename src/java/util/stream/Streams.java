@@ -115,6 +115,24 @@ final class Streams {
             }
         }
 
+        /**
+         * Returns the remaining elements in a new array, consuming them.
+         *
+         * @throws IllegalArgumentException if there are too many to fit
+         */
+        int[] toArray() {
+            long size = estimateSize();
+            if (size >= Nodes.MAX_ARRAY_SIZE)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            int[] array = new int[(int) size];
+            int i = from;
+            for (int j = 0; j < array.length; j++)
+                array[j] = i++;
+            from = upTo;
+            last = 0;
+            return array;
+        }
+
         @Override
         public long estimateSize() {
             // Ensure ranges of size > Integer.MAX_VALUE report the correct size
@@ -240,6 +258,24 @@ final class Streams {
             }
         }
 
+        /**
+         * Returns the remaining elements in a new array, consuming them.
+         *
+         * @throws IllegalArgumentException if there are too many to fit
+         */
+        long[] toArray() {
+            long size = estimateSize();
+            if (size < 0 || size >= Nodes.MAX_ARRAY_SIZE) // may overflow
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            long[] array = new long[(int) size];
+            long i = from;
+            for (int j = 0; j < array.length; j++)
+                array[j] = i++;
+            from = upTo;
+            last = 0;
+            return array;
+        }
+
         @Override
         public long estimateSize() {
             return upTo - from + last;